@@ -0,0 +1,150 @@
+package icu.match.bench;
+
+import icu.match.common.OrderSide;
+import icu.match.common.OrderTif;
+import icu.match.common.OrderType;
+import icu.match.common.SymbolConstant;
+import icu.match.core.ColdOrderBuffer;
+import icu.match.core.OrderNodePoolFixed;
+import icu.match.core.RingOrderBuffer;
+import icu.match.core.SimpleOrderBook;
+import icu.match.core.model.OrderInfo;
+
+/**
+ * 基准用合成订单簿。
+ * <p>以 {@link #MID} 为中心：买盘占据 MID-1 向下 depth 档，卖盘占据 MID+1 向上 depth 档，每档 ordersPerLevel 笔、每笔 {@link #QTY}。</p>
+ * <p>热区长度取 2*depth+1 向上对齐的 2 的幂，并让 MID 落在窗口正中，保证初始状态下 RecenterManager 不会触发迁移；
+ * 窗口外两侧再各放 coldDepth 档冷区挂单，用于迁移类基准。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class BookFixture {
+
+	public static final int SYMBOL = SymbolConstant.BTCUSDT.getSymbolId();
+
+	public static final long MID = 1_000_000L;
+
+	public static final long STEP = 1L;
+
+	public static final long QTY = 10L;
+
+	public final RingOrderBuffer ring;
+
+	public final ColdOrderBuffer cold;
+
+	public final SimpleOrderBook book;
+
+	public final int depth;
+
+	public final int ordersPerLevel;
+
+	/**
+	 * 簿内所有挂单（热区 + 冷区）的 orderId / price / side，下标一一对应
+	 */
+	public final long[] restingIds;
+
+	public final long[] restingPrices;
+
+	public final byte[] restingSides;
+
+	/**
+	 * 复用的下单参数对象
+	 */
+	private final OrderInfo orderInfo = new OrderInfo();
+
+	private long nextOrderId = 1;
+
+	private BookFixture(int depth, int ordersPerLevel, int coldDepth) {
+		if (depth <= 0 || ordersPerLevel <= 0 || coldDepth < 0) {
+			throw new IllegalArgumentException("depth/ordersPerLevel must be > 0, coldDepth must be >= 0");
+		}
+		this.depth = depth;
+		this.ordersPerLevel = ordersPerLevel;
+
+		int slots = ceilPow2(2 * depth + 1);
+		long low = MID - (long) (slots / 2) * STEP;
+		long high = low + (long) (slots - 1) * STEP;
+		this.ring = new RingOrderBuffer(SYMBOL, STEP, low, high);
+		this.cold = new ColdOrderBuffer();
+		this.book = new SimpleOrderBook(ring, cold);
+
+		int total = 2 * (depth + coldDepth) * ordersPerLevel;
+		this.restingIds = new long[total];
+		this.restingPrices = new long[total];
+		this.restingSides = new byte[total];
+
+		int k = 0;
+		for (int lvl = 1; lvl <= depth; lvl++) {
+			k = fillLevel(k, MID - lvl * STEP, OrderSide.BID.code);
+			k = fillLevel(k, MID + lvl * STEP, OrderSide.ASK.code);
+		}
+		for (int lvl = 1; lvl <= coldDepth; lvl++) {
+			k = fillLevel(k, low - lvl * STEP, OrderSide.BID.code);
+			k = fillLevel(k, high + lvl * STEP, OrderSide.ASK.code);
+		}
+	}
+
+	public static BookFixture build(int depth, int ordersPerLevel) {
+		return new BookFixture(depth, ordersPerLevel, 0);
+	}
+
+	public static BookFixture build(int depth, int ordersPerLevel, int coldDepth) {
+		return new BookFixture(depth, ordersPerLevel, coldDepth);
+	}
+
+	/**
+	 * 构造偏斜状态：热区仅 low+1 档有买单，窗口下方连续 coldDepth 档冷区买单
+	 */
+	static void seed(RingOrderBuffer ring, ColdOrderBuffer cold, long low, int coldDepth, int ordersPerLevel) {
+		OrderNodePoolFixed pool = new OrderNodePoolFixed((coldDepth + 1) * ordersPerLevel);
+		long orderId = 1;
+		for (int i = 0; i < ordersPerLevel; i++, orderId++) {
+			ring.submit(low + STEP, pool.alloc(orderId, orderId, false, QTY));
+		}
+		for (int lvl = 1; lvl <= coldDepth; lvl++) {
+			for (int i = 0; i < ordersPerLevel; i++, orderId++) {
+				cold.submit(low - lvl * STEP, pool.alloc(orderId, orderId, false, QTY));
+			}
+		}
+	}
+
+	static int ceilPow2(int n) {
+		int x = 1;
+		while (x < n) {
+			x <<= 1;
+		}
+		return x;
+	}
+
+	private int fillLevel(int k, long price, byte side) {
+		for (int i = 0; i < ordersPerLevel; i++) {
+			long orderId = nextOrderId();
+			submit(orderId, side, price, QTY);
+			restingIds[k] = orderId;
+			restingPrices[k] = price;
+			restingSides[k] = side;
+			k++;
+		}
+		return k;
+	}
+
+	public long nextOrderId() {
+		return nextOrderId++;
+	}
+
+	/**
+	 * 以 GTC 限价单直接挂入订单簿（不经撮合）
+	 */
+	public void submit(long orderId, byte side, long price, long qty) {
+		orderInfo.setUserId(orderId);
+		orderInfo.setOrderId(orderId);
+		orderInfo.setSymbol(SYMBOL);
+		orderInfo.setSide(side);
+		orderInfo.setType(OrderType.LIMIT.code);
+		orderInfo.setTif(OrderTif.GTC.code);
+		orderInfo.setPrice(price);
+		orderInfo.setQty(qty);
+		book.submit(orderInfo);
+	}
+}
@@ -0,0 +1,139 @@
+package icu.match.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import icu.match.common.OrderSide;
+import icu.match.common.OrderStorage;
+import icu.match.common.OrderTif;
+import icu.match.common.OrderType;
+import icu.match.core.ColdOrderBuffer;
+import icu.match.core.RingOrderBuffer;
+import icu.match.core.SimpleOrderBook;
+import icu.match.core.interfaces.BaseOrderBook;
+import icu.match.core.model.OrderInfo;
+import icu.match.core.slab.DirectOrderSlab;
+import icu.match.core.slab.HeapOrderSlab;
+import icu.match.core.slab.SlabOrderBook;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 深度簿下三种挂单存储的 GC 对比（NODE 对象节点 / HEAP 列式数组 / DIRECT 堆外）。
+ * <ul>
+ *   <li>churn：常驻 restingOrders 笔挂单的前提下随机挂单 + 撤单，配合 {@code -prof gc} 看分配率与 GC 次数/耗时。</li>
+ *   <li>fullGc：单次 System.gc() 的耗时，近似"追踪整个存活集"的代价，直接反映挂单对象数量对停顿的影响。</li>
+ * </ul>
+ * 建议同时打开 GC 日志：{@code -Djmh.args="DeepBookGcBenchmark -prof gc -jvmArgsAppend -Xlog:gc"}
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DeepBookGcBenchmark {
+
+	@Param({"NODE", "HEAP", "DIRECT"})
+	private OrderStorage storage;
+
+	@Param({"1000000"})
+	private int restingOrders;
+
+	/**
+	 * 单侧价位档数
+	 */
+	@Param({"4096"})
+	private int levels;
+
+	private BaseOrderBook book;
+
+	private final OrderInfo orderInfo = new OrderInfo();
+
+	private long nextOrderId = 1;
+
+	private long seed = 0x9E3779B97F4A7C15L;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		switch (storage) {
+			case HEAP:
+				book = new SlabOrderBook(BookFixture.SYMBOL, new HeapOrderSlab(restingOrders * 2));
+				break;
+			case DIRECT:
+				book = new SlabOrderBook(BookFixture.SYMBOL, new DirectOrderSlab(restingOrders * 2));
+				break;
+			default:
+				int slots = BookFixture.ceilPow2(2 * levels + 1);
+				long low = BookFixture.MID - (long) (slots / 2) * BookFixture.STEP;
+				long high = low + (long) (slots - 1) * BookFixture.STEP;
+				book = new SimpleOrderBook(new RingOrderBuffer(BookFixture.SYMBOL, BookFixture.STEP, low, high),
+										   new ColdOrderBuffer());
+		}
+		for (int i = 0; i < restingOrders; i++) {
+			boolean ask = (i & 1) == 1;
+			long lvl = 1 + (i >> 1) % levels;
+			submit(nextOrderId++, ask, ask
+									   ? BookFixture.MID + lvl
+									   : BookFixture.MID - lvl);
+		}
+	}
+
+	private void submit(long orderId, boolean ask, long price) {
+		orderInfo.setUserId(orderId);
+		orderInfo.setOrderId(orderId);
+		orderInfo.setSymbol(BookFixture.SYMBOL);
+		orderInfo.setSide(ask
+						  ? OrderSide.ASK.code
+						  : OrderSide.BID.code);
+		orderInfo.setType(OrderType.LIMIT.code);
+		orderInfo.setTif(OrderTif.GTC.code);
+		orderInfo.setPrice(price);
+		orderInfo.setQty(BookFixture.QTY);
+		book.submit(orderInfo);
+	}
+
+	private int nextInt(int bound) {
+		long x = seed;
+		x ^= x << 13;
+		x ^= x >>> 7;
+		x ^= x << 17;
+		seed = x;
+		return (int) ((x >>> 1) % bound);
+	}
+
+	/**
+	 * 在随机买档挂一笔被动单后立即撤掉，常驻量不变
+	 */
+	@Benchmark
+	@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+	@Warmup(iterations = 3, time = 2)
+	@Measurement(iterations = 5, time = 5)
+	@OperationsPerInvocation(2)
+	public boolean churn() {
+		long orderId = nextOrderId++;
+		submit(orderId, false, BookFixture.MID - 1 - nextInt(levels));
+		return book.cancel(orderId);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 2)
+	@Measurement(iterations = 5)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public BaseOrderBook fullGc() {
+		System.gc();
+		return book;
+	}
+}
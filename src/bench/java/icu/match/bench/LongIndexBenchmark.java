@@ -0,0 +1,107 @@
+package icu.match.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import icu.match.core.LongObjectMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单簿 orderId 索引对比：{@code HashMap<Long, V>} vs {@link LongObjectMap}。
+ * <p>模拟 "挂单 put → 撤单/成交 remove" 与改单的 get，键为递增 orderId。
+ * 建议配合 {@code -prof gc} 观察 gc.alloc.rate.norm：LongObjectMap 的 putRemove 应为 0 B/op。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class LongIndexBenchmark {
+
+	/**
+	 * 索引内常驻元素个数（簿内挂单数）
+	 */
+	@Param({"16", "1024"})
+	private int live;
+
+	private final Object node = new Object();
+
+	private Map<Long, Object> hashMap;
+
+	private LongObjectMap<Object> longMap;
+
+	/**
+	 * 常驻区间 [oldest, next)
+	 */
+	private long oldest;
+
+	private long next;
+
+	private long seed = 0x9E3779B97F4A7C15L;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		hashMap = new HashMap<>(64);
+		longMap = new LongObjectMap<>(16);
+		oldest = 1;
+		next = 1;
+		for (int i = 0; i < live; i++, next++) {
+			hashMap.put(next, node);
+			longMap.put(next, node);
+		}
+	}
+
+	private long randomLive() {
+		long x = seed;
+		x ^= x << 13;
+		x ^= x >>> 7;
+		x ^= x << 17;
+		seed = x;
+		return oldest + (x >>> 1) % live;
+	}
+
+	/**
+	 * 队尾挂入新单、队头成交移除，常驻个数不变
+	 */
+	@Benchmark
+	@OperationsPerInvocation(2)
+	public Object hashMapPutRemove() {
+		hashMap.put(next++, node);
+		return hashMap.remove(oldest++);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(2)
+	public Object longMapPutRemove() {
+		longMap.put(next++, node);
+		return longMap.remove(oldest++);
+	}
+
+	@Benchmark
+	public Object hashMapGet() {
+		return hashMap.get(randomLive());
+	}
+
+	@Benchmark
+	public Object longMapGet() {
+		return longMap.get(randomLive());
+	}
+}
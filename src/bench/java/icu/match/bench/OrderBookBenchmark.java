@@ -0,0 +1,187 @@
+package icu.match.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import icu.match.common.OrderSide;
+import icu.match.core.interfaces.TradeSink;
+import icu.match.core.model.MatchTrade;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单簿热路径基准：挂单、撤单、改单、头节点连续撮合与一次扫单、限价内流动性查询。
+ * <p>Throughput 给出吞吐，SampleTime 给出 p50/p90/p99/p99.9 延迟分布。</p>
+ * <p>撮合类基准会改变簿形，每次调用结束后按原顺序回填被吃掉的 maker，保持深度稳定；回填耗时计入结果。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class OrderBookBenchmark {
+
+	/**
+	 * 单侧价位档数
+	 */
+	@Param({"64", "1024"})
+	private int depth;
+
+	/**
+	 * 每档挂单笔数
+	 */
+	@Param({"1", "16"})
+	private int ordersPerLevel;
+
+	/**
+	 * 单次扫单吃掉的档数
+	 */
+	@Param({"4"})
+	private int sweepLevels;
+
+	/**
+	 * bestLiq 限价距最优价的档数
+	 */
+	@Param({"16"})
+	private int limitLevels;
+
+	private BookFixture fx;
+
+	private long[] filledIds;
+
+	private long[] filledPrices;
+
+	private long limitPrice;
+
+	private int filled;
+
+	/**
+	 * 扫单回调记下被吃掉的 maker，供回填；字段持有，避免每次调用分配
+	 */
+	private TradeSink recordFill;
+
+	private long seed = 0x9E3779B97F4A7C15L;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		if (sweepLevels > depth) {
+			throw new IllegalArgumentException("sweepLevels must be <= depth");
+		}
+		fx = BookFixture.build(depth, ordersPerLevel);
+		filledIds = new long[sweepLevels * ordersPerLevel];
+		filledPrices = new long[sweepLevels * ordersPerLevel];
+		limitPrice = BookFixture.MID - Math.min(limitLevels, depth) * BookFixture.STEP;
+		recordFill = trade -> {
+			filledIds[filled] = trade.getMakerOrderId();
+			filledPrices[filled] = trade.getPrice();
+			filled++;
+		};
+	}
+
+	/**
+	 * xorshift 伪随机，避免 Random 的同步与分配
+	 */
+	private int nextInt(int bound) {
+		long x = seed;
+		x ^= x << 13;
+		x ^= x >>> 7;
+		x ^= x << 17;
+		seed = x;
+		return (int) ((x >>> 1) % bound);
+	}
+
+	/**
+	 * 在随机买档挂一笔被动单后立即撤掉，簿形不变
+	 */
+	@Benchmark
+	@OperationsPerInvocation(2)
+	public boolean submitThenCancel() {
+		long price = BookFixture.MID - (1 + nextInt(depth)) * BookFixture.STEP;
+		long orderId = fx.nextOrderId();
+		fx.submit(orderId, OrderSide.BID.code, price, BookFixture.QTY);
+		return fx.book.cancel(orderId);
+	}
+
+	/**
+	 * 随机撤掉一笔存量挂单后原样重挂（排到该档队尾）
+	 */
+	@Benchmark
+	@OperationsPerInvocation(2)
+	public boolean cancelThenResubmit() {
+		int k = nextInt(fx.restingIds.length);
+		long orderId = fx.restingIds[k];
+		long price = fx.restingPrices[k];
+		boolean canceled = fx.book.cancel(orderId);
+		fx.submit(orderId, fx.restingSides[k], price, BookFixture.QTY);
+		return canceled;
+	}
+
+	/**
+	 * 卖方 taker 连续 matchHead 吃掉 sweepLevels 档买盘，随后回填
+	 */
+	@Benchmark
+	public int matchHeadSweep() {
+		long remaining = (long) sweepLevels * ordersPerLevel * BookFixture.QTY;
+		int n = 0;
+		while (remaining > 0) {
+			MatchTrade trade = fx.book.matchHead(OrderSide.ASK.code, remaining);
+			remaining -= trade.getQty();
+			filledIds[n] = trade.getMakerOrderId();
+			filledPrices[n] = trade.getPrice();
+			n++;
+		}
+		for (int i = 0; i < n; i++) {
+			fx.submit(filledIds[i], OrderSide.BID.code, filledPrices[i], BookFixture.QTY);
+		}
+		return n;
+	}
+
+	/**
+	 * 与 {@link #matchHeadSweep} 吃掉相同的档位，改为一次 sweep 调用，随后回填
+	 */
+	@Benchmark
+	public int sweep() {
+		long qty = (long) sweepLevels * ordersPerLevel * BookFixture.QTY;
+		filled = 0;
+		fx.book.sweep(OrderSide.ASK.code, Long.MIN_VALUE, qty, recordFill);
+		for (int i = 0; i < filled; i++) {
+			fx.submit(filledIds[i], OrderSide.BID.code, filledPrices[i], BookFixture.QTY);
+		}
+		return filled;
+	}
+
+	/**
+	 * FOK/限价撮合前的可成交量查询
+	 */
+	@Benchmark
+	public long bestLiqWithinLimit() {
+		return fx.book.bestLiq(OrderSide.ASK.code, limitPrice)
+					  .getTotalQty();
+	}
+
+	/**
+	 * 随机存量挂单减量后恢复原量（后者为增量，排到队尾）
+	 */
+	@Benchmark
+	@OperationsPerInvocation(2)
+	public boolean amendDownUp() {
+		long orderId = fx.restingIds[nextInt(fx.restingIds.length)];
+		fx.book.amend(orderId, BookFixture.QTY - 1);
+		return fx.book.amend(orderId, BookFixture.QTY);
+	}
+}
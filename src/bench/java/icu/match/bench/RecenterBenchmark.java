@@ -0,0 +1,86 @@
+package icu.match.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import icu.match.core.ColdOrderBuffer;
+import icu.match.core.RecenterManager;
+import icu.match.core.RingOrderBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecenterManager.checkAndRecenter 基准。
+ * <ul>
+ *   <li>checkBalanced：窗口居中时的判定开销（每次 maker 完全成交后都会走到）。</li>
+ *   <li>recenterSkewed：窗口严重偏离时的迁移开销，每次调用前重建偏斜状态（不计时）。</li>
+ * </ul>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RecenterBenchmark {
+
+	@Param({"64", "1024"})
+	private int depth;
+
+	@Param({"1", "16"})
+	private int ordersPerLevel;
+
+	private RecenterManager balanced;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BookFixture fx = BookFixture.build(depth, ordersPerLevel, depth);
+		balanced = new RecenterManager(fx.ring, fx.cold);
+	}
+
+	@Benchmark
+	public int checkBalanced() {
+		return balanced.checkAndRecenter();
+	}
+
+	@Benchmark
+	public int recenterSkewed(Skewed skewed) {
+		return skewed.mgr.checkAndRecenter();
+	}
+
+	/**
+	 * 热区仅在最低价附近有一档买单（偏离度≈50%，触发最大步数左移），窗口下方紧挨着 depth 档冷区买单。
+	 */
+	@State(Scope.Thread)
+	public static class Skewed {
+
+		private RecenterManager mgr;
+
+		@Setup(Level.Invocation)
+		public void setup(BenchmarkParams params) {
+			int depth = Integer.parseInt(params.getParam("depth"));
+			int ordersPerLevel = Integer.parseInt(params.getParam("ordersPerLevel"));
+			int slots = BookFixture.ceilPow2(2 * depth + 1);
+			long low = BookFixture.MID - (long) (slots / 2) * BookFixture.STEP;
+			long high = low + (long) (slots - 1) * BookFixture.STEP;
+			RingOrderBuffer ring = new RingOrderBuffer(BookFixture.SYMBOL, BookFixture.STEP, low, high);
+			ColdOrderBuffer cold = new ColdOrderBuffer();
+			BookFixture.seed(ring, cold, low, depth, ordersPerLevel);
+			mgr = new RecenterManager(ring, cold);
+		}
+	}
+}
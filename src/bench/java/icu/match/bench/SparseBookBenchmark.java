@@ -0,0 +1,116 @@
+package icu.match.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import icu.match.common.OrderSide;
+import icu.match.core.OrderNode;
+import icu.match.core.OrderNodePoolFixed;
+import icu.match.core.PriceLevel;
+import icu.match.core.RingOrderBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 稀疏簿下 RingOrderBuffer 最优价维护基准。
+ * <p>热区 10k 档（数组 16384 槽），两侧各 levels 档挂单均匀散布在半个窗口内，相邻两档间隔 5000/levels 个空档。</p>
+ * <ul>
+ *   <li>churnBestBid / churnBestAsk：最优档唯一挂单被吃掉后重新挂回，最优价先跳到相隔 gap 个空档的下一档再回来。</li>
+ *   <li>bestLevel：两侧最优档查询。</li>
+ * </ul>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SparseBookBenchmark {
+
+	private static final int WINDOW = 10_000;
+
+	@Param({"2", "16", "256"})
+	private int levels;
+
+	private RingOrderBuffer ring;
+
+	private OrderNodePoolFixed pool;
+
+	private long bestBid;
+
+	private long bestAsk;
+
+	/**
+	 * 最优两档各自唯一的挂单节点，每次挂回后更新
+	 */
+	private OrderNode bestBidNode;
+
+	private OrderNode bestAskNode;
+
+	private long nextOrderId;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		long low = BookFixture.MID - (long) (WINDOW / 2) * BookFixture.STEP;
+		long high = low + (long) (WINDOW - 1) * BookFixture.STEP;
+		ring = new RingOrderBuffer(BookFixture.SYMBOL, BookFixture.STEP, low, high);
+		pool = new OrderNodePoolFixed(2 * levels + 2);
+		long gap = (WINDOW / 2 - 1) / levels * BookFixture.STEP;
+		bestBid = BookFixture.MID - gap;
+		bestAsk = BookFixture.MID + gap;
+		for (int k = 1; k <= levels; k++) {
+			OrderNode bid = pool.alloc(++nextOrderId, 1, false, BookFixture.QTY);
+			OrderNode ask = pool.alloc(++nextOrderId, 1, true, BookFixture.QTY);
+			ring.submit(BookFixture.MID - k * gap, bid);
+			ring.submit(BookFixture.MID + k * gap, ask);
+			if (k == 1) {
+				bestBidNode = bid;
+				bestAskNode = ask;
+			}
+		}
+	}
+
+	@Benchmark
+	public long churnBestBid() {
+		bestBidNode = churn(bestBid, bestBidNode, false);
+		return nextOrderId;
+	}
+
+	@Benchmark
+	public long churnBestAsk() {
+		bestAskNode = churn(bestAsk, bestAskNode, true);
+		return nextOrderId;
+	}
+
+	@Benchmark
+	public long bestLevel() {
+		PriceLevel bid = ring.getBestLevel(OrderSide.ASK.code);
+		PriceLevel ask = ring.getBestLevel(OrderSide.BID.code);
+		return bid.getPrice() + ask.getPrice();
+	}
+
+	/**
+	 * 吃掉该价位的唯一挂单（价位变空，最优价移向下一档），再以新订单号挂回
+	 *
+	 * @return 挂回订单的节点
+	 */
+	private OrderNode churn(long price, OrderNode node, boolean ask) {
+		pool.free(ring.remove(node));
+		OrderNode next = pool.alloc(++nextOrderId, 1, ask, BookFixture.QTY);
+		ring.submit(price, next);
+		return next;
+	}
+}
@@ -0,0 +1,125 @@
+package icu.match.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import icu.match.core.wal.ParallelWalReplayer;
+import icu.match.core.wal.TxContext;
+import icu.match.core.wal.WalAppender;
+import icu.match.core.wal.WalReplayHandler;
+import icu.match.core.wal.WalReplayer;
+import icu.match.core.wal.WalWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * WAL 回放：单线程 {@link WalReplayer} 与 fork-join {@link ParallelWalReplayer} 对比。
+ * 预先写入 txs 个下单事务（均匀分布在 symbols 个交易对上，64MB 一段），每次调用完整回放一遍，处理器只做累加。
+ * threads=1 为单线程回放；结果单位为每次回放耗时，事务吞吐 = txs / 耗时。段文件首轮后在页缓存中，测的是 CPU 开销。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class WalReplayBenchmark {
+
+	@Param({"2000000"})
+	private int txs;
+
+	@Param({"8"})
+	private int symbols;
+
+	@Param({"1", "4", "8"})
+	private int threads;
+
+	private Path dir;
+
+	private ForkJoinPool pool;
+
+	private Sink[] sinks;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		Path base = Path.of(System.getProperty("wal.bench.dir", System.getProperty("java.io.tmpdir")));
+		dir = Files.createTempDirectory(base, "wal-replay-bench");
+		try (WalWriter writer = new WalWriter(new WalAppender(dir, 64L * 1024 * 1024, 1 << 20), true)) {
+			for (int i = 0; i < txs; i++) {
+				TxContext tx = writer.beginTx();
+				writer.logOrder(tx, 1, i, BookFixture.SYMBOL + i % symbols, (byte) (i & 1), (byte) 0, (byte) 0,
+								100 + (i & 15), 1, i);
+				writer.commitTx(tx);
+			}
+			writer.sync();
+		}
+		pool = threads > 1 ? new ForkJoinPool(threads) : null;
+		sinks = new Sink[symbols];
+		for (int i = 0; i < symbols; i++) {
+			sinks[i] = new Sink();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		if (pool != null) {
+			pool.shutdown();
+		}
+		try (Stream<Path> s = Files.walk(dir)) {
+			s.sorted(Comparator.reverseOrder())
+			 .forEach(p -> p.toFile()
+							.delete());
+		}
+	}
+
+	@Benchmark
+	public long replay() throws IOException {
+		if (pool == null) {
+			return new WalReplayer(dir).replay(-1L, s -> sinks[s - BookFixture.SYMBOL])
+									   .getCommitted();
+		}
+		return new ParallelWalReplayer(dir, pool).replay(-1L, s -> sinks[s - BookFixture.SYMBOL])
+												 .getCommitted();
+	}
+
+	private static final class Sink implements WalReplayHandler {
+
+		private long sum;
+
+		@Override
+		public void onOrder(long lsn, long userId, long orderId, int symbol, byte side, byte type, byte tif,
+							long price, long qty, long time) {
+			sum += orderId + price;
+		}
+
+		@Override
+		public void onCancel(long lsn, int symbol, long orderId, long price) {
+			sum += orderId;
+		}
+
+		@Override
+		public void onAmend(long lsn, int symbol, long orderId, long newQty) {
+			sum += newQty;
+		}
+	}
+}
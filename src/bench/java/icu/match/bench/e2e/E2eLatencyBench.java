@@ -0,0 +1,176 @@
+package icu.match.bench.e2e;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import icu.match.Main;
+import icu.match.service.trace.StageTracer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 全链路延迟压测：二进制下单入口 → 落库 → 撮合 → WAL → 成交事件落库。
+ * <p>进程内启动 {@link Main}（随机端口、内存 OrderStore），安装 {@link HdrStageProbe}，
+ * 以固定速率向 /api/order.bin 发送 39 字节帧，结束后打印各分段与端到端的 p50/p90/p99/p99.9/max。</p>
+ *
+ * <pre>
+ * mvn -Pbench test-compile exec:java -Dexec.mainClass=icu.match.bench.e2e.E2eLatencyBench \
+ *     -Dexec.classpathScope=test -Dexec.args="rate=5000 seconds=30 warmup=10"
+ * </pre>
+ *
+ * 参数（key=value）：
+ * <ul>
+ *   <li>rate：每秒发送笔数，默认 2000</li>
+ *   <li>seconds / warmup：计量时长与预热时长（秒），默认 20 / 5</li>
+ *   <li>aggressive：合成流中越价 taker 占比（%），默认 30</li>
+ *   <li>replay：回放录制文件，此时忽略 rate*seconds 的合成流长度</li>
+ *   <li>record：将本次发送的帧录制到文件，供后续回放对比</li>
+ *   <li>store：memory | r2dbc，默认 memory；r2dbc 需本地 MySQL</li>
+ * </ul>
+ * 计时以计划发送时间为准，发送端落后于计划时不会“补睡”，积压体现在 E2E 分布上。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class E2eLatencyBench {
+
+	private static final long FIRST_ORDER_ID = 1_000_000_000L;
+
+	private E2eLatencyBench() {}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> opts = parse(args);
+		int rate = Integer.parseInt(opts.getOrDefault("rate", "2000"));
+		int seconds = Integer.parseInt(opts.getOrDefault("seconds", "20"));
+		int warmup = Integer.parseInt(opts.getOrDefault("warmup", "5"));
+		int aggressive = Integer.parseInt(opts.getOrDefault("aggressive", "30"));
+		String store = opts.getOrDefault("store", "memory");
+		if (rate <= 0 || seconds <= 0 || warmup < 0) {
+			throw new IllegalArgumentException("rate/seconds must be > 0, warmup must be >= 0");
+		}
+
+		List<byte[]> frames;
+		if (opts.containsKey("replay")) {
+			try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(opts.get("replay"))))) {
+				frames = OrderFrames.read(in);
+			}
+		} else {
+			frames = OrderFrames.synthetic((warmup + seconds) * rate, FIRST_ORDER_ID, aggressive, 42L);
+		}
+		if (frames.isEmpty()) {
+			throw new IllegalStateException("no frames to send");
+		}
+		if (opts.containsKey("record")) {
+			Path out = Paths.get(opts.get("record"));
+			try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(out))) {
+				OrderFrames.write(os, frames);
+			}
+		}
+
+		long firstId = Long.MAX_VALUE;
+		long lastId = Long.MIN_VALUE;
+		for (byte[] frame : frames) {
+			long id = OrderFrames.orderId(frame);
+			firstId = Math.min(firstId, id);
+			lastId = Math.max(lastId, id);
+		}
+		if (lastId - firstId >= Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("orderId range too wide: " + firstId + ".." + lastId);
+		}
+		HdrStageProbe probe = new HdrStageProbe(firstId, (int) (lastId - firstId + 1));
+
+		ConfigurableApplicationContext ctx = SpringApplication.run(Main.class, "--server.port=0",
+																   "--match.store.type=" + store,
+																   "--logging.level.root=WARN");
+		try {
+			int port = ((WebServerApplicationContext) ctx).getWebServer()
+														  .getPort();
+			StageTracer.install(probe);
+			run(probe, frames, URI.create("http://127.0.0.1:" + port + "/api/order.bin"), rate,
+				Math.min(frames.size(), warmup * rate));
+			System.out.println();
+			probe.print(System.out);
+		} finally {
+			StageTracer.install(null);
+			ctx.close();
+		}
+	}
+
+	private static void run(HdrStageProbe probe, List<byte[]> frames, URI uri, int rate, int warmupCount)
+			throws InterruptedException {
+		HttpClient client = HttpClient.newBuilder()
+									  .version(HttpClient.Version.HTTP_1_1)
+									  .build();
+		AtomicLong inflight = new AtomicLong();
+		AtomicLong errors = new AtomicLong();
+		long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+		long start = System.nanoTime();
+		for (int i = 0; i < frames.size(); i++) {
+			if (i == warmupCount) {
+				drain(inflight);
+				probe.reset();
+				start = System.nanoTime() - i * intervalNanos;
+			}
+			long intendedAt = start + i * intervalNanos;
+			long now;
+			while ((now = System.nanoTime()) < intendedAt) {
+				LockSupport.parkNanos(Math.min(intendedAt - now, 50_000L));
+			}
+			byte[] frame = frames.get(i);
+			if (i >= warmupCount) {
+				probe.intended(OrderFrames.orderId(frame), intendedAt);
+			}
+			HttpRequest req = HttpRequest.newBuilder(uri)
+										 .header("Content-Type", "application/octet-stream")
+										 .POST(HttpRequest.BodyPublishers.ofByteArray(frame))
+										 .build();
+			inflight.incrementAndGet();
+			client.sendAsync(req, HttpResponse.BodyHandlers.discarding())
+				  .whenComplete((resp, ex) -> {
+					  if (ex != null || resp.statusCode() != 202) {
+						  errors.incrementAndGet();
+					  }
+					  inflight.decrementAndGet();
+				  });
+		}
+		drain(inflight);
+		// 等待成交事件链路消费完
+		TimeUnit.SECONDS.sleep(1);
+		System.out.printf("sent=%d warmup=%d errors=%d%n", frames.size(), warmupCount, errors.get());
+	}
+
+	private static void drain(AtomicLong inflight) throws InterruptedException {
+		while (inflight.get() > 0) {
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+	}
+
+	private static Map<String, String> parse(String[] args) {
+		Map<String, String> opts = new HashMap<>();
+		for (String arg : args) {
+			int eq = arg.indexOf('=');
+			if (eq <= 0) {
+				throw new IllegalArgumentException("expect key=value, got: " + arg);
+			}
+			opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+		}
+		return opts;
+	}
+}
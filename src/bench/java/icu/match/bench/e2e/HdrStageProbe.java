@@ -0,0 +1,105 @@
+package icu.match.bench.e2e;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import icu.match.service.trace.StageProbe;
+import icu.match.service.trace.TraceStage;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 HdrHistogram 的分段采集点。
+ * <p>每个 {@link TraceStage} 一个 Recorder（多线程写入安全）；另外两条端到端曲线以压测端的计划发送时间为起点，
+ * 避免协同遗漏（coordinated omission）：</p>
+ * <ul>
+ *   <li>E2E_ACK：计划发送 → WAL COMMIT 完成（订单已入簿且可恢复）。</li>
+ *   <li>E2E_TRADE：计划发送 → 该订单引发的成交/状态事件落库完成（每个事件一个样本）。</li>
+ * </ul>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public class HdrStageProbe implements StageProbe {
+
+	private static final long HIGHEST = TimeUnit.SECONDS.toNanos(60);
+
+	private final Map<TraceStage, Recorder> stages = new EnumMap<>(TraceStage.class);
+
+	private final Recorder e2eAck = new Recorder(HIGHEST, 3);
+
+	private final Recorder e2eTrade = new Recorder(HIGHEST, 3);
+
+	/**
+	 * 计划发送时间，下标 = orderId - firstOrderId；0 表示未发送或处于预热期
+	 */
+	private final long[] intendedAt;
+
+	private final long firstOrderId;
+
+	public HdrStageProbe(long firstOrderId, int capacity) {
+		for (TraceStage stage : TraceStage.values()) {
+			stages.put(stage, new Recorder(HIGHEST, 3));
+		}
+		this.firstOrderId = firstOrderId;
+		this.intendedAt = new long[capacity];
+	}
+
+	public void intended(long orderId, long nanos) {
+		intendedAt[(int) (orderId - firstOrderId)] = nanos;
+	}
+
+	@Override
+	public void record(TraceStage stage, long orderId, long startNanos, long endNanos) {
+		stages.get(stage)
+			  .recordValue(Math.max(0, endNanos - startNanos));
+		if (stage != TraceStage.WAL_COMMIT && stage != TraceStage.TRADE_PERSIST) {
+			return;
+		}
+		long idx = orderId - firstOrderId;
+		if (idx < 0 || idx >= intendedAt.length) {
+			return;
+		}
+		long sentAt = intendedAt[(int) idx];
+		if (sentAt == 0L) {
+			return;
+		}
+		(stage == TraceStage.WAL_COMMIT
+		 ? e2eAck
+		 : e2eTrade).recordValue(Math.max(0, endNanos - sentAt));
+	}
+
+	/**
+	 * 丢弃预热期数据
+	 */
+	public void reset() {
+		stages.values()
+			  .forEach(Recorder::reset);
+		e2eAck.reset();
+		e2eTrade.reset();
+	}
+
+	public void print(PrintStream out) {
+		out.printf("%-14s %10s %10s %10s %10s %10s %10s%n", "stage(us)", "count", "p50", "p90", "p99", "p99.9",
+				   "max");
+		for (Map.Entry<TraceStage, Recorder> e : stages.entrySet()) {
+			row(out, e.getKey()
+					  .name(), e.getValue()
+								.getIntervalHistogram());
+		}
+		row(out, "E2E_ACK", e2eAck.getIntervalHistogram());
+		row(out, "E2E_TRADE", e2eTrade.getIntervalHistogram());
+	}
+
+	private static void row(PrintStream out, String name, Histogram h) {
+		out.printf("%-14s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", name, h.getTotalCount(), us(h, 50), us(h, 90),
+				   us(h, 99), us(h, 99.9), h.getMaxValue() / 1000.0);
+	}
+
+	private static double us(Histogram h, double percentile) {
+		return h.getValueAtPercentile(percentile) / 1000.0;
+	}
+}
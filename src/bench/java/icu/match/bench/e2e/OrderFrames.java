@@ -0,0 +1,115 @@
+package icu.match.bench.e2e;
+
+import icu.match.common.OrderSide;
+import icu.match.common.OrderTif;
+import icu.match.common.OrderType;
+import icu.match.common.SymbolConstant;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * /api/order.bin 的 39 字节小端帧：userId(8) orderId(8) symbol(4) side(1) tif(1) type(1) price(8) qty(8)。
+ * <p>负责合成订单流与录制文件（帧首尾相接、无分隔）的读写。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class OrderFrames {
+
+	public static final int FRAME_LEN = 39;
+
+	/**
+	 * 与 MatchEngine 中 BTCUSDT 热区一致
+	 */
+	private static final long LOW = 100;
+
+	private static final long HIGH = 110;
+
+	private OrderFrames() {}
+
+	public static byte[] encode(long userId, long orderId, int symbol, byte side, byte tif, byte type, long price,
+								long qty) {
+		ByteBuffer buf = ByteBuffer.allocate(FRAME_LEN)
+								   .order(ByteOrder.LITTLE_ENDIAN);
+		buf.putLong(userId);
+		buf.putLong(orderId);
+		buf.putInt(symbol);
+		buf.put(side);
+		buf.put(tif);
+		buf.put(type);
+		buf.putLong(price);
+		buf.putLong(qty);
+		return buf.array();
+	}
+
+	public static long orderId(byte[] frame) {
+		return ByteBuffer.wrap(frame, 8, 8)
+						 .order(ByteOrder.LITTLE_ENDIAN)
+						 .getLong();
+	}
+
+	/**
+	 * 合成订单流：价格在热区内均匀分布，aggressivePct% 的订单越过中间价成为 taker，其余为被动挂单。
+	 * orderId 从 firstOrderId 起连续递增，便于压测端按下标记录发送时间。
+	 */
+	public static List<byte[]> synthetic(int count, long firstOrderId, int aggressivePct, long seed) {
+		SplittableRandom rnd = new SplittableRandom(seed);
+		int symbol = SymbolConstant.BTCUSDT.getSymbolId();
+		long mid = (LOW + HIGH) / 2;
+		List<byte[]> frames = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			boolean ask = rnd.nextBoolean();
+			boolean aggressive = rnd.nextInt(100) < aggressivePct;
+			long price;
+			if (aggressive) {
+				price = ask
+						? LOW + rnd.nextInt((int) (mid - LOW) + 1)
+						: mid + rnd.nextInt((int) (HIGH - mid) + 1);
+			} else {
+				price = ask
+						? mid + 1 + rnd.nextInt((int) (HIGH - mid))
+						: LOW + rnd.nextInt((int) (mid - LOW));
+			}
+			long qty = 1 + rnd.nextInt(10);
+			byte side = ask
+						? OrderSide.ASK.code
+						: OrderSide.BID.code;
+			byte tif = aggressive
+					   ? OrderTif.IOC.code
+					   : OrderTif.GTC.code;
+			frames.add(encode(1 + rnd.nextInt(1000), firstOrderId + i, symbol, side, tif, OrderType.LIMIT.code,
+							  price, qty));
+		}
+		return frames;
+	}
+
+	public static List<byte[]> read(InputStream in) throws IOException {
+		List<byte[]> frames = new ArrayList<>();
+		DataInputStream din = new DataInputStream(in);
+		while (true) {
+			byte[] frame = new byte[FRAME_LEN];
+			try {
+				din.readFully(frame);
+			} catch (EOFException e) {
+				return frames;
+			}
+			frames.add(frame);
+		}
+	}
+
+	public static void write(OutputStream out, List<byte[]> frames) throws IOException {
+		for (byte[] frame : frames) {
+			out.write(frame);
+		}
+		out.flush();
+	}
+}
@@ -9,13 +9,15 @@ package icu.match.common;/**
  * 0->NEW
  * 1->CANCEL
  * 2->MODIFY
+ * 3->SNAPSHOT 快照步进，由快照线程投递，不写 WAL、不产生撮合事件
  * @author 中本君
  * @date 2025/8/18 
  */
 public enum OrderEventType {
-	NEW_ORDER((byte) 0), CANCEL_ORDER((byte) 1), MODIFY_ORDER((byte) 2);
+	NEW_ORDER((byte) 0), CANCEL_ORDER((byte) 1), MODIFY_ORDER((byte) 2), SNAPSHOT((byte) 3);
 
-	private static final OrderEventType[] VALS = new OrderEventType[]{NEW_ORDER, CANCEL_ORDER, MODIFY_ORDER};
+	private static final OrderEventType[] VALS = new OrderEventType[]{NEW_ORDER, CANCEL_ORDER, MODIFY_ORDER,
+																	  SNAPSHOT};
 
 	public final byte code;
 
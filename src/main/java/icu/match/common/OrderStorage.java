@@ -0,0 +1,16 @@
+package icu.match.common;
+
+/**
+ * 订单簿挂单存储方式，按交易对配置。
+ * <ul>
+ *   <li>NODE：每笔挂单一个 OrderNode 堆对象，冷热区价位簿（SimpleOrderBook），默认。</li>
+ *   <li>HEAP：堆内列式原生数组（SlabOrderBook + HeapOrderSlab）。</li>
+ *   <li>DIRECT：堆外 DirectByteBuffer（SlabOrderBook + DirectOrderSlab）。</li>
+ * </ul>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public enum OrderStorage {
+	NODE, HEAP, DIRECT
+}
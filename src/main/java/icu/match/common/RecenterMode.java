@@ -0,0 +1,15 @@
+package icu.match.common;
+
+/**
+ * node 存储热区的再平衡策略，按交易对配置。
+ * <ul>
+ *   <li>FIXED：按最优买价偏离窗口中心的比例迁移，固定阈值与步数，只在 maker 完全成交后执行，默认。</li>
+ *   <li>ADAPTIVE：另按成交价速度与窗口边缘的冷区挂单量预先迁移；成交后至多迁移一步，其余留到批间空闲执行。</li>
+ * </ul>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public enum RecenterMode {
+	FIXED, ADAPTIVE
+}
@@ -0,0 +1,15 @@
+package icu.match.common;
+
+/**
+ * WAL 请求记录格式，按分片统一配置；回放两种格式都能读取，可随时切换。
+ * <ul>
+ *   <li>TX：BEGIN → 定长请求 → COMMIT 三条记录，默认。</li>
+ *   <li>COMPACT：一条变长记录即一个已提交事务，字段差分 + varint 编码，体积约为 TX 的 1/5。</li>
+ * </ul>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public enum WalFormat {
+	TX, COMPACT
+}
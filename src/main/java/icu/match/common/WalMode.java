@@ -0,0 +1,15 @@
+package icu.match.common;
+
+/**
+ * WAL 段写入方式，按分片统一配置。
+ * <ul>
+ *   <li>CHANNEL：FileChannel.write 追加，段按需增长（WalAppender），默认。</li>
+ *   <li>MMAP：整段预分配并内存映射，后台预创建下一段（MappedWalAppender）。</li>
+ * </ul>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public enum WalMode {
+	CHANNEL, MMAP
+}
@@ -0,0 +1,206 @@
+package icu.match.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import icu.match.common.OrderStorage;
+import icu.match.common.RecenterMode;
+import icu.match.common.SymbolConstant;
+import icu.match.common.WalFormat;
+import icu.match.common.WalMode;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 撮合引擎配置，前缀 match。
+ * <pre>
+ * match:
+ *   shard:
+ *     count: 2
+ *     cpus: [2, 3]
+ *     wal-dir: ./data/wal
+ *     group-commit: true
+ *     wal-mode: mmap
+ *   books:
+ *     BTCUSDT:
+ *       shard: 0
+ *       storage: direct
+ *       recenter: adaptive
+ *       initial-capacity: 1048576
+ *       pool:
+ *         chunk-size: 4096
+ *         min-chunks: 16
+ *         idle-millis: 60000
+ * </pre>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "match")
+public class MatchProperties {
+
+	private static final Book DEFAULT_BOOK = new Book();
+
+	/**
+	 * 交易对名称（{@link SymbolConstant#name()}）-> 订单簿配置；未配置的交易对使用默认值
+	 */
+	private Map<String, Book> books = new HashMap<>();
+
+	/**
+	 * 撮合分片
+	 */
+	private Shard shard = new Shard();
+
+	public Book book(SymbolConstant symbol) {
+		return books.getOrDefault(symbol.name(), DEFAULT_BOOK);
+	}
+
+	/**
+	 * 交易对所属分片：显式配置优先，否则按 symbolId 取模
+	 */
+	public int shardOf(SymbolConstant symbol) {
+		int count = shard.getCount();
+		int idx = book(symbol).getShard();
+		if (idx < 0) {
+			return Math.floorMod(symbol.getSymbolId(), count);
+		}
+		if (idx >= count) {
+			throw new IllegalArgumentException("shard of " + symbol + " out of range: " + idx + " >= " + count);
+		}
+		return idx;
+	}
+
+	@Data
+	public static class Shard {
+
+		/**
+		 * 分片数，每个分片一条撮合线程 + 一个订单队列 + 一份 WAL
+		 */
+		private int count = 1;
+
+		/**
+		 * 分片撮合线程绑定的 CPU，下标即分片号；为空或不足时不绑定
+		 */
+		private List<Integer> cpus = new ArrayList<>();
+
+		/**
+		 * WAL 根目录，分片 i 写入 {walDir}/shard-i
+		 */
+		private String walDir = "./data/wal";
+
+		/**
+		 * WAL 组提交：每个 Disruptor 批次只 force 一次，落盘后再发布撮合事件与应答客户端
+		 */
+		private boolean groupCommit = false;
+
+		/**
+		 * 流水线模式：WAL 写入与 force 由独立日志线程完成，与撮合线程并行，发布线程等落盘后再发布；每分片多两条线程
+		 */
+		private boolean asyncJournal = false;
+
+		/**
+		 * 组提交批缓冲字节数
+		 */
+		private int walBatchBytes = 1 << 20;
+
+		/**
+		 * WAL 段写入方式
+		 */
+		private WalMode walMode = WalMode.CHANNEL;
+
+		/**
+		 * WAL 请求记录格式，回放两种格式都能读取
+		 */
+		private WalFormat walFormat = WalFormat.TX;
+
+		/**
+		 * WAL 单段字节数，mmap 模式下整段预分配
+		 */
+		private long walSegmentBytes = 256L * 1024 * 1024;
+
+		/**
+		 * 带 LSN 的快照落盘后删除整段早于快照 LSN 的 WAL 段
+		 */
+		private boolean walTruncate = true;
+
+		/**
+		 * 保留的快照数，最新的校验失败时恢复退回更旧的；WAL 截断以保留中最旧快照的 LSN 为界
+		 */
+		private int snapshotRetain = 3;
+
+		/**
+		 * 启动恢复时的 WAL 回放线程数，大于 1 时并行校验 CRC、按交易对并行回放
+		 */
+		private int replayThreads = 1;
+
+		/**
+		 * 撮合线程每批事件后空闲整理（热区再平衡）的时间预算，纳秒；0 表示关闭
+		 */
+		private long idleBudgetNanos = 0;
+	}
+
+	@Data
+	public static class Book {
+
+		/**
+		 * 所属分片，-1 表示按 symbolId 取模
+		 */
+		private int shard = -1;
+
+		/**
+		 * node 存储热区窗口：价格步长与初始上下界
+		 */
+		private long step = 1;
+
+		private long low = 100;
+
+		private long high = 110;
+
+		private OrderStorage storage = OrderStorage.NODE;
+
+		/**
+		 * node 存储热区的再平衡策略
+		 */
+		private RecenterMode recenter = RecenterMode.FIXED;
+
+		/**
+		 * slab 存储的初始槽位数，不足时倍增
+		 */
+		private int initialCapacity = 1 << 16;
+
+		/**
+		 * node 存储的节点池
+		 */
+		private Pool pool = new Pool();
+	}
+
+	@Data
+	public static class Pool {
+
+		/**
+		 * 每块节点数
+		 */
+		private int chunkSize = 4096;
+
+		/**
+		 * 启动预热块数，也是收缩下限
+		 */
+		private int minChunks = 1;
+
+		/**
+		 * 块数上限，0 表示不限；超过后退化为直接 new
+		 */
+		private int maxChunks = 0;
+
+		/**
+		 * 空闲多久（毫秒）后收缩多余块，0 表示不收缩
+		 */
+		private long idleMillis = 0;
+	}
+}
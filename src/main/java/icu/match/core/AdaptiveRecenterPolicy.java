@@ -0,0 +1,61 @@
+package icu.match.core;
+
+import icu.match.core.interfaces.RecenterPolicy;
+import icu.match.core.model.RecenterSignals;
+
+/**
+ * 自适应再平衡：在固定阈值的偏离步数之上叠加两项预判，并把大部分迁移移出撮合关键路径。
+ * <ul>
+ *   <li>成交价速度：趋势行情中窗口按速度向趋势方向提前迁移，至多 maxLeadSteps 步。</li>
+ *   <li>边缘压力：窗口外紧邻上沿/下沿落入冷区的挂单每累计 edgePressure 笔，向该侧多迁移一步。</li>
+ *   <li>成交后调用至多 maxStepsOnMatch 步，批间空闲调用至多 maxStepsIdle 步（另受调用方时间预算约束）。</li>
+ * </ul>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class AdaptiveRecenterPolicy implements RecenterPolicy {
+
+	private final int maxStepsOnMatch;
+
+	private final int maxStepsIdle;
+
+	/**
+	 * 每单位速度（每笔成交移动的 step 数）提前迁移的步数
+	 */
+	private final double leadPerVelocity;
+
+	private final int maxLeadSteps;
+
+	private final int edgePressure;
+
+	public AdaptiveRecenterPolicy() {
+		this(1, 32, 2.0, 8, 4);
+	}
+
+	public AdaptiveRecenterPolicy(int maxStepsOnMatch, int maxStepsIdle, double leadPerVelocity, int maxLeadSteps,
+								  int edgePressure) {
+		if (maxStepsOnMatch < 0 || maxStepsIdle < 0 || maxLeadSteps < 0) {
+			throw new IllegalArgumentException("step limits must be >= 0");
+		}
+		if (edgePressure <= 0) {
+			throw new IllegalArgumentException("edgePressure must be > 0");
+		}
+		this.maxStepsOnMatch = maxStepsOnMatch;
+		this.maxStepsIdle = maxStepsIdle;
+		this.leadPerVelocity = leadPerVelocity;
+		this.maxLeadSteps = maxLeadSteps;
+		this.edgePressure = edgePressure;
+	}
+
+	@Override
+	public int plan(RecenterSignals signals, boolean idle) {
+		int limit = idle ? maxStepsIdle : maxStepsOnMatch;
+		int steps = FixedRecenterPolicy.deviationSteps(signals.getSlopeRate(), FixedRecenterPolicy.TARGET_CENTER_PERCENT,
+													   FixedRecenterPolicy.STEP_PERCENT, limit);
+		long lead = Math.round(signals.getVelocity() * leadPerVelocity);
+		steps += (int) Math.max(-maxLeadSteps, Math.min(maxLeadSteps, lead));
+		steps += (signals.getColdNearHigh() - signals.getColdNearLow()) / edgePressure;
+		return Math.max(-limit, Math.min(limit, steps));
+	}
+}
@@ -0,0 +1,152 @@
+package icu.match.core;
+
+import icu.match.core.interfaces.MatchEventProcessor;
+import icu.match.core.model.MatchTrade;
+
+import java.util.Arrays;
+
+/**
+ * 暂存撮合事件，待 WAL 组提交落盘后再按原顺序转发给下游。
+ * <p>仅撮合线程访问；成交对象与参数数组按批复用，批内事件数超过容量时倍增。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class BufferedMatchEventProcessor implements MatchEventProcessor {
+
+	private static final byte TRADED = 1;
+
+	private static final byte FILLED = 2;
+
+	private static final byte CANCELLED = 3;
+
+	private static final byte REJECTED = 4;
+
+	private final MatchEventProcessor delegate;
+
+	private byte[] kinds;
+
+	private int[] symbols;
+
+	private long[] orderIds;
+
+	private long[] qtys;
+
+	/**
+	 * 与事件下标一一对应，仅 TRADED 使用
+	 */
+	private MatchTrade[] trades;
+
+	private int size;
+
+	public BufferedMatchEventProcessor(MatchEventProcessor delegate, int initialCapacity) {
+		if (delegate == null) {
+			throw new IllegalArgumentException("delegate must not be null");
+		}
+		if (initialCapacity <= 0) {
+			throw new IllegalArgumentException("initialCapacity must be > 0");
+		}
+		this.delegate = delegate;
+		kinds = new byte[initialCapacity];
+		symbols = new int[initialCapacity];
+		orderIds = new long[initialCapacity];
+		qtys = new long[initialCapacity];
+		trades = new MatchTrade[initialCapacity];
+	}
+
+	@Override
+	public void onTraded(MatchTrade matchTrade) {
+		int i = next(TRADED);
+		MatchTrade copy = trades[i];
+		if (copy == null) {
+			copy = new MatchTrade();
+			trades[i] = copy;
+		}
+		copy.setMatchSeq(matchTrade.getMatchSeq());
+		copy.setSymbol(matchTrade.getSymbol());
+		copy.setTakerUserId(matchTrade.getTakerUserId());
+		copy.setMakerUserId(matchTrade.getMakerUserId());
+		copy.setTakerOrderId(matchTrade.getTakerOrderId());
+		copy.setMakerOrderId(matchTrade.getMakerOrderId());
+		copy.setTakerSide(matchTrade.getTakerSide());
+		copy.setPrice(matchTrade.getPrice());
+		copy.setQty(matchTrade.getQty());
+		copy.setTradeTime(matchTrade.getTradeTime());
+		copy.setMakerFilled(matchTrade.isMakerFilled());
+	}
+
+	@Override
+	public void onFilled(int symbol, long orderId) {
+		int i = next(FILLED);
+		symbols[i] = symbol;
+		orderIds[i] = orderId;
+	}
+
+	@Override
+	public void onOrderCancelled(int symbol, long orderId, long qty) {
+		int i = next(CANCELLED);
+		symbols[i] = symbol;
+		orderIds[i] = orderId;
+		qtys[i] = qty;
+	}
+
+	@Override
+	public void onOrderRejected(int symbol, long orderId) {
+		int i = next(REJECTED);
+		symbols[i] = symbol;
+		orderIds[i] = orderId;
+	}
+
+	/**
+	 * 按记录顺序转发全部暂存事件并清空
+	 *
+	 * @return 转发的事件数
+	 */
+	public int flush() {
+		int n = size;
+		for (int i = 0; i < n; i++) {
+			switch (kinds[i]) {
+				case TRADED:
+					delegate.onTraded(trades[i]);
+					break;
+				case FILLED:
+					delegate.onFilled(symbols[i], orderIds[i]);
+					break;
+				case CANCELLED:
+					delegate.onOrderCancelled(symbols[i], orderIds[i], qtys[i]);
+					break;
+				case REJECTED:
+					delegate.onOrderRejected(symbols[i], orderIds[i]);
+					break;
+				default:
+					throw new IllegalStateException("unknown event kind: " + kinds[i]);
+			}
+		}
+		size = 0;
+		return n;
+	}
+
+	/**
+	 * 丢弃全部暂存事件，不转发
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private int next(byte kind) {
+		if (size == kinds.length) {
+			int cap = size << 1;
+			kinds = Arrays.copyOf(kinds, cap);
+			symbols = Arrays.copyOf(symbols, cap);
+			orderIds = Arrays.copyOf(orderIds, cap);
+			qtys = Arrays.copyOf(qtys, cap);
+			trades = Arrays.copyOf(trades, cap);
+		}
+		kinds[size] = kind;
+		return size++;
+	}
+}
@@ -90,19 +90,19 @@ public class ColdOrderBuffer {
 	// ----------------------------------------------------------------------
 
 	/**
-	 * 冷区撤单：按方向与价格定位到价位桶后撤单；若价位桶转空则从树中移除。
+	 * 冷区撤单：经节点回指的价位桶直接摘除，仅在价位转空时访问一次树。
+	 *
+	 * @param node 当前挂在冷区的节点
+	 * @return 被摘除的节点；节点未挂在任何价位时返回 null
 	 */
-	public OrderNode cancel(long price, long orderId) {
-		PriceLevel lvl = asks.get(price);
-		if (lvl == null) {
-			lvl = bids.get(price);
-		}
+	public OrderNode cancel(OrderNode node) {
+		PriceLevel lvl = node.level;
 		if (lvl == null) {
 			return null;
 		}
-		OrderNode n = lvl.cancel(orderId);
+		OrderNode n = lvl.cancel(node);
 		if (n != null && lvl.isEmpty()) {
-			removeLevel(price, n.ask);
+			removeLevel(lvl.getPrice(), n.ask);
 		}
 		return n;
 	}
@@ -123,17 +123,14 @@ public class ColdOrderBuffer {
 	/**
 	 * 冷区完全成交删除：与 {@link #cancel} 一致，语义区分。
 	 */
-	public OrderNode remove(long price, long orderId) {
-		PriceLevel lvl = asks.get(price);
-		if (lvl == null) {
-			lvl = bids.get(price);
-		}
+	public OrderNode remove(OrderNode node) {
+		PriceLevel lvl = node.level;
 		if (lvl == null) {
 			return null;
 		}
-		OrderNode n = lvl.remove(orderId);
+		OrderNode n = lvl.remove(node);
 		if (n != null && lvl.isEmpty()) {
-			removeLevel(price, n.ask);
+			removeLevel(lvl.getPrice(), n.ask);
 		}
 		return n;
 	}
@@ -198,6 +195,22 @@ public class ColdOrderBuffer {
 		return e.getValue();
 	}
 
+	/**
+	 * 冷区一侧价格不劣于 limitPrice 的挂单总量：ask 侧取 price <= limitPrice，bid 侧取 price >= limitPrice。
+	 * <p>只遍历限价以内的价位；限价未越出热区时通常不触及任何冷区价位。</p>
+	 */
+	public long totalQty(boolean ask, long limitPrice) {
+		// bids 为降序，headMap 即价格 >= limitPrice 的部分
+		NavigableMap<Long, PriceLevel> within = ask
+												? asks.headMap(limitPrice, true)
+												: bids.headMap(limitPrice, true);
+		long total = 0;
+		for (PriceLevel lvl : within.values()) {
+			total += lvl.totalQty();
+		}
+		return total;
+	}
+
 	// ColdOrderBuffer
 	public void putAll(Collection<PriceLevel> levels) {
 		if (levels == null) {
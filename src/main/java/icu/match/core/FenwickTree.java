@@ -0,0 +1,51 @@
+package icu.match.core;
+
+/**
+ * 按热区槽位累计挂单数量的树状数组（Fenwick tree）。
+ * <p>下标为槽位的物理索引，单点增减与前缀和均为 O(log n)；窗口滑动时槽位不搬移，只对换入换出的槽位做增减，
+ * 环绕区间由调用方拆成两段求和。非线程安全。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+final class FenwickTree {
+
+	/**
+	 * 1 起始，tree[i] 覆盖 (i - lowbit(i), i]
+	 */
+	private final long[] tree;
+
+	FenwickTree(int length) {
+		if (length <= 0) {
+			throw new IllegalArgumentException("length must be > 0");
+		}
+		this.tree = new long[length + 1];
+	}
+
+	void add(int idx, long delta) {
+		if (delta == 0) {
+			return;
+		}
+		for (int i = idx + 1; i < tree.length; i += i & -i) {
+			tree[i] += delta;
+		}
+	}
+
+	/**
+	 * @return [0, idx] 之和，idx &lt; 0 时为 0
+	 */
+	long prefix(int idx) {
+		long sum = 0;
+		for (int i = idx + 1; i > 0; i -= i & -i) {
+			sum += tree[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * @return [from, to] 之和
+	 */
+	long range(int from, int to) {
+		return prefix(to) - prefix(from - 1);
+	}
+}
@@ -0,0 +1,39 @@
+package icu.match.core;
+
+import icu.match.core.interfaces.RecenterPolicy;
+import icu.match.core.model.RecenterSignals;
+
+/**
+ * 固定阈值再平衡：目标中心 50%，每偏离 10% 迁移一步，单次至多 4 步；不区分成交后与空闲调用。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class FixedRecenterPolicy implements RecenterPolicy {
+
+	/** 目标中心百分比（0..100）。 */
+	static final double TARGET_CENTER_PERCENT = 50.0;
+
+	/** 每 10% 偏离执行 1 次迁移。 */
+	static final double STEP_PERCENT = 10.0;
+
+	/** 单次调用的最大迁移步数上限。 */
+	static final int MAX_STEPS_PER_CALL = 4;
+
+	@Override
+	public int plan(RecenterSignals signals, boolean idle) {
+		return deviationSteps(signals.getSlopeRate(), TARGET_CENTER_PERCENT, STEP_PERCENT, MAX_STEPS_PER_CALL);
+	}
+
+	/**
+	 * 偏离 X% ⇒ floor(X/stepPercent) 步，至多 maxSteps；ratio &lt; target 左移（负），ratio &gt; target 右移（正）
+	 */
+	static int deviationSteps(double ratio, double target, double stepPercent, int maxSteps) {
+		int planned = (int) Math.floor(Math.abs(ratio - target) / stepPercent);
+		if (planned <= 0) {
+			return 0;
+		}
+		planned = Math.min(planned, maxSteps);
+		return ratio < target ? -planned : planned;
+	}
+}
@@ -0,0 +1,108 @@
+package icu.match.core;
+
+/**
+ * 热区槽位的占用位图（两级）。
+ * <p>第一级每位对应一个槽位，第二级每位对应第一级的一个 long 字，字非零时置位；
+ * 查找下一个/上一个置位槽位先在当前字内以 {@link Long#numberOfTrailingZeros}/{@link Long#numberOfLeadingZeros} 定位，
+ * 字内没有时经第二级跳到下一个非零字，稀疏簿下不逐槽扫描空档。</p>
+ * <p>下标为槽位的物理索引，环绕由调用方拆成两段查询。非线程安全。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+final class LevelBitmap {
+
+	private final long[] words;
+
+	private final long[] summary;
+
+	LevelBitmap(int length) {
+		if (length <= 0) {
+			throw new IllegalArgumentException("length must be > 0");
+		}
+		this.words = new long[(length + 63) >>> 6];
+		this.summary = new long[(words.length + 63) >>> 6];
+	}
+
+	void set(int i) {
+		int w = i >>> 6;
+		words[w] |= 1L << i;
+		summary[w >>> 6] |= 1L << w;
+	}
+
+	void clear(int i) {
+		int w = i >>> 6;
+		words[w] &= ~(1L << i);
+		if (words[w] == 0) {
+			summary[w >>> 6] &= ~(1L << w);
+		}
+	}
+
+	boolean get(int i) {
+		return (words[i >>> 6] & (1L << i)) != 0;
+	}
+
+	/**
+	 * @return [from, to] 内最小的置位下标，没有则 -1
+	 */
+	int next(int from, int to) {
+		int w = from >>> 6;
+		long bits = words[w] & (-1L << from);
+		if (bits == 0) {
+			w = nextWord(w + 1);
+			if (w < 0) {
+				return -1;
+			}
+			bits = words[w];
+		}
+		int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+		return i <= to ? i : -1;
+	}
+
+	/**
+	 * @return [to, from] 内最大的置位下标，没有则 -1
+	 */
+	int prev(int from, int to) {
+		int w = from >>> 6;
+		long bits = words[w] & (-1L >>> (63 - (from & 63)));
+		if (bits == 0) {
+			w = prevWord(w - 1);
+			if (w < 0) {
+				return -1;
+			}
+			bits = words[w];
+		}
+		int i = (w << 6) + 63 - Long.numberOfLeadingZeros(bits);
+		return i >= to ? i : -1;
+	}
+
+	private int nextWord(int from) {
+		if (from >= words.length) {
+			return -1;
+		}
+		int s = from >>> 6;
+		long bits = summary[s] & (-1L << from);
+		while (bits == 0) {
+			if (++s == summary.length) {
+				return -1;
+			}
+			bits = summary[s];
+		}
+		return (s << 6) + Long.numberOfTrailingZeros(bits);
+	}
+
+	private int prevWord(int from) {
+		if (from < 0) {
+			return -1;
+		}
+		int s = from >>> 6;
+		long bits = summary[s] & (-1L >>> (63 - (from & 63)));
+		while (bits == 0) {
+			if (--s < 0) {
+				return -1;
+			}
+			bits = summary[s];
+		}
+		return (s << 6) + 63 - Long.numberOfLeadingZeros(bits);
+	}
+}
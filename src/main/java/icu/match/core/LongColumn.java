@@ -0,0 +1,67 @@
+package icu.match.core;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * 可增长的 long 列，用于替代 {@code ArrayList<Long>} 存放快照列。
+ * <p>数据存于 long[]，{@link #addLong}/{@link #getLong} 不装箱；同时实现 {@code List<Long>} 以便与列表直接比较，
+ * 经 {@link #get} 读取时才装箱，热路径不应使用。</p>
+ * <p>非线程安全。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class LongColumn extends AbstractList<Long> implements RandomAccess {
+
+	private long[] values;
+
+	private int size;
+
+	public LongColumn() {
+		this(16);
+	}
+
+	public LongColumn(int initialCapacity) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("initialCapacity must be >= 0");
+		}
+		values = new long[Math.max(1, initialCapacity)];
+	}
+
+	public void addLong(long value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, values.length << 1);
+		}
+		values[size++] = value;
+	}
+
+	public long getLong(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("index " + index + " size " + size);
+		}
+		return values[index];
+	}
+
+	@Override
+	public Long get(int index) {
+		return getLong(index);
+	}
+
+	@Override
+	public boolean add(Long value) {
+		addLong(value);
+		return true;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		size = 0;
+	}
+}
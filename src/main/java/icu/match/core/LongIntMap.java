@@ -0,0 +1,173 @@
+package icu.match.core;
+
+import java.util.Arrays;
+
+/**
+ * long → int 的开放寻址哈希表，结构与 {@link LongObjectMap} 相同（线性探测 + 删除时回移）。
+ * <p>value 必须 &gt;= 0，{@link #MISSING}(-1) 表示空槽/未命中。用于 orderId → slab 槽位索引。</p>
+ * <p>非线程安全，只在撮合线程内使用。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class LongIntMap {
+
+	public static final int MISSING = -1;
+
+	private static final int MIN_CAPACITY = 8;
+
+	private long[] keys;
+
+	private int[] values;
+
+	private int mask;
+
+	private int size;
+
+	/**
+	 * size 达到该值时扩容（负载因子 1/2）
+	 */
+	private int resizeAt;
+
+	public LongIntMap() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 * @param expected 预期元素个数，用于确定初始容量
+	 */
+	public LongIntMap(int expected) {
+		if (expected < 0) {
+			throw new IllegalArgumentException("expected must be >= 0");
+		}
+		int cap = MIN_CAPACITY;
+		while (cap < expected * 2) {
+			cap <<= 1;
+		}
+		allocate(cap);
+	}
+
+	private void allocate(int cap) {
+		keys = new long[cap];
+		values = new int[cap];
+		Arrays.fill(values, MISSING);
+		mask = cap - 1;
+		resizeAt = cap >>> 1;
+	}
+
+	private static int mix(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	public int size() {return size;}
+
+	public boolean isEmpty() {return size == 0;}
+
+	public boolean containsKey(long key) {return get(key) != MISSING;}
+
+	/**
+	 * @return 对应值；不存在返回 {@link #MISSING}
+	 */
+	public int get(long key) {
+		int i = mix(key) & mask;
+		int v;
+		while ((v = values[i]) != MISSING) {
+			if (keys[i] == key) {
+				return v;
+			}
+			i = (i + 1) & mask;
+		}
+		return MISSING;
+	}
+
+	/**
+	 * @return 旧值；不存在返回 {@link #MISSING}
+	 * @throws IllegalArgumentException value &lt; 0
+	 */
+	public int put(long key, int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("value must be >= 0");
+		}
+		int i = mix(key) & mask;
+		int v;
+		while ((v = values[i]) != MISSING) {
+			if (keys[i] == key) {
+				values[i] = value;
+				return v;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = value;
+		if (++size >= resizeAt) {
+			rehash(keys.length << 1);
+		}
+		return MISSING;
+	}
+
+	/**
+	 * @return 被删除的值；不存在返回 {@link #MISSING}
+	 */
+	public int remove(long key) {
+		int i = mix(key) & mask;
+		int v;
+		while ((v = values[i]) != MISSING) {
+			if (keys[i] == key) {
+				shiftBack(i);
+				size--;
+				return v;
+			}
+			i = (i + 1) & mask;
+		}
+		return MISSING;
+	}
+
+	private void shiftBack(int hole) {
+		int i = hole;
+		while (true) {
+			i = (i + 1) & mask;
+			int v = values[i];
+			if (v == MISSING) {
+				break;
+			}
+			int home = mix(keys[i]) & mask;
+			// home 不在 (hole, i] 区间内（环形）时，元素可以回移到 hole
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				keys[hole] = keys[i];
+				values[hole] = v;
+				hole = i;
+			}
+		}
+		values[hole] = MISSING;
+	}
+
+	/**
+	 * 清空元素，保留已分配容量。
+	 */
+	public void clear() {
+		if (size == 0) {
+			return;
+		}
+		Arrays.fill(values, MISSING);
+		size = 0;
+	}
+
+	private void rehash(int newCap) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(newCap);
+		for (int j = 0; j < oldValues.length; j++) {
+			int v = oldValues[j];
+			if (v == MISSING) {
+				continue;
+			}
+			int i = mix(oldKeys[j]) & mask;
+			while (values[i] != MISSING) {
+				i = (i + 1) & mask;
+			}
+			keys[i] = oldKeys[j];
+			values[i] = v;
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package icu.match.core;
+
+import java.util.Arrays;
+
+/**
+ * long → 对象 的开放寻址哈希表（线性探测 + 删除时回移），用于替代 {@code HashMap<Long, V>}。
+ * <p>键不装箱、无 Entry 对象，put 仅在扩容时分配，get/remove 不分配。value 不允许为 null（null 表示空槽）。</p>
+ * <p>非线程安全，与订单簿一样只在撮合线程内使用。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class LongObjectMap<V> {
+
+	private static final int MIN_CAPACITY = 8;
+
+	private long[] keys;
+
+	private Object[] values;
+
+	private int mask;
+
+	private int size;
+
+	/**
+	 * size 达到该值时扩容（负载因子 1/2，线性探测平均探测长度约 1.5 次）
+	 */
+	private int resizeAt;
+
+	public LongObjectMap() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 * @param expected 预期元素个数，用于确定初始容量
+	 */
+	public LongObjectMap(int expected) {
+		if (expected < 0) {
+			throw new IllegalArgumentException("expected must be >= 0");
+		}
+		int cap = MIN_CAPACITY;
+		while (cap < expected * 2) {
+			cap <<= 1;
+		}
+		allocate(cap);
+	}
+
+	private void allocate(int cap) {
+		keys = new long[cap];
+		values = new Object[cap];
+		mask = cap - 1;
+		resizeAt = cap >>> 1;
+	}
+
+	private static int mix(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	public int size() {return size;}
+
+	public boolean isEmpty() {return size == 0;}
+
+	public boolean containsKey(long key) {return get(key) != null;}
+
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		int i = mix(key) & mask;
+		Object v;
+		while ((v = values[i]) != null) {
+			if (keys[i] == key) {
+				return (V) v;
+			}
+			i = (i + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * @return 旧值；不存在返回 null
+	 * @throws IllegalArgumentException value 为 null
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (value == null) {
+			throw new IllegalArgumentException("value must not be null");
+		}
+		int i = mix(key) & mask;
+		Object v;
+		while ((v = values[i]) != null) {
+			if (keys[i] == key) {
+				values[i] = value;
+				return (V) v;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = value;
+		if (++size >= resizeAt) {
+			rehash(keys.length << 1);
+		}
+		return null;
+	}
+
+	/**
+	 * 删除后将同一探测链上的后继元素回移填补空洞，无需墓碑标记。
+	 *
+	 * @return 被删除的值；不存在返回 null
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		int i = mix(key) & mask;
+		Object v;
+		while ((v = values[i]) != null) {
+			if (keys[i] == key) {
+				shiftBack(i);
+				size--;
+				return (V) v;
+			}
+			i = (i + 1) & mask;
+		}
+		return null;
+	}
+
+	private void shiftBack(int hole) {
+		int i = hole;
+		while (true) {
+			i = (i + 1) & mask;
+			Object v = values[i];
+			if (v == null) {
+				break;
+			}
+			int home = mix(keys[i]) & mask;
+			// home 不在 (hole, i] 区间内（环形）时，元素可以回移到 hole
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				keys[hole] = keys[i];
+				values[hole] = v;
+				hole = i;
+			}
+		}
+		values[hole] = null;
+	}
+
+	/**
+	 * 清空元素，保留已分配容量。
+	 */
+	public void clear() {
+		if (size == 0) {
+			return;
+		}
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	private void rehash(int newCap) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(newCap);
+		for (int j = 0; j < oldValues.length; j++) {
+			Object v = oldValues[j];
+			if (v == null) {
+				continue;
+			}
+			int i = mix(oldKeys[j]) & mask;
+			while (values[i] != null) {
+				i = (i + 1) & mask;
+			}
+			keys[i] = oldKeys[j];
+			values[i] = v;
+		}
+	}
+}
@@ -23,6 +23,16 @@ public final class OrderNode {
 	 */
 	long time;
 
+	/**
+	 * 入队序号：入簿与改大数量重新排队时由订单簿递增分配，同价位内按其升序即 FIFO 顺序
+	 */
+	long seq;
+
+	/**
+	 * 最近一次被复制进快照的轮次，订单簿据此判断本轮快照是否已含该节点
+	 */
+	long snapEpoch;
+
 	/**
 	 * 通过对象池初始化的
 	 */
@@ -38,6 +48,19 @@ public final class OrderNode {
 
 	OrderNode next;
 
+	/**
+	 * 所在价位（入队时由 PriceLevel 设置，出队时清空）。
+	 * 价位在冷热区之间迁移时整体移动，因此回指始终有效，撤单/改单可据此免去价格查找。
+	 */
+	PriceLevel level;
+
+	/**
+	 * 簿内全部挂单按入簿先后串成的链（由订单簿维护），快照游标沿此链推进，不受价位在冷热区间迁移的影响
+	 */
+	OrderNode older;
+
+	OrderNode newer;
+
 	/**
 	 * 仅池内调用
 	 */
@@ -47,10 +70,15 @@ public final class OrderNode {
 		this.ask = ask;
 		this.qty = qty;
 		this.time = System.nanoTime();
+		this.seq = 0L;
+		this.snapEpoch = 0L;
 		this.used = true;
 		this.pooled = pooled;
 		this.prev = null;
 		this.next = null;
+		this.level = null;
+		this.older = null;
+		this.newer = null;
 	}
 
 	/**
@@ -59,22 +87,13 @@ public final class OrderNode {
 	void reset() {
 		this.prev = null;
 		this.next = null;
+		this.level = null;
+		this.older = null;
+		this.newer = null;
 		this.qty = 0L;
 		this.used = false;
 	}
 
-	@Override
-	protected OrderNode clone() {
-		try {
-			OrderNode clone = (OrderNode) super.clone();
-			clone.prev = null;
-			clone.next = null;
-			return clone;
-		} catch (Exception e) {
-			return null;
-		}
-	}
-
 	@Override
 	public String toString() {
 		return "OrderNode{orderId=" + orderId + ", userId=" + userId + ", qty=" + qty + '}';
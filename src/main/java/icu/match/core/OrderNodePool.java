@@ -0,0 +1,21 @@
+package icu.match.core;
+
+import icu.match.core.model.PoolStats;
+
+/**
+ * OrderNode 池：撮合线程内分配与回收挂单节点。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public interface OrderNodePool {
+
+	OrderNode alloc(long orderId, long userId, boolean ask, long qty);
+
+	/**
+	 * 节点必须已从价位队列摘除
+	 */
+	void free(OrderNode node);
+
+	PoolStats stats();
+}
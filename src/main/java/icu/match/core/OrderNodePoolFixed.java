@@ -1,5 +1,6 @@
 package icu.match.core;
 
+import icu.match.core.model.PoolStats;
 import lombok.Getter;
 
 import java.util.ArrayDeque;
@@ -10,7 +11,7 @@ import java.util.Deque;
  * @author 中本君
  * @date 2025/8/16
  */
-public final class OrderNodePoolFixed {
+public final class OrderNodePoolFixed implements OrderNodePool {
 
 	@Getter
 	private final int poolSize;
@@ -62,6 +63,7 @@ public final class OrderNodePoolFixed {
 	/**
 	 * 分配：优先复用池；池空 → 溢出 new（pooled=false）
 	 */
+	@Override
 	public OrderNode alloc(long orderId, long userId, boolean ask, long qty) {
 		final OrderNode n;
 		OrderNode fromPool = freeStack.pollLast();
@@ -85,6 +87,7 @@ public final class OrderNodePoolFixed {
 	/**
 	 * 释放：池内节点归还池；溢出节点丢给GC
 	 */
+	@Override
 	public void free(OrderNode node) {
 		if (!node.used) {
 			throw new IllegalStateException("double free: orderId=" + node.orderId);
@@ -101,4 +104,10 @@ public final class OrderNodePoolFixed {
 			releasedOverflowCount++;
 		}
 	}
+
+	@Override
+	public PoolStats stats() {
+		long inUseOverflow = Math.max(0, overflowAlloc - releasedOverflowCount);
+		return new PoolStats("fixed", inUsePooled + inUseOverflow, peakInUse, overflowAlloc, 1, poolSize);
+	}
 }
@@ -2,22 +2,15 @@ package icu.match.core;
 
 import lombok.Getter;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
- * 价位内订单队列：双向链表 + orderId 索引。
+ * 价位内订单队列：侵入式双向链表。
+ * <p>不维护 orderId 索引：订单簿已按 orderId 索引到节点，摘除、改量、移到队尾均直接传入节点，O(1) 且不做哈希。</p>
  *
  * @author 中本君
  * @date 2025/8/12
  */
 public class OrderQueue {
 
-	/**
-	 *  orderId -> 节点映射（O(1) 定位/删除/修改）
-	 */
-	private final Map<Long, OrderNode> byId = new HashMap<>(64);
-
 	/**
 	 * 队列元素个数
 	 */
@@ -46,38 +39,34 @@ public class OrderQueue {
 	 */
 	public boolean isEmpty() {return size == 0;}
 
-	/**
-	 * 根据订单 ID 获取节点。
-	 *
-	 * @param orderId 订单 ID
-	 * @return 节点或 null
-	 */
-	public OrderNode get(long orderId) {return byId.get(orderId);}
-
 	/**
 	 * 尾插入队（FIFO）。
-	 * <p>该方法只处理链表与索引，不负责节点回收。</p>
+	 * <p>该方法只处理链表，不负责节点回收；orderId 唯一性由订单簿的索引保证。</p>
 	 *
 	 * @param node 由上层分配且当前未链接的节点
 	 * @throws IllegalArgumentException 节点为 null
-	 * @throws IllegalStateException    节点已链接或队内存在相同 orderId
+	 * @throws IllegalStateException    节点已链接
 	 */
 	public void push(OrderNode node) {
 		if (node == null) {
 			throw new IllegalArgumentException("node must not be null");
 		}
-		if (node.prev != null || node.next != null) {
+		if (linked(node)) {
 			throw new IllegalStateException("node already linked: orderId=" + node.orderId);
 		}
-		if (byId.containsKey(node.orderId)) {
-			throw new IllegalStateException("duplicate orderId in queue: " + node.orderId);
-		}
 		linkAtTail(node);
-		byId.put(node.orderId, node);
 		size++;
 		totalQty += node.qty;
 	}
 
+	/**
+	 * 节点是否挂在链表上：有前驱/后继，或是本队列唯一的节点。
+	 * <p>只能判断"已链接"，不能区分挂在哪个队列；节点归属由 {@link PriceLevel} 经 {@code node.level} 校验。</p>
+	 */
+	private boolean linked(OrderNode n) {
+		return n.prev != null || n.next != null || n == head;
+	}
+
 	/**
 	 * 将节点挂到链表尾部。
 	 */
@@ -94,14 +83,13 @@ public class OrderQueue {
 	}
 
 	/**
-	 * 按 orderId 删除（仅 unlink，不负责回收）。
+	 * 摘除节点（仅 unlink，不负责回收）。
 	 *
-	 * @param orderId 订单 ID
-	 * @return 被移除的节点；若不存在返回 null
+	 * @param n 当前挂在本队列的节点（由调用方保证）
+	 * @return 被移除的节点；节点未链接（如重复摘除）时返回 null
 	 */
-	public OrderNode remove(long orderId) {
-		OrderNode n = byId.remove(orderId);
-		if (n == null) {
+	public OrderNode remove(OrderNode n) {
+		if (!linked(n)) {
 			return null;
 		}
 		unlink(n);
@@ -111,7 +99,7 @@ public class OrderQueue {
 	}
 
 	/**
-	 * 从链表中摘除指定节点（不负责更新索引或回收）。
+	 * 从链表中摘除指定节点（不负责更新计数或回收）。
 	 */
 	private void unlink(OrderNode n) {
 		OrderNode p = n.prev;
@@ -130,18 +118,17 @@ public class OrderQueue {
 	}
 
 	/**
-	 * 按 orderId 修改数量，并同步更新聚合数量。
+	 * 修改节点数量，并同步更新聚合数量。
 	 *
-	 * @param orderId 订单 ID
-	 * @param newQty  新的数量值（不允许为 0；合法性由上层保证）
-	 * @return true 表示修改成功；false 表示未找到
+	 * @param node   当前挂在本队列的节点（由调用方保证）
+	 * @param newQty 新的数量值（不允许为 0）
+	 * @return true 表示修改成功；false 表示节点未链接
 	 */
-	public boolean patchQty(long orderId, long newQty) {
+	public boolean patchQty(OrderNode node, long newQty) {
 		if (newQty <= 0) {
 			throw new IllegalArgumentException("newQty must be greater than 0");
 		}
-		OrderNode node = byId.get(orderId);
-		if (node == null) {
+		if (!linked(node)) {
 			return false;
 		}
 		long delta = newQty - node.qty;
@@ -150,6 +137,23 @@ public class OrderQueue {
 		return true;
 	}
 
+	/**
+	 * 将节点移到队尾（丢失时间优先级），元素个数与聚合数量不变。
+	 *
+	 * @param node 当前挂在本队列的节点（由调用方保证）
+	 * @return true 表示移动成功；false 表示节点未链接
+	 */
+	public boolean moveToTail(OrderNode node) {
+		if (!linked(node)) {
+			return false;
+		}
+		if (node != tail) {
+			unlink(node);
+			linkAtTail(node);
+		}
+		return true;
+	}
+
 	// —— 内部链表操作 ——
 
 	/**
@@ -163,7 +167,6 @@ public class OrderQueue {
 		head = tail = null;
 		size = 0;
 		totalQty = 0L;
-		byId.clear();
 		return first;
 	}
 }
@@ -53,6 +53,10 @@ public final class PriceLevel {
 			throw new IllegalArgumentException("newQty must be greater than 0");
 		}
 
+		if (node.level != null) {
+			throw new IllegalStateException("node already in a level: orderId=" + node.orderId);
+		}
+
 		// 队列为空 → 由首单设定本价位方向；非空 → 必须一致
 		if (queue.isEmpty()) {
 			this.ask = node.ask;
@@ -61,6 +65,7 @@ public final class PriceLevel {
 		}
 
 		this.queue.push(node);
+		node.level = this;
 	}
 
 	/**
@@ -70,20 +75,52 @@ public final class PriceLevel {
 
 	/**
 	 * 修改指定订单的数量
+	 *
+	 * @return false 表示节点不在本价位
+	 */
+	public boolean patchQty(OrderNode node, long newQty) {
+		if (node.level != this) {
+			return false;
+		}
+		return queue.patchQty(node, newQty);
+	}
+
+	/**
+	 * 修改数量并移到队尾（改大数量时丢失时间优先级）
+	 *
+	 * @return false 表示节点不在本价位
 	 */
-	public boolean patchQty(long orderId, long newQty) {return queue.patchQty(orderId, newQty);}
+	public boolean requeue(OrderNode node, long newQty) {
+		if (node.level != this) {
+			return false;
+		}
+		return queue.patchQty(node, newQty) && queue.moveToTail(node);
+	}
 
 	public boolean isEmpty() {return queue.isEmpty();}
 
 	/**
-	 * 撤单：按订单 ID 摘除（不回收）
+	 * 撤单：摘除节点（不回收）
+	 *
+	 * @return 被摘除的节点；节点不在本价位时返回 null
 	 */
-	public OrderNode cancel(long orderId) {return queue.remove(orderId);}
+	public OrderNode cancel(OrderNode node) {return detach(node);}
 
 	/**
-	 * 完全成交删除：按订单 ID 摘除（不回收）
+	 * 完全成交删除：摘除节点（不回收）
+	 *
+	 * @return 被摘除的节点；节点不在本价位时返回 null
 	 */
-	public OrderNode remove(long orderId) {return queue.remove(orderId);}
+	public OrderNode remove(OrderNode node) {return detach(node);}
+
+	private OrderNode detach(OrderNode node) {
+		if (node.level != this) {
+			return null;
+		}
+		queue.remove(node);
+		node.level = null;
+		return node;
+	}
 
 	public int size() {return queue.getSize();}
 
@@ -1,102 +1,178 @@
 package icu.match.core;
 
-import lombok.Getter;
+import icu.match.core.interfaces.RecenterPolicy;
+import icu.match.core.model.RecenterSignals;
 
 import java.util.List;
 
 /**
  * 热区再平衡管理器（单线程）。
- * <p>依据 lastIdx 相对 lowIdx 的位置比（0%..100%），将热区窗口向左/右微调，维持“成交枢轴”居中。</p>
+ * <p>汇总窗口位置、成交价速度与窗口边缘的冷区挂单量，交由 {@link RecenterPolicy} 决定迁移方向与步数，
+ * 默认 {@link FixedRecenterPolicy}：依据最优买价相对 lowIdx 的位置比（0%..100%）把窗口向左/右微调，维持居中。</p>
  *
- * 判定策略：
+ * 调用时机：
  * <ul>
- *   <li>位置比 ratio = ((lastIdx - lowIdx) & mask) / (length - 1) * 100。</li>
- *   <li>目标中心默认 50%，偏离阈值按 10% 为一个档：偏离 X% ⇒ 执行 floor(X/10) 次单步迁移，最多 4 次。</li>
- *   <li>ratio &lt; target ⇒ 窗口左移（引入更低的价，增大 ratio）；ratio &gt; target ⇒ 窗口右移（引入更高的价，减小 ratio）。</li>
+ *   <li>{@link #checkAndRecenter()}：maker 完全成交后，位于撮合关键路径。</li>
+ *   <li>{@link #recenterIdle(long)}：两批事件之间的空闲间隙，按时间预算逐步执行，不占用撮合时间。</li>
  * </ul>
  *
  * 迁移细节：
  * <ul>
- *   <li>每步迁移均为一次冷热交换：取“将要进入窗口一侧”的精确价位，如冷区不存在则用同价位的空 PriceLevel 占位。</li>
- *   <li>左移一步：进入价 = 当前 highPrice（ASK）；右移一步：进入价 = 当前 lowPrice（BID）。</li>
+ *   <li>左移一步：弹出冷区最优 BID 并迁入窗口；右移一步：弹出冷区最优 ASK 并迁入窗口；冷区该侧为空时该步不迁移。</li>
  *   <li>调用 {@link RingOrderBuffer#migrate(PriceLevel)} 执行一步迁移，并把被逐出的价位回灌冷区。</li>
- *   <li>不修改 lastIdx/lastPrice（仍然只在成交后由撮合核调用 recordTradePrice 更新）。</li>
+ *   <li>迁移只搬动整个价位，不改变价位内的队列顺序，撮合结果与窗口位置无关。</li>
  * </ul>
  */
 public final class RecenterManager {
 
+	/**
+	 * 成交价速度的指数移动平均系数
+	 */
+	private static final double VELOCITY_ALPHA = 0.2;
+
 	private final RingOrderBuffer ring;
 
 	private final ColdOrderBuffer cold;
 
-	/** 目标中心百分比（0..100），默认 50。 */
-	@Getter
-	private final double targetCenterPercent = 50.0;
+	private final RecenterPolicy policy;
 
-	/** 每 10% 偏离执行 1 次迁移。 */
-	@Getter
-	private final double stepPercent = 10.0;
+	/**
+	 * 复用的信号对象
+	 */
+	private final RecenterSignals signals = new RecenterSignals();
 
-	/** 单次调用的最大迁移步数上限，默认 4。 */
-	@Getter
-	private final int maxStepsPerCall = 4;
+	/**
+	 * 边缘带宽（价格）：落入冷区且距窗口上下沿不超过该值的挂单计入边缘压力，取窗口宽度的 1/8
+	 */
+	private final long edgeBand;
+
+	private long lastTradePrice;
+
+	private boolean traded;
 
 	public RecenterManager(RingOrderBuffer ring, ColdOrderBuffer cold) {
+		this(ring, cold, new FixedRecenterPolicy());
+	}
+
+	public RecenterManager(RingOrderBuffer ring, ColdOrderBuffer cold, RecenterPolicy policy) {
 		if (ring == null) {
 			throw new IllegalArgumentException("ring must not be null");
 		}
 		if (cold == null) {
 			throw new IllegalArgumentException("cold must not be null");
 		}
+		if (policy == null) {
+			throw new IllegalArgumentException("policy must not be null");
+		}
 		this.ring = ring;
 		this.cold = cold;
+		this.policy = policy;
+		this.edgeBand = Math.max(1, (ring.getHighPrice() - ring.getLowPrice()) / 8);
+	}
+
+	/** 默认策略的目标中心百分比（0..100）。 */
+	public double getTargetCenterPercent() {
+		return FixedRecenterPolicy.TARGET_CENTER_PERCENT;
+	}
+
+	/** 默认策略每偏离多少百分比执行 1 次迁移。 */
+	public double getStepPercent() {
+		return FixedRecenterPolicy.STEP_PERCENT;
 	}
 
+	/** 默认策略单次调用的最大迁移步数。 */
+	public int getMaxStepsPerCall() {
+		return FixedRecenterPolicy.MAX_STEPS_PER_CALL;
+	}
+
+	/**
+	 * 记录一次成交价，更新成交价速度
+	 */
+	public void onTrade(long price) {
+		if (traded) {
+			double delta = (double) (price - lastTradePrice) / ring.getStep();
+			signals.setVelocity(signals.getVelocity() + VELOCITY_ALPHA * (delta - signals.getVelocity()));
+		}
+		lastTradePrice = price;
+		traded = true;
+	}
+
+	/**
+	 * 记录一笔落入冷区的挂单，紧邻窗口边缘的计入该侧压力
+	 */
+	public void onColdSubmit(long price) {
+		if (price < ring.getLowPrice()) {
+			if (ring.getLowPrice() - price <= edgeBand) {
+				signals.setColdNearLow(signals.getColdNearLow() + 1);
+			}
+		} else if (price > ring.getHighPrice() && price - ring.getHighPrice() <= edgeBand) {
+			signals.setColdNearHigh(signals.getColdNearHigh() + 1);
+		}
+	}
 
 	/**
-	 * 检查是否需要再平衡；若需要，则按偏离程度执行 1..4 次单步冷热交换。
+	 * 成交后检查是否需要再平衡；若需要，则按策略给出的步数执行单步冷热交换。
 	 *
 	 * @return 实际执行的迁移步数
 	 */
 	public int checkAndRecenter() {
-		final double ratio = ring.getSlopeRate();
-		final double deviation = Math.abs(ratio - targetCenterPercent);
-		int planned = (int) Math.floor(deviation / stepPercent);
-		if (planned <= 0) {
-			return 0;
-		}
-		if (planned > maxStepsPerCall) {
-			planned = maxStepsPerCall;
+		int planned = plan(false);
+		int done = 0;
+		for (int i = 0; i < Math.abs(planned); i++) {
+			step(planned < 0);
+			done++;
 		}
+		return done;
+	}
 
-		// ratio < target ⇒ 左移；ratio > target ⇒ 右移
-		final boolean moveLeft = ratio < targetCenterPercent;
-
+	/**
+	 * 批间空闲时再平衡：按策略给出的步数逐步执行，用尽时间预算即停止，剩余步数留待下次。
+	 *
+	 * @param budgetNanos 本次可用时间（纳秒），不大于 0 时不执行
+	 * @return 实际执行的迁移步数
+	 */
+	public int recenterIdle(long budgetNanos) {
+		if (budgetNanos <= 0) {
+			return 0;
+		}
+		long deadline = System.nanoTime() + budgetNanos;
+		int planned = plan(true);
 		int done = 0;
-		for (int i = 0; i < planned; i++) {
-			if (moveLeft) {
-				// 进入价位 = 当前 highPrice，方向 ASK
-				PriceLevel incoming = cold.popBestBid();
-				// 当冷区一直没数据 且热区一直偏移时
-				// 此刻新订单提交时即使离市价很近 也会先添加到冷区 然后才迁移到热区
-				if (incoming != null) {
-					List<PriceLevel> evicted = ring.migrate(incoming);
-					putBackNonEmpty(evicted);
-				}
-			}
-			else {
-				// 进入价位 = 当前 lowPrice，方向 BID
-				PriceLevel incoming = cold.popBestAsk();
-				if (incoming != null) {
-					List<PriceLevel> evicted = ring.migrate(incoming);
-					putBackNonEmpty(evicted);
-				}
-			}
+		for (int i = 0; i < Math.abs(planned); i++) {
+			step(planned < 0);
 			done++;
+			if (System.nanoTime() - deadline >= 0) {
+				break;
+			}
 		}
 		return done;
 	}
 
+	private int plan(boolean idle) {
+		signals.setSlopeRate(ring.getSlopeRate());
+		return policy.plan(signals, idle);
+	}
+
+	/**
+	 * 单步迁移；该侧边缘压力随之清零
+	 */
+	private void step(boolean moveLeft) {
+		PriceLevel incoming;
+		if (moveLeft) {
+			incoming = cold.popBestBid();
+			signals.setColdNearLow(0);
+		} else {
+			incoming = cold.popBestAsk();
+			signals.setColdNearHigh(0);
+		}
+		// 当冷区一直没数据 且热区一直偏移时
+		// 此刻新订单提交时即使离市价很近 也会先添加到冷区 然后才迁移到热区
+		if (incoming != null) {
+			List<PriceLevel> evicted = ring.migrate(incoming);
+			putBackNonEmpty(evicted);
+		}
+	}
+
 
 	/**
 	 * 将被逐出的热档回灌冷区（忽略空档）。
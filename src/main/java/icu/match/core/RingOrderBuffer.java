@@ -34,6 +34,7 @@ public final class RingOrderBuffer {
 	/**
 	 * 价格步长（tick，>0）
 	 */
+	@Getter
 	private final long step;
 
 	/**
@@ -54,6 +55,21 @@ public final class RingOrderBuffer {
 
 	private final PriceLevel[] levels;
 
+	/**
+	 * 非空买/卖价位的槽位位图，与 levels 同下标；价位由空变非空、由非空变空及迁移换槽时维护
+	 */
+	private final LevelBitmap bidBits;
+
+	private final LevelBitmap askBits;
+
+	/**
+	 * 买/卖各槽位挂单数量的树状数组，与 levels 同下标；经本类的提交、改量、摘除及迁移换槽维护，
+	 * 限价以内的累计数量 O(log n) 求得
+	 */
+	private final FenwickTree bidQty;
+
+	private final FenwickTree askQty;
+
 	/**
 	 * 环形数组的左右边界索引。
 	 */
@@ -121,6 +137,10 @@ public final class RingOrderBuffer {
 		// 保持初始数组的价格升序排序
 		this.levels = new PriceLevel[len];
 		this.priceArr = new long[len];
+		this.bidBits = new LevelBitmap(len);
+		this.askBits = new LevelBitmap(len);
+		this.bidQty = new FenwickTree(len);
+		this.askQty = new FenwickTree(len);
 		for (int i = 0; i < len; i++) {
 			long priceAtIdx = lowPrice + (long) i * step;
 			priceArr[i] = priceAtIdx;
@@ -162,9 +182,11 @@ public final class RingOrderBuffer {
 		PriceLevel level = levels[idx];
 		if (level.isEmpty()) {
 			// 当前level 开始有数据 尝试更新买1卖1价
+			(node.ask ? askBits : bidBits).set(idx);
 			updateBestOnAdded(node.ask, price);
 		}
 		level.submit(node);
+		(node.ask ? askQty : bidQty).add(idx, node.qty);
 	}
 
 	/**
@@ -195,16 +217,22 @@ public final class RingOrderBuffer {
 
 	/**
 	 * 撤单
-	 * 按价格与订单 ID 从对应价位摘除
-	 * @param price 用于定位PriceLevel
-	 * @param orderId 用于定位OrderNode
-	 * @return OrderNode
+	 * 经节点回指的价位定位槽位后摘除
+	 * @param node 挂在热区的节点
+	 * @return OrderNode；节点不在热区价位时返回 null
 	 */
-	public OrderNode cancel(long price, long orderId) {
-		int idx = getIdxByPrice(price);
-		OrderNode cancel = levels[idx].cancel(orderId);
+	public OrderNode cancel(OrderNode node) {
+		if (node.level == null) {
+			return null;
+		}
+		int idx = getIdxByPrice(node.level.getPrice());
+		OrderNode cancel = levels[idx].cancel(node);
+		if (cancel != null) {
+			(cancel.ask ? askQty : bidQty).add(idx, -cancel.qty);
+		}
 		if (cancel != null && levels[idx].isEmpty()) {
 			// 成功撤单后 该槽为空 尝试更新最优买1卖1价格
+			(cancel.ask ? askBits : bidBits).clear(idx);
 			updateBestOnRemoved(cancel.ask, idx);
 		}
 		return cancel;
@@ -226,19 +254,9 @@ public final class RingOrderBuffer {
 	 * 获取最优Bid挂单
 	 */
 	private PriceLevel getBestBidLevel() {
-		int i = bestBidIdx;
-		while (true) {
-			PriceLevel lvl = levels[i];
-			if (!lvl.isEmpty() && !lvl.isAsk()) {
-				// 第一个非空 BID 即为最优（价格单调递增）
-				return lvl;
-			}
-			if (i == lowIdx) {
-				break;
-			}
-			i = (i - 1) & mask;
-		}
-		return null;
+		// 自 bestBidIdx 向左第一个非空 BID 即为最优（价格单调递增）
+		int i = prevBid(bestBidIdx);
+		return i < 0 ? null : levels[i];
 	}
 
 	// ------------------------------------------------------------------
@@ -249,53 +267,70 @@ public final class RingOrderBuffer {
 	 * 获取最优Ask挂单
 	 */
 	private PriceLevel getBestAskLevel() {
-		int i = bestAskIdx;
-		while (true) {
-			PriceLevel lvl = levels[i];
-			if (!lvl.isEmpty() && lvl.isAsk()) {
-				// 第一个非空 ASK 即为最优
-				return lvl;
-			}
-			if (i == highIdx) {
-				break;
-			}
-			i = (i + 1) & mask;
+		// 自 bestAskIdx 向右第一个非空 ASK 即为最优
+		int i = nextAsk(bestAskIdx);
+		return i < 0 ? null : levels[i];
+	}
+
+	/**
+	 * 窗口内自 from 向右（至 highIdx）第一个非空 ASK 槽位，没有则 -1；环绕时拆成两段查位图
+	 */
+	private int nextAsk(int from) {
+		if (from <= highIdx) {
+			return askBits.next(from, highIdx);
 		}
-		return null;
+		int i = askBits.next(from, mask);
+		return i >= 0 ? i : askBits.next(0, highIdx);
 	}
 
 	/**
-	 * 获取可与taker价格立即撮合的总数量
+	 * 窗口内自 from 向左（至 lowIdx）第一个非空 BID 槽位，没有则 -1
+	 */
+	private int prevBid(int from) {
+		if (from >= lowIdx) {
+			return bidBits.prev(from, lowIdx);
+		}
+		int i = bidBits.prev(from, 0);
+		return i >= 0 ? i : bidBits.prev(mask, lowIdx);
+	}
+
+	/**
+	 * 获取热区内可与taker价格立即撮合的总数量
+	 * 对手方价格不劣于 takerPrice 的各槽位数量经树状数组求和 O(log n)
 	 * @param takerSide taker方向
 	 * @param takerPrice taker价格
 	 * @return
 	 */
 	public long getTotalQty(byte takerSide, long takerPrice) {
-		long rlt = 0;
 		if (OrderSide.isAsk(takerSide)) {
-			// ask
-			int idx = bestBidIdx;
-			while (getLeftIdx(idx) != bestAskIdx) {
-				PriceLevel level = levels[idx];
-				if (level.getPrice() < takerPrice) {
-					break;
-				}
-				rlt += level.totalQty();
-				idx = getLeftIdx(idx);
-			}
-		} else {
-			// bid
-			int idx = bestAskIdx;
-			while (getLeftIdx(idx) != bestBidIdx) {
-				PriceLevel level = levels[idx];
-				if (level.getPrice() > takerPrice) {
-					break;
-				}
-				rlt += levels[idx].totalQty();
-				idx = getRightIdx(idx);
+			// ask 吃 price >= takerPrice 的买单
+			if (takerPrice > highPrice) {
+				return 0;
 			}
+			long fromOfs = takerPrice <= lowPrice
+						   ? 0
+						   : (takerPrice - lowPrice + step - 1) / step;
+			return windowSum(bidQty, (int) fromOfs, mask);
 		}
-		return rlt;
+		// bid 吃 price <= takerPrice 的卖单
+		if (takerPrice < lowPrice) {
+			return 0;
+		}
+		long toOfs = takerPrice >= highPrice
+					 ? mask
+					 : (takerPrice - lowPrice) / step;
+		return windowSum(askQty, 0, (int) toOfs);
+	}
+
+	/**
+	 * 窗口内相对 lowIdx 偏移 [fromOfs, toOfs] 的槽位数量之和；跨越数组末尾时拆成两段
+	 */
+	private long windowSum(FenwickTree qty, int fromOfs, int toOfs) {
+		int from = (lowIdx + fromOfs) & mask;
+		int to = (lowIdx + toOfs) & mask;
+		return from <= to
+			   ? qty.range(from, to)
+			   : qty.range(from, mask) + qty.range(0, to);
 	}
 
 
@@ -305,16 +340,22 @@ public final class RingOrderBuffer {
 
 	/**
 	 * 完全成交删除
-	 * 按价格与订单 ID 从对应价位摘除
-	 * @param price 用于定位PriceLevel
-	 * @param orderId 用于定位OrderNode
-	 * @return OrderNode
+	 * 经节点回指的价位定位槽位后摘除
+	 * @param node 挂在热区的节点
+	 * @return OrderNode；节点不在热区价位时返回 null
 	 */
-	public OrderNode remove(long price, long orderId) {
-		int idx = getIdxByPrice(price);
-		OrderNode remove = levels[idx].remove(orderId);
+	public OrderNode remove(OrderNode node) {
+		if (node.level == null) {
+			return null;
+		}
+		int idx = getIdxByPrice(node.level.getPrice());
+		OrderNode remove = levels[idx].remove(node);
+		if (remove != null) {
+			(remove.ask ? askQty : bidQty).add(idx, -remove.qty);
+		}
 		if (remove != null && levels[idx].isEmpty()) {
 			// 成功删除后 该槽为空 尝试更新最优买1卖1价格
+			(remove.ask ? askBits : bidBits).clear(idx);
 			updateBestOnRemoved(remove.ask, idx);
 		}
 		return remove;
@@ -323,12 +364,34 @@ public final class RingOrderBuffer {
 	/**
 	 * 修改订单数量
 	 *
-	 * @param price 定位订单槽
-	 * @param orderId 订单Id
+	 * @param node 挂在热区的节点
 	 * @param newQty 新数量
 	 */
-	public boolean patchQty(long price, long orderId, long newQty) {
-		return levels[getIdxByPrice(price)].patchQty(orderId, newQty);
+	public boolean patchQty(OrderNode node, long newQty) {
+		if (node.level == null) {
+			return false;
+		}
+		int idx = getIdxByPrice(node.level.getPrice());
+		PriceLevel level = levels[idx];
+		long before = level.totalQty();
+		boolean patched = level.patchQty(node, newQty);
+		(level.isAsk() ? askQty : bidQty).add(idx, level.totalQty() - before);
+		return patched;
+	}
+
+	/**
+	 * 修改订单数量并移到该价位队尾（改大数量）
+	 */
+	public boolean requeue(OrderNode node, long newQty) {
+		if (node.level == null) {
+			return false;
+		}
+		int idx = getIdxByPrice(node.level.getPrice());
+		PriceLevel level = levels[idx];
+		long before = level.totalQty();
+		boolean requeued = level.requeue(node, newQty);
+		(level.isAsk() ? askQty : bidQty).add(idx, level.totalQty() - before);
+		return requeued;
 	}
 
 	/**
@@ -372,14 +435,14 @@ public final class RingOrderBuffer {
 		int idx = getIdxByPrice(price);
 		if (ask && price < this.bestAskPrice) {
 			// 新增订单为ask 且卖价更优 尝试更新卖1价格
-			log.info("updateBestOnAdded, bestAskIdx [{} -> {}] bestAskPrice [{} -> {}] ", bestAskIdx, idx,
+			log.debug("updateBestOnAdded, bestAskIdx [{} -> {}] bestAskPrice [{} -> {}] ", bestAskIdx, idx,
 					 bestAskPrice,
 					 price);
 			this.bestAskPrice = price;
 			this.bestAskIdx = idx;
 		} else if (!ask && price > this.bestBidPrice) {
 			// 新增订单为bid 且买价更优 尝试更新买1价格
-			log.info("updateBestOnAdded, bestBidIdx [{} -> {}] bestBidPrice [{} -> {}] ", bestBidIdx, idx,
+			log.debug("updateBestOnAdded, bestBidIdx [{} -> {}] bestBidPrice [{} -> {}] ", bestBidIdx, idx,
 					 bestBidPrice,
 					 price);
 			this.bestBidPrice = price;
@@ -396,23 +459,21 @@ public final class RingOrderBuffer {
 	private void updateBestOnRemoved(boolean ask, int idx) {
 		if (ask && idx == bestAskIdx) {
 			// 撤的是最优卖单价格档位的最后一个挂单
-			// 向右 尝试找到第一个不为空的卖单价格槽
-			while (levels[idx].isEmpty() && idx != highIdx) {
-				idx = getRightIdx(idx);
-			}
+			// 向右 找到第一个不为空的卖单价格槽 没有则停在 highIdx
+			int next = nextAsk(idx);
+			idx = next < 0 ? highIdx : next;
 			long price = getPriceByIdx(idx);
-			log.info("updateBestOnRemoved, bestAskIdx [{} -> {}] bestAskPrice [{} -> {}] ", bestAskIdx, idx,
+			log.debug("updateBestOnRemoved, bestAskIdx [{} -> {}] bestAskPrice [{} -> {}] ", bestAskIdx, idx,
 					 bestAskPrice, price);
 			this.bestAskIdx = idx;
 			this.bestAskPrice = price;
 		} else if (!ask && idx == bestBidIdx) {
 			// 撤的是最优买单价格档位的最后一个挂单
-			// 向左 尝试找到第一个不为空的买单价格槽
-			while (levels[idx].isEmpty() && idx != lowIdx) {
-				idx = getLeftIdx(idx);
-			}
+			// 向左 找到第一个不为空的买单价格槽 没有则停在 lowIdx
+			int prev = prevBid(idx);
+			idx = prev < 0 ? lowIdx : prev;
 			long price = getPriceByIdx(idx);
-			log.info("updateBestOnRemoved, bestBidIdx [{} -> {}] bestBidPrice [{} -> {}] ", bestBidIdx, idx,
+			log.debug("updateBestOnRemoved, bestBidIdx [{} -> {}] bestBidPrice [{} -> {}] ", bestBidIdx, idx,
 					 bestBidPrice, price);
 			this.bestBidIdx = idx;
 			this.bestBidPrice = price;
@@ -501,6 +562,7 @@ public final class RingOrderBuffer {
 
 		priceArr[evictIdx] = coldBid.getPrice();
 		levels[evictIdx] = coldBid;
+		markSlot(evictIdx, evicted, coldBid);
 
 		// 仅更新窗口价格；不改 lastIdx/lastPrice（成交后另行设置）
 		lowPrice = getPriceByIdx(lowIdx);
@@ -509,6 +571,21 @@ public final class RingOrderBuffer {
 		return evicted;
 	}
 
+	/**
+	 * 槽位换入新价位后按其是否有挂单及方向重置位图，并从数量树中扣除被挤出价位、计入换入价位
+	 */
+	private void markSlot(int idx, PriceLevel evicted, PriceLevel level) {
+		bidBits.clear(idx);
+		askBits.clear(idx);
+		if (!evicted.isEmpty()) {
+			(evicted.isAsk() ? askQty : bidQty).add(idx, -evicted.totalQty());
+		}
+		if (!level.isEmpty()) {
+			(level.isAsk() ? askBits : bidBits).set(idx);
+			(level.isAsk() ? askQty : bidQty).add(idx, level.totalQty());
+		}
+	}
+
 	/**
 	 * 基于idx获取其price
 	 */
@@ -533,6 +610,7 @@ public final class RingOrderBuffer {
 
 		priceArr[evictIdx] = coldAsk.getPrice();
 		levels[evictIdx] = coldAsk;
+		markSlot(evictIdx, evicted, coldAsk);
 
 		lowPrice = getPriceByIdx(lowIdx);
 		highPrice = getPriceByIdx(highIdx);
@@ -573,6 +651,9 @@ public final class RingOrderBuffer {
 		return JSON.toJSONString(Arrays.asList(bids, asks));
 	}
 
+	/**
+	 * 热区挂单的同步视图，仅撮合线程（或撮合线程停止后）调用；在线快照见 {@link SimpleOrderBook#beginSnapshot}
+	 */
 	public SnapshotView snapshot() {
 		SnapshotView snapshot = new SnapshotView();
 		for (int i = lowIdx; i != bestAskIdx; i = getRightIdx(i)) {
@@ -582,13 +663,7 @@ public final class RingOrderBuffer {
 			}
 			OrderNode head = lvl.getFirst();
 			while (head != null) {
-				long orderId = head.orderId;
-				OrderNode tmp = head;
-				OrderNode cowObj = SnapshotManage.get(orderId);
-				if (cowObj != null) {
-					tmp = cowObj;
-				}
-				snapshot.appendBid(lvl.getPrice(), tmp.userId, tmp.orderId, tmp.qty);
+				snapshot.appendBid(lvl.getPrice(), head.userId, head.orderId, head.qty, head.time);
 				head = head.next;
 			}
 		}
@@ -600,13 +675,7 @@ public final class RingOrderBuffer {
 			}
 			OrderNode head = lvl.getFirst();
 			while (head != null) {
-				long orderId = head.orderId;
-				OrderNode tmp = head;
-				OrderNode cowObj = SnapshotManage.get(orderId);
-				if (cowObj != null) {
-					tmp = cowObj;
-				}
-				snapshot.appendAsk(lvl.getPrice(), tmp.userId, tmp.orderId, tmp.qty);
+				snapshot.appendAsk(lvl.getPrice(), head.userId, head.orderId, head.qty, head.time);
 				head = head.next;
 			}
 		}
@@ -616,8 +685,4 @@ public final class RingOrderBuffer {
 	private int getRightIdx(int idx) {
 		return (idx + 1) & mask;
 	}
-
-	private int getLeftIdx(int idx) {
-		return (idx - 1) & mask;
-	}
 }
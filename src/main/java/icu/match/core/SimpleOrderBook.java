@@ -6,10 +6,14 @@ package icu.match.core;/**
 
 import icu.match.common.OrderSide;
 import icu.match.common.OrderStatus;
-import icu.match.core.interfaces.BaseOrderBook;
+import icu.match.core.interfaces.RecenterPolicy;
+import icu.match.core.interfaces.SnapshotBook;
+import icu.match.core.interfaces.TradeSink;
 import icu.match.core.model.BestLiqView;
 import icu.match.core.model.MatchTrade;
 import icu.match.core.model.OrderInfo;
+import icu.match.core.model.PoolStats;
+import icu.match.core.snapshot.BookImage;
 import lombok.Getter;
 
 import java.util.Objects;
@@ -18,7 +22,7 @@ import java.util.Objects;
  * @author 中本君
  * @date 2025/8/17 
  */
-public class SimpleOrderBook implements BaseOrderBook {
+public class SimpleOrderBook implements SnapshotBook {
 
 	@Getter
 	private final int symbol;
@@ -29,8 +33,13 @@ public class SimpleOrderBook implements BaseOrderBook {
 
 	private final RecenterManager recenter;
 
-	private final OrderNodePoolFixed pool;
+	private final OrderNodePool pool;
 
+	/**
+	 * 簿内全部挂单（热区 + 冷区）：orderId -> 节点。
+	 * <p>撤单/改单按 orderId O(1) 定位节点，再经 {@code node.level} 直达价位，无需调用方提供价格，也不查冷区树。</p>
+	 */
+	private final LongObjectMap<OrderNode> orders = new LongObjectMap<>(1024);
 
 	/**
 	 * 单对象复用
@@ -40,18 +49,53 @@ public class SimpleOrderBook implements BaseOrderBook {
 	// 单例对象 数据获取时需要先复制
 	private final MatchTrade matchTrade = new MatchTrade();
 
+	/**
+	 * 全部挂单按入簿先后的链表头尾（{@link OrderNode#older}/{@link OrderNode#newer}）
+	 */
+	private OrderNode oldest;
+
+	private OrderNode newest;
+
+	/**
+	 * 入队序号分配器
+	 */
+	private long enqueueSeq;
+
+	/**
+	 * 快照轮次，{@link #beginSnapshot} 时递增
+	 */
+	private long snapEpoch;
+
+	/**
+	 * 进行中的快照副本，null 表示当前无快照
+	 */
+	private BookImage image;
+
+	/**
+	 * 快照游标：沿入簿链表下一个待检查的节点
+	 */
+	private OrderNode cursor;
+
 	public SimpleOrderBook(RingOrderBuffer ring, ColdOrderBuffer cold) {
+		this(ring, cold, new OrderNodePoolChunked(1024, 1, 0, 0));
+	}
+
+	public SimpleOrderBook(RingOrderBuffer ring, ColdOrderBuffer cold, OrderNodePool pool) {
+		this(ring, cold, pool, new FixedRecenterPolicy());
+	}
+
+	public SimpleOrderBook(RingOrderBuffer ring, ColdOrderBuffer cold, OrderNodePool pool, RecenterPolicy policy) {
 		this.symbol = ring.getSymbol();
 		this.ring = Objects.requireNonNull(ring, "ring must not be null");
 		this.cold = Objects.requireNonNull(cold, "cold must not be null");
-		this.recenter = new RecenterManager(ring, cold);
-		this.pool = new OrderNodePoolFixed(64);
+		this.recenter = new RecenterManager(ring, cold, policy);
+		this.pool = Objects.requireNonNull(pool, "pool must not be null");
 	}
 
 	@Override
 	public BestLiqView bestLiq(byte takerSide) {
 		bestLiqView.clear();
-		PriceLevel liq = ring.getBestLevel(takerSide);
+		PriceLevel liq = bestLevel(takerSide);
 		if (liq == null) {
 			return bestLiqView;
 		}
@@ -66,37 +110,41 @@ public class SimpleOrderBook implements BaseOrderBook {
 		PriceLevel liq;
 		bestLiqView.clear();
 
+		// 限价以内的总量：热区经树状数组求和，冷区只遍历限价以内的价位
+		bestLiqView.setTotalQty(ring.getTotalQty(takerSide, takerLimitPrice) +
+								cold.totalQty(!OrderSide.isAsk(takerSide), takerLimitPrice));
 		// 获取最优流动性 设置好最优价格和头节点数量
-		liq = ring.getBestLevel(takerSide);
+		liq = bestLevel(takerSide);
 		if (liq == null) {
 			return bestLiqView;
 		}
 		bestLiqView.setPrice(liq.getPrice());
 		bestLiqView.setHeadQty(liq.getFirst().qty);
-		bestLiqView.setTotalQty(ring.getTotalQty(takerSide, takerLimitPrice));
 		return bestLiqView;
 	}
 
 	@Override
 	public MatchTrade matchHead(byte takerSideCode, long takerQty) {
-		PriceLevel bestPriceLevel = ring.getBestLevel(takerSideCode);
+		PriceLevel bestPriceLevel = bestLevel(takerSideCode);
 		if (bestPriceLevel == null) {
 			throw new IllegalArgumentException("bestPriceLevel must not be null");
 		}
+		boolean hot = ring.isWindow(bestPriceLevel.getPrice());
 		OrderNode makerOrder = bestPriceLevel.getFirst();
 
 		// 计算可撮合数量 两者取小
 		long matchQty = Math.min(takerQty, makerOrder.qty);
 		boolean markerFilled = false;
+		recenter.onTrade(bestPriceLevel.getPrice());
 		if (makerOrder.qty == matchQty) {
 			// makerOrder 完全成交 takerOrder部分成交
 			// 将makerOrder从订单簿移除
-			if (SnapshotManage.prepare) {
-				// 如果此时正在快照 更新前 将旧副本推入影子池
-				// 删除的旧副本为当前
-				SnapshotManage.put(makerOrder.orderId, makerOrder);
-			}
-			OrderNode remove = ring.remove(bestPriceLevel.getPrice(), makerOrder.orderId);
+			preserve(makerOrder);
+			unlink(makerOrder);
+			orders.remove(makerOrder.orderId);
+			OrderNode remove = hot
+							   ? ring.remove(makerOrder)
+							   : cold.remove(makerOrder);
 			pool.free(remove);
 			markerFilled = true;
 			// marker被完全吃单后。如果价格当前整个流动性为空 需要检查窗口偏移情况
@@ -104,52 +152,282 @@ public class SimpleOrderBook implements BaseOrderBook {
 		} else {
 			// makerOrder 部分成交 takerOrder完全成交
 			// 更新 makerOrder qty
-			if (SnapshotManage.prepare) {
-				// 如果此时正在快照 更新前 将旧副本推入影子池
-				// 修改的旧副本为当前
-				SnapshotManage.put(makerOrder.orderId, makerOrder.clone());
-			}
-			ring.patchQty(bestPriceLevel.getPrice(), makerOrder.orderId, makerOrder.qty - matchQty);
+			preserve(makerOrder);
+			patchQty(hot, makerOrder, makerOrder.qty - matchQty);
 		}
 		return matchTrade.fill(symbol, 0, makerOrder.userId, 0, makerOrder.orderId, takerSideCode,
 							   bestPriceLevel.getPrice(), markerFilled, matchQty);
 	}
 
+	/**
+	 * 逐价位扫单：价位对象取一次后沿其队列头连续成交，价位吃空才取下一档。
+	 * 每档取热区与冷区最优价位中更优者，热区对手盘吃空后直接在冷区价位上成交，不等待窗口迁移；再平衡只在结束时执行一次。
+	 */
+	@Override
+	public long sweep(byte takerSideCode, long takerLimitPrice, long takerQty, TradeSink sink) {
+		if (takerQty <= 0) {
+			throw new IllegalArgumentException("takerQty must be greater than 0");
+		}
+		boolean takerAsk = OrderSide.isAsk(takerSideCode);
+		long remaining = takerQty;
+		boolean filledAny = false;
+		while (remaining > 0) {
+			PriceLevel level = bestLevel(takerSideCode);
+			if (level == null || (takerAsk
+								  ? level.getPrice() < takerLimitPrice
+								  : level.getPrice() > takerLimitPrice)) {
+				break;
+			}
+			boolean hot = ring.isWindow(level.getPrice());
+			long price = level.getPrice();
+			recenter.onTrade(price);
+			while (remaining > 0 && !level.isEmpty()) {
+				OrderNode maker = level.getFirst();
+				long makerOrderId = maker.orderId;
+				long makerUserId = maker.userId;
+				long matchQty = Math.min(remaining, maker.qty);
+				boolean makerFilled = maker.qty == matchQty;
+				preserve(maker);
+				if (makerFilled) {
+					unlink(maker);
+					orders.remove(makerOrderId);
+					// 价位吃空时由 ring 更新最优档 冷区价位出树
+					pool.free(hot
+							  ? ring.remove(maker)
+							  : cold.remove(maker));
+					filledAny = true;
+				} else {
+					patchQty(hot, maker, maker.qty - matchQty);
+				}
+				remaining -= matchQty;
+				sink.onTrade(matchTrade.fill(symbol, 0, makerUserId, 0, makerOrderId, takerSideCode, price,
+											 makerFilled, matchQty));
+			}
+		}
+		if (filledAny) {
+			recenter.checkAndRecenter();
+		}
+		return takerQty - remaining;
+	}
+
 	@Override
 	public boolean canMatchImmediately(byte takerSide, long limitPrice) {
+		PriceLevel best = bestLevel(takerSide);
+		if (best == null) {
+			return false;
+		}
+		return OrderSide.isAsk(takerSide)
+			   ? limitPrice <= best.getPrice()
+			   : limitPrice >= best.getPrice();
+	}
+
+	/**
+	 * 对手盘最优价位：热区最优档与冷区最优档中价格更优者，两者均无时为 null。
+	 * <p>热区对手盘吃空、或价格越出窗口的挂单落入冷区时，冷区价位仍可直接成交。</p>
+	 */
+	private PriceLevel bestLevel(byte takerSide) {
+		PriceLevel hot = ring.getBestLevel(takerSide);
+		PriceLevel coldLevel = coldBest(takerSide);
+		if (coldLevel == null) {
+			return hot;
+		}
+		if (hot == null) {
+			return coldLevel;
+		}
+		boolean coldBetter = OrderSide.isAsk(takerSide)
+							 ? coldLevel.getPrice() > hot.getPrice()
+							 : coldLevel.getPrice() < hot.getPrice();
+		return coldBetter ? coldLevel : hot;
+	}
+
+	private PriceLevel coldBest(byte takerSide) {
 		return OrderSide.isAsk(takerSide)
-			   ? limitPrice <= ring.bestBidPrice()
-			   : limitPrice >= ring.bestAskPrice();
+			   ? cold.bestBid()
+			   : cold.bestAsk();
+	}
+
+	/**
+	 * 部分成交改量：热区价位经 ring 以维护累计数量
+	 */
+	private void patchQty(boolean hot, OrderNode node, long newQty) {
+		if (hot) {
+			ring.patchQty(node, newQty);
+		} else {
+			node.level.patchQty(node, newQty);
+		}
 	}
 
 	@Override
 	public OrderStatus submit(OrderInfo orderInfo) {
 		long price = orderInfo.getPrice();
+		if (orders.containsKey(orderInfo.getOrderId())) {
+			throw new IllegalStateException("duplicate orderId in book: " + orderInfo.getOrderId());
+		}
 		OrderNode node = pool.alloc(orderInfo.getOrderId(), orderInfo.getUserId(),
 									OrderSide.isAsk(orderInfo.getSide()),
 									orderInfo.getQty());
-		if (SnapshotManage.prepare) {
-			// 如果此时正在快照 更新前 将旧副本推入影子池
-			// 新增的旧副本为null
-			SnapshotManage.put(orderInfo.getOrderId(), null);
-		}
+		// 以委托时间为准，快照与 WAL 回放得到相同的值
+		node.time = orderInfo.getTime();
 		if (ring.isWindow(price)) {
 			ring.submit(price, node);
 		} else {
 			cold.submit(price, node);
+			recenter.onColdSubmit(price);
 		}
+		orders.put(node.orderId, node);
+		link(node);
 		return OrderStatus.OPEN;
 	}
 
 	@Override
-	public boolean cancel(long price, long orderId) {
-		OrderNode cancel;
-		if (ring.isWindow(price)) {
-			cancel = ring.cancel(price, orderId);
+	public boolean cancel(long orderId) {
+		OrderNode node = orders.remove(orderId);
+		if (node == null) {
+			return false;
+		}
+		preserve(node);
+		unlink(node);
+		long price = node.level.getPrice();
+		OrderNode cancel = ring.isWindow(price)
+						   ? ring.cancel(node)
+						   : cold.cancel(node);
+		if (cancel == null) {
+			throw new IllegalStateException("order indexed but not found in level: " + orderId);
+		}
+		pool.free(cancel);
+		return true;
+	}
+
+	@Override
+	public boolean amend(long orderId, long newQty) {
+		if (newQty <= 0) {
+			throw new IllegalArgumentException("newQty must be greater than 0");
+		}
+		OrderNode node = orders.get(orderId);
+		if (node == null) {
+			return false;
+		}
+		if (newQty == node.qty) {
+			return true;
+		}
+		preserve(node);
+		// 热区价位经 ring 修改，累计数量随之更新
+		long price = node.level.getPrice();
+		boolean hot = ring.isWindow(price);
+		if (newQty < node.qty) {
+			// 减量保留时间优先级
+			patchQty(hot, node, newQty);
+		} else {
+			// 增量视为新委托 排到该价位队尾
+			if (hot) {
+				ring.requeue(node, newQty);
+			} else {
+				node.level.requeue(node, newQty);
+			}
+			node.seq = ++enqueueSeq;
+		}
+		return true;
+	}
+
+	@Override
+	public int onIdle(long budgetNanos) {
+		return recenter.recenterIdle(budgetNanos);
+	}
+
+	@Override
+	public PoolStats poolStats() {
+		return pool.stats();
+	}
+
+	/**
+	 * 簿内挂单笔数（热区 + 冷区）
+	 */
+	public int orderCount() {
+		return orders.size();
+	}
+
+	/**
+	 * 冻结快照：此刻簿内的全部挂单（热区 + 冷区）即本轮快照内容，随后由 {@link #snapshotStep} 分批复制进 image。
+	 * 冻结本身 O(1)；冻结后被成交、撤单、改单的挂单在修改前先复制当时的状态，冻结后新入簿的挂单不进入本轮。
+	 * <p>仅撮合线程调用，且须在两个事件之间调用，调用时的已应用位置即快照对应的 LSN。</p>
+	 *
+	 * @param image 清空后写入；快照完成前不得被其他线程读取
+	 */
+	@Override
+	public void beginSnapshot(BookImage image) {
+		if (this.image != null) {
+			throw new IllegalStateException("snapshot already in progress");
+		}
+		image.clear();
+		this.image = image;
+		this.snapEpoch++;
+		this.cursor = oldest;
+	}
+
+	/**
+	 * 沿入簿链表推进快照游标，单次至多检查 maxOrders 个节点，撮合线程的停顿随之有界。
+	 *
+	 * @return 本轮快照已完成
+	 */
+	@Override
+	public boolean snapshotStep(int maxOrders) {
+		if (image == null) {
+			throw new IllegalStateException("no snapshot in progress");
+		}
+		if (maxOrders <= 0) {
+			throw new IllegalArgumentException("maxOrders must be > 0");
+		}
+		OrderNode n = cursor;
+		for (int i = 0; n != null && i < maxOrders; i++, n = n.newer) {
+			preserve(n);
+		}
+		cursor = n;
+		if (n != null) {
+			return false;
+		}
+		image = null;
+		return true;
+	}
+
+	/**
+	 * 修改或移除挂单前调用：快照进行中且本轮尚未复制该节点时，先复制其当前状态
+	 */
+	private void preserve(OrderNode node) {
+		if (image != null && node.snapEpoch != snapEpoch) {
+			node.snapEpoch = snapEpoch;
+			image.append(node.ask, node.level.getPrice(), node.seq, node.orderId, node.userId, node.qty, node.time);
+		}
+	}
+
+	private void link(OrderNode node) {
+		node.seq = ++enqueueSeq;
+		// 冻结后入簿的挂单视为本轮已处理
+		node.snapEpoch = snapEpoch;
+		node.older = newest;
+		if (newest == null) {
+			oldest = node;
+		} else {
+			newest.newer = node;
+		}
+		newest = node;
+	}
+
+	private void unlink(OrderNode node) {
+		if (cursor == node) {
+			cursor = node.newer;
+		}
+		if (node.older == null) {
+			oldest = node.newer;
+		} else {
+			node.older.newer = node.newer;
+		}
+		if (node.newer == null) {
+			newest = node.older;
 		} else {
-			cancel = cold.cancel(price, orderId);
+			node.newer.older = node.older;
 		}
-		return cancel != null;
+		node.older = null;
+		node.newer = null;
 	}
 
 	public String snapshot() {
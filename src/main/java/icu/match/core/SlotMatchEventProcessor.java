@@ -0,0 +1,68 @@
+package icu.match.core;
+
+import icu.match.core.interfaces.MatchEventProcessor;
+import icu.match.core.model.MatchTrade;
+
+/**
+ * 流水线模式下撮合引擎的事件出口：按订单队列序号为每个槽位准备一个 {@link BufferedMatchEventProcessor}，
+ * 撮合线程处理序号 s 前 {@link #select} 切到 s 的槽位，发布线程在 s 落盘后 {@link #slot} 取出转发。
+ * <p>槽位数等于队列容量：撮合线程写入 s 时，发布线程必已转发完 s - 容量（否则发布方无法写入 s），
+ * 同一槽位不会被两个线程同时访问；可见性由队列序号的发布/读取保证。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class SlotMatchEventProcessor implements MatchEventProcessor {
+
+	private final BufferedMatchEventProcessor[] slots;
+
+	private final int mask;
+
+	private BufferedMatchEventProcessor current;
+
+	public SlotMatchEventProcessor(MatchEventProcessor delegate, int slotCount, int initialCapacity) {
+		if (Integer.bitCount(slotCount) != 1) {
+			throw new IllegalArgumentException("slotCount must be a power of 2");
+		}
+		slots = new BufferedMatchEventProcessor[slotCount];
+		for (int i = 0; i < slotCount; i++) {
+			slots[i] = new BufferedMatchEventProcessor(delegate, initialCapacity);
+		}
+		mask = slotCount - 1;
+		current = slots[0];
+	}
+
+	/**
+	 * 撮合线程：之后的撮合事件暂存到 sequence 的槽位
+	 */
+	public void select(long sequence) {
+		current = slots[(int) sequence & mask];
+	}
+
+	/**
+	 * 发布线程：sequence 的暂存事件
+	 */
+	public BufferedMatchEventProcessor slot(long sequence) {
+		return slots[(int) sequence & mask];
+	}
+
+	@Override
+	public void onTraded(MatchTrade matchTrade) {
+		current.onTraded(matchTrade);
+	}
+
+	@Override
+	public void onFilled(int symbol, long orderId) {
+		current.onFilled(symbol, orderId);
+	}
+
+	@Override
+	public void onOrderCancelled(int symbol, long orderId, long qty) {
+		current.onOrderCancelled(symbol, orderId, qty);
+	}
+
+	@Override
+	public void onOrderRejected(int symbol, long orderId) {
+		current.onOrderRejected(symbol, orderId);
+	}
+}
@@ -4,67 +4,168 @@ package icu.match.core;/**
  * @date 2025/9/13
  */
 
-import icu.match.core.model.SnapshotView;
-import icu.match.core.snapshot.CowPool;
+import icu.match.core.interfaces.SnapshotBook;
+import icu.match.core.snapshot.BookImage;
+import icu.match.core.snapshot.SnapManifest;
 import icu.match.core.snapshot.SnapWriter;
+import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Locale;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
 
 /**
+ * 单个订单簿的在线快照。快照在撮合线程上分步完成，不与撮合并发读写订单簿：
+ * <ol>
+ *   <li>快照线程置位请求，经订单队列投递快照事件（{@code tick}），与订单事件同序排队；</li>
+ *   <li>撮合线程处理第一个快照事件时冻结：取此刻已应用的 LSN，{@link SnapshotBook#beginSnapshot} O(1)；</li>
+ *   <li>之后每个快照事件复制至多 {@link #STEP_ORDERS} 笔挂单，其间被修改的挂单由订单簿在修改前先复制，
+ *   副本恰为冻结时刻的状态；</li>
+ *   <li>复制完成后快照线程等冻结 LSN 落盘，再把副本排序后逐块写入快照文件，记入 {@link SnapManifest}。</li>
+ * </ol>
+ * 撮合线程每次停顿至多为一个步进，快照内容与冻结 LSN 精确对应。
+ *
  * @author 中本君
- * @date 2025/9/13 
+ * @date 2025/9/13
  */
+@Slf4j
 public class SnapshotManage {
 
-	public static final CowPool COW_POOL = new CowPool();
+	public static final Path DIR = Paths.get("./data/snapshots");
+
+	/**
+	 * 单订单簿时期的快照文件名前缀；现按交易对命名，见 {@link #baseName(String)}
+	 */
+	public static final String BASE_NAME = "orderbook";
+
+	/**
+	 * 单个快照事件至多检查的挂单数
+	 */
+	public static final int STEP_ORDERS = 4096;
+
+	/**
+	 * 快照线程投递下一个快照事件前的间隔，留出队列给订单事件
+	 */
+	private static final long STEP_PAUSE_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
 
 	public static volatile boolean enabled = true;
 
-	public static volatile long seq = System.nanoTime();
+	private final SnapshotBook book;
+
+	/**
+	 * 本订单簿的快照文件名前缀与清单名，同一目录下各订单簿互不覆盖
+	 */
+	private final String baseName;
+
+	/**
+	 * 各轮复用：撮合线程写入，完成后由快照线程读取，下一轮请求发出前不再写入
+	 */
+	private final BookImage image = new BookImage(1024);
 
-	public static volatile boolean writing = false;
+	/**
+	 * 快照线程置位，撮合线程冻结时清除
+	 */
+	private volatile boolean requested;
 
-	public static volatile boolean prepare = false;
+	/**
+	 * 撮合线程已处理的快照事件数，快照线程据此等待上一事件处理完再投递下一个
+	 */
+	private volatile long steps;
 
-	private final RingOrderBuffer ring;
+	/**
+	 * 本轮已复制完成；写入前 image 与 frozenLsn 已就绪
+	 */
+	private volatile boolean completed;
 
-	private final ColdOrderBuffer cold;
+	/**
+	 * 撮合线程私有：本轮已冻结、尚未完成
+	 */
+	private boolean active;
 
+	private long frozenLsn = -1L;
 
-	public SnapshotManage(RingOrderBuffer ring, ColdOrderBuffer cold) {
-		if (ring == null) {
-			throw new IllegalArgumentException("ring must not be null");
+	/**
+	 * WAL 已 force 落盘的最大 COMMIT LSN，由写 WAL 的线程更新
+	 */
+	private volatile long durableLsn = -1L;
+
+	public SnapshotManage(SnapshotBook book) {
+		this(book, BASE_NAME);
+	}
+
+	public SnapshotManage(SnapshotBook book, String baseName) {
+		if (book == null) {
+			throw new IllegalArgumentException("book must not be null");
 		}
-		if (cold == null) {
-			throw new IllegalArgumentException("cold must not be null");
+		if (baseName == null || baseName.isEmpty()) {
+			throw new IllegalArgumentException("baseName must not be empty");
 		}
-		this.ring = ring;
-		this.cold = cold;
+		this.book = book;
+		this.baseName = baseName;
 	}
 
-	public static OrderNode get(long orderId) {
-		return COW_POOL.get(orderId);
+	/**
+	 * 交易对的快照文件名前缀，如 btcusdt-1726230000123.snap 与 btcusdt.manifest；不以 {@link #BASE_NAME} 开头，
+	 * 旧快照的按前缀扫描与清理不会波及
+	 */
+	public static String baseName(String symbol) {
+		return symbol.toLowerCase(Locale.ROOT);
 	}
 
-	public static void put(long orderId, OrderNode orderNode) {
-		COW_POOL.put(orderId, orderNode);
+	public String baseName() {
+		return baseName;
 	}
 
-
-	public void start() {
-		while (enabled) {
-			prepare = true;
-			seq = System.nanoTime();
-			while (writing) {
-				Thread.yield();
+	/**
+	 * 撮合线程处理快照事件时调用。
+	 *
+	 * @param appliedLsn 仅在冻结时读取一次：此前已应用到订单簿的最后一个事务的 LSN，-1 表示未知
+	 */
+	public void step(LongSupplier appliedLsn) {
+		if (!active) {
+			if (!requested) {
+				// 上一轮完成后仍在队列中的快照事件
+				steps++;
+				return;
 			}
+			requested = false;
+			frozenLsn = appliedLsn.getAsLong();
+			book.beginSnapshot(image);
+			active = true;
+		}
+		if (book.snapshotStep(STEP_ORDERS)) {
+			active = false;
+			completed = true;
+		}
+		steps++;
+	}
 
-			this.deal();
+	/**
+	 * lsn 及之前的事务已持久，写 WAL 的线程在 force 成功后调用
+	 */
+	public void durable(long lsn) {
+		durableLsn = lsn;
+	}
 
-			prepare = false;
-			seq = System.nanoTime();
+	/**
+	 * 快照线程主循环，每 30 秒一轮。
+	 *
+	 * @param tick       向订单队列投递一个快照事件
+	 * @param retain     保留的快照数
+	 * @param onRetained 快照带 LSN 落盘后回调，参数为保留中最旧快照的 lastAppliedLsn，此前的 WAL 不再被恢复需要
+	 */
+	public void start(Runnable tick, int retain, LongConsumer onRetained) {
+		if (retain <= 0) {
+			throw new IllegalArgumentException("retain must be > 0");
+		}
+		while (enabled) {
+			take(tick);
+			deal(frozenLsn, retain, onRetained);
 			try {
 				TimeUnit.SECONDS.sleep(30);
 			} catch (InterruptedException e) {
@@ -73,15 +174,53 @@ public class SnapshotManage {
 		}
 	}
 
-	private void deal() {
+	/**
+	 * 逐个投递快照事件直到本轮复制完成；同一时刻队列中至多一个本线程投递的快照事件
+	 */
+	private void take(Runnable tick) {
+		completed = false;
+		requested = true;
+		while (!completed) {
+			long before = steps;
+			tick.run();
+			while (steps == before) {
+				LockSupport.parkNanos(STEP_PAUSE_NANOS);
+			}
+		}
+	}
+
+	/**
+	 * 写出本轮快照；写入或读取清单失败时本轮作废，不回调 onRetained，WAL 不因此截断
+	 */
+	private void deal(long frozenLsn, int retain, LongConsumer onRetained) {
+		long oldest;
 		try {
-			SnapshotView snapshot = ring.snapshot();
-			System.out.println(snapshot.view());
-			Path dir = Paths.get("./data/snapshots");
-			Path written = SnapWriter.writeSnapshotAtomic(snapshot, dir, "orderbook");
-			System.out.println(written);
+			// 组提交下冻结点可能尚未 force，等其落盘后再写快照，避免快照领先于 WAL
+			while (frozenLsn >= 0 && durableLsn < frozenLsn) {
+				TimeUnit.MILLISECONDS.sleep(1);
+			}
+			Path written = SnapWriter.writeSnapshotAtomic(image, DIR, baseName, frozenLsn, retain);
+			log.info("snapshot written {} orders={} lsn={}", written, image.size(), frozenLsn);
+			oldest = oldestRetainedLsn();
 		} catch (Exception e) {
-			e.printStackTrace();
+			log.error("snapshot failed", e);
+			return;
+		}
+		if (frozenLsn >= 0 && oldest >= 0) {
+			onRetained.accept(oldest);
+		}
+	}
+
+	/**
+	 * @return 保留中各快照 lastAppliedLsn 的最小值，不带 LSN 的快照不参与恢复、不计入；无则 -1
+	 */
+	private long oldestRetainedLsn() throws IOException {
+		long oldest = -1L;
+		for (SnapManifest.Entry e : SnapManifest.candidates(DIR, baseName)) {
+			if (e.lastAppliedLsn >= 0 && (oldest < 0 || e.lastAppliedLsn < oldest)) {
+				oldest = e.lastAppliedLsn;
+			}
 		}
+		return oldest;
 	}
 }
@@ -8,6 +8,7 @@ import icu.match.common.OrderStatus;
 import icu.match.core.model.BestLiqView;
 import icu.match.core.model.MatchTrade;
 import icu.match.core.model.OrderInfo;
+import icu.match.core.model.PoolStats;
 
 /**
  * @author 中本君
@@ -23,6 +24,7 @@ public interface BaseOrderBook {
 
 	/**
 	 * 获取能与limitPrice价格撮合的流动性视图
+	 * <p>totalQty 为限价以内对手盘的全部挂单量（含冷区价位），price/headQty 为最优一档</p>
 	 */
 	BestLiqView bestLiq(byte takerSideCode, long takerLimitPrice);
 
@@ -32,6 +34,16 @@ public interface BaseOrderBook {
 	 */
 	MatchTrade matchHead(byte takerSideCode, long takerQty);
 
+	/**
+	 * 一次调用按价格优先、时间优先连续吃掉对手盘，直到 takerQty 用尽或对手价越过 takerLimitPrice。
+	 * 逐价位、逐挂单推进，不在每笔成交后重新定位最优档；热区再平衡推迟到扫单结束后执行一次。
+	 *
+	 * @param takerLimitPrice 市价单传 {@link Long#MAX_VALUE}（买）或 {@link Long#MIN_VALUE}（卖）
+	 * @param sink            每笔成交回调一次，顺序即成交顺序
+	 * @return 实际成交数量
+	 */
+	long sweep(byte takerSideCode, long takerLimitPrice, long takerQty, TradeSink sink);
+
 	/**
 	 * 判断限价单价格能否立即撮合
 	 * @param takerSideCode 限价单方向
@@ -41,7 +53,33 @@ public interface BaseOrderBook {
 
 	OrderStatus submit(OrderInfo orderInfo);
 
-	boolean cancel(long price, long orderId);
+	/**
+	 * 按订单 ID 撤单
+	 * @return false 表示簿内无此订单（已成交/已撤/不存在）
+	 */
+	boolean cancel(long orderId);
+
+	/**
+	 * 按订单 ID 修改剩余数量：减量保留时间优先级，增量排到同价位队尾
+	 * @param newQty 新的剩余数量，必须大于 0
+	 * @return false 表示簿内无此订单
+	 */
+	boolean amend(long orderId, long newQty);
+
+	/**
+	 * 挂单存储（节点池 / slab）的运行计数
+	 */
+	PoolStats poolStats();
+
+	/**
+	 * 撮合线程两批事件之间的空闲回调，可在时间预算内做不影响撮合结果的整理（如热区再平衡）
+	 *
+	 * @param budgetNanos 可用时间（纳秒）
+	 * @return 本次执行的整理步数
+	 */
+	default int onIdle(long budgetNanos) {
+		return 0;
+	}
 
 	String snapshot();
 
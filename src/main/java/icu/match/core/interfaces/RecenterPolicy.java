@@ -0,0 +1,20 @@
+package icu.match.core.interfaces;
+
+import icu.match.core.model.RecenterSignals;
+
+/**
+ * 热区再平衡策略：由 {@link icu.match.core.RecenterManager} 汇总的信号决定本次迁移的方向与步数。
+ * <p>撮合后调用时位于撮合关键路径，应只给出少量步数；空闲调用发生在两批事件之间，可给出更多步数，由调用方按时间预算执行。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public interface RecenterPolicy {
+
+	/**
+	 * @param signals 当前窗口与行情信号，仅在调用内有效
+	 * @param idle    撮合空闲时调用（批间），否则为成交后调用
+	 * @return 计划迁移步数：负数窗口左移（引入更低价），正数右移（引入更高价），0 不迁移
+	 */
+	int plan(RecenterSignals signals, boolean idle);
+}
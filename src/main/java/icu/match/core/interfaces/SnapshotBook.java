@@ -0,0 +1,27 @@
+package icu.match.core.interfaces;
+
+import icu.match.core.snapshot.BookImage;
+
+/**
+ * 支持在线快照的订单簿：冻结 O(1)，之后分步复制挂单，冻结后被修改的挂单在修改前先复制，副本恰为冻结时刻的状态。
+ * 仅撮合线程调用，由 {@code SnapshotManage} 驱动。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public interface SnapshotBook extends BaseOrderBook {
+
+	/**
+	 * 冻结快照，须在两个事件之间调用
+	 *
+	 * @param image 清空后写入；快照完成前不得被其他线程读取
+	 */
+	void beginSnapshot(BookImage image);
+
+	/**
+	 * 单次至多检查 maxOrders 笔挂单
+	 *
+	 * @return 本轮快照已完成
+	 */
+	boolean snapshotStep(int maxOrders);
+}
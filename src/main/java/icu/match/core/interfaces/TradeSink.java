@@ -0,0 +1,18 @@
+package icu.match.core.interfaces;
+
+import icu.match.core.model.MatchTrade;
+
+/**
+ * 接收 {@link BaseOrderBook#sweep} 逐笔产生的成交
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface TradeSink {
+
+	/**
+	 * @param trade 订单簿复用的单例，仅在回调内有效，需保留时先复制；taker 的用户与订单 ID 未填写
+	 */
+	void onTrade(MatchTrade trade);
+}
@@ -0,0 +1,47 @@
+package icu.match.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 订单簿挂单存储（节点池 / slab）的运行计数，供监控接口展示。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PoolStats {
+
+	/**
+	 * fixed / chunked / heap-slab / direct-slab
+	 */
+	String type;
+
+	/**
+	 * 当前在用（含溢出）
+	 */
+	long inUse;
+
+	/**
+	 * 历史峰值
+	 */
+	long peakInUse;
+
+	/**
+	 * 超出池容量直接 new 的累计次数；slab 无溢出恒为 0
+	 */
+	long overflowAlloc;
+
+	/**
+	 * 当前块数；固定池恒为 1，slab 为扩容次数 + 1
+	 */
+	int chunks;
+
+	/**
+	 * 当前总容量（节点数 / 槽位数）
+	 */
+	long capacity;
+}
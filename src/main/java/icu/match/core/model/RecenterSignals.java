@@ -0,0 +1,30 @@
+package icu.match.core.model;
+
+import lombok.Data;
+
+/**
+ * 再平衡信号，由 RecenterManager 维护、复用同一实例交给 {@link icu.match.core.interfaces.RecenterPolicy}。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@Data
+public class RecenterSignals {
+
+	/**
+	 * 最优买价在窗口内的位置比（0..100），50 为居中
+	 */
+	double slopeRate;
+
+	/**
+	 * 成交价速度：相邻成交价差（以 step 计）的指数移动平均，正数上行
+	 */
+	double velocity;
+
+	/**
+	 * 上次迁移以来落入冷区、距窗口下沿/上沿不超过边缘带宽的挂单笔数
+	 */
+	int coldNearLow;
+
+	int coldNearHigh;
+}
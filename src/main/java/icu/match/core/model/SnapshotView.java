@@ -4,6 +4,7 @@ package icu.match.core.model;/**
  * @date 2025/9/13
  */
 
+import icu.match.core.LongColumn;
 import lombok.Data;
 
 import java.util.ArrayList;
@@ -13,55 +14,77 @@ import java.util.Map;
 import java.util.Objects;
 
 /**
+ * 订单簿快照的列式视图：买卖两侧各五列，同一下标为同一笔挂单，各侧按价位升序、价位内队列顺序排列。
+ * 列为 {@link LongColumn}，不装箱。
+ *
  * @author 中本君
  * @date 2025/9/13 
  */
 @Data
 public class SnapshotView {
 
-	public List<Long> bidPrices;
+	public LongColumn bidPrices;
 
-	public List<Long> bidUserIds;
+	public LongColumn bidUserIds;
 
-	public List<Long> bidOrderIds;
+	public LongColumn bidOrderIds;
 
-	public List<Long> bidQtyList;
+	public LongColumn bidQtyList;
 
+	/**
+	 * 委托时间；v1 快照无此列，为空表
+	 */
+	public LongColumn bidTimes;
 
-	public List<Long> askPrices;
 
-	public List<Long> askOrderIds;
+	public LongColumn askPrices;
 
-	public List<Long> askUserIds;
+	public LongColumn askOrderIds;
 
-	public List<Long> askQtyList;
+	public LongColumn askUserIds;
 
-	public SnapshotView() {
-		this.bidPrices = new ArrayList<>();
-		this.bidUserIds = new ArrayList<>();
-		this.bidOrderIds = new ArrayList<>();
-		this.bidQtyList = new ArrayList<>();
+	public LongColumn askQtyList;
+
+	public LongColumn askTimes;
 
-		this.askPrices = new ArrayList<>();
-		this.askOrderIds = new ArrayList<>();
-		this.askUserIds = new ArrayList<>();
-		this.askQtyList = new ArrayList<>();
+	public SnapshotView() {
+		this.bidPrices = new LongColumn();
+		this.bidUserIds = new LongColumn();
+		this.bidOrderIds = new LongColumn();
+		this.bidQtyList = new LongColumn();
+		this.bidTimes = new LongColumn();
+
+		this.askPrices = new LongColumn();
+		this.askOrderIds = new LongColumn();
+		this.askUserIds = new LongColumn();
+		this.askQtyList = new LongColumn();
+		this.askTimes = new LongColumn();
 
 	}
 
 
 	public void appendBid(long price, long userId, long orderId, long qty) {
-		bidPrices.add(price);
-		bidUserIds.add(userId);
-		bidOrderIds.add(orderId);
-		bidQtyList.add(qty);
+		appendBid(price, userId, orderId, qty, 0L);
+	}
+
+	public void appendBid(long price, long userId, long orderId, long qty, long time) {
+		bidPrices.addLong(price);
+		bidUserIds.addLong(userId);
+		bidOrderIds.addLong(orderId);
+		bidQtyList.addLong(qty);
+		bidTimes.addLong(time);
 	}
 
 	public void appendAsk(long price, long userId, long orderId, long qty) {
-		askPrices.add(price);
-		askUserIds.add(userId);
-		askOrderIds.add(orderId);
-		askQtyList.add(qty);
+		appendAsk(price, userId, orderId, qty, 0L);
+	}
+
+	public void appendAsk(long price, long userId, long orderId, long qty, long time) {
+		askPrices.addLong(price);
+		askUserIds.addLong(userId);
+		askOrderIds.addLong(orderId);
+		askQtyList.addLong(qty);
+		askTimes.addLong(time);
 	}
 
 	/** 默认展示前 10 档 */
@@ -179,12 +202,12 @@ public class SnapshotView {
 
 	// ======= helpers =======
 
-	private static Map<Long, Long> aggregateByPrice(List<Long> prices, List<Long> qtys) {
+	private static Map<Long, Long> aggregateByPrice(LongColumn prices, LongColumn qtys) {
 		int n = Math.min(prices.size(), qtys.size());
 		Map<Long, Long> map = new HashMap<>(Math.max(16, n * 2));
 		for (int i = 0; i < n; i++) {
-			long p = prices.get(i);
-			long q = qtys.get(i);
+			long p = prices.getLong(i);
+			long q = qtys.getLong(i);
 			if (q <= 0) {
 				continue;
 			}
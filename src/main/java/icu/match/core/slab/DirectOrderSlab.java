@@ -0,0 +1,127 @@
+package icu.match.core.slab;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 堆外行式存储：一块 {@link ByteBuffer#allocateDirect} 内存，每个槽位固定 {@link #RECORD} 字节。
+ * <p>挂单数据完全不在 Java 堆上，GC 只看到一个 DirectByteBuffer 对象；扩容时申请新块并整体复制，旧块由 Cleaner 释放。</p>
+ *
+ * <pre>
+ * 0  orderId  8 | 8  userId 8 | 16 price 8 | 24 qty 8 | 32 time 8 | 40 prev 4 | 44 next 4 | 48 ask 1 | pad 7
+ * </pre>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class DirectOrderSlab extends OrderSlab {
+
+	static final int RECORD = 56;
+
+	/**
+	 * 单块 ByteBuffer 以 int 寻址，槽位数上限为 {@code Integer.MAX_VALUE / RECORD}（约 3800 万）
+	 */
+	public static final int MAX_CAPACITY = Integer.MAX_VALUE / RECORD;
+
+	private static final int ORDER_ID = 0;
+
+	private static final int USER_ID = 8;
+
+	private static final int PRICE = 16;
+
+	private static final int QTY = 24;
+
+	private static final int TIME = 32;
+
+	private static final int PREV = 40;
+
+	private static final int NEXT = 44;
+
+	private static final int ASK = 48;
+
+	private ByteBuffer buf;
+
+	public DirectOrderSlab(int capacity) {
+		this(capacity, MAX_CAPACITY);
+	}
+
+	public DirectOrderSlab(int capacity, int maxCapacity) {
+		super(capacity, Math.min(maxCapacity, MAX_CAPACITY));
+		this.buf = allocate(capacity);
+	}
+
+	private static ByteBuffer allocate(int capacity) {
+		return ByteBuffer.allocateDirect(capacity * RECORD)
+						 .order(ByteOrder.nativeOrder());
+	}
+
+	@Override
+	protected String type() {return "direct-slab";}
+
+	@Override
+	protected void grow(int newCapacity) {
+		ByteBuffer bigger = allocate(newCapacity);
+		ByteBuffer src = buf.duplicate();
+		src.clear();
+		bigger.put(src);
+		bigger.clear();
+		buf = bigger;
+		capacity = newCapacity;
+	}
+
+	private static int at(int slot, int field) {
+		return slot * RECORD + field;
+	}
+
+	@Override
+	public long orderId(int slot) {return buf.getLong(at(slot, ORDER_ID));}
+
+	@Override
+	public void orderId(int slot, long v) {buf.putLong(at(slot, ORDER_ID), v);}
+
+	@Override
+	public long userId(int slot) {return buf.getLong(at(slot, USER_ID));}
+
+	@Override
+	public void userId(int slot, long v) {buf.putLong(at(slot, USER_ID), v);}
+
+	@Override
+	public boolean ask(int slot) {return buf.get(at(slot, ASK)) != 0;}
+
+	@Override
+	public void ask(int slot, boolean v) {
+		buf.put(at(slot, ASK), v
+							   ? (byte) 1
+							   : (byte) 0);
+	}
+
+	@Override
+	public long price(int slot) {return buf.getLong(at(slot, PRICE));}
+
+	@Override
+	public void price(int slot, long v) {buf.putLong(at(slot, PRICE), v);}
+
+	@Override
+	public long qty(int slot) {return buf.getLong(at(slot, QTY));}
+
+	@Override
+	public void qty(int slot, long v) {buf.putLong(at(slot, QTY), v);}
+
+	@Override
+	public long time(int slot) {return buf.getLong(at(slot, TIME));}
+
+	@Override
+	public void time(int slot, long v) {buf.putLong(at(slot, TIME), v);}
+
+	@Override
+	public int prev(int slot) {return buf.getInt(at(slot, PREV));}
+
+	@Override
+	public void prev(int slot, int v) {buf.putInt(at(slot, PREV), v);}
+
+	@Override
+	public int next(int slot) {return buf.getInt(at(slot, NEXT));}
+
+	@Override
+	public void next(int slot, int v) {buf.putInt(at(slot, NEXT), v);}
+}
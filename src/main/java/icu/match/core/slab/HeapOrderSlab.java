@@ -0,0 +1,114 @@
+package icu.match.core.slab;
+
+import java.util.Arrays;
+
+/**
+ * 堆内列式存储：每个字段一个原生数组（struct-of-arrays）。
+ * <p>百万级挂单对 GC 而言只是 8 个数组对象，且均为原生类型，无引用需要追踪。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class HeapOrderSlab extends OrderSlab {
+
+	/**
+	 * 单个数组的最大长度（部分 JVM 在数组头部保留若干字）
+	 */
+	public static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	private long[] orderIds;
+
+	private long[] userIds;
+
+	private long[] prices;
+
+	private long[] qtys;
+
+	private long[] times;
+
+	private int[] prevs;
+
+	private int[] nexts;
+
+	private boolean[] asks;
+
+	public HeapOrderSlab(int capacity) {
+		this(capacity, MAX_CAPACITY);
+	}
+
+	public HeapOrderSlab(int capacity, int maxCapacity) {
+		super(capacity, Math.min(maxCapacity, MAX_CAPACITY));
+		orderIds = new long[capacity];
+		userIds = new long[capacity];
+		prices = new long[capacity];
+		qtys = new long[capacity];
+		times = new long[capacity];
+		prevs = new int[capacity];
+		nexts = new int[capacity];
+		asks = new boolean[capacity];
+	}
+
+	@Override
+	protected String type() {return "heap-slab";}
+
+	@Override
+	protected void grow(int newCapacity) {
+		orderIds = Arrays.copyOf(orderIds, newCapacity);
+		userIds = Arrays.copyOf(userIds, newCapacity);
+		prices = Arrays.copyOf(prices, newCapacity);
+		qtys = Arrays.copyOf(qtys, newCapacity);
+		times = Arrays.copyOf(times, newCapacity);
+		prevs = Arrays.copyOf(prevs, newCapacity);
+		nexts = Arrays.copyOf(nexts, newCapacity);
+		asks = Arrays.copyOf(asks, newCapacity);
+		capacity = newCapacity;
+	}
+
+	@Override
+	public long orderId(int slot) {return orderIds[slot];}
+
+	@Override
+	public void orderId(int slot, long v) {orderIds[slot] = v;}
+
+	@Override
+	public long userId(int slot) {return userIds[slot];}
+
+	@Override
+	public void userId(int slot, long v) {userIds[slot] = v;}
+
+	@Override
+	public boolean ask(int slot) {return asks[slot];}
+
+	@Override
+	public void ask(int slot, boolean v) {asks[slot] = v;}
+
+	@Override
+	public long price(int slot) {return prices[slot];}
+
+	@Override
+	public void price(int slot, long v) {prices[slot] = v;}
+
+	@Override
+	public long qty(int slot) {return qtys[slot];}
+
+	@Override
+	public void qty(int slot, long v) {qtys[slot] = v;}
+
+	@Override
+	public long time(int slot) {return times[slot];}
+
+	@Override
+	public void time(int slot, long v) {times[slot] = v;}
+
+	@Override
+	public int prev(int slot) {return prevs[slot];}
+
+	@Override
+	public void prev(int slot, int v) {prevs[slot] = v;}
+
+	@Override
+	public int next(int slot) {return nexts[slot];}
+
+	@Override
+	public void next(int slot, int v) {nexts[slot] = v;}
+}
@@ -0,0 +1,176 @@
+package icu.match.core.slab;
+
+import icu.match.core.model.PoolStats;
+import lombok.Getter;
+
+/**
+ * 以槽位（int）寻址的订单存储，替代逐笔 {@code OrderNode} 对象。
+ * <p>每个槽位保存 orderId / userId / price / qty / time / ask 以及同价位队列的 prev / next 槽位，
+ * 空闲槽位通过 next 串成单链表复用。订单不再是独立堆对象，深度簿下 GC 只需扫描少量大数组（堆内实现）或完全不扫描（堆外实现）。</p>
+ * <p>容量不足时按倍数扩容（整体复制），不超过实现给定的容量上限，达到上限后 alloc 抛出 {@link IllegalStateException}。
+ * 稳态下 alloc/free 不分配内存。非线程安全，只在撮合线程内使用。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public abstract class OrderSlab {
+
+	/**
+	 * 空槽位 / 链表终止
+	 */
+	public static final int NIL = -1;
+
+	/**
+	 * 当前容量（槽位数）
+	 */
+	@Getter
+	protected int capacity;
+
+	/**
+	 * 容量上限（槽位数），扩容不超过该值
+	 */
+	@Getter
+	private final int maxCapacity;
+
+	/**
+	 * 在用槽位数
+	 */
+	@Getter
+	private int inUse;
+
+	/**
+	 * 历史峰值
+	 */
+	@Getter
+	private int peakInUse;
+
+	/**
+	 * 扩容次数
+	 */
+	@Getter
+	private int growCount;
+
+	/**
+	 * 空闲链表头
+	 */
+	private int freeHead = NIL;
+
+	/**
+	 * 从未使用过的最小槽位，[highWater, capacity) 为未初始化区域
+	 */
+	@Getter
+	private int highWater;
+
+	protected OrderSlab(int capacity, int maxCapacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be > 0");
+		}
+		if (capacity > maxCapacity) {
+			throw new IllegalArgumentException("capacity " + capacity + " exceeds max capacity " + maxCapacity);
+		}
+		this.capacity = capacity;
+		this.maxCapacity = maxCapacity;
+	}
+
+	/**
+	 * 分配槽位并写入订单字段，prev/next 置为 {@link #NIL}
+	 */
+	public final int alloc(long orderId, long userId, boolean ask, long price, long qty, long time) {
+		int slot;
+		if (freeHead != NIL) {
+			slot = freeHead;
+			freeHead = next(slot);
+		} else {
+			if (highWater == capacity) {
+				grow(nextCapacity());
+				growCount++;
+			}
+			slot = highWater++;
+		}
+		orderId(slot, orderId);
+		userId(slot, userId);
+		ask(slot, ask);
+		price(slot, price);
+		qty(slot, qty);
+		time(slot, time);
+		prev(slot, NIL);
+		next(slot, NIL);
+		if (++inUse > peakInUse) {
+			peakInUse = inUse;
+		}
+		return slot;
+	}
+
+	/**
+	 * 翻倍扩容的目标容量，按 long 计算避免 int 溢出，截断到上限；已达上限时拒绝分配
+	 */
+	private int nextCapacity() {
+		if (capacity >= maxCapacity) {
+			throw new IllegalStateException(type() + " full: capacity=" + capacity + " reached max capacity");
+		}
+		return (int) Math.min((long) capacity << 1, maxCapacity);
+	}
+
+	/**
+	 * 归还槽位（调用方保证已从价位队列摘除）
+	 */
+	public final void free(int slot) {
+		if (slot < 0 || slot >= highWater) {
+			throw new IllegalArgumentException("slot out of range: " + slot);
+		}
+		if (qty(slot) == 0L) {
+			throw new IllegalStateException("double free: slot=" + slot);
+		}
+		qty(slot, 0L);
+		prev(slot, NIL);
+		next(slot, freeHead);
+		freeHead = slot;
+		inUse--;
+	}
+
+	public PoolStats stats() {
+		return new PoolStats(type(), inUse, peakInUse, 0L, growCount + 1, capacity);
+	}
+
+	protected abstract String type();
+
+	/**
+	 * 扩容到 newCapacity，保留 [0, capacity) 的内容
+	 */
+	protected abstract void grow(int newCapacity);
+
+	public abstract long orderId(int slot);
+
+	public abstract void orderId(int slot, long v);
+
+	public abstract long userId(int slot);
+
+	public abstract void userId(int slot, long v);
+
+	public abstract boolean ask(int slot);
+
+	public abstract void ask(int slot, boolean v);
+
+	public abstract long price(int slot);
+
+	public abstract void price(int slot, long v);
+
+	/**
+	 * 剩余数量，0 表示空闲槽位
+	 */
+	public abstract long qty(int slot);
+
+	public abstract void qty(int slot, long v);
+
+	public abstract long time(int slot);
+
+	public abstract void time(int slot, long v);
+
+	public abstract int prev(int slot);
+
+	public abstract void prev(int slot, int v);
+
+	public abstract int next(int slot);
+
+	public abstract void next(int slot, int v);
+}
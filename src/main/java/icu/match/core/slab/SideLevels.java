@@ -0,0 +1,114 @@
+package icu.match.core.slab;
+
+import java.util.Arrays;
+
+/**
+ * 单侧价位表：按"由差到优"排序的原生数组，最优价位在末尾。
+ * <p>买盘按价格升序、卖盘按价格降序存放（内部统一存 key = 买价 / -卖价 并升序排列），
+ * 成交与挂单多发生在最优价附近，增删价位时 arraycopy 的搬移量很小。价位按二分定位。</p>
+ * <p>每个价位记录队头/队尾槽位、笔数与聚合数量，订单本身的链表在 {@link OrderSlab} 中。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+final class SideLevels {
+
+	private final boolean ask;
+
+	private long[] keys;
+
+	int[] heads;
+
+	int[] tails;
+
+	int[] counts;
+
+	long[] totals;
+
+	private int size;
+
+	SideLevels(boolean ask, int capacity) {
+		this.ask = ask;
+		int cap = Math.max(capacity, 8);
+		keys = new long[cap];
+		heads = new int[cap];
+		tails = new int[cap];
+		counts = new int[cap];
+		totals = new long[cap];
+	}
+
+	int size() {return size;}
+
+	boolean isEmpty() {return size == 0;}
+
+	/**
+	 * 最优价位下标；为空返回 -1
+	 */
+	int best() {return size - 1;}
+
+	long price(int idx) {
+		return ask
+			   ? -keys[idx]
+			   : keys[idx];
+	}
+
+	/**
+	 * 价位下标；不存在返回 -(插入点 + 1)
+	 */
+	int find(long price) {
+		return Arrays.binarySearch(keys, 0, size, ask
+												  ? -price
+												  : price);
+	}
+
+	/**
+	 * 价位下标；不存在时插入空价位
+	 */
+	int getOrCreate(long price) {
+		int idx = find(price);
+		if (idx >= 0) {
+			return idx;
+		}
+		idx = -idx - 1;
+		if (size == keys.length) {
+			int cap = keys.length << 1;
+			keys = Arrays.copyOf(keys, cap);
+			heads = Arrays.copyOf(heads, cap);
+			tails = Arrays.copyOf(tails, cap);
+			counts = Arrays.copyOf(counts, cap);
+			totals = Arrays.copyOf(totals, cap);
+		}
+		int move = size - idx;
+		if (move > 0) {
+			System.arraycopy(keys, idx, keys, idx + 1, move);
+			System.arraycopy(heads, idx, heads, idx + 1, move);
+			System.arraycopy(tails, idx, tails, idx + 1, move);
+			System.arraycopy(counts, idx, counts, idx + 1, move);
+			System.arraycopy(totals, idx, totals, idx + 1, move);
+		}
+		keys[idx] = ask
+					? -price
+					: price;
+		heads[idx] = OrderSlab.NIL;
+		tails[idx] = OrderSlab.NIL;
+		counts[idx] = 0;
+		totals[idx] = 0L;
+		size++;
+		return idx;
+	}
+
+	/**
+	 * 删除（已为空的）价位
+	 */
+	void removeAt(int idx) {
+		int move = size - idx - 1;
+		if (move > 0) {
+			System.arraycopy(keys, idx + 1, keys, idx, move);
+			System.arraycopy(heads, idx + 1, heads, idx, move);
+			System.arraycopy(tails, idx + 1, tails, idx, move);
+			System.arraycopy(counts, idx + 1, counts, idx, move);
+			System.arraycopy(totals, idx + 1, totals, idx, move);
+		}
+		size--;
+	}
+}
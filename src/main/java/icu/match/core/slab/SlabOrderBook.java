@@ -0,0 +1,438 @@
+package icu.match.core.slab;
+
+import com.alibaba.fastjson2.JSON;
+
+import icu.match.common.OrderSide;
+import icu.match.common.OrderStatus;
+import icu.match.core.LongIntMap;
+import icu.match.core.interfaces.SnapshotBook;
+import icu.match.core.interfaces.TradeSink;
+import icu.match.core.model.BestLiqView;
+import icu.match.core.model.MatchTrade;
+import icu.match.core.model.OrderInfo;
+import icu.match.core.model.PoolStats;
+import icu.match.core.snapshot.BookImage;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 基于 {@link OrderSlab} 的订单簿：订单以槽位存储，价位队列按槽位链接，不产生逐笔堆对象。
+ * <p>与 {@code SimpleOrderBook} 的差异：</p>
+ * <ul>
+ *   <li>价位不分冷热区，每侧一个有序原生数组（{@link SideLevels}），无需滑窗迁移。</li>
+ *   <li>orderId → 槽位使用 {@link LongIntMap}，撤单/改单 O(1) 定位订单，二分定位价位。</li>
+ *   <li>在线快照按槽位下标推进游标，冻结后被修改的槽位在修改前先复制；入队序号与快照轮次按槽位存于堆内数组。
+ *   snapshot() 与 depth() 相同，仅输出聚合档位。</li>
+ * </ul>
+ * <p>用于深度簿下与对象节点实现对比 GC 停顿，按交易对配置选择。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public class SlabOrderBook implements SnapshotBook {
+
+	@Getter
+	private final int symbol;
+
+	@Getter
+	private final OrderSlab slab;
+
+	private final SideLevels bids;
+
+	private final SideLevels asks;
+
+	private final LongIntMap orders;
+
+	/**
+	 * 单对象复用
+	 */
+	private final BestLiqView bestLiqView = new BestLiqView();
+
+	// 单例对象 数据获取时需要先复制
+	private final MatchTrade matchTrade = new MatchTrade();
+
+	/**
+	 * 槽位 -> 入队序号，快照按（方向、价格、序号）还原价位内 FIFO 顺序
+	 */
+	private long[] seqs;
+
+	/**
+	 * 槽位 -> 已复制进的快照轮次
+	 */
+	private int[] snapEpochs;
+
+	private long enqueueSeq;
+
+	/**
+	 * 快照轮次，{@link #beginSnapshot} 时递增
+	 */
+	private int snapEpoch;
+
+	/**
+	 * 进行中的快照，无则为 null
+	 */
+	private BookImage image;
+
+	/**
+	 * 快照游标：下一个待检查的槽位
+	 */
+	private int cursor;
+
+	public SlabOrderBook(int symbol, OrderSlab slab) {
+		this.symbol = symbol;
+		this.slab = Objects.requireNonNull(slab, "slab must not be null");
+		this.bids = new SideLevels(false, 64);
+		this.asks = new SideLevels(true, 64);
+		this.orders = new LongIntMap(slab.getCapacity());
+		this.seqs = new long[slab.getCapacity()];
+		this.snapEpochs = new int[slab.getCapacity()];
+	}
+
+	private SideLevels side(boolean ask) {
+		return ask
+			   ? asks
+			   : bids;
+	}
+
+	/**
+	 * taker 方向对应的 maker 侧
+	 */
+	private SideLevels makers(byte takerSide) {
+		return OrderSide.isAsk(takerSide)
+			   ? bids
+			   : asks;
+	}
+
+	@Override
+	public BestLiqView bestLiq(byte takerSide) {
+		bestLiqView.clear();
+		SideLevels s = makers(takerSide);
+		if (s.isEmpty()) {
+			return bestLiqView;
+		}
+		int best = s.best();
+		bestLiqView.setPrice(s.price(best));
+		bestLiqView.setTotalQty(s.totals[best]);
+		bestLiqView.setHeadQty(slab.qty(s.heads[best]));
+		return bestLiqView;
+	}
+
+	@Override
+	public BestLiqView bestLiq(byte takerSide, long takerLimitPrice) {
+		bestLiqView.clear();
+		SideLevels s = makers(takerSide);
+		if (s.isEmpty()) {
+			return bestLiqView;
+		}
+		boolean takerAsk = OrderSide.isAsk(takerSide);
+		int best = s.best();
+		bestLiqView.setPrice(s.price(best));
+		bestLiqView.setHeadQty(slab.qty(s.heads[best]));
+		long total = 0;
+		for (int i = best; i >= 0; i--) {
+			long price = s.price(i);
+			if (takerAsk
+				? price < takerLimitPrice
+				: price > takerLimitPrice) {
+				break;
+			}
+			total += s.totals[i];
+		}
+		bestLiqView.setTotalQty(total);
+		return bestLiqView;
+	}
+
+	@Override
+	public MatchTrade matchHead(byte takerSideCode, long takerQty) {
+		SideLevels s = makers(takerSideCode);
+		if (s.isEmpty()) {
+			throw new IllegalArgumentException("bestPriceLevel must not be null");
+		}
+		int best = s.best();
+		long price = s.price(best);
+		int maker = s.heads[best];
+		long makerOrderId = slab.orderId(maker);
+		long makerUserId = slab.userId(maker);
+		long makerQty = slab.qty(maker);
+
+		// 计算可撮合数量 两者取小
+		long matchQty = Math.min(takerQty, makerQty);
+		boolean makerFilled = makerQty == matchQty;
+		preserve(maker);
+		if (makerFilled) {
+			// makerOrder 完全成交 从订单簿移除
+			orders.remove(makerOrderId);
+			unlink(s, best, maker);
+			slab.free(maker);
+		} else {
+			// makerOrder 部分成交
+			slab.qty(maker, makerQty - matchQty);
+			s.totals[best] -= matchQty;
+		}
+		return matchTrade.fill(symbol, 0, makerUserId, 0, makerOrderId, takerSideCode, price, makerFilled,
+							   matchQty);
+	}
+
+	/**
+	 * 最优档恒在价位数组末尾：档内沿 slab 链连续成交，吃空后移除该档，下一档即新的末尾
+	 */
+	@Override
+	public long sweep(byte takerSideCode, long takerLimitPrice, long takerQty, TradeSink sink) {
+		if (takerQty <= 0) {
+			throw new IllegalArgumentException("takerQty must be greater than 0");
+		}
+		SideLevels s = makers(takerSideCode);
+		boolean takerAsk = OrderSide.isAsk(takerSideCode);
+		long remaining = takerQty;
+		while (remaining > 0 && !s.isEmpty()) {
+			int best = s.best();
+			long price = s.price(best);
+			if (takerAsk
+				? price < takerLimitPrice
+				: price > takerLimitPrice) {
+				break;
+			}
+			boolean levelEmptied = false;
+			while (remaining > 0 && !levelEmptied) {
+				int maker = s.heads[best];
+				long makerOrderId = slab.orderId(maker);
+				long makerQty = slab.qty(maker);
+				long matchQty = Math.min(remaining, makerQty);
+				boolean makerFilled = makerQty == matchQty;
+				matchTrade.fill(symbol, 0, slab.userId(maker), 0, makerOrderId, takerSideCode, price, makerFilled,
+								matchQty);
+				preserve(maker);
+				if (makerFilled) {
+					orders.remove(makerOrderId);
+					levelEmptied = s.counts[best] == 1;
+					unlink(s, best, maker);
+					slab.free(maker);
+				} else {
+					slab.qty(maker, makerQty - matchQty);
+					s.totals[best] -= matchQty;
+				}
+				remaining -= matchQty;
+				sink.onTrade(matchTrade);
+			}
+		}
+		return takerQty - remaining;
+	}
+
+	@Override
+	public boolean canMatchImmediately(byte takerSide, long limitPrice) {
+		return OrderSide.isAsk(takerSide)
+			   ? limitPrice <= bestBidPrice()
+			   : limitPrice >= bestAskPrice();
+	}
+
+	private long bestBidPrice() {
+		return bids.isEmpty()
+			   ? Long.MIN_VALUE
+			   : bids.price(bids.best());
+	}
+
+	private long bestAskPrice() {
+		return asks.isEmpty()
+			   ? Long.MAX_VALUE
+			   : asks.price(asks.best());
+	}
+
+	@Override
+	public OrderStatus submit(OrderInfo orderInfo) {
+		long orderId = orderInfo.getOrderId();
+		long qty = orderInfo.getQty();
+		if (qty <= 0) {
+			throw new IllegalArgumentException("newQty must be greater than 0");
+		}
+		if (orders.containsKey(orderId)) {
+			throw new IllegalStateException("duplicate orderId in book: " + orderId);
+		}
+		boolean ask = OrderSide.isAsk(orderInfo.getSide());
+		long price = orderInfo.getPrice();
+		int slot = slab.alloc(orderId, orderInfo.getUserId(), ask, price, qty, orderInfo.getTime());
+		if (slot >= seqs.length) {
+			seqs = Arrays.copyOf(seqs, slab.getCapacity());
+			snapEpochs = Arrays.copyOf(snapEpochs, slab.getCapacity());
+		}
+		// 冻结后入簿（含复用已释放槽位）的挂单视为本轮已处理
+		snapEpochs[slot] = snapEpoch;
+		SideLevels s = side(ask);
+		int idx = s.getOrCreate(price);
+		linkAtTail(s, idx, slot);
+		orders.put(orderId, slot);
+		return OrderStatus.OPEN;
+	}
+
+	@Override
+	public boolean cancel(long orderId) {
+		int slot = orders.remove(orderId);
+		if (slot == LongIntMap.MISSING) {
+			return false;
+		}
+		SideLevels s = side(slab.ask(slot));
+		int idx = s.find(slab.price(slot));
+		if (idx < 0) {
+			throw new IllegalStateException("order indexed but level missing: " + orderId);
+		}
+		preserve(slot);
+		unlink(s, idx, slot);
+		slab.free(slot);
+		return true;
+	}
+
+	@Override
+	public boolean amend(long orderId, long newQty) {
+		if (newQty <= 0) {
+			throw new IllegalArgumentException("newQty must be greater than 0");
+		}
+		int slot = orders.get(orderId);
+		if (slot == LongIntMap.MISSING) {
+			return false;
+		}
+		long oldQty = slab.qty(slot);
+		if (newQty == oldQty) {
+			return true;
+		}
+		SideLevels s = side(slab.ask(slot));
+		int idx = s.find(slab.price(slot));
+		preserve(slot);
+		slab.qty(slot, newQty);
+		s.totals[idx] += newQty - oldQty;
+		if (newQty > oldQty && s.tails[idx] != slot) {
+			// 增量视为新委托 排到该价位队尾
+			unlinkOnly(s, idx, slot);
+			appendTail(s, idx, slot);
+		}
+		return true;
+	}
+
+	private void linkAtTail(SideLevels s, int idx, int slot) {
+		appendTail(s, idx, slot);
+		s.counts[idx]++;
+		s.totals[idx] += slab.qty(slot);
+	}
+
+	private void appendTail(SideLevels s, int idx, int slot) {
+		seqs[slot] = ++enqueueSeq;
+		int tail = s.tails[idx];
+		slab.prev(slot, tail);
+		slab.next(slot, OrderSlab.NIL);
+		if (tail == OrderSlab.NIL) {
+			s.heads[idx] = slot;
+		} else {
+			slab.next(tail, slot);
+		}
+		s.tails[idx] = slot;
+	}
+
+	/**
+	 * 摘除并更新聚合；价位转空时删除价位
+	 */
+	private void unlink(SideLevels s, int idx, int slot) {
+		unlinkOnly(s, idx, slot);
+		s.totals[idx] -= slab.qty(slot);
+		if (--s.counts[idx] == 0) {
+			s.removeAt(idx);
+		}
+	}
+
+	private void unlinkOnly(SideLevels s, int idx, int slot) {
+		int p = slab.prev(slot);
+		int nx = slab.next(slot);
+		if (p == OrderSlab.NIL) {
+			s.heads[idx] = nx;
+		} else {
+			slab.next(p, nx);
+		}
+		if (nx == OrderSlab.NIL) {
+			s.tails[idx] = p;
+		} else {
+			slab.prev(nx, p);
+		}
+		slab.prev(slot, OrderSlab.NIL);
+		slab.next(slot, OrderSlab.NIL);
+	}
+
+	@Override
+	public PoolStats poolStats() {
+		return slab.stats();
+	}
+
+	/**
+	 * 冻结快照：此刻在用的全部槽位即本轮快照内容，随后由 {@link #snapshotStep} 按槽位下标分批复制进 image。
+	 * 冻结本身 O(1)；冻结后被成交、撤单、改单的挂单在修改前先复制当时的状态，冻结后入簿的挂单不进入本轮。
+	 */
+	@Override
+	public void beginSnapshot(BookImage image) {
+		if (this.image != null) {
+			throw new IllegalStateException("snapshot already in progress");
+		}
+		image.clear();
+		this.image = image;
+		this.snapEpoch++;
+		this.cursor = 0;
+	}
+
+	@Override
+	public boolean snapshotStep(int maxOrders) {
+		if (image == null) {
+			throw new IllegalStateException("no snapshot in progress");
+		}
+		if (maxOrders <= 0) {
+			throw new IllegalArgumentException("maxOrders must be > 0");
+		}
+		// 冻结后新分配的槽位已标记为本轮，高水位随之增长不影响结果
+		int end = Math.min(slab.getHighWater(), cursor + maxOrders);
+		for (int slot = cursor; slot < end; slot++) {
+			if (slab.qty(slot) != 0L) {
+				preserve(slot);
+			}
+		}
+		cursor = end;
+		if (cursor < slab.getHighWater()) {
+			return false;
+		}
+		image = null;
+		return true;
+	}
+
+	/**
+	 * 修改或释放槽位前调用：快照进行中且本轮尚未复制该槽位时，先复制其当前状态
+	 */
+	private void preserve(int slot) {
+		if (image != null && snapEpochs[slot] != snapEpoch) {
+			snapEpochs[slot] = snapEpoch;
+			image.append(slab.ask(slot), slab.price(slot), seqs[slot], slab.orderId(slot), slab.userId(slot),
+						 slab.qty(slot), slab.time(slot));
+		}
+	}
+
+	/**
+	 * 簿内挂单笔数
+	 */
+	public int orderCount() {
+		return orders.size();
+	}
+
+	@Override
+	public String snapshot() {
+		return depth();
+	}
+
+	@Override
+	public String depth() {
+		return JSON.toJSONString(Arrays.asList(levels(bids), levels(asks)));
+	}
+
+	private static Map<String, Long> levels(SideLevels s) {
+		Map<String, Long> m = new HashMap<>();
+		for (int i = 0; i < s.size(); i++) {
+			m.put(String.valueOf(s.price(i)), s.totals[i]);
+		}
+		return m;
+	}
+}
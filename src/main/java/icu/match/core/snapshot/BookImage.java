@@ -0,0 +1,176 @@
+package icu.match.core.snapshot;
+
+import icu.match.core.model.SnapshotView;
+
+import java.util.Arrays;
+
+/**
+ * 订单簿某一时刻的挂单副本，由撮合线程在快照步进中逐笔追加，完成后交给快照线程排序、落盘。
+ * <p>按行存放于一个 long 数组（方向、价格、入队序号、订单号、用户、数量、时间），追加不装箱；
+ * 行的追加顺序与队列顺序无关，{@link #sort()} 按（方向、价格、入队序号）排出各价位的 FIFO 顺序，
+ * 之后按排序位置逐行读取，{@link SnapWriter} 据此流式写出。</p>
+ * <p>同一实例在各轮快照间复用：撮合线程只在快照线程取走上一轮结果后才重新写入。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class BookImage {
+
+	private static final int STRIDE = 7;
+
+	private static final int ASK = 0;
+
+	private static final int PRICE = 1;
+
+	private static final int SEQ = 2;
+
+	private static final int ORDER_ID = 3;
+
+	private static final int USER_ID = 4;
+
+	private static final int QTY = 5;
+
+	private static final int TIME = 6;
+
+	private long[] rows;
+
+	private int size;
+
+	/**
+	 * 排序位置 -> 行下标，{@link #sort()} 后有效
+	 */
+	private int[] order = new int[0];
+
+	private boolean sorted;
+
+	public BookImage(int initialOrders) {
+		if (initialOrders <= 0) {
+			throw new IllegalArgumentException("initialOrders must be > 0");
+		}
+		rows = new long[initialOrders * STRIDE];
+	}
+
+	public void append(boolean ask, long price, long seq, long orderId, long userId, long qty, long time) {
+		int p = size * STRIDE;
+		if (p == rows.length) {
+			rows = Arrays.copyOf(rows, rows.length << 1);
+		}
+		rows[p + ASK] = ask ? 1 : 0;
+		rows[p + PRICE] = price;
+		rows[p + SEQ] = seq;
+		rows[p + ORDER_ID] = orderId;
+		rows[p + USER_ID] = userId;
+		rows[p + QTY] = qty;
+		rows[p + TIME] = time;
+		size++;
+		sorted = false;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		size = 0;
+		sorted = false;
+	}
+
+	/**
+	 * 先买后卖，两侧均按价格升序，同价位按入队序号，即 FIFO 顺序；重复调用不重复排序
+	 */
+	public void sort() {
+		if (sorted) {
+			return;
+		}
+		if (order.length < size) {
+			order = new int[rows.length / STRIDE];
+		}
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		sort(order, new int[size], 0, size);
+		sorted = true;
+	}
+
+	public boolean isAsk(int k) {
+		return at(k, ASK) != 0;
+	}
+
+	public long price(int k) {
+		return at(k, PRICE);
+	}
+
+	public long orderId(int k) {
+		return at(k, ORDER_ID);
+	}
+
+	public long userId(int k) {
+		return at(k, USER_ID);
+	}
+
+	public long qty(int k) {
+		return at(k, QTY);
+	}
+
+	public long time(int k) {
+		return at(k, TIME);
+	}
+
+	/**
+	 * @param k 排序位置
+	 */
+	private long at(int k, int column) {
+		if (!sorted) {
+			throw new IllegalStateException("image not sorted");
+		}
+		return rows[order[k] * STRIDE + column];
+	}
+
+	public SnapshotView toView() {
+		sort();
+		SnapshotView view = new SnapshotView();
+		for (int k = 0; k < size; k++) {
+			if (isAsk(k)) {
+				view.appendAsk(price(k), userId(k), orderId(k), qty(k), time(k));
+			} else {
+				view.appendBid(price(k), userId(k), orderId(k), qty(k), time(k));
+			}
+		}
+		return view;
+	}
+
+	/**
+	 * 行下标的归并排序，免去 Integer 装箱与比较器
+	 */
+	private void sort(int[] a, int[] tmp, int from, int to) {
+		if (to - from < 2) {
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		sort(a, tmp, from, mid);
+		sort(a, tmp, mid, to);
+		if (compare(a[mid - 1], a[mid]) <= 0) {
+			return;
+		}
+		System.arraycopy(a, from, tmp, from, to - from);
+		int i = from;
+		int j = mid;
+		for (int k = from; k < to; k++) {
+			if (j >= to || (i < mid && compare(tmp[i], tmp[j]) <= 0)) {
+				a[k] = tmp[i++];
+			} else {
+				a[k] = tmp[j++];
+			}
+		}
+	}
+
+	private int compare(int x, int y) {
+		int p = x * STRIDE;
+		int q = y * STRIDE;
+		int c = Long.compare(rows[p + ASK], rows[q + ASK]);
+		if (c == 0) {
+			c = Long.compare(rows[p + PRICE], rows[q + PRICE]);
+		}
+		return c != 0 ? c : Long.compare(rows[p + SEQ], rows[q + SEQ]);
+	}
+}
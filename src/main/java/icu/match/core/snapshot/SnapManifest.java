@@ -0,0 +1,287 @@
+package icu.match.core.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * 快照清单：记录保留中的快照，由新到旧，每项含文件名、lastAppliedLsn、大小与整文件 CRC32C。
+ * <pre>
+ * MAGIC(6) | VERSION(4) | count(4) | count × [nameLen(2) | name | lastAppliedLsn(8) | createdAtMs(8) | size(8) | crc(4)] | CRC32C(4)
+ * </pre>
+ * 清单与快照同目录，名为 baseName.manifest，每次写快照后经临时文件原子替换；恢复直接读清单取最新一项，不扫描目录，
+ * 最新一项校验失败时按清单顺序退回更旧的快照。清单缺失或损坏时按文件名中的时间扫描目录，不影响恢复。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class SnapManifest {
+
+	private static final byte[] MAGIC = new byte[]{'O', 'B', 'M', 'A', 'N', 'I'}; // "OBMANI"
+
+	private static final int VERSION = 1;
+
+	private static final String SUFFIX = ".manifest";
+
+	private static final String SNAP_SUFFIX = ".snap";
+
+	/**
+	 * 文件名中的时间小于此值视为秒（早期命名），否则为毫秒
+	 */
+	private static final long EPOCH_MS_MIN = 100_000_000_000L;
+
+	private SnapManifest() {
+	}
+
+	/**
+	 * 恢复时依次尝试的快照，由新到旧：清单可读时即清单各项，否则为目录中该 baseName 的全部快照（大小与 CRC 未知）
+	 */
+	public static List<Entry> candidates(Path dir, String baseName) throws IOException {
+		try {
+			List<Entry> entries = read(dir, baseName);
+			if (entries != null) {
+				return entries;
+			}
+		} catch (IOException ignore) {
+			// 清单损坏，退回目录扫描
+		}
+		return scan(dir, baseName);
+	}
+
+	/**
+	 * 把新写入的快照记入清单首项，只保留最新 retain 项，原子替换清单后删除不在清单中的快照文件
+	 *
+	 * @return 保留中的快照，由新到旧
+	 */
+	static List<Entry> record(Path dir, String baseName, Entry latest, int retain) throws IOException {
+		if (retain <= 0) {
+			throw new IllegalArgumentException("retain must be > 0");
+		}
+		// 清单缺失或损坏时，目录中已有的快照按时间补入，不因此删掉
+		List<Entry> entries = candidates(dir, baseName);
+		List<Entry> kept = new ArrayList<>(retain);
+		kept.add(latest);
+		for (Entry e : entries) {
+			// 目录扫描得到的项含刚写入的文件；清单项可能指向已被删除的文件
+			if (kept.size() < retain && !e.name.equals(latest.name) && Files.isRegularFile(e.path)) {
+				kept.add(e);
+			}
+		}
+		write(dir, baseName, kept);
+		deleteUnlisted(dir, baseName, kept);
+		return kept;
+	}
+
+	/**
+	 * @return 清单各项，由新到旧；清单不存在时为 null
+	 */
+	static List<Entry> read(Path dir, String baseName) throws IOException {
+		Path file = dir.resolve(baseName + SUFFIX);
+		byte[] bytes;
+		try {
+			bytes = Files.readAllBytes(file);
+		} catch (NoSuchFileException e) {
+			return null;
+		}
+		if (bytes.length < 6 + 4 + 4 + 4) {
+			throw new IOException("Manifest too small/corrupted: " + file);
+		}
+		CRC32C crc = new CRC32C();
+		crc.update(bytes, 0, bytes.length - 4);
+		ByteBuffer in = ByteBuffer.wrap(bytes);
+		int fileCrc = in.getInt(bytes.length - 4);
+		if ((int) crc.getValue() != fileCrc) {
+			throw new IOException("Manifest CRC mismatch: " + file);
+		}
+		byte[] magic = new byte[6];
+		in.get(magic);
+		if (!Arrays.equals(magic, MAGIC)) {
+			throw new IOException("Bad MAGIC in manifest: " + file);
+		}
+		int version = in.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported manifest version: " + version);
+		}
+		int count = in.getInt();
+		if (count < 0) {
+			throw new IOException("Negative manifest count: " + count);
+		}
+		List<Entry> entries = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			byte[] name = new byte[in.getShort() & 0xFFFF];
+			in.get(name);
+			String fileName = new String(name, StandardCharsets.UTF_8);
+			entries.add(new Entry(dir.resolve(fileName), in.getLong(), in.getLong(), in.getLong(), in.getInt()));
+		}
+		if (in.remaining() != 4) {
+			throw new IOException("Trailing bytes in manifest: " + file);
+		}
+		return entries;
+	}
+
+	private static void write(Path dir, String baseName, List<Entry> entries) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entries.size() * 64);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.write(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(entries.size());
+		for (Entry e : entries) {
+			byte[] name = e.name.getBytes(StandardCharsets.UTF_8);
+			out.writeShort(name.length);
+			out.write(name);
+			out.writeLong(e.lastAppliedLsn);
+			out.writeLong(e.createdAtMs);
+			out.writeLong(e.size);
+			out.writeInt(e.crc);
+		}
+		CRC32C crc = new CRC32C();
+		crc.update(bytes.toByteArray());
+		out.writeInt((int) crc.getValue());
+
+		Path tmp = Files.createTempFile(dir, baseName + "-", ".tmp");
+		try {
+			try (FileChannel ch = FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+				ByteBuffer buf = ByteBuffer.wrap(bytes.toByteArray());
+				while (buf.hasRemaining()) {
+					ch.write(buf);
+				}
+				ch.force(true);
+			}
+			Files.move(tmp, dir.resolve(baseName + SUFFIX), StandardCopyOption.ATOMIC_MOVE,
+					   StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			Files.deleteIfExists(tmp);
+			throw e;
+		}
+		try (FileChannel dirCh = FileChannel.open(dir, READ)) {
+			dirCh.force(true);
+		} catch (Exception ignore) {
+		}
+	}
+
+	/**
+	 * 按文件名中的时间由新到旧列出目录中的快照；LSN 取自各文件头，大小与 CRC 未知
+	 */
+	private static List<Entry> scan(Path dir, String baseName) throws IOException {
+		List<Entry> entries = new ArrayList<>();
+		if (!Files.isDirectory(dir)) {
+			return entries;
+		}
+		try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, p -> isSnapshot(p, baseName))) {
+			for (Path p : ds) {
+				String name = p.getFileName()
+							   .toString();
+				// 形如 baseName-1726230000123.snap；早期版本为秒
+				int dash = name.lastIndexOf('-');
+				int dot = name.lastIndexOf('.');
+				if (dash < 0 || dot < dash) {
+					continue;
+				}
+				try {
+					long ts = Long.parseLong(name.substring(dash + 1, dot));
+					long createdAtMs = ts < EPOCH_MS_MIN ? ts * 1000 : ts;
+					entries.add(new Entry(p, headerLsn(p), createdAtMs, -1L, 0));
+				} catch (NumberFormatException ignore) {
+				}
+			}
+		}
+		entries.sort((a, b) -> Long.compare(b.createdAtMs, a.createdAtMs));
+		return entries;
+	}
+
+	/**
+	 * 截断 WAL 时以保留快照的 LSN 为界，补入的快照需带上文件中的 LSN；头不可读为 -1，该快照也不会被恢复选用
+	 */
+	private static long headerLsn(Path p) {
+		try {
+			return SnapReader.readHeader(p).lastAppliedLsn;
+		} catch (IOException e) {
+			return -1L;
+		}
+	}
+
+	private static void deleteUnlisted(Path dir, String baseName, List<Entry> kept) {
+		Set<Path> keep = new HashSet<>();
+		for (Entry e : kept) {
+			keep.add(e.path);
+		}
+		try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, p -> isSnapshot(p, baseName) &&
+																		   !keep.contains(p))) {
+			for (Path p : ds) {
+				try {
+					Files.deleteIfExists(p);
+				} catch (IOException ignore) {
+				}
+			}
+		} catch (IOException ignore) {
+		}
+	}
+
+	private static boolean isSnapshot(Path p, String baseName) {
+		String name = p.getFileName()
+					   .toString();
+		return Files.isRegularFile(p) && name.startsWith(baseName + "-") && name.endsWith(SNAP_SUFFIX);
+	}
+
+	/**
+	 * 清单中的一项；目录扫描得到的项 size 为 -1，不校验大小与 CRC
+	 */
+	public static final class Entry {
+
+		public final Path path;
+
+		public final String name;
+
+		public final long lastAppliedLsn;
+
+		public final long createdAtMs;
+
+		public final long size;
+
+		/**
+		 * 整个快照文件的 CRC32C
+		 */
+		public final int crc;
+
+		public Entry(Path path, long lastAppliedLsn, long createdAtMs, long size, int crc) {
+			this.path = path;
+			this.name = path.getFileName()
+							.toString();
+			this.lastAppliedLsn = lastAppliedLsn;
+			this.createdAtMs = createdAtMs;
+			this.size = size;
+			this.crc = crc;
+		}
+
+		/**
+		 * @return 大小与 CRC 可用于校验
+		 */
+		public boolean verifiable() {
+			return size >= 0;
+		}
+
+		@Override
+		public String toString() {
+			return "Entry{" + "name=" + name + ", lastAppliedLsn=" + lastAppliedLsn + ", size=" + size + '}';
+		}
+	}
+}
@@ -4,6 +4,7 @@ package icu.match.core.snapshot;/**
  * @date 2025/9/13
  */
 
+import icu.match.core.LongColumn;
 import icu.match.core.model.SnapshotView;
 import lombok.SneakyThrows;
 
@@ -15,13 +16,12 @@ import java.io.FileNotFoundException;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
-import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.zip.CRC32C;
@@ -30,15 +30,28 @@ import java.util.zip.CheckedInputStream;
 import static java.nio.file.StandardOpenOption.READ;
 
 /**
+ * 快照文件读取。v3 文件经 {@link #read} 按块交付给 {@link OrderSink}，可内存映射或以复用缓冲区流式读取：
+ * 先校验头与全部块的 CRC，全部通过后才开始交付，调用方不会装入半份快照。v1/v2 仍按整文件 CRC 读为视图。
+ *
  * @author 中本君
  * @date 2025/9/13 
  */
 public class SnapReader {
 	private static final byte[] MAGIC = new byte[]{'O', 'B', 'S', 'N', 'A', 'P'}; // "OBSNAP"
 
-	private static final int VERSION_SUPPORTED = 1;
+	/**
+	 * v1：八个 List&lt;Long&gt; 列，仅热区、无时间；v2：按价位成组的全字段记录，见 {@link SnapWriter}
+	 */
+	private static final int VERSION_LEGACY = 1;
+
+	private static final int VERSION_LEVELS = 2;
 
-	private static final String SUFFIX = ".snap";
+	private static final int VERSION_COLUMNS = SnapWriter.VERSION;
+
+	/**
+	 * 头中 blockOrders 的上限，防止损坏的头导致超大缓冲区
+	 */
+	private static final int MAX_BLOCK_ORDERS = 1 << 20;
 
 	@SneakyThrows
 	public static void main(String[] args) {
@@ -54,61 +67,259 @@ public class SnapReader {
 		// System.out.println(r2.view.view());
 	}
 
-	/** 读取目录中某个 baseName 的最新快照（文件名形如 baseName-epochSec.snap） */
+	/**
+	 * 读取目录中某个 baseName 的最新可读快照：按 {@link SnapManifest} 由新到旧尝试，校验失败时退回更旧的一个，
+	 * 全部失败时抛出最新一个的异常
+	 */
 	public static SnapshotReadResult readLatest(Path dir, String baseName) throws IOException {
-		Path latest = findLatest(dir, baseName);
-		if (latest == null) {
-			throw new FileNotFoundException("No snapshot found for baseName=" + baseName + " in " + dir);
-		}
-		return readSnapshot(latest);
-	}
-
-	/** 找到最新的快照文件（按文件名中的 epochSec 排序；不做 I/O 排序） */
-	private static Path findLatest(Path dir, String baseName) throws IOException {
-		if (!Files.isDirectory(dir)) {
-			return null;
-		}
-		Path latest = null;
-		long bestTs = Long.MIN_VALUE;
-
-		try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, p -> Files.isRegularFile(p) && p.getFileName()
-																									  .toString()
-																									  .startsWith(
-																											  baseName +
-																											  "-") &&
-																		   p.getFileName()
-																			.toString()
-																			.endsWith(SUFFIX))) {
-			for (Path p : ds) {
-				String name = p.getFileName()
-							   .toString();
-				// 形如 baseName-1726230000.snap
-				int dash = name.lastIndexOf('-');
-				int dot = name.lastIndexOf('.');
-				if (dash < 0 || dot < dash) {
-					continue;
-				}
-				try {
-					long ts = Long.parseLong(name.substring(dash + 1, dot));
-					if (ts > bestTs) {
-						bestTs = ts;
-						latest = p;
-					}
-				} catch (NumberFormatException ignore) {
+		IOException first = null;
+		for (SnapManifest.Entry entry : SnapManifest.candidates(dir, baseName)) {
+			try {
+				return readView(entry.path, entry.verifiable() ? entry : null);
+			} catch (IOException e) {
+				if (first == null) {
+					first = e;
 				}
 			}
 		}
-		return latest;
+		if (first != null) {
+			throw first;
+		}
+		throw new FileNotFoundException("No snapshot found for baseName=" + baseName + " in " + dir);
+	}
+
+	/** 最新的快照文件：清单可读时取其首项，O(1)；否则按文件名中的时间扫描目录；无则返回 null */
+	public static Path findLatest(Path dir, String baseName) throws IOException {
+		List<SnapManifest.Entry> entries = SnapManifest.candidates(dir, baseName);
+		return entries.isEmpty() ? null : entries.get(0).path;
 	}
 
 	/* ================= helpers ================ */
 
 	/** 读取单个快照文件，做 MAGIC/VERSION/CRC 校验，返回视图与元数据 */
 	public static SnapshotReadResult readSnapshot(Path file) throws IOException {
+		return readView(file, null);
+	}
+
+	private static SnapshotReadResult readView(Path file, SnapManifest.Entry expected) throws IOException {
+		SnapshotReadResult header = readHeader(file);
+		if (header.version != VERSION_COLUMNS) {
+			return readLegacy(file);
+		}
+		SnapshotView v = new SnapshotView();
+		SnapshotReadResult r = read(file, Mode.STREAM, expected, (ask, price, orderId, userId, qty, time) -> {
+			if (ask) {
+				v.appendAsk(price, userId, orderId, qty, time);
+			} else {
+				v.appendBid(price, userId, orderId, qty, time);
+			}
+		});
+		return new SnapshotReadResult(v, r.createdAtMs, r.lastAppliedLsn, r.version, file, r.orders);
+	}
+
+	/**
+	 * 只读头部元数据，不读体；v3 校验头 CRC，v1/v2 的整文件 CRC 留待完整读取时校验
+	 *
+	 * @return view 为 null；v1/v2 的 orders 为 -1
+	 */
+	public static SnapshotReadResult readHeader(Path file) throws IOException {
 		if (!Files.isRegularFile(file)) {
 			throw new FileNotFoundException("Snapshot not found: " + file);
 		}
+		try (FileChannel ch = FileChannel.open(file, READ)) {
+			ByteBuffer head = ByteBuffer.allocate(SnapWriter.HEADER_BYTES);
+			readFully(ch, head, 0, (int) Math.min(ch.size(), SnapWriter.HEADER_BYTES), file);
+			return parseHeader(head, file);
+		}
+	}
+
+	/**
+	 * 读取 v3 快照并逐笔交付给 sink，顺序与写出一致：先买后卖、价格升序、价位内队列顺序。
+	 * 先完整校验头与全部块 CRC，任何损坏都在交付第一笔之前以 IOException 抛出；v1/v2 文件读为视图后同样逐笔交付。
+	 *
+	 * @param mode 文件超过 2GB 时 MMAP 退化为 STREAM
+	 */
+	public static SnapshotReadResult read(Path file, Mode mode, OrderSink sink) throws IOException {
+		return read(file, mode, null, sink);
+	}
+
+	/**
+	 * 同 {@link #read(Path, Mode, OrderSink)}，另在第一遍校验中核对清单记录的文件大小与整文件 CRC32C，
+	 * 可发现被替换或截断后恰好仍自洽的文件
+	 */
+	public static SnapshotReadResult read(SnapManifest.Entry entry, Mode mode, OrderSink sink) throws IOException {
+		return read(entry.path, mode, entry.verifiable() ? entry : null, sink);
+	}
+
+	private static SnapshotReadResult read(Path file, Mode mode, SnapManifest.Entry expected, OrderSink sink)
+			throws IOException {
+		SnapshotReadResult header = readHeader(file);
+		if (header.version != VERSION_COLUMNS) {
+			SnapshotReadResult r = readLegacy(file);
+			deliver(r.view, sink);
+			return r;
+		}
+		try (FileChannel ch = FileChannel.open(file, READ)) {
+			long size = ch.size();
+			if (expected != null && expected.size != size) {
+				throw new IOException("Snapshot size mismatch: manifest=" + expected.size + " file=" + size + " path=" +
+									  file);
+			}
+			Blocks blocks = mode == Mode.MMAP && size <= Integer.MAX_VALUE
+							? new MappedBlocks(ch, size)
+							: new StreamBlocks(ch, header.blockOrders, file);
+			// 第一遍：只校验
+			CRC32C fileCrc = null;
+			if (expected != null) {
+				fileCrc = new CRC32C();
+				fileCrc.update(blocks.block(0, SnapWriter.HEADER_BYTES));
+			}
+			scan(blocks, header, size, null, fileCrc, file);
+			if (fileCrc != null && (int) fileCrc.getValue() != expected.crc) {
+				throw new IOException("Snapshot CRC mismatch with manifest: calc=" + (int) fileCrc.getValue() +
+									  " manifest=" + expected.crc + " path=" + file);
+			}
+			// 第二遍：交付
+			scan(blocks, header, size, sink, null, file);
+			return header;
+		}
+	}
+
+	private static SnapshotReadResult parseHeader(ByteBuffer head, Path file) throws IOException {
+		if (head.limit() < 6 + 4 + 8 + 8) {
+			throw new EOFException("Snapshot too small/corrupted: " + file + " size=" + head.limit());
+		}
+		byte[] magic = new byte[6];
+		head.get(magic);
+		if (!Arrays.equals(magic, MAGIC)) {
+			throw new IOException("Bad MAGIC in snapshot: " + file);
+		}
+		int version = head.getInt();
+		long createdAtMs = head.getLong();
+		long lastAppliedLsn = head.getLong();
+		if (version == VERSION_LEGACY || version == VERSION_LEVELS) {
+			return new SnapshotReadResult(null, createdAtMs, lastAppliedLsn, version, file, -1);
+		}
+		if (version != VERSION_COLUMNS) {
+			throw new IOException("Unsupported snapshot version: " + version);
+		}
+		if (head.limit() < SnapWriter.HEADER_BYTES) {
+			throw new EOFException("Snapshot header truncated: " + file);
+		}
+		int orders = head.getInt();
+		int blockOrders = head.getInt();
+		int fileCrc = head.getInt();
+		int calcCrc = crc(head, 0, SnapWriter.HEADER_BYTES - 4);
+		if (calcCrc != fileCrc) {
+			throw new IOException("Header CRC mismatch: calc=" + calcCrc + " file=" + fileCrc + " path=" + file);
+		}
+		if (orders < 0 || blockOrders <= 0 || blockOrders > MAX_BLOCK_ORDERS) {
+			throw new IOException("Bad snapshot header: orders=" + orders + " blockOrders=" + blockOrders);
+		}
+		return new SnapshotReadResult(null, createdAtMs, lastAppliedLsn, version, file, orders, blockOrders);
+	}
+
+	/**
+	 * 顺序遍历全部块：sink 为 null 时只校验块长与 CRC，否则按列解码交付
+	 *
+	 * @param fileCrc 非 null 时累加各块字节，用于整文件校验
+	 */
+	private static void scan(Blocks blocks, SnapshotReadResult header, long size, OrderSink sink, CRC32C fileCrc,
+							 Path file) throws IOException {
+		long pos = SnapWriter.HEADER_BYTES;
+		int read = 0;
+		while (read < header.orders) {
+			if (size - pos < 4) {
+				throw new EOFException("Snapshot block truncated at " + pos + ": " + file);
+			}
+			int n = blocks.peekInt(pos);
+			if (n <= 0 || n > header.blockOrders || n > header.orders - read) {
+				throw new IOException("Bad block size: " + n + " at " + pos + ": " + file);
+			}
+			int len = SnapWriter.blockBytes(n);
+			if (size - pos < len) {
+				throw new EOFException("Snapshot block truncated at " + pos + ": " + file);
+			}
+			ByteBuffer b = blocks.block(pos, len);
+			if (sink == null) {
+				int blockCrc = b.getInt(len - 4);
+				int calcCrc = crc(b, 0, len - 4);
+				if (calcCrc != blockCrc) {
+					throw new IOException(
+							"Block CRC mismatch at " + pos + ": calc=" + calcCrc + " file=" + blockCrc + " path=" + file);
+				}
+				if (fileCrc != null) {
+					fileCrc.update(b.duplicate());
+				}
+			} else {
+				decode(b, n, sink);
+			}
+			read += n;
+			pos += len;
+		}
+		if (pos != size) {
+			throw new IOException("Trailing bytes after last block: " + (size - pos) + " path=" + file);
+		}
+	}
+
+	private static void decode(ByteBuffer b, int n, OrderSink sink) throws IOException {
+		int prices = 4 + n;
+		int orderIds = prices + 8 * n;
+		int userIds = orderIds + 8 * n;
+		int qtys = userIds + 8 * n;
+		int times = qtys + 8 * n;
+		for (int i = 0; i < n; i++) {
+			byte side = b.get(4 + i);
+			if (side != 0 && side != 1) {
+				throw new IOException("Bad side in snapshot block: " + side);
+			}
+			int o = 8 * i;
+			sink.onOrder(side == 1, b.getLong(prices + o), b.getLong(orderIds + o), b.getLong(userIds + o),
+						 b.getLong(qtys + o), b.getLong(times + o));
+		}
+	}
+
+	private static void deliver(SnapshotView v, OrderSink sink) {
+		deliverSide(false, v.bidPrices, v.bidUserIds, v.bidOrderIds, v.bidQtyList, v.bidTimes, sink);
+		deliverSide(true, v.askPrices, v.askUserIds, v.askOrderIds, v.askQtyList, v.askTimes, sink);
+	}
+
+	private static void deliverSide(boolean ask, LongColumn prices, LongColumn userIds, LongColumn orderIds,
+									LongColumn qtys, LongColumn times, OrderSink sink) {
+		int n = prices.size();
+		boolean timed = !times.isEmpty();
+		if (userIds.size() != n || orderIds.size() != n || qtys.size() != n || (timed && times.size() != n)) {
+			throw new IllegalArgumentException("snapshot columns length mismatch");
+		}
+		for (int i = 0; i < n; i++) {
+			sink.onOrder(ask, prices.getLong(i), orderIds.getLong(i), userIds.getLong(i), qtys.getLong(i),
+						 timed ? times.getLong(i) : 0L);
+		}
+	}
+
+	private static int crc(ByteBuffer b, int from, int to) {
+		ByteBuffer slice = b.duplicate();
+		slice.limit(to)
+			 .position(from);
+		CRC32C crc = new CRC32C();
+		crc.update(slice);
+		return (int) crc.getValue();
+	}
 
+	private static void readFully(FileChannel ch, ByteBuffer buf, long pos, int len, Path file) throws IOException {
+		buf.clear()
+		   .limit(len);
+		while (buf.hasRemaining()) {
+			int r = ch.read(buf, pos + buf.position());
+			if (r < 0) {
+				throw new EOFException("Unexpected end of snapshot: " + file);
+			}
+		}
+		buf.flip();
+	}
+
+	/** v1/v2：整文件一个 CRC32C 尾 */
+	private static SnapshotReadResult readLegacy(Path file) throws IOException {
 		try (FileChannel ch = FileChannel.open(file, READ)) {
 			long size = ch.size();
 			if (size < (6 + 4 + 8 + 8 + 4)) { // 基本头部 + 尾部CRC 的最小长度
@@ -131,24 +342,28 @@ public class SnapReader {
 				}
 
 				int version = in.readInt();
-				if (version != VERSION_SUPPORTED) {
+				if (version != VERSION_LEGACY && version != VERSION_LEVELS) {
 					throw new IOException("Unsupported snapshot version: " + version);
 				}
 
 				long createdAtMs = in.readLong();
 				long lastAppliedLsn = in.readLong();
 
-				// ===== 体（8个 List<Long>）=====
 				SnapshotView v = new SnapshotView();
-				v.bidPrices = readLongList(in);
-				v.bidUserIds = readLongList(in);
-				v.bidOrderIds = readLongList(in);
-				v.bidQtyList = readLongList(in);
-
-				v.askPrices = readLongList(in);
-				v.askOrderIds = readLongList(in);
-				v.askUserIds = readLongList(in);
-				v.askQtyList = readLongList(in);
+				if (version == VERSION_LEVELS) {
+					readLevels(in, v);
+				} else {
+					// ===== 体（8个 List<Long>）=====
+					v.bidPrices = readLongList(in);
+					v.bidUserIds = readLongList(in);
+					v.bidOrderIds = readLongList(in);
+					v.bidQtyList = readLongList(in);
+
+					v.askPrices = readLongList(in);
+					v.askOrderIds = readLongList(in);
+					v.askUserIds = readLongList(in);
+					v.askQtyList = readLongList(in);
+				}
 
 				// CheckedInputStream 在此处已计算出 payload 的 CRC 值
 				long calcCrc = crc.getValue();
@@ -160,20 +375,52 @@ public class SnapReader {
 					throw new IOException("CRC mismatch: calc=" + (int) calcCrc + " file=" + fileCrc + " path=" + file);
 				}
 
-				return new SnapshotReadResult(v, createdAtMs, lastAppliedLsn, version, file);
+				return new SnapshotReadResult(v, createdAtMs, lastAppliedLsn, version, file,
+											  v.bidPrices.size() + v.askPrices.size());
 			}
 		}
 	}
 
-	private static List<Long> readLongList(DataInput in) throws IOException {
+	private static void readLevels(DataInput in, SnapshotView v) throws IOException {
+		int total = in.readInt();
+		if (total < 0) {
+			throw new IOException("Negative order count: " + total);
+		}
+		int read = 0;
+		while (read < total) {
+			byte side = in.readByte();
+			if (side != 0 && side != 1) {
+				throw new IOException("Bad side in snapshot level: " + side);
+			}
+			long price = in.readLong();
+			int n = in.readInt();
+			if (n <= 0 || n > total - read) {
+				throw new IOException("Bad level size: " + n + " at price " + price);
+			}
+			for (int i = 0; i < n; i++) {
+				long orderId = in.readLong();
+				long userId = in.readLong();
+				long qty = in.readLong();
+				long time = in.readLong();
+				if (side == 1) {
+					v.appendAsk(price, userId, orderId, qty, time);
+				} else {
+					v.appendBid(price, userId, orderId, qty, time);
+				}
+			}
+			read += n;
+		}
+	}
+
+	private static LongColumn readLongList(DataInput in) throws IOException {
 		int n = in.readInt();
 		if (n < 0) {
 			throw new IOException("Negative list length: " + n);
 		}
 		// 可按需做上限保护以防 OOM，例如 if (n > 10_000_000) throw ...
-		List<Long> list = new ArrayList<>(n);
+		LongColumn list = new LongColumn(n);
 		for (int i = 0; i < n; i++) {
-			list.add(in.readLong());
+			list.addLong(in.readLong());
 		}
 		return list;
 	}
@@ -227,8 +474,89 @@ public class SnapReader {
 		}
 	}
 
+	/**
+	 * 按文件偏移取块：映射时为映射区的视图，流式时读入复用缓冲区，下次调用前有效
+	 */
+	private interface Blocks {
+
+		int peekInt(long pos) throws IOException;
+
+		ByteBuffer block(long pos, int len) throws IOException;
+	}
+
+	private static final class MappedBlocks implements Blocks {
+
+		private final ByteBuffer map;
+
+		MappedBlocks(FileChannel ch, long size) throws IOException {
+			this.map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+
+		@Override
+		public int peekInt(long pos) {
+			return map.getInt((int) pos);
+		}
+
+		@Override
+		public ByteBuffer block(long pos, int len) {
+			ByteBuffer b = map.duplicate();
+			b.limit((int) pos + len)
+			 .position((int) pos);
+			return b.slice();
+		}
+	}
+
+	private static final class StreamBlocks implements Blocks {
+
+		private final FileChannel ch;
+
+		private final Path file;
+
+		private final ByteBuffer buf;
+
+		StreamBlocks(FileChannel ch, int blockOrders, Path file) {
+			this.ch = ch;
+			this.file = file;
+			this.buf = ByteBuffer.allocateDirect(SnapWriter.blockBytes(blockOrders));
+		}
+
+		@Override
+		public int peekInt(long pos) throws IOException {
+			readFully(ch, buf, pos, 4, file);
+			return buf.getInt(0);
+		}
+
+		@Override
+		public ByteBuffer block(long pos, int len) throws IOException {
+			readFully(ch, buf, pos, len, file);
+			return buf;
+		}
+	}
+
+	public enum Mode {
+		/**
+		 * 整文件只读映射，由页缓存供数，不经用户态拷贝
+		 */
+		MMAP,
+		/**
+		 * 逐块读入一块复用的直接缓冲区
+		 */
+		STREAM
+	}
+
+	/**
+	 * 逐笔接收快照中的挂单
+	 */
+	public interface OrderSink {
+
+		void onOrder(boolean ask, long price, long orderId, long userId, long qty, long time);
+	}
+
 	/* ===== 读取结果封装 ===== */
 	public static final class SnapshotReadResult {
+		/**
+		 * 仅 {@link #readSnapshot}/{@link #readLatest} 返回视图，其余为 null
+		 */
 		public final SnapshotView view;
 
 		public final long createdAtMs;
@@ -239,23 +567,38 @@ public class SnapReader {
 
 		public final Path path;
 
-		public SnapshotReadResult(SnapshotView view, long createdAtMs, long lastAppliedLsn, int version, Path path) {
+		/**
+		 * 挂单笔数；只读头时 v1/v2 为 -1
+		 */
+		public final int orders;
+
+		/**
+		 * v3 每块挂单数，v1/v2 为 0
+		 */
+		private final int blockOrders;
+
+		public SnapshotReadResult(SnapshotView view, long createdAtMs, long lastAppliedLsn, int version, Path path,
+								  int orders) {
+			this(view, createdAtMs, lastAppliedLsn, version, path, orders, 0);
+		}
+
+		private SnapshotReadResult(SnapshotView view, long createdAtMs, long lastAppliedLsn, int version, Path path,
+								   int orders, int blockOrders) {
 			this.view = view;
 			this.createdAtMs = createdAtMs;
 			this.lastAppliedLsn = lastAppliedLsn;
 			this.version = version;
 			this.path = path;
+			this.orders = orders;
+			this.blockOrders = blockOrders;
 		}
 
 		@Override
 		public String toString() {
 			return "SnapshotReadResult{" + "path=" + path + ", version=" + version + ", createdAtMs=" + createdAtMs +
-				   ", lastAppliedLsn=" + lastAppliedLsn + ", bids=" + (view.bidPrices == null
-																	   ? 0
-																	   : view.bidPrices.size()) + ", asks=" +
-				   (view.askPrices == null
-					? 0
-					: view.askPrices.size()) + '}';
+				   ", lastAppliedLsn=" + lastAppliedLsn + ", orders=" + orders + ", bids=" +
+				   (view == null || view.bidPrices == null ? 0 : view.bidPrices.size()) + ", asks=" +
+				   (view == null || view.askPrices == null ? 0 : view.askPrices.size()) + '}';
 		}
 	}
 }
@@ -1,23 +1,16 @@
 package icu.match.core.snapshot;
 
 
+import icu.match.core.LongColumn;
 import icu.match.core.model.SnapshotView;
 
-import java.io.BufferedOutputStream;
-import java.io.DataOutput;
-import java.io.DataOutputStream;
-import java.io.FilterOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.nio.channels.Channels;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
-import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.util.List;
 import java.util.zip.CRC32C;
-import java.util.zip.CheckedOutputStream;
 
 import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.READ;
@@ -25,69 +18,135 @@ import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 import static java.nio.file.StandardOpenOption.WRITE;
 
 /**
+ * 快照文件写入。v3 列式分块格式：
+ * <pre>
+ * 头：MAGIC(6) | VERSION(4) | createdAtMs(8) | lastAppliedLsn(8) | orders(4) | blockOrders(4) | CRC32C(4)，CRC 覆盖头前 34 字节
+ * 块：n(4) | side[n](1) | price[n](8) | orderId[n](8) | userId[n](8) | qty[n](8) | time[n](8) | CRC32C(4)，CRC 覆盖本块
+ * </pre>
+ * 挂单先买后卖、价格升序、同价位按队列顺序，每块 blockOrders 笔（末块可不足），热区与冷区的挂单一并写入。
+ * 由 {@link BookImage} 逐块填入一块复用的直接缓冲区后写入 FileChannel，不经流式包装、不组装列表；
+ * 逐块校验使读取方可在装载前确认整文件完好，也便于定位损坏的位置。
+ *
  * @author 中本君
  * @date 2025/9/13
  */
 public final class SnapWriter {
 
-	private static final int VERSION = 1;
+	static final int VERSION = 3;
 
-	private static final byte[] MAGIC = new byte[]{'O', 'B', 'S', 'N', 'A', 'P'}; // "OBSNAP"
+	static final byte[] MAGIC = new byte[]{'O', 'B', 'S', 'N', 'A', 'P'}; // "OBSNAP"
+
+	static final int HEADER_BYTES = 6 + 4 + 8 + 8 + 4 + 4 + 4;
+
+	/**
+	 * 每笔挂单在块内占用的字节：side(1) + 五个 long 列
+	 */
+	static final int ORDER_BYTES = 1 + 5 * 8;
+
+	/**
+	 * 每块挂单数，约 160KB 一块
+	 */
+	static final int BLOCK_ORDERS = 4096;
+
+	/**
+	 * 默认保留的快照数，最新的损坏时可退回更旧的
+	 */
+	public static final int DEFAULT_RETAIN = 3;
 
 	private static final String SUFFIX = ".snap";
 
-	/** 写入 v 到 dir 下：baseName-epochSec.snap；成功后仅保留这一个快照 */
+	/** 写入 v 到 dir 下：baseName-epochMs.snap；保留最新 {@link #DEFAULT_RETAIN} 个快照；不记录 LSN */
 	public static Path writeSnapshotAtomic(SnapshotView v, Path dir, String baseName) throws IOException {
+		return writeSnapshotAtomic(v, dir, baseName, -1L);
+	}
+
+	/**
+	 * 视图按各侧列中的顺序视为队列顺序写出
+	 *
+	 * @param lastAppliedLsn 快照冻结时最后一个已应用事务的 COMMIT LSN，恢复从其后回放；-1 表示未知
+	 */
+	public static Path writeSnapshotAtomic(SnapshotView v, Path dir, String baseName, long lastAppliedLsn)
+			throws IOException {
 		if (v == null) {
 			throw new IllegalArgumentException("view == null");
 		}
+		BookImage image = new BookImage(Math.max(1, v.bidPrices.size() + v.askPrices.size()));
+		long seq = 0;
+		seq = appendSide(image, false, v.bidPrices, v.bidUserIds, v.bidOrderIds, v.bidQtyList, v.bidTimes, seq);
+		appendSide(image, true, v.askPrices, v.askUserIds, v.askOrderIds, v.askQtyList, v.askTimes, seq);
+		return writeSnapshotAtomic(image, dir, baseName, lastAppliedLsn);
+	}
+
+	/**
+	 * @param image          已完成的快照副本，按需排序后逐块写出
+	 * @param lastAppliedLsn 快照冻结时最后一个已应用事务的 COMMIT LSN，恢复从其后回放；-1 表示未知
+	 */
+	public static Path writeSnapshotAtomic(BookImage image, Path dir, String baseName, long lastAppliedLsn)
+			throws IOException {
+		return writeSnapshotAtomic(image, dir, baseName, lastAppliedLsn, DEFAULT_RETAIN, BLOCK_ORDERS);
+	}
+
+	/**
+	 * 写出后记入 {@link SnapManifest}，清单与目录中只保留最新 retain 个快照
+	 *
+	 * @param retain 保留的快照数，含本次
+	 */
+	public static Path writeSnapshotAtomic(BookImage image, Path dir, String baseName, long lastAppliedLsn,
+										   int retain) throws IOException {
+		return writeSnapshotAtomic(image, dir, baseName, lastAppliedLsn, retain, BLOCK_ORDERS);
+	}
+
+	static Path writeSnapshotAtomic(BookImage image, Path dir, String baseName, long lastAppliedLsn, int retain,
+									int blockOrders) throws IOException {
+		if (image == null) {
+			throw new IllegalArgumentException("image == null");
+		}
+		if (retain <= 0 || blockOrders <= 0) {
+			throw new IllegalArgumentException("retain and blockOrders must be > 0");
+		}
+		image.sort();
 		Files.createDirectories(dir);
 
 		long nowMs = System.currentTimeMillis();
-		long epochSec = nowMs / 1000;
-		Path finalFile = dir.resolve(baseName + "-" + epochSec + SUFFIX);
+		Path finalFile = dir.resolve(baseName + "-" + nowMs + SUFFIX);
+		// 保留多个快照时文件名不可复用，同一毫秒内的后一个顺延
+		while (Files.exists(finalFile)) {
+			nowMs++;
+			finalFile = dir.resolve(baseName + "-" + nowMs + SUFFIX);
+		}
 
 		// 在同目录创建临时文件，保证 ATOMIC_MOVE 有效
 		Path tmp = Files.createTempFile(dir, baseName + "-", ".tmp");
 
+		// 整文件 CRC32C，记入清单
+		CRC32C fileCrc = new CRC32C();
+		long size;
 		try (FileChannel ch = FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING)) {
-
-			// 不让 close() 关掉底层 FileChannel，避免 force 时 channel 已被关闭
-			OutputStream base = new NoCloseOutputStream(Channels.newOutputStream(ch));
-
-			// 计算 payload（头+体）的 CRC32C
+			int blockCap = Math.min(blockOrders, Math.max(1, image.size()));
+			ByteBuffer buf = ByteBuffer.allocateDirect(Math.max(HEADER_BYTES, blockBytes(blockCap)));
 			CRC32C crc = new CRC32C();
-			try (CheckedOutputStream cos = new CheckedOutputStream(base, crc);
-				 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(cos, 1 << 20))) {
-
-				// ===== 头 =====
-				out.write(MAGIC);              // 6
-				out.writeInt(VERSION);         // 4
-				out.writeLong(nowMs);          // 8
-				out.writeLong(-1L);            // 8 预留 lastAppliedLsn（暂写 -1）
-
-				// ===== 体：8个 List<Long> =====
-				writeLongList(out, v.bidPrices);
-				writeLongList(out, v.bidUserIds);
-				writeLongList(out, v.bidOrderIds);
-				writeLongList(out, v.bidQtyList);
-
-				writeLongList(out, v.askPrices);
-				writeLongList(out, v.askOrderIds);
-				writeLongList(out, v.askUserIds);
-				writeLongList(out, v.askQtyList);
-
-				out.flush(); // 刷用户态缓冲
-			}
 
-			// ===== 尾：写入 CRC（避免经过 cos，否则会把尾也算进去）=====
-			try (DataOutputStream tail = new DataOutputStream(base)) {
-				tail.writeInt((int) crc.getValue());
-				tail.flush();
+			// ===== 头 =====
+			buf.put(MAGIC)
+			   .putInt(VERSION)
+			   .putLong(nowMs)
+			   .putLong(lastAppliedLsn)
+			   .putInt(image.size())
+			   .putInt(blockOrders);
+			seal(buf, crc);
+			writeFully(ch, buf, fileCrc);
+
+			// ===== 块 =====
+			int n = image.size();
+			for (int from = 0; from < n; from += blockOrders) {
+				fillBlock(buf, image, from, Math.min(n, from + blockOrders));
+				seal(buf, crc);
+				writeFully(ch, buf, fileCrc);
 			}
 
 			// 强制落盘（含元数据）
 			ch.force(true);
+			size = ch.size();
 
 		} catch (IOException e) {
 			safeDelete(tmp);
@@ -109,52 +168,89 @@ public final class SnapWriter {
 			throw e;
 		}
 
-		// 删除旧快照（同 baseName 的 .snap，除了当前文件）
-		deleteOldSnapshots(dir, baseName, finalFile);
+		// 记入清单，删除超出保留数的旧快照
+		SnapManifest.record(dir, baseName,
+							new SnapManifest.Entry(finalFile, lastAppliedLsn, nowMs, size, (int) fileCrc.getValue()),
+							retain);
 
 		return finalFile;
 	}
 
 	/* ================= helpers ================= */
 
-	private static void writeLongList(DataOutput out, List<Long> list) throws IOException {
-		if (list == null) {
-			out.writeInt(0);
-			return;
+	/**
+	 * @return n 笔挂单的块长，含块头与块尾 CRC
+	 */
+	static int blockBytes(int n) {
+		return 4 + n * ORDER_BYTES + 4;
+	}
+
+	/**
+	 * 按列填入排序位置 [from, to) 的挂单
+	 */
+	private static void fillBlock(ByteBuffer buf, BookImage image, int from, int to) {
+		buf.clear();
+		buf.putInt(to - from);
+		for (int k = from; k < to; k++) {
+			buf.put((byte) (image.isAsk(k) ? 1 : 0));
 		}
-		int n = list.size();
-		out.writeInt(n);
-		for (int i = 0; i < n; i++) {
-			out.writeLong(list.get(i)); // 自动拆箱
+		for (int k = from; k < to; k++) {
+			buf.putLong(image.price(k));
+		}
+		for (int k = from; k < to; k++) {
+			buf.putLong(image.orderId(k));
+		}
+		for (int k = from; k < to; k++) {
+			buf.putLong(image.userId(k));
+		}
+		for (int k = from; k < to; k++) {
+			buf.putLong(image.qty(k));
+		}
+		for (int k = from; k < to; k++) {
+			buf.putLong(image.time(k));
 		}
 	}
 
-	private static void safeDelete(Path p) {
-		try {
-			Files.deleteIfExists(p);
-		} catch (IOException ignore) {
-		}
+	/**
+	 * 对缓冲区中已写入的内容计算 CRC32C 并追加，之后翻转为待写出状态
+	 */
+	private static void seal(ByteBuffer buf, CRC32C crc) {
+		ByteBuffer payload = buf.duplicate();
+		payload.flip();
+		crc.reset();
+		crc.update(payload);
+		buf.putInt((int) crc.getValue());
+		buf.flip();
 	}
 
-	private static void deleteOldSnapshots(Path dir, String baseName, Path keep) {
-		try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, p -> Files.isRegularFile(p) && p.getFileName()
-																									  .toString()
-																									  .startsWith(
-																											  baseName +
-																											  "-") &&
-																		   p.getFileName()
-																			.toString()
-																			.endsWith(SUFFIX) && !p.equals(keep))) {
-			for (Path p : ds) safeDelete(p);
-		} catch (IOException ignore) {
+	private static void writeFully(FileChannel ch, ByteBuffer buf, CRC32C fileCrc) throws IOException {
+		fileCrc.update(buf.duplicate());
+		while (buf.hasRemaining()) {
+			ch.write(buf);
 		}
 	}
 
-	/** 关闭时仅 flush，不关闭底层 OutputStream（从而不关闭 FileChannel） */
-	static final class NoCloseOutputStream extends FilterOutputStream {
-		NoCloseOutputStream(OutputStream out) {super(out);}
+	/**
+	 * @return 下一个可用的入队序号
+	 */
+	private static long appendSide(BookImage image, boolean ask, LongColumn prices, LongColumn userIds,
+								   LongColumn orderIds, LongColumn qtys, LongColumn times, long seq) {
+		int n = prices.size();
+		boolean timed = times != null && !times.isEmpty();
+		if (userIds.size() != n || orderIds.size() != n || qtys.size() != n || (timed && times.size() != n)) {
+			throw new IllegalArgumentException("snapshot columns length mismatch");
+		}
+		for (int i = 0; i < n; i++) {
+			image.append(ask, prices.getLong(i), seq++, orderIds.getLong(i), userIds.getLong(i), qtys.getLong(i),
+						 timed ? times.getLong(i) : 0L);
+		}
+		return seq;
+	}
 
-		@Override
-		public void close() throws IOException {flush();}
+	private static void safeDelete(Path p) {
+		try {
+			Files.deleteIfExists(p);
+		} catch (IOException ignore) {
+		}
 	}
 }
@@ -0,0 +1,113 @@
+package icu.match.core.snapshot;
+
+import icu.match.common.OrderSide;
+import icu.match.common.OrderTif;
+import icu.match.common.OrderType;
+import icu.match.core.LongColumn;
+import icu.match.core.interfaces.BaseOrderBook;
+import icu.match.core.model.OrderInfo;
+import icu.match.core.model.SnapshotView;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 将快照视图装回订单簿：按快照中的顺序逐笔挂单，价位内顺序即原 FIFO 顺序；窗口内进热区，窗口外进冷区。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class SnapshotLoader {
+
+	private SnapshotLoader() {
+	}
+
+	/**
+	 * 从快照文件逐笔装载，不经中间视图；文件先整体校验，损坏时抛出 IOException 且订单簿未被改动
+	 *
+	 * @return 装载的挂单数
+	 */
+	public static int restore(BaseOrderBook book, int symbol, Path file, SnapReader.Mode mode) throws IOException {
+		OrderSubmitter submitter = new OrderSubmitter(book, symbol);
+		SnapReader.read(file, mode, submitter);
+		return submitter.count;
+	}
+
+	/**
+	 * 同 {@link #restore(BaseOrderBook, int, Path, SnapReader.Mode)}，另核对清单记录的大小与整文件 CRC
+	 */
+	public static int restore(BaseOrderBook book, int symbol, SnapManifest.Entry entry, SnapReader.Mode mode)
+			throws IOException {
+		OrderSubmitter submitter = new OrderSubmitter(book, symbol);
+		SnapReader.read(entry, mode, submitter);
+		return submitter.count;
+	}
+
+	/**
+	 * @return 装载的挂单数
+	 */
+	public static int restore(BaseOrderBook book, int symbol, SnapshotView view) {
+		OrderInfo order = limitOrder(symbol);
+		int n = restoreSide(book, order, OrderSide.BID.code, view.bidPrices, view.bidUserIds, view.bidOrderIds,
+							view.bidQtyList, view.bidTimes);
+		n += restoreSide(book, order, OrderSide.ASK.code, view.askPrices, view.askUserIds, view.askOrderIds,
+						 view.askQtyList, view.askTimes);
+		return n;
+	}
+
+	private static OrderInfo limitOrder(int symbol) {
+		OrderInfo order = new OrderInfo();
+		order.setSymbol(symbol);
+		order.setType(OrderType.LIMIT.code);
+		order.setTif(OrderTif.GTC.code);
+		return order;
+	}
+
+	/**
+	 * @param times 为空表示快照未记录时间（v1），按 0 装载
+	 */
+	private static int restoreSide(BaseOrderBook book, OrderInfo order, byte side, LongColumn prices,
+								   LongColumn userIds, LongColumn orderIds, LongColumn qtys, LongColumn times) {
+		int n = prices.size();
+		boolean timed = times != null && !times.isEmpty();
+		if (userIds.size() != n || orderIds.size() != n || qtys.size() != n || (timed && times.size() != n)) {
+			throw new IllegalArgumentException("snapshot columns length mismatch");
+		}
+		order.setSide(side);
+		for (int i = 0; i < n; i++) {
+			order.setPrice(prices.getLong(i));
+			order.setUserId(userIds.getLong(i));
+			order.setOrderId(orderIds.getLong(i));
+			order.setQty(qtys.getLong(i));
+			order.setTime(timed ? times.getLong(i) : 0L);
+			book.submit(order);
+		}
+		return n;
+	}
+
+	private static final class OrderSubmitter implements SnapReader.OrderSink {
+
+		private final BaseOrderBook book;
+
+		private final OrderInfo order;
+
+		private int count;
+
+		OrderSubmitter(BaseOrderBook book, int symbol) {
+			this.book = book;
+			this.order = limitOrder(symbol);
+		}
+
+		@Override
+		public void onOrder(boolean ask, long price, long orderId, long userId, long qty, long time) {
+			order.setSide(ask ? OrderSide.ASK.code : OrderSide.BID.code);
+			order.setPrice(price);
+			order.setUserId(userId);
+			order.setOrderId(orderId);
+			order.setQty(qty);
+			order.setTime(time);
+			book.submit(order);
+			count++;
+		}
+	}
+}
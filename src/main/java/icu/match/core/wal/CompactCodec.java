@@ -0,0 +1,270 @@
+package icu.match.core.wal;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 紧凑请求记录（{@link RecordType#ORDER_TX}/{@link RecordType#CANCEL_TX}/{@link RecordType#AMEND_TX}）的编解码。
+ * <ul>
+ *   <li>一条记录即一个已提交事务，不再写 BEGIN/COMMIT 与 txId。</li>
+ *   <li>负载首字段为交易对（varint），无需上下文即可读出，供并行回放分桶；随后一个标志字节。</li>
+ *   <li>价格、订单号、时间按交易对与上一条记录做差后 zig-zag varint；用户、数量直接 varint。</li>
+ *   <li>每个交易对在段内（以及写入方重新打开后）的第一条记录置 {@link #FULL}，差分基准归零，
+ *   因此任一段都可从段首独立解码。</li>
+ * </ul>
+ * 单线程使用；编码直接写入追加器缓冲，解码以绝对位置读取映射区，均无对象分配。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+final class CompactCodec {
+
+	/**
+	 * 交易对 5 + 标志 1 + 用户 10 + 订单号 10 + 价格 10 + 数量 10 + 时间 10
+	 */
+	static final int ORDER_MAX = 56;
+
+	/**
+	 * 交易对 5 + 标志 1 + 订单号 10 + 价格/新数量 10
+	 */
+	static final int CANCEL_MAX = 26;
+
+	static final int AMEND_MAX = 26;
+
+	/**
+	 * 标志位：差分基准归零
+	 */
+	static final int FULL = 0x80;
+
+	// ---- 按交易对的差分基准，交易对数很少，线性查找 ----
+	private int[] symbols = new int[8];
+
+	private long[] prices = new long[8];
+
+	private long[] orderIds = new long[8];
+
+	private long[] times = new long[8];
+
+	private int size;
+
+	// ---- 解码结果 ----
+	int symbol;
+
+	byte side;
+
+	byte type;
+
+	byte tif;
+
+	long userId;
+
+	long orderId;
+
+	long price;
+
+	/**
+	 * ORDER 为数量，AMEND 为新数量
+	 */
+	long qty;
+
+	long time;
+
+	// 解码游标
+	private int pos;
+
+	/**
+	 * 清空全部差分基准，之后每个交易对的第一条记录按 FULL 写入
+	 */
+	void reset() {
+		size = 0;
+	}
+
+	// ---------- 编码 ----------
+
+	/**
+	 * side/type/tif 各占标志字节 2 位
+	 */
+	static void checkFlags(byte side, byte type, byte tif) {
+		if ((side & ~3) != 0 || (type & ~3) != 0 || (tif & ~3) != 0) {
+			throw new IllegalArgumentException("side/type/tif out of range: " + side + "/" + type + "/" + tif);
+		}
+	}
+
+	/**
+	 * 调用方已用 {@link #checkFlags} 校验
+	 */
+	void writeOrder(ByteBuffer buf, long userId, long orderId, int symbol, byte side, byte type, byte tif, long price,
+					long qty, long time) {
+		int s = find(symbol);
+		putVarInt(buf, symbol);
+		buf.put((byte) (flag(s) | side | type << 2 | tif << 4));
+		s = seed(s, symbol);
+		putVarLong(buf, userId);
+		putVarLong(buf, zigZag(orderId - orderIds[s]));
+		putVarLong(buf, zigZag(price - prices[s]));
+		putVarLong(buf, qty);
+		putVarLong(buf, zigZag(time - times[s]));
+		orderIds[s] = orderId;
+		prices[s] = price;
+		times[s] = time;
+	}
+
+	void writeCancel(ByteBuffer buf, int symbol, long orderId, long price) {
+		int s = find(symbol);
+		putVarInt(buf, symbol);
+		buf.put((byte) flag(s));
+		s = seed(s, symbol);
+		putVarLong(buf, zigZag(orderId - orderIds[s]));
+		putVarLong(buf, zigZag(price - prices[s]));
+		orderIds[s] = orderId;
+		prices[s] = price;
+	}
+
+	void writeAmend(ByteBuffer buf, int symbol, long orderId, long newQty) {
+		int s = find(symbol);
+		putVarInt(buf, symbol);
+		buf.put((byte) flag(s));
+		s = seed(s, symbol);
+		putVarLong(buf, zigZag(orderId - orderIds[s]));
+		putVarLong(buf, newQty);
+		orderIds[s] = orderId;
+	}
+
+	private static int flag(int slot) {
+		return slot < 0 ? FULL : 0;
+	}
+
+	/**
+	 * 写入方：本交易对尚未登记（标志已按 FULL 写出）时登记，基准为 0
+	 */
+	private int seed(int slot, int symbol) {
+		return slot >= 0 ? slot : add(symbol);
+	}
+
+	// ---------- 解码 ----------
+
+	/**
+	 * 负载首字段的交易对，无状态
+	 */
+	static int symbolAt(ByteBuffer m, int p) {
+		int v = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = m.get(p++);
+			v |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return v;
+			}
+		}
+		throw new IllegalStateException("malformed varint");
+	}
+
+	static boolean isCompact(byte recType) {
+		return recType == RecordType.ORDER_TX || recType == RecordType.CANCEL_TX || recType == RecordType.AMEND_TX;
+	}
+
+	/**
+	 * 解码 p 处的负载到本对象字段，并推进该交易对的差分基准
+	 */
+	void read(ByteBuffer m, int p, byte recType) {
+		pos = p;
+		symbol = (int) getVarLong(m);
+		int flags = m.get(pos++) & 0xFF;
+		int s = find(symbol);
+		if ((flags & FULL) != 0) {
+			if (s < 0) {
+				s = add(symbol);
+			}
+			prices[s] = 0;
+			orderIds[s] = 0;
+			times[s] = 0;
+		} else if (s < 0) {
+			throw new IllegalStateException("compact record without base, symbol=" + symbol);
+		}
+		switch (recType) {
+			case RecordType.ORDER_TX:
+				side = (byte) (flags & 3);
+				type = (byte) (flags >>> 2 & 3);
+				tif = (byte) (flags >>> 4 & 3);
+				userId = getVarLong(m);
+				orderId = orderIds[s] += unZigZag(getVarLong(m));
+				price = prices[s] += unZigZag(getVarLong(m));
+				qty = getVarLong(m);
+				time = times[s] += unZigZag(getVarLong(m));
+				break;
+			case RecordType.CANCEL_TX:
+				orderId = orderIds[s] += unZigZag(getVarLong(m));
+				price = prices[s] += unZigZag(getVarLong(m));
+				break;
+			case RecordType.AMEND_TX:
+				orderId = orderIds[s] += unZigZag(getVarLong(m));
+				qty = getVarLong(m);
+				break;
+			default:
+				throw new IllegalStateException("not a compact record: " + recType);
+		}
+	}
+
+	// ---------- 基准表 ----------
+
+	private int find(int symbol) {
+		for (int i = 0; i < size; i++) {
+			if (symbols[i] == symbol) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int add(int symbol) {
+		if (size == symbols.length) {
+			int cap = size << 1;
+			symbols = Arrays.copyOf(symbols, cap);
+			prices = Arrays.copyOf(prices, cap);
+			orderIds = Arrays.copyOf(orderIds, cap);
+			times = Arrays.copyOf(times, cap);
+		}
+		symbols[size] = symbol;
+		prices[size] = 0;
+		orderIds[size] = 0;
+		times[size] = 0;
+		return size++;
+	}
+
+	// ---------- varint ----------
+
+	private static long zigZag(long v) {
+		return (v << 1) ^ (v >> 63);
+	}
+
+	private static long unZigZag(long v) {
+		return (v >>> 1) ^ -(v & 1);
+	}
+
+	private static void putVarInt(ByteBuffer buf, int v) {
+		while ((v & ~0x7F) != 0) {
+			buf.put((byte) (v & 0x7F | 0x80));
+			v >>>= 7;
+		}
+		buf.put((byte) v);
+	}
+
+	private static void putVarLong(ByteBuffer buf, long v) {
+		while ((v & ~0x7FL) != 0) {
+			buf.put((byte) (v & 0x7F | 0x80));
+			v >>>= 7;
+		}
+		buf.put((byte) v);
+	}
+
+	private long getVarLong(ByteBuffer m) {
+		long v = 0;
+		for (int shift = 0; shift < 70; shift += 7) {
+			byte b = m.get(pos++);
+			v |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return v;
+			}
+		}
+		throw new IllegalStateException("malformed varint");
+	}
+}
@@ -20,7 +20,9 @@ public class Lsn {
 
 	public static Lsn ofLong(long v) {return new Lsn((int) (v >>> 32), v & 0xffffffffL);}
 
-	public long toLong() {return ((long) segmentId << 32) | (index & 0xffffffffL);}
+	public static long pack(int segmentId, long index) {return ((long) segmentId << 32) | (index & 0xffffffffL);}
+
+	public long toLong() {return pack(segmentId, index);}
 
 	@Override
 	public String toString() {return segmentId + ":" + index;}
@@ -0,0 +1,244 @@
+package icu.match.core.wal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static icu.match.core.wal.WalAppender.HEADER_FIXED;
+import static icu.match.core.wal.WalAppender.HEADER_NO_CRC;
+import static icu.match.core.wal.WalAppender.MAGIC;
+import static icu.match.core.wal.WalAppender.VER;
+
+/**
+ * 内存映射 WAL 追加器。
+ * <ul>
+ *   <li>每段固定 segmentBytes，整段映射；记录直接编码进映射区，追加无系统调用。</li>
+ *   <li>段尾未写区域为 0，读取方以 MAGIC 不匹配作为段结束，与 {@link WalAppender}/{@link WalReader} 格式兼容。</li>
+ *   <li>下一段由后台线程预先创建、映射并逐页写零（促使文件系统分配块），滚段时直接切换，避免滚段停顿，
+ *   也避免文件增长带来的元数据更新混入每次 fsync。</li>
+ *   <li>{@link #sync()} 调用 {@link MappedByteBuffer#force()}；Java 11 只能整段 force，内核仅回写脏页。</li>
+ * </ul>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public class MappedWalAppender implements RecordAppender {
+
+	private static final int PAGE = 4096;
+
+	private final Path dir;
+
+	private final int segmentBytes;
+
+	private final RecordCrc crc = new RecordCrc();
+
+	private final ExecutorService preallocator;
+
+	private MappedByteBuffer map;
+
+	private int segmentId;
+
+	// 段内自增
+	private long nextIndex;
+
+	private CompletableFuture<MappedByteBuffer> nextSegment;
+
+	// 自上次 force 以来是否有写入
+	private boolean dirty;
+
+	// 正在编码的记录：起始位置与总长，-1 表示无
+	private int recStart = -1;
+
+	private int recBytes;
+
+	// 变长记录：recBytes 为预留上限，结束时按实际长度回填
+	private boolean varLen;
+
+	public MappedWalAppender(Path dir, long segmentBytes) throws IOException {
+		if (segmentBytes <= HEADER_FIXED || segmentBytes > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("segmentBytes out of range: " + segmentBytes);
+		}
+		this.dir = dir;
+		this.segmentBytes = (int) segmentBytes;
+		Files.createDirectories(dir);
+		this.preallocator = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "wal-preallocator-" + dir.getFileName());
+			t.setDaemon(true);
+			return t;
+		});
+		// 恢复：定位最新段并扫描到最后一条有效记录
+		this.segmentId = Math.max(WalAppender.findLatestSegmentId(dir), 0);
+		this.map = mapSegment(segmentId, false);
+		scan();
+		preallocateNext();
+	}
+
+	private MappedByteBuffer mapSegment(int segId, boolean zeroFill) throws IOException {
+		Path p = WalAppender.segPath(dir, segId);
+		boolean fresh = !Files.exists(p) || Files.size(p) == 0;
+		MappedByteBuffer m;
+		try (FileChannel ch = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.READ,
+											   StandardOpenOption.WRITE)) {
+			// 映射区超出文件长度时自动扩展文件
+			m = ch.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+		}
+		m.order(ByteOrder.LITTLE_ENDIAN);
+		if (zeroFill && fresh) {
+			// 逐页写零触发块分配，落盘后段内写入不再改变文件大小与块映射
+			for (int i = 0; i < segmentBytes; i += PAGE) {
+				m.put(i, (byte) 0);
+			}
+			m.force();
+		}
+		return m;
+	}
+
+	private void preallocateNext() {
+		int next = segmentId + 1;
+		nextSegment = CompletableFuture.supplyAsync(() -> {
+			try {
+				return mapSegment(next, true);
+			} catch (IOException e) {
+				throw new IllegalStateException("preallocate wal segment " + next + " failed", e);
+			}
+		}, preallocator);
+	}
+
+	private void scan() {
+		int pos = 0;
+		long index = 0;
+		while (pos + HEADER_FIXED <= segmentBytes) {
+			short magic = map.getShort(pos);
+			byte ver = map.get(pos + 2);
+			int len = map.getInt(pos + 4);
+			int segIdFile = map.getInt(pos + 8);
+			long idxFile = map.getLong(pos + 12);
+			if (magic != MAGIC || !RecordCrc.supports(ver) || segIdFile != segmentId || idxFile != index || len < 0
+				|| (long) pos + HEADER_FIXED + len > segmentBytes) {
+				break;
+			}
+			if (crc.of(map, pos, HEADER_FIXED + len) != map.getInt(pos + HEADER_NO_CRC)) {
+				break;
+			}
+			pos += HEADER_FIXED + len;
+			index++;
+		}
+		map.position(pos);
+		nextIndex = index;
+	}
+
+	@Override
+	public MappedByteBuffer beginRecord(byte type, int payloadLen, long wallClockMillis) throws IOException {
+		return begin(type, payloadLen, wallClockMillis, false);
+	}
+
+	@Override
+	public MappedByteBuffer beginVarRecord(byte type, int maxPayloadLen, long wallClockMillis) throws IOException {
+		return begin(type, maxPayloadLen, wallClockMillis, true);
+	}
+
+	private MappedByteBuffer begin(byte type, int payloadLen, long wallClockMillis, boolean var) throws IOException {
+		if (recStart >= 0) {
+			throw new IllegalStateException("previous record not ended");
+		}
+		if (payloadLen < 0) {
+			throw new IllegalArgumentException("payloadLen must be >= 0");
+		}
+		int bytes = HEADER_FIXED + payloadLen;
+		if (bytes > segmentBytes) {
+			throw new IllegalArgumentException("record too large: " + bytes + " > " + segmentBytes);
+		}
+		if (bytes > map.remaining()) {
+			rotate();
+		}
+		recStart = map.position();
+		recBytes = bytes;
+		varLen = var;
+		map.putShort(MAGIC);
+		map.put(VER);
+		map.put(type);
+		map.putInt(payloadLen);
+		map.putInt(segmentId);
+		map.putLong(nextIndex);
+		map.putLong(wallClockMillis);
+		// CRC 占位，endRecord 回填
+		map.putInt(0);
+		return map;
+	}
+
+	@Override
+	public long endRecord(boolean force) throws IOException {
+		int start = recStart;
+		if (start < 0) {
+			throw new IllegalStateException("no record in progress");
+		}
+		int end = map.position();
+		recStart = -1;
+		if (varLen ? end < start + HEADER_FIXED || end > start + recBytes : end != start + recBytes) {
+			// 抹掉半条记录头，避免恢复时被误读
+			map.putInt(start, 0);
+			map.position(start);
+			throw new IllegalStateException("payload length mismatch: " + (end - start - HEADER_FIXED) + " != "
+											+ (recBytes - HEADER_FIXED));
+		}
+		if (varLen) {
+			recBytes = end - start;
+			map.putInt(start + 4, recBytes - HEADER_FIXED);
+		}
+		map.putInt(start + HEADER_NO_CRC, crc.of(map, start, recBytes));
+		dirty = true;
+		long lsn = Lsn.pack(segmentId, nextIndex++);
+		if (force) {
+			sync();
+		}
+		return lsn;
+	}
+
+	private void rotate() throws IOException {
+		sync();
+		MappedByteBuffer next;
+		try {
+			next = nextSegment.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread()
+				  .interrupt();
+			throw new IOException("interrupted while waiting for wal segment " + (segmentId + 1), e);
+		} catch (ExecutionException e) {
+			throw new IOException("wal segment " + (segmentId + 1) + " unavailable", e.getCause());
+		}
+		map = next;
+		map.position(0);
+		segmentId++;
+		nextIndex = 0;
+		preallocateNext();
+	}
+
+	@Override
+	public boolean sync() {
+		if (!dirty) {
+			return false;
+		}
+		map.force();
+		dirty = false;
+		return true;
+	}
+
+	@Override
+	public int segmentId() {
+		return segmentId;
+	}
+
+	@Override
+	public void close() {
+		sync();
+		preallocator.shutdown();
+	}
+}
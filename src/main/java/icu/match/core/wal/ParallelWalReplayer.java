@@ -0,0 +1,679 @@
+package icu.match.core.wal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static icu.match.core.wal.WalAppender.HEADER_FIXED;
+import static icu.match.core.wal.WalAppender.HEADER_NO_CRC;
+import static icu.match.core.wal.WalAppender.MAGIC;
+
+/**
+ * 并行 WAL 回放，结果与 {@link WalReplayer} 一致。按窗口（每轮 2 × 并行度个段）处理：
+ * <ol>
+ *   <li>并行（每段一个任务）：整段只读映射，顺序走一遍记录头得到记录边界，同时解析段内 BEGIN..COMMIT 完整的事务，
+ *   已提交请求只登记记录位置（不拷贝负载）并按交易对分桶；CRC 校验再按记录区间切块并行。
+ *   段的有效前缀止于首条头部非法或 CRC 不符的记录，CRC 不符时按有效前缀重新解析。</li>
+ *   <li>串行：只处理跨段事务——各段首个 BEGIN 之前的少量记录接续上一段末尾未完成的事务，开销与段数成正比。
+ *   紧凑记录（{@link CompactCodec}）自成事务、不跨段，按 BEGIN 对待。</li>
+ *   <li>并行（每个交易对一个任务）：按段序依次解码该交易对的请求交给其处理器；交易对之间互不依赖，
+ *   交易对内顺序与单线程回放完全相同。紧凑记录的差分基准按交易对维护，且每段首条记录为全量值，
+ *   因此各交易对的任务可从段首独立解码；已被快照覆盖的紧凑记录也入桶，只解码不分派。</li>
+ * </ol>
+ * 同一交易对的处理器同一时刻只被一个线程调用，跨窗口的先后调用由 fork-join 的 join 保证可见性。
+ * 不同交易对的处理器会同时被调用，处理器之间（及其背后的订单簿、复用对象）不能共享可变状态。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class ParallelWalReplayer {
+
+	/**
+	 * CRC 校验切块的记录数
+	 */
+	private static final int CRC_CHUNK = 4096;
+
+	private final Path dir;
+
+	private final ForkJoinPool pool;
+
+	private final int window;
+
+	// ---- 跨段未完成事务（仅拼接线程） ----
+	private boolean inTx;
+
+	private long txId;
+
+	private Segment opSeg;
+
+	private int opPos;
+
+	// ---- 统计 ----
+	private int segments;
+
+	private long records;
+
+	private long committed;
+
+	private long uncommitted;
+
+	private long skipped;
+
+	private long lastLsn = -1L;
+
+	public ParallelWalReplayer(Path dir, ForkJoinPool pool) {
+		this.dir = dir;
+		this.pool = pool;
+		this.window = Math.max(1, pool.getParallelism()) * 2;
+	}
+
+	/**
+	 * @param fromLsn  只回放 COMMIT LSN 大于该值的事务，-1 表示全部
+	 * @param handlers 交易对 -> 处理器，返回 null 的交易对忽略；在调用线程内执行，每个交易对只取一次
+	 */
+	public ParallelWalReplayer replay(long fromLsn, IntFunction<WalReplayHandler> handlers) throws IOException {
+		if (!Files.isDirectory(dir)) {
+			return this;
+		}
+		int fromSegment = fromLsn < 0 ? 0 : Lsn.ofLong(fromLsn).segmentId;
+		int[] ids = WalReplayer.segmentIds(dir);
+		int first = 0;
+		while (first < ids.length && ids[first] < fromSegment) {
+			first++;
+		}
+		List<Applier> appliers = new ArrayList<>();
+		for (int w = first; w < ids.length; w += window) {
+			Segment[] segs = new Segment[Math.min(window, ids.length - w)];
+			for (int i = 0; i < segs.length; i++) {
+				segs[i] = new Segment(ids[w + i], fromLsn);
+			}
+			try {
+				pool.invoke(new ScanWindow(segs));
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			for (Segment seg : segs) {
+				if (seg.map != null) {
+					stitch(seg, fromLsn);
+					collect(seg, appliers, handlers);
+				}
+			}
+			pool.invoke(new Dispatch(appliers, segs));
+		}
+		if (inTx) {
+			// 末尾半个事务（崩溃时未提交）
+			uncommitted++;
+			inTx = false;
+			opSeg = null;
+		}
+		return this;
+	}
+
+	/**
+	 * 串行接续：段首个 BEGIN 之前的记录属于上一段末尾的事务；段内有 BEGIN 时以段末状态作为新的跨段状态
+	 */
+	private void stitch(Segment seg, long fromLsn) {
+		segments++;
+		records += seg.valid;
+		MappedByteBuffer m = seg.map;
+		for (int i = 0; i < seg.headEnd; i++) {
+			int pos = seg.offsets[i];
+			byte recType = m.get(pos + 3);
+			if (recType == RecordType.BEGIN_TX || !inTx || m.getLong(pos + HEADER_FIXED) != txId) {
+				continue;
+			}
+			if (recType != RecordType.COMMIT_TX) {
+				if (isOp(recType)) {
+					opSeg = seg;
+					opPos = pos;
+				}
+				continue;
+			}
+			inTx = false;
+			if (opSeg == null) {
+				continue;
+			}
+			long lsn = Lsn.pack(seg.id, i);
+			lastLsn = lsn;
+			if (lsn <= fromLsn) {
+				skipped++;
+			} else {
+				committed++;
+				seg.headOpSeg = opSeg;
+				seg.headOpPos = opPos;
+				seg.headLsn = lsn;
+				seg.headSymbol = symbolOf(opSeg.map, opPos);
+			}
+			opSeg = null;
+		}
+		if (seg.headEnd == seg.valid) {
+			// 段内无 BEGIN
+			return;
+		}
+		if (inTx) {
+			// 上一段延续的事务被新的 BEGIN 打断
+			uncommitted++;
+		}
+		inTx = seg.tailInTx;
+		txId = seg.tailTxId;
+		opSeg = seg.tailOpPos >= 0 ? seg : null;
+		opPos = seg.tailOpPos;
+		committed += seg.committed;
+		skipped += seg.skipped;
+		uncommitted += seg.uncommitted;
+		if (seg.lastLsn >= 0) {
+			lastLsn = seg.lastLsn;
+		}
+	}
+
+	private static void collect(Segment seg, List<Applier> appliers, IntFunction<WalReplayHandler> handlers) {
+		if (seg.headOpSeg != null) {
+			applier(appliers, seg.headSymbol, handlers);
+		}
+		for (Bucket b : seg.buckets) {
+			applier(appliers, b.symbol, handlers);
+		}
+	}
+
+	private static Applier applier(List<Applier> appliers, int symbol, IntFunction<WalReplayHandler> handlers) {
+		for (int i = 0, n = appliers.size(); i < n; i++) {
+			Applier a = appliers.get(i);
+			if (a.symbol == symbol) {
+				return a;
+			}
+		}
+		Applier a = new Applier(symbol, handlers.apply(symbol));
+		appliers.add(a);
+		return a;
+	}
+
+	private static boolean isOp(byte recType) {
+		return recType == RecordType.ORDER_REQ || recType == RecordType.CANCEL_REQ || recType == RecordType.AMEND_REQ;
+	}
+
+	private static int symbolOf(MappedByteBuffer m, int pos) {
+		int p = pos + HEADER_FIXED;
+		return m.get(pos + 3) == RecordType.ORDER_REQ ? m.getInt(p + 24) : m.getInt(p + 8);
+	}
+
+	private static void apply(WalReplayHandler handler, MappedByteBuffer m, int pos, long lsn) {
+		int p = pos + HEADER_FIXED;
+		switch (m.get(pos + 3)) {
+			case RecordType.ORDER_REQ:
+				handler.onOrder(lsn, m.getLong(p + 8), m.getLong(p + 16), m.getInt(p + 24), m.get(p + 28),
+								m.get(p + 29), m.get(p + 30), m.getLong(p + 31), m.getLong(p + 39), m.getLong(p + 47));
+				break;
+			case RecordType.CANCEL_REQ:
+				handler.onCancel(lsn, m.getInt(p + 8), m.getLong(p + 12), m.getLong(p + 20));
+				break;
+			case RecordType.AMEND_REQ:
+				handler.onAmend(lsn, m.getInt(p + 8), m.getLong(p + 12), m.getLong(p + 20));
+				break;
+			default:
+				throw new IllegalStateException("unexpected op type: " + m.get(pos + 3));
+		}
+	}
+
+	public int getSegments() {
+		return segments;
+	}
+
+	public long getRecords() {
+		return records;
+	}
+
+	public long getCommitted() {
+		return committed;
+	}
+
+	public long getUncommitted() {
+		return uncommitted;
+	}
+
+	public long getSkipped() {
+		return skipped;
+	}
+
+	/**
+	 * 最后一个已提交事务的 COMMIT LSN，无则 -1
+	 */
+	public long getLastLsn() {
+		return lastLsn;
+	}
+
+	@Override
+	public String toString() {
+		return "ParallelWalReplayer{segments=" + segments + ", records=" + records + ", committed=" + committed +
+			   ", uncommitted=" + uncommitted + ", skipped=" + skipped + ", lastLsn=" + Lsn.ofLong(lastLsn) +
+			   ", parallelism=" + pool.getParallelism() + '}';
+	}
+
+	/**
+	 * 一个段的映射、有效记录边界与段内解析结果
+	 */
+	private final class Segment {
+
+		private final int id;
+
+		private final long fromLsn;
+
+		private MappedByteBuffer map;
+
+		private int[] offsets;
+
+		/**
+		 * 结构与 CRC 均有效的前缀记录数
+		 */
+		private int valid;
+
+		/**
+		 * 首个 BEGIN 的下标，之前的记录属于上一段延续的事务；-1 表示尚未遇到
+		 */
+		private int headEnd = -1;
+
+		// ---- 段内解析状态 ----
+		private boolean open;
+
+		private long tx;
+
+		private int op = -1;
+
+		private Bucket last;
+
+		// ---- 段末未完成事务 ----
+		private boolean tailInTx;
+
+		private long tailTxId;
+
+		private int tailOpPos = -1;
+
+		// ---- 段内完整事务 ----
+		private final List<Bucket> buckets = new ArrayList<>(4);
+
+		private long committed;
+
+		private long skipped;
+
+		private long uncommitted;
+
+		private long lastLsn = -1L;
+
+		// ---- 拼接后确定：在本段提交的延续事务 ----
+		private Segment headOpSeg;
+
+		private int headOpPos;
+
+		private long headLsn;
+
+		private int headSymbol;
+
+		private Segment(int id, long fromLsn) {
+			this.id = id;
+			this.fromLsn = fromLsn;
+		}
+
+		private void load() throws IOException {
+			try (FileChannel ch = FileChannel.open(WalAppender.segPath(dir, id), StandardOpenOption.READ)) {
+				long size = ch.size();
+				if (size == 0) {
+					return;
+				}
+				if (size > Integer.MAX_VALUE) {
+					throw new IOException("wal segment too large: " + id);
+				}
+				map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			}
+			map.order(ByteOrder.LITTLE_ENDIAN);
+			// 记录头链式相连，边界只能顺序求得；顺带按结构有效的记录先行解析事务，CRC 不符时再按有效前缀重算
+			int limit = map.limit();
+			int[] offs = new int[1024];
+			int n = 0;
+			int pos = 0;
+			while (pos + HEADER_FIXED <= limit) {
+				int len = map.getInt(pos + 4);
+				if (map.getShort(pos) != MAGIC || !RecordCrc.supports(map.get(pos + 2)) || map.getInt(pos + 8) != id
+					|| map.getLong(pos + 12) != n || len < 0 || (long) pos + HEADER_FIXED + len > limit) {
+					break;
+				}
+				if (n == offs.length) {
+					offs = Arrays.copyOf(offs, n << 1);
+				}
+				offs[n] = pos;
+				step(n++, pos);
+				pos += HEADER_FIXED + len;
+			}
+			offsets = offs;
+			valid = n;
+		}
+
+		/**
+		 * 截断到前 n 条记录（CRC 不符），重新解析
+		 */
+		private void truncate(int n) {
+			valid = n;
+			buckets.clear();
+			committed = 0;
+			skipped = 0;
+			uncommitted = 0;
+			lastLsn = -1L;
+			headEnd = -1;
+			open = false;
+			op = -1;
+			last = null;
+			for (int i = 0; i < n; i++) {
+				step(i, offsets[i]);
+			}
+		}
+
+		/**
+		 * 段内事务状态机，与 {@link WalReplayer} 相同；首个 BEGIN 之前的记录留给拼接线程
+		 */
+		private void step(int i, int pos) {
+			MappedByteBuffer m = map;
+			int p = pos + HEADER_FIXED;
+			byte recType = m.get(pos + 3);
+			if (CompactCodec.isCompact(recType)) {
+				if (headEnd < 0) {
+					headEnd = i;
+				}
+				if (open) {
+					uncommitted++;
+					open = false;
+				}
+				long lsn = Lsn.pack(id, i);
+				lastLsn = lsn;
+				if (lsn <= fromLsn) {
+					skipped++;
+				} else {
+					committed++;
+				}
+				// 跳过的也入桶：后续记录的差分以它为基准
+				int symbol = CompactCodec.symbolAt(m, p);
+				if (last == null || last.symbol != symbol) {
+					last = bucket(symbol);
+				}
+				last.add(pos, lsn);
+			} else if (recType == RecordType.BEGIN_TX) {
+				if (headEnd < 0) {
+					headEnd = i;
+				}
+				if (open) {
+					uncommitted++;
+				}
+				open = true;
+				tx = m.getLong(p);
+				op = -1;
+			} else if (!open || m.getLong(p) != tx) {
+				return;
+			} else if (isOp(recType)) {
+				op = pos;
+			} else if (recType == RecordType.COMMIT_TX) {
+				open = false;
+				if (op < 0) {
+					return;
+				}
+				long lsn = Lsn.pack(id, i);
+				lastLsn = lsn;
+				if (lsn <= fromLsn) {
+					skipped++;
+				} else {
+					committed++;
+					int symbol = symbolOf(m, op);
+					if (last == null || last.symbol != symbol) {
+						last = bucket(symbol);
+					}
+					last.add(op, lsn);
+				}
+				op = -1;
+			}
+		}
+
+		private void finish() {
+			if (headEnd < 0) {
+				headEnd = valid;
+			}
+			tailInTx = open;
+			tailTxId = tx;
+			tailOpPos = open ? op : -1;
+		}
+
+		private Bucket bucket(int symbol) {
+			for (int i = 0, n = buckets.size(); i < n; i++) {
+				Bucket b = buckets.get(i);
+				if (b.symbol == symbol) {
+					return b;
+				}
+			}
+			Bucket b = new Bucket(symbol);
+			buckets.add(b);
+			return b;
+		}
+
+		private Bucket find(int symbol) {
+			for (int i = 0, n = buckets.size(); i < n; i++) {
+				Bucket b = buckets.get(i);
+				if (b.symbol == symbol) {
+					return b;
+				}
+			}
+			return null;
+		}
+
+		private int bytesOf(int i) {
+			return HEADER_FIXED + map.getInt(offsets[i] + 4);
+		}
+	}
+
+	/**
+	 * 一个段内某交易对的已提交请求，按 LSN 递增
+	 */
+	private static final class Bucket {
+
+		private final int symbol;
+
+		private int[] positions = new int[256];
+
+		private long[] lsns = new long[256];
+
+		private int size;
+
+		private Bucket(int symbol) {
+			this.symbol = symbol;
+		}
+
+		private void add(int pos, long lsn) {
+			if (size == lsns.length) {
+				positions = Arrays.copyOf(positions, size << 1);
+				lsns = Arrays.copyOf(lsns, size << 1);
+			}
+			positions[size] = pos;
+			lsns[size] = lsn;
+			size++;
+		}
+	}
+
+	private static final class Applier {
+
+		private final int symbol;
+
+		private final WalReplayHandler handler;
+
+		private final CompactCodec codec = new CompactCodec();
+
+		private Applier(int symbol, WalReplayHandler handler) {
+			this.symbol = symbol;
+			this.handler = handler;
+		}
+
+		private void apply(Segment[] segs) {
+			for (Segment seg : segs) {
+				if (seg.map == null) {
+					continue;
+				}
+				if (seg.headOpSeg != null && seg.headSymbol == symbol) {
+					ParallelWalReplayer.apply(handler, seg.headOpSeg.map, seg.headOpPos, seg.headLsn);
+				}
+				Bucket b = seg.find(symbol);
+				if (b == null) {
+					continue;
+				}
+				MappedByteBuffer m = seg.map;
+				codec.reset();
+				for (int i = 0; i < b.size; i++) {
+					int pos = b.positions[i];
+					byte recType = m.get(pos + 3);
+					if (!CompactCodec.isCompact(recType)) {
+						ParallelWalReplayer.apply(handler, m, pos, b.lsns[i]);
+						continue;
+					}
+					codec.read(m, pos + HEADER_FIXED, recType);
+					if (b.lsns[i] > seg.fromLsn) {
+						dispatch(recType, b.lsns[i]);
+					}
+				}
+			}
+		}
+
+		private void dispatch(byte recType, long lsn) {
+			CompactCodec c = codec;
+			switch (recType) {
+				case RecordType.ORDER_TX:
+					handler.onOrder(lsn, c.userId, c.orderId, c.symbol, c.side, c.type, c.tif, c.price, c.qty, c.time);
+					break;
+				case RecordType.CANCEL_TX:
+					handler.onCancel(lsn, c.symbol, c.orderId, c.price);
+					break;
+				default:
+					handler.onAmend(lsn, c.symbol, c.orderId, c.qty);
+			}
+		}
+	}
+
+	private static final class ScanWindow extends RecursiveAction {
+
+		private final Segment[] segs;
+
+		private ScanWindow(Segment[] segs) {
+			this.segs = segs;
+		}
+
+		@Override
+		protected void compute() {
+			List<ScanSegment> tasks = new ArrayList<>(segs.length);
+			for (Segment seg : segs) {
+				tasks.add(new ScanSegment(seg));
+			}
+			invokeAll(tasks);
+		}
+	}
+
+	private static final class ScanSegment extends RecursiveAction {
+
+		private final Segment seg;
+
+		private ScanSegment(Segment seg) {
+			this.seg = seg;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				seg.load();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			if (seg.map == null) {
+				return;
+			}
+			if (seg.valid > 0) {
+				AtomicInteger firstBad = new AtomicInteger(seg.valid);
+				new CrcCheck(seg, 0, seg.valid, firstBad).invoke();
+				if (firstBad.get() < seg.valid) {
+					seg.truncate(firstBad.get());
+				}
+			}
+			seg.finish();
+		}
+	}
+
+	/**
+	 * 校验 [from, to) 区间记录的 CRC，记录首条不符的下标
+	 */
+	private static final class CrcCheck extends RecursiveAction {
+
+		private final Segment seg;
+
+		private final int from;
+
+		private final int to;
+
+		private final AtomicInteger firstBad;
+
+		private CrcCheck(Segment seg, int from, int to, AtomicInteger firstBad) {
+			this.seg = seg;
+			this.from = from;
+			this.to = to;
+			this.firstBad = firstBad;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > CRC_CHUNK) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new CrcCheck(seg, from, mid, firstBad), new CrcCheck(seg, mid, to, firstBad));
+				return;
+			}
+			// 独立的 position/limit，与其他切块共享映射内容
+			ByteBuffer view = seg.map.duplicate();
+			RecordCrc crc = new RecordCrc();
+			for (int i = from; i < to; i++) {
+				int start = seg.offsets[i];
+				if (crc.of(view, start, seg.bytesOf(i)) != seg.map.getInt(start + HEADER_NO_CRC)) {
+					firstBad.accumulateAndGet(i, Math::min);
+					return;
+				}
+			}
+		}
+	}
+
+	private static final class Dispatch extends RecursiveAction {
+
+		private final List<Applier> appliers;
+
+		private final Segment[] segs;
+
+		private Dispatch(List<Applier> appliers, Segment[] segs) {
+			this.appliers = appliers;
+			this.segs = segs;
+		}
+
+		@Override
+		protected void compute() {
+			List<RecursiveAction> tasks = new ArrayList<>(appliers.size());
+			for (Applier a : appliers) {
+				if (a.handler != null) {
+					tasks.add(new RecursiveAction() {
+						@Override
+						protected void compute() {
+							a.apply(segs);
+						}
+					});
+				}
+			}
+			invokeAll(tasks);
+		}
+	}
+}
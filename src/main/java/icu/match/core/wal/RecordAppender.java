@@ -0,0 +1,48 @@
+package icu.match.core.wal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * WAL 记录追加。记录格式见 {@link WalAppender}，实现有基于 FileChannel 的 {@link WalAppender}
+ * 与基于内存映射的 {@link MappedWalAppender}。单线程使用。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public interface RecordAppender extends AutoCloseable {
+
+	/**
+	 * 预留记录头并返回编码缓冲，调用方从当前 position 起写入恰好 payloadLen 字节负载（小端），再调用 {@link #endRecord}
+	 */
+	ByteBuffer beginRecord(byte type, int payloadLen, long wallClockMillis) throws IOException;
+
+	/**
+	 * 变长记录：预留 maxPayloadLen 字节负载，调用方写入不超过预留的负载后调用 {@link #endRecord}，
+	 * 头部长度字段按实际写入回填。滚段按预留上限判断，返回后 {@link #segmentId()} 即为该记录所在段
+	 */
+	ByteBuffer beginVarRecord(byte type, int maxPayloadLen, long wallClockMillis) throws IOException;
+
+	/**
+	 * 结束当前记录并回填 CRC
+	 *
+	 * @param force 是否立即落盘
+	 * @return 记录 LSN，{@link Lsn#toLong()} 形式
+	 */
+	long endRecord(boolean force) throws IOException;
+
+	/**
+	 * 落盘自上次 force 以来的全部记录；无新写入时不触发 fsync
+	 *
+	 * @return 是否执行了 force
+	 */
+	boolean sync() throws IOException;
+
+	/**
+	 * 当前写入段号
+	 */
+	int segmentId();
+
+	@Override
+	void close() throws IOException;
+}
@@ -0,0 +1,50 @@
+package icu.match.core.wal;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+import static icu.match.core.wal.WalAppender.HEADER_FIXED;
+import static icu.match.core.wal.WalAppender.HEADER_NO_CRC;
+
+/**
+ * WAL 记录校验和，覆盖头部（不含 CRC 字段）+ 负载，直接在记录所在的缓冲上计算。
+ * <ul>
+ *   <li>v1：CRC32，仅用于读取旧段；</li>
+ *   <li>v2：CRC32C，JDK 在 x86（SSE4.2）/ARM（CRC 扩展）上以内建指令实现，新记录一律写 v2。</li>
+ * </ul>
+ * 版本逐条取自记录头，同一段内 v1 与 v2 记录可以共存（升级后在旧段尾部续写）。单线程使用。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+final class RecordCrc {
+
+	private final CRC32 crc32 = new CRC32();
+
+	private final CRC32C crc32c = new CRC32C();
+
+	static boolean supports(byte ver) {
+		return ver == WalAppender.VER || ver == WalAppender.VER_CRC32;
+	}
+
+	/**
+	 * buf 中 [start, start+bytes) 处记录的校验值；调用后恢复 buf 的 position/limit
+	 */
+	int of(ByteBuffer buf, int start, int bytes) {
+		Checksum c = buf.get(start + 2) == WalAppender.VER_CRC32 ? crc32 : crc32c;
+		c.reset();
+		int pos = buf.position();
+		int limit = buf.limit();
+		buf.limit(start + HEADER_NO_CRC)
+		   .position(start);
+		c.update(buf);
+		buf.limit(start + bytes)
+		   .position(start + HEADER_FIXED);
+		c.update(buf);
+		buf.limit(limit)
+		   .position(pos);
+		return (int) c.getValue();
+	}
+}
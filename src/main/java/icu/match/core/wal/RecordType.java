@@ -15,5 +15,16 @@ public interface RecordType {
 
 	byte CANCEL_REQ = 11;
 
+	byte AMEND_REQ = 12;
+
+	/**
+	 * 紧凑格式：一条记录即一个已提交事务，负载见 {@link CompactCodec}
+	 */
+	byte ORDER_TX = 20;
+
+	byte CANCEL_TX = 21;
+
+	byte AMEND_TX = 22;
+
 	byte COMMIT_TX = 99;
 }
@@ -9,12 +9,32 @@ package icu.match.core.wal;/**
  * @date 2025/9/13 
  */
 public class TxContext {
-	public final long txId;
 
-	public final Lsn lsnBegin;
+	private long txId;
 
-	public TxContext(long txId, Lsn lsnBegin) {
+	/**
+	 * BEGIN 记录的 LSN（{@link Lsn#toLong()} 形式）
+	 */
+	private long lsnBegin;
+
+	public TxContext(long txId, long lsnBegin) {
+		set(txId, lsnBegin);
+	}
+
+	/**
+	 * WalWriter 复用同一实例，避免每个事务分配
+	 */
+	TxContext set(long txId, long lsnBegin) {
 		this.txId = txId;
 		this.lsnBegin = lsnBegin;
+		return this;
+	}
+
+	public long txId() {
+		return txId;
+	}
+
+	public long lsnBegin() {
+		return lsnBegin;
 	}
 }
@@ -13,25 +13,25 @@ import java.nio.ByteOrder;
  */
 public class TxPayloads {
 
-	// COMMIT payload = [txId]
-	public static byte[] encodeCommit(long txId) {
-		ByteBuffer buf = ByteBuffer.allocate(8)
-								   .order(ByteOrder.LITTLE_ENDIAN);
-		buf.putLong(txId);
-		return buf.array();
-	}
+	public static final int BEGIN_LEN = 8;
 
-	public static long decodeCommit(byte[] bytes) {
-		return ByteBuffer.wrap(bytes)
-						 .order(ByteOrder.LITTLE_ENDIAN)
-						 .getLong();
+	public static final int COMMIT_LEN = 8;
+
+	public static final int ORDER_LEN = 8 + 8 + 8 + 4 + 1 + 1 + 1 + 8 + 8 + 8;
+
+	public static final int CANCEL_LEN = 8 + 4 + 8 + 8;
+
+	public static final int AMEND_LEN = 8 + 4 + 8 + 8;
+
+	// ---------- 直接写入（调用方保证小端序与剩余空间） ----------
+
+	// BEGIN / COMMIT payload = [txId]
+	public static void writeTxId(ByteBuffer buf, long txId) {
+		buf.putLong(txId);
 	}
 
-	// ORDER payload = [txId][Order fields...]
-	public static byte[] encodeOrder(long txId, long userId, long orderId, int symbol, byte side, byte type, byte tif,
-									 long price, long qty, long time) {
-		ByteBuffer buf = ByteBuffer.allocate(8 + 8 + 8 + 4 + 1 + 1 + 1 + 8 + 8 + 8)
-								   .order(ByteOrder.LITTLE_ENDIAN);
+	public static void writeOrder(ByteBuffer buf, long txId, long userId, long orderId, int symbol, byte side,
+								  byte type, byte tif, long price, long qty, long time) {
 		buf.putLong(txId);
 		buf.putLong(userId);
 		buf.putLong(orderId);
@@ -42,16 +42,60 @@ public class TxPayloads {
 		buf.putLong(price);
 		buf.putLong(qty);
 		buf.putLong(time);
-		return buf.array();
 	}
 
-	public static byte[] encodeCancel(long txId, int symbol, long orderId, long price) {
-		ByteBuffer buf = ByteBuffer.allocate(8 + 4 + 8 + 8)
-								   .order(ByteOrder.LITTLE_ENDIAN);
+	public static void writeCancel(ByteBuffer buf, long txId, int symbol, long orderId, long price) {
 		buf.putLong(txId);
 		buf.putInt(symbol);
 		buf.putLong(orderId);
 		buf.putLong(price);
+	}
+
+	public static void writeAmend(ByteBuffer buf, long txId, int symbol, long orderId, long newQty) {
+		buf.putLong(txId);
+		buf.putInt(symbol);
+		buf.putLong(orderId);
+		buf.putLong(newQty);
+	}
+
+	// ---------- byte[] 编解码 ----------
+
+	private static ByteBuffer heap(int len) {
+		return ByteBuffer.allocate(len)
+						 .order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	// COMMIT payload = [txId]
+	public static byte[] encodeCommit(long txId) {
+		ByteBuffer buf = heap(COMMIT_LEN);
+		writeTxId(buf, txId);
+		return buf.array();
+	}
+
+	public static long decodeCommit(byte[] bytes) {
+		return ByteBuffer.wrap(bytes)
+						 .order(ByteOrder.LITTLE_ENDIAN)
+						 .getLong();
+	}
+
+	// ORDER payload = [txId][Order fields...]
+	public static byte[] encodeOrder(long txId, long userId, long orderId, int symbol, byte side, byte type, byte tif,
+									 long price, long qty, long time) {
+		ByteBuffer buf = heap(ORDER_LEN);
+		writeOrder(buf, txId, userId, orderId, symbol, side, type, tif, price, qty, time);
+		return buf.array();
+	}
+
+	public static byte[] encodeCancel(long txId, int symbol, long orderId, long price) {
+		ByteBuffer buf = heap(CANCEL_LEN);
+		writeCancel(buf, txId, symbol, orderId, price);
+		return buf.array();
+	}
+
+	// AMEND payload = [txId][symbol][orderId][newQty]
+	public static byte[] encodeAmend(long txId, int symbol, long orderId, long newQty) {
+		ByteBuffer buf = heap(AMEND_LEN);
+		writeAmend(buf, txId, symbol, orderId, newQty);
 		return buf.array();
 	}
 }
@@ -13,19 +13,33 @@ import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.util.zip.CRC32;
 
 /**
  * @author 中本君
  * @date 2025/9/13 
  */
-public class WalAppender implements AutoCloseable {
+public class WalAppender implements RecordAppender {
 
-	private static final short MAGIC = (short) 0xBEEF;
+	static final short MAGIC = (short) 0xBEEF;
 
-	private static final byte VER = 1;
+	/**
+	 * 写入版本：v2 记录以 CRC32C 校验
+	 */
+	static final byte VER = 2;
 
-	private static final int HEADER_FIXED = 2 + 1 + 1 + 4 + 4 + 8 + 8 + 4;
+	/**
+	 * 旧版本：CRC32，只读兼容
+	 */
+	static final byte VER_CRC32 = 1;
+
+	static final int HEADER_NO_CRC = 2 + 1 + 1 + 4 + 4 + 8 + 8;
+
+	static final int HEADER_FIXED = HEADER_NO_CRC + 4;
+
+	/**
+	 * 非组提交模式下编码缓冲的大小，单条记录不得超过缓冲容量
+	 */
+	private static final int MIN_BUFFER_BYTES = 64 * 1024;
 
 	private static final OpenOption[] APPEND_OPTS = {StandardOpenOption.CREATE, StandardOpenOption.WRITE,
 			StandardOpenOption.READ};
@@ -41,19 +55,59 @@ public class WalAppender implements AutoCloseable {
 	// 段内自增
 	private long nextIndex;
 
-	// 当前已写字节
+	// 当前已写字节（含批缓冲中未写出的部分）
 	private long fileSize;
 
+	/**
+	 * 预分配的堆外编码缓冲：记录头与负载直接写入此处并就地计算 CRC。
+	 * 组提交模式下兼作批缓冲；否则每条记录编码完即写出
+	 */
+	private final ByteBuffer buf;
+
+	private final boolean batched;
+
+	private final RecordCrc crc = new RecordCrc();
+
+	/**
+	 * 打开段时扫描用的读缓冲，按需扩容
+	 */
+	private ByteBuffer scanBuf = ByteBuffer.allocate(4096)
+										   .order(ByteOrder.LITTLE_ENDIAN);
+
+	// 自上次 force 以来是否有写入
+	private boolean dirty;
+
+	// 正在编码的记录：起始位置与总长，-1 表示无
+	private int recStart = -1;
+
+	private int recBytes;
+
+	// 变长记录：recBytes 为预留上限，结束时按实际长度回填
+	private boolean varLen;
+
 	public WalAppender(Path dir, long maxSegmentBytes) throws IOException {
+		this(dir, maxSegmentBytes, 0);
+	}
+
+	/**
+	 * @param batchBytes 批缓冲大小，大于 0 时记录先进缓冲，满、滚段或 {@link #sync()} 时才写出
+	 */
+	public WalAppender(Path dir, long maxSegmentBytes, int batchBytes) throws IOException {
+		if (batchBytes < 0) {
+			throw new IllegalArgumentException("batchBytes must be >= 0");
+		}
 		this.dir = dir;
 		this.maxSegmentBytes = maxSegmentBytes;
+		this.batched = batchBytes > 0;
+		this.buf = ByteBuffer.allocateDirect(Math.max(batchBytes, MIN_BUFFER_BYTES))
+							 .order(ByteOrder.LITTLE_ENDIAN);
 		Files.createDirectories(dir);
 		// 恢复：定位最新段并扫描
-		this.segmentId = findLatestSegmentId();
+		this.segmentId = findLatestSegmentId(dir);
 		openSegment(Math.max(segmentId, 0), true);
 	}
 
-	private int findLatestSegmentId() throws IOException {
+	static int findLatestSegmentId(Path dir) throws IOException {
 		int max = -1;
 		try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "wal-*.bin")) {
 			for (Path p : ds) {
@@ -71,6 +125,27 @@ public class WalAppender implements AutoCloseable {
 		return max;
 	}
 
+	/**
+	 * 删除段号小于 segmentId 的全部段，用于快照落盘后截断 WAL。调用方需保证这些段已不再被追加写
+	 *
+	 * @return 删除的段数
+	 */
+	public static int deleteSegmentsBefore(Path dir, int segmentId) throws IOException {
+		if (!Files.isDirectory(dir)) {
+			return 0;
+		}
+		int n = 0;
+		for (int id : WalReplayer.segmentIds(dir)) {
+			if (id >= segmentId) {
+				break;
+			}
+			if (Files.deleteIfExists(segPath(dir, id))) {
+				n++;
+			}
+		}
+		return n;
+	}
+
 	private void openSegment(int segId, boolean truncateBadTail) throws IOException {
 		Path p = segPath(segId);
 		boolean exists = Files.exists(p);
@@ -94,6 +169,10 @@ public class WalAppender implements AutoCloseable {
 	}
 
 	private Path segPath(int segId) {
+		return segPath(dir, segId);
+	}
+
+	static Path segPath(Path dir, int segId) {
 		return dir.resolve(String.format("wal-%06d.bin", segId));
 	}
 
@@ -101,135 +180,199 @@ public class WalAppender implements AutoCloseable {
 
 	private ScanResult scanAndTruncateBadTail(FileChannel ch, boolean truncate) throws IOException {
 		long pos = 0, index = 0;
-		ByteBuffer hdr = ByteBuffer.allocate(HEADER_FIXED)
-								   .order(ByteOrder.LITTLE_ENDIAN);
+		long size = ch.size();
 		while (true) {
-			hdr.clear();
-			int r = ch.read(hdr, pos);
-			if (r == -1) {
-				break;
-			}
-			if (r < HEADER_FIXED) {
-				// 半条头 -> 截断
-				return new ScanResult(index, pos, true);
+			if (pos + HEADER_FIXED > size) {
+				// 干净结尾或半条头 -> 截断
+				return new ScanResult(index, pos, pos < size);
 			}
-			hdr.flip();
-			short magic = hdr.getShort();
-			byte ver = hdr.get();
-			byte type = hdr.get();
-			int len = hdr.getInt();
-			int segIdFile = hdr.getInt();
-			long idxFile = hdr.getLong();
-			long wall = hdr.getLong();
-			int crcOnFile = hdr.getInt();
-
-			if (magic != MAGIC || ver != VER || segIdFile != this.segmentId || idxFile != index || len < 0) {
+			ByteBuffer rec = readAt(ch, pos, HEADER_FIXED);
+			short magic = rec.getShort(0);
+			byte ver = rec.get(2);
+			int len = rec.getInt(4);
+			int segIdFile = rec.getInt(8);
+			long idxFile = rec.getLong(12);
+			int crcOnFile = rec.getInt(HEADER_NO_CRC);
+
+			if (magic != MAGIC || !RecordCrc.supports(ver) || segIdFile != this.segmentId || idxFile != index
+				|| len < 0) {
 				return new ScanResult(index, pos, true);
 			}
 			long nextPos = pos + HEADER_FIXED + len;
-			if (nextPos > ch.size()) {
+			if (nextPos > size) {
 				return new ScanResult(index, pos, true);
 			}
 
-			// 验证CRC
-			CRC32 crc = new CRC32();
-			byte[] headNoCrc = new byte[2 + 1 + 1 + 4 + 4 + 8 + 8];
-			ByteBuffer tmp = ByteBuffer.wrap(headNoCrc)
-									   .order(ByteOrder.LITTLE_ENDIAN);
-			tmp.putShort(magic)
-			   .put(ver)
-			   .put(type)
-			   .putInt(len)
-			   .putInt(segIdFile)
-			   .putLong(idxFile)
-			   .putLong(wall);
-			crc.update(headNoCrc);
-			if (len > 0) {
-				ByteBuffer payload = ByteBuffer.allocate(len);
-				ch.read(payload, pos + HEADER_FIXED);
-				payload.flip();
-				crc.update(payload);
-			}
-			if (((int) crc.getValue()) != crcOnFile) {
+			// 整条读入后就地校验
+			rec = readAt(ch, pos, HEADER_FIXED + len);
+			if (crc.of(rec, 0, HEADER_FIXED + len) != crcOnFile) {
 				return new ScanResult(index, pos, true);
 			}
 			// 这条OK，推进
 			pos = nextPos;
 			index++;
 		}
-		return new ScanResult(index, pos, false);
+	}
+
+	private ByteBuffer readAt(FileChannel ch, long pos, int bytes) throws IOException {
+		if (scanBuf.capacity() < bytes) {
+			scanBuf = ByteBuffer.allocate(Math.max(bytes, scanBuf.capacity() << 1))
+								.order(ByteOrder.LITTLE_ENDIAN);
+		}
+		scanBuf.clear()
+			   .limit(bytes);
+		while (scanBuf.hasRemaining()) {
+			if (ch.read(scanBuf, pos + scanBuf.position()) < 0) {
+				throw new IOException("unexpected end of wal segment " + segmentId);
+			}
+		}
+		return scanBuf;
 	}
 
 	public Lsn append(byte type, byte[] payload, long wallClockMillis, boolean force) throws IOException {
 		if (payload == null) {
 			payload = new byte[0];
 		}
-		int len = payload.length;
-		int recBytes = HEADER_FIXED + len;
+		beginRecord(type, payload.length, wallClockMillis).put(payload);
+		return Lsn.ofLong(endRecord(force));
+	}
 
+	/**
+	 * 零分配写入（flyweight）：预留记录头并返回编码缓冲，调用方从当前 position 起写入恰好 payloadLen 字节负载
+	 * （小端），再调用 {@link #endRecord(boolean)}。返回的缓冲仅在 endRecord 之前有效。
+	 */
+	@Override
+	public ByteBuffer beginRecord(byte type, int payloadLen, long wallClockMillis) throws IOException {
+		return begin(type, payloadLen, wallClockMillis, false);
+	}
+
+	@Override
+	public ByteBuffer beginVarRecord(byte type, int maxPayloadLen, long wallClockMillis) throws IOException {
+		return begin(type, maxPayloadLen, wallClockMillis, true);
+	}
+
+	private ByteBuffer begin(byte type, int payloadLen, long wallClockMillis, boolean var) throws IOException {
+		if (recStart >= 0) {
+			throw new IllegalStateException("previous record not ended");
+		}
+		if (payloadLen < 0) {
+			throw new IllegalArgumentException("payloadLen must be >= 0");
+		}
+		int bytes = HEADER_FIXED + payloadLen;
+		if (bytes > buf.capacity()) {
+			throw new IllegalArgumentException("record too large: " + bytes + " > " + buf.capacity());
+		}
 		// 滚段
-		if (fileSize + recBytes > maxSegmentBytes) {
+		if (fileSize + bytes > maxSegmentBytes) {
 			rotate();
 		}
-
-		ByteBuffer buf = ByteBuffer.allocate(recBytes)
-								   .order(ByteOrder.LITTLE_ENDIAN);
+		if (bytes > buf.remaining()) {
+			drain();
+		}
+		recStart = buf.position();
+		recBytes = bytes;
+		varLen = var;
 		buf.putShort(MAGIC);
 		buf.put(VER);
 		buf.put(type);
-		buf.putInt(len);
+		buf.putInt(payloadLen);
 		buf.putInt(segmentId);
 		buf.putLong(nextIndex);
 		buf.putLong(wallClockMillis);
+		// CRC 占位，endRecord 回填
+		buf.putInt(0);
+		return buf;
+	}
 
-		CRC32 crc = new CRC32();
-		// 先对 header(不含crc)做一遍；为了算crc，把前面内容备份
-		byte[] headerNoCrc = new byte[2 + 1 + 1 + 4 + 4 + 8 + 8];
-		ByteBuffer tmp = ByteBuffer.wrap(headerNoCrc)
-								   .order(ByteOrder.LITTLE_ENDIAN);
-		tmp.putShort(MAGIC)
-		   .put(VER)
-		   .put(type)
-		   .putInt(len)
-		   .putInt(segmentId)
-		   .putLong(nextIndex)
-		   .putLong(wallClockMillis);
-		crc.update(headerNoCrc);
-		if (len > 0) {
-			crc.update(payload);
-		}
-		int crc32 = (int) crc.getValue();
-		buf.putInt(crc32);
-		if (len > 0) {
-			buf.put(payload);
+	/**
+	 * 结束当前记录：就地计算 CRC（头部不含 CRC 字段 + 负载）并回填
+	 *
+	 * @return 记录 LSN，{@link Lsn#toLong()} 形式
+	 */
+	@Override
+	public long endRecord(boolean force) throws IOException {
+		int start = recStart;
+		if (start < 0) {
+			throw new IllegalStateException("no record in progress");
 		}
-		buf.flip();
-
-		while (buf.hasRemaining()) {
-			ch.write(buf);
+		int end = buf.position();
+		if (varLen ? end < start + HEADER_FIXED || end > start + recBytes : end != start + recBytes) {
+			recStart = -1;
+			buf.position(start);
+			throw new IllegalStateException("payload length mismatch: " + (end - start - HEADER_FIXED) + " != "
+											+ (recBytes - HEADER_FIXED));
 		}
+		if (varLen) {
+			recBytes = end - start;
+			buf.putInt(start + 4, recBytes - HEADER_FIXED);
+		}
+		buf.putInt(start + HEADER_NO_CRC, crc.of(buf, start, recBytes));
+		recStart = -1;
+
 		fileSize += recBytes;
+		dirty = true;
+		long lsn = Lsn.pack(segmentId, nextIndex++);
+		if (!batched) {
+			drain();
+		}
 		if (force) {
-			ch.force(true);
+			sync();
 		}
-
-		return new Lsn(segmentId, nextIndex++);
+		return lsn;
 	}
 
 	private void rotate() throws IOException {
 		if (ch != null) {
+			// 旧段关闭前落盘，否则组提交模式下批内已写旧段的记录会丢失持久性
+			sync();
 			ch.close();
 		}
 		openSegment(segmentId + 1, false);
 	}
 
+	/**
+	 * 写出批缓冲（不 force）
+	 */
+	private void drain() throws IOException {
+		if (buf.position() == 0) {
+			return;
+		}
+		buf.flip();
+		while (buf.hasRemaining()) {
+			ch.write(buf);
+		}
+		buf.clear();
+	}
+
+	@Override
+	public int segmentId() {
+		return segmentId;
+	}
+
 	public void force() throws IOException {
+		drain();
 		ch.force(true);
+		dirty = false;
+	}
+
+	/**
+	 * 写出批缓冲并 force；自上次落盘后无写入时不触发 fsync
+	 *
+	 * @return 是否执行了 force
+	 */
+	@Override
+	public boolean sync() throws IOException {
+		if (!dirty) {
+			return false;
+		}
+		force();
+		return true;
 	}
 
 	@Override
 	public void close() throws IOException {
 		if (ch != null) {
+			sync();
 			ch.close();
 		}
 	}
@@ -13,7 +13,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
-import java.util.zip.CRC32;
+import java.util.Arrays;
 
 /**
  * @author 中本君
@@ -21,11 +21,9 @@ import java.util.zip.CRC32;
  */
 public class WalReader {
 
-	private static final short MAGIC = (short) 0xBEEF;
+	private static final short MAGIC = WalAppender.MAGIC;
 
-	private static final byte VER = 1;
-
-	private static final int HEADER_FIXED = 2 + 1 + 1 + 4 + 4 + 8 + 8 + 4;
+	private static final int HEADER_FIXED = WalAppender.HEADER_FIXED;
 
 	public static void main(String[] args) throws Exception {
 		/**
@@ -52,6 +50,7 @@ public class WalReader {
 	}
 
 	private static void replaySegment(Path p) throws IOException {
+		RecordCrc crc = new RecordCrc();
 		try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
 			long pos = 0;
 			ByteBuffer hdr = ByteBuffer.allocate(HEADER_FIXED)
@@ -76,7 +75,7 @@ public class WalReader {
 				long wall = hdr.getLong();
 				int crcOnFile = hdr.getInt();
 
-				if (magic != MAGIC || ver != VER || len < 0) {
+				if (magic != MAGIC || !RecordCrc.supports(ver) || len < 0) {
 					break;
 				}
 				long nextPos = pos + HEADER_FIXED + len;
@@ -84,31 +83,14 @@ public class WalReader {
 					break;
 				}
 
-				byte[] payload = new byte[len];
-				if (len > 0) {
-					ByteBuffer pb = ByteBuffer.wrap(payload);
-					ch.read(pb, pos + HEADER_FIXED);
-				}
-
-				// CRC 校验
-				CRC32 crc = new CRC32();
-				byte[] headNoCrc = new byte[2 + 1 + 1 + 4 + 4 + 8 + 8];
-				ByteBuffer tmp = ByteBuffer.wrap(headNoCrc)
+				// 整条读入，按记录版本（v1 CRC32 / v2 CRC32C）就地校验
+				ByteBuffer rec = ByteBuffer.allocate(HEADER_FIXED + len)
 										   .order(ByteOrder.LITTLE_ENDIAN);
-				tmp.putShort(magic)
-				   .put(ver)
-				   .put(type)
-				   .putInt(len)
-				   .putInt(segId)
-				   .putLong(index)
-				   .putLong(wall);
-				crc.update(headNoCrc);
-				if (len > 0) {
-					crc.update(payload);
-				}
-				if (((int) crc.getValue()) != crcOnFile) {
+				ch.read(rec, pos);
+				if (crc.of(rec, 0, HEADER_FIXED + len) != crcOnFile) {
 					break;
 				}
+				byte[] payload = Arrays.copyOfRange(rec.array(), HEADER_FIXED, HEADER_FIXED + len);
 
 				Lsn lsn = new Lsn(segId, index);
 
@@ -150,6 +132,17 @@ public class WalReader {
 										  orderId, price);
 						break;
 					}
+					case RecordType.AMEND_REQ: {
+						ByteBuffer buf = ByteBuffer.wrap(payload)
+												   .order(ByteOrder.LITTLE_ENDIAN);
+						long txId = buf.getLong();
+						int symbol = buf.getInt();
+						long orderId = buf.getLong();
+						long newQty = buf.getLong();
+						System.out.printf("%s AMEND txId=%d symbol=%d orderId=%d newQty=%d%n", lsn, txId, symbol,
+										  orderId, newQty);
+						break;
+					}
 					case RecordType.COMMIT_TX: {
 						long txId = ByteBuffer.wrap(payload)
 											  .order(ByteOrder.LITTLE_ENDIAN)
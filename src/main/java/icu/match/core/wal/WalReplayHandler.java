@@ -0,0 +1,20 @@
+package icu.match.core.wal;
+
+/**
+ * WAL 回放回调，仅在事务 COMMIT 后按 LSN 顺序调用；参数为原始字段，回放过程不分配对象。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public interface WalReplayHandler {
+
+	/**
+	 * @param lsn 事务 COMMIT 记录的 LSN（{@link Lsn#toLong()} 形式）
+	 */
+	void onOrder(long lsn, long userId, long orderId, int symbol, byte side, byte type, byte tif, long price, long qty,
+				 long time);
+
+	void onCancel(long lsn, int symbol, long orderId, long price);
+
+	void onAmend(long lsn, int symbol, long orderId, long newQty);
+}
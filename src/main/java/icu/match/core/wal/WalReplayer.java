@@ -0,0 +1,325 @@
+package icu.match.core.wal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import static icu.match.core.wal.WalAppender.HEADER_FIXED;
+import static icu.match.core.wal.WalAppender.HEADER_NO_CRC;
+import static icu.match.core.wal.WalAppender.MAGIC;
+
+/**
+ * WAL 顺序回放：按段号升序整段只读映射，逐条校验 CRC 并解码，只把已提交事务交给 {@link WalReplayHandler}。
+ * <ul>
+ *   <li>单写线程下一个事务的记录连续：BEGIN → 一条请求 → COMMIT；BEGIN 后未见匹配 COMMIT 的事务视为未提交并丢弃。</li>
+ *   <li>紧凑记录（{@link CompactCodec}）自身即一个已提交事务，LSN 为其自身；与 TX 格式可在同一目录内混排。</li>
+ *   <li>段内遇到首条非法记录（MAGIC/序号/长度/CRC 不符，含 mmap 段的零填充尾部）即视为该段结束。</li>
+ *   <li>COMMIT LSN 不大于 fromLsn 的事务跳过；所在段整体早于 fromLsn 的段不读取。</li>
+ *   <li>解码只用绝对位置读取映射区，回放过程中每条记录无对象分配。</li>
+ * </ul>
+ * 单线程使用。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class WalReplayer {
+
+	private final Path dir;
+
+	private final RecordCrc crc = new RecordCrc();
+
+	private final CompactCodec codec = new CompactCodec();
+
+	// ---- 当前未提交事务 ----
+	private boolean inTx;
+
+	private long txId;
+
+	// 0 表示尚未读到请求记录
+	private byte opType;
+
+	private long userId;
+
+	private long orderId;
+
+	private int symbol;
+
+	private byte side;
+
+	private byte type;
+
+	private byte tif;
+
+	private long price;
+
+	private long qty;
+
+	private long time;
+
+	// ---- 统计 ----
+	private int segments;
+
+	private long records;
+
+	private long committed;
+
+	private long uncommitted;
+
+	private long skipped;
+
+	private long lastLsn = -1L;
+
+	public WalReplayer(Path dir) {
+		this.dir = dir;
+	}
+
+	/**
+	 * 回放 dir 下全部段
+	 *
+	 * @param fromLsn 只回放 COMMIT LSN 大于该值的事务，-1 表示全部
+	 */
+	public WalReplayer replay(long fromLsn, WalReplayHandler handler) throws IOException {
+		return replay(fromLsn, symbol -> handler);
+	}
+
+	/**
+	 * 按交易对分派的回放，接口与 {@link ParallelWalReplayer#replay} 一致
+	 *
+	 * @param handlers 交易对 -> 处理器，返回 null 的交易对忽略
+	 */
+	public WalReplayer replay(long fromLsn, IntFunction<WalReplayHandler> handlers) throws IOException {
+		if (!Files.isDirectory(dir)) {
+			return this;
+		}
+		int fromSegment = fromLsn < 0 ? 0 : Lsn.ofLong(fromLsn).segmentId;
+		for (int segId : segmentIds(dir)) {
+			if (segId < fromSegment) {
+				continue;
+			}
+			replaySegment(segId, fromLsn, handlers);
+		}
+		if (inTx) {
+			// 末尾半个事务（崩溃时未提交）
+			uncommitted++;
+			inTx = false;
+		}
+		return this;
+	}
+
+	static int[] segmentIds(Path dir) throws IOException {
+		int[] ids = new int[16];
+		int n = 0;
+		try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "wal-*.bin")) {
+			for (Path p : ds) {
+				String name = p.getFileName()
+							   .toString();
+				try {
+					int id = Integer.parseInt(name.substring(4, 10));
+					if (n == ids.length) {
+						ids = Arrays.copyOf(ids, n << 1);
+					}
+					ids[n++] = id;
+				} catch (RuntimeException ignore) {
+				}
+			}
+		}
+		ids = Arrays.copyOf(ids, n);
+		Arrays.sort(ids);
+		return ids;
+	}
+
+	private void replaySegment(int segId, long fromLsn, IntFunction<WalReplayHandler> handlers) throws IOException {
+		MappedByteBuffer map;
+		try (FileChannel ch = FileChannel.open(WalAppender.segPath(dir, segId), StandardOpenOption.READ)) {
+			long size = ch.size();
+			if (size == 0) {
+				return;
+			}
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("wal segment too large: " + segId);
+			}
+			map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+		map.order(ByteOrder.LITTLE_ENDIAN);
+		segments++;
+		codec.reset();
+		int limit = map.limit();
+		int pos = 0;
+		long index = 0;
+		while (pos + HEADER_FIXED <= limit) {
+			short magic = map.getShort(pos);
+			byte ver = map.get(pos + 2);
+			byte recType = map.get(pos + 3);
+			int len = map.getInt(pos + 4);
+			int segIdFile = map.getInt(pos + 8);
+			long idxFile = map.getLong(pos + 12);
+			if (magic != MAGIC || !RecordCrc.supports(ver) || segIdFile != segId || idxFile != index || len < 0
+				|| (long) pos + HEADER_FIXED + len > limit) {
+				break;
+			}
+			if (crc.of(map, pos, HEADER_FIXED + len) != map.getInt(pos + HEADER_NO_CRC)) {
+				break;
+			}
+			records++;
+			apply(map, pos + HEADER_FIXED, recType, Lsn.pack(segId, index), fromLsn, handlers);
+			pos += HEADER_FIXED + len;
+			index++;
+		}
+	}
+
+	private void apply(MappedByteBuffer m, int p, byte recType, long lsn, long fromLsn,
+					   IntFunction<WalReplayHandler> handlers) {
+		switch (recType) {
+			case RecordType.BEGIN_TX:
+				if (inTx) {
+					uncommitted++;
+				}
+				inTx = true;
+				txId = m.getLong(p);
+				opType = 0;
+				break;
+			case RecordType.ORDER_REQ:
+				if (inTx && m.getLong(p) == txId) {
+					opType = recType;
+					userId = m.getLong(p + 8);
+					orderId = m.getLong(p + 16);
+					symbol = m.getInt(p + 24);
+					side = m.get(p + 28);
+					type = m.get(p + 29);
+					tif = m.get(p + 30);
+					price = m.getLong(p + 31);
+					qty = m.getLong(p + 39);
+					time = m.getLong(p + 47);
+				}
+				break;
+			case RecordType.CANCEL_REQ:
+			case RecordType.AMEND_REQ:
+				if (inTx && m.getLong(p) == txId) {
+					opType = recType;
+					symbol = m.getInt(p + 8);
+					orderId = m.getLong(p + 12);
+					// CANCEL 为价格，AMEND 为新数量
+					qty = m.getLong(p + 20);
+				}
+				break;
+			case RecordType.ORDER_TX:
+			case RecordType.CANCEL_TX:
+			case RecordType.AMEND_TX:
+				if (inTx) {
+					// 切换格式前崩溃留下的半个事务
+					uncommitted++;
+					inTx = false;
+				}
+				// 跳过的记录也要解码，以推进差分基准
+				codec.read(m, p, recType);
+				loadCompact(recType);
+				commit(lsn, fromLsn, handlers);
+				break;
+			case RecordType.COMMIT_TX:
+				if (!inTx || m.getLong(p) != txId) {
+					break;
+				}
+				inTx = false;
+				if (opType == 0) {
+					break;
+				}
+				commit(lsn, fromLsn, handlers);
+				break;
+			default:
+				// 未知类型：向前兼容，忽略
+		}
+	}
+
+	private void commit(long lsn, long fromLsn, IntFunction<WalReplayHandler> handlers) {
+		lastLsn = lsn;
+		if (lsn <= fromLsn) {
+			skipped++;
+			return;
+		}
+		committed++;
+		WalReplayHandler handler = handlers.apply(symbol);
+		if (handler != null) {
+			dispatch(lsn, handler);
+		}
+	}
+
+	private void loadCompact(byte recType) {
+		symbol = codec.symbol;
+		orderId = codec.orderId;
+		switch (recType) {
+			case RecordType.ORDER_TX:
+				opType = RecordType.ORDER_REQ;
+				userId = codec.userId;
+				side = codec.side;
+				type = codec.type;
+				tif = codec.tif;
+				price = codec.price;
+				qty = codec.qty;
+				time = codec.time;
+				break;
+			case RecordType.CANCEL_TX:
+				opType = RecordType.CANCEL_REQ;
+				qty = codec.price;
+				break;
+			default:
+				opType = RecordType.AMEND_REQ;
+				qty = codec.qty;
+		}
+	}
+
+	private void dispatch(long lsn, WalReplayHandler handler) {
+		switch (opType) {
+			case RecordType.ORDER_REQ:
+				handler.onOrder(lsn, userId, orderId, symbol, side, type, tif, price, qty, time);
+				break;
+			case RecordType.CANCEL_REQ:
+				handler.onCancel(lsn, symbol, orderId, qty);
+				break;
+			case RecordType.AMEND_REQ:
+				handler.onAmend(lsn, symbol, orderId, qty);
+				break;
+			default:
+				throw new IllegalStateException("unexpected op type: " + opType);
+		}
+	}
+
+	public int getSegments() {
+		return segments;
+	}
+
+	public long getRecords() {
+		return records;
+	}
+
+	public long getCommitted() {
+		return committed;
+	}
+
+	public long getUncommitted() {
+		return uncommitted;
+	}
+
+	public long getSkipped() {
+		return skipped;
+	}
+
+	/**
+	 * 最后一个已提交事务的 COMMIT LSN，无则 -1
+	 */
+	public long getLastLsn() {
+		return lastLsn;
+	}
+
+	@Override
+	public String toString() {
+		return "WalReplayer{segments=" + segments + ", records=" + records + ", committed=" + committed +
+			   ", uncommitted=" + uncommitted + ", skipped=" + skipped + ", lastLsn=" + Lsn.ofLong(lastLsn) + '}';
+	}
+}
@@ -1,56 +1,168 @@
 package icu.match.core.wal;
 
+import icu.match.common.WalFormat;
+
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
+ * WAL 事务写入，单线程使用。各记录经 {@link WalAppender#beginRecord} 直接编码进预分配的堆外缓冲，下单路径无对象分配。
+ * <p>{@link WalFormat#COMPACT} 下 beginTx 不写记录，请求写为一条紧凑记录（{@link CompactCodec}），自身即提交点；
+ * commitTx 只负责非组提交时的落盘。调用方式与 TX 格式完全相同。</p>
+ *
  * @author 中本君
  * @date 2025/9/13
  */
 public final class WalWriter implements AutoCloseable {
 
-	private final WalAppender appender;
+	private final RecordAppender appender;
 
 	private final AtomicLong txSeq = new AtomicLong(1);
 
-	public WalWriter(WalAppender appender) {
+	/**
+	 * 组提交：commitTx 不 force，由调用方在批末调用 {@link #sync()} 一次落盘
+	 */
+	private final boolean groupCommit;
+
+	/**
+	 * 单写线程复用的事务上下文
+	 */
+	private final TxContext txCtx = new TxContext(0, 0);
+
+	private final boolean compact;
+
+	private final CompactCodec codec = new CompactCodec();
+
+	/**
+	 * 差分基准所属段，换段（或写入异常）后置 -1 使基准重置
+	 */
+	private int codecSegment = -1;
+
+	/**
+	 * 紧凑格式下最近一条请求记录的 LSN，即最近提交点
+	 */
+	private long lastLsn = -1L;
+
+	public WalWriter(RecordAppender appender) {
+		this(appender, false);
+	}
+
+	public WalWriter(RecordAppender appender, boolean groupCommit) {
+		this(appender, groupCommit, WalFormat.TX);
+	}
+
+	public WalWriter(RecordAppender appender, boolean groupCommit, WalFormat format) {
 		this.appender = appender;
+		this.groupCommit = groupCommit;
+		this.compact = format == WalFormat.COMPACT;
 	}
 
-	/** 开始事务，返回 TxContext */
+	/** 开始事务，返回 TxContext（复用实例，仅在下一次 beginTx 前有效） */
 	public TxContext beginTx() throws IOException {
 		long txId = txSeq.getAndIncrement();
-		Lsn lsn = appender.append(RecordType.BEGIN_TX, longToBytes(txId), System.currentTimeMillis(), false);
-		return new TxContext(txId, lsn);
-	}
-
-	private static byte[] longToBytes(long v) {
-		return ByteBuffer.allocate(8)
-						 .order(ByteOrder.LITTLE_ENDIAN)
-						 .putLong(v)
-						 .array();
+		if (compact) {
+			return txCtx.set(txId, -1L);
+		}
+		ByteBuffer buf = appender.beginRecord(RecordType.BEGIN_TX, TxPayloads.BEGIN_LEN, System.currentTimeMillis());
+		TxPayloads.writeTxId(buf, txId);
+		return txCtx.set(txId, appender.endRecord(false));
 	}
 
 	/** 下单请求，挂在某个 Tx 下 */
 	public void logOrder(TxContext tx, long userId, long orderId, int symbol, byte side, byte type, byte tif,
 						 long price, long qty, long time) throws IOException {
-		byte[] payload = TxPayloads.encodeOrder(tx.txId, userId, orderId, symbol, side, type, tif, price, qty, time);
-		appender.append(RecordType.ORDER_REQ, payload, System.currentTimeMillis(), false);
+		if (compact) {
+			// 先校验再开记录，避免留下半条记录
+			CompactCodec.checkFlags(side, type, tif);
+			ByteBuffer buf = beginCompact(RecordType.ORDER_TX, CompactCodec.ORDER_MAX);
+			codec.writeOrder(buf, userId, orderId, symbol, side, type, tif, price, qty, time);
+			endCompact();
+			return;
+		}
+		ByteBuffer buf = appender.beginRecord(RecordType.ORDER_REQ, TxPayloads.ORDER_LEN, System.currentTimeMillis());
+		TxPayloads.writeOrder(buf, tx.txId(), userId, orderId, symbol, side, type, tif, price, qty, time);
+		appender.endRecord(false);
 	}
 
 	/** 撤单请求 */
 	public void logCancel(TxContext tx, int symbol, long orderId, long price) throws IOException {
-		byte[] payload = TxPayloads.encodeCancel(tx.txId, symbol, orderId, price);
-		appender.append(RecordType.CANCEL_REQ, payload, System.currentTimeMillis(), false);
+		if (compact) {
+			ByteBuffer buf = beginCompact(RecordType.CANCEL_TX, CompactCodec.CANCEL_MAX);
+			codec.writeCancel(buf, symbol, orderId, price);
+			endCompact();
+			return;
+		}
+		ByteBuffer buf = appender.beginRecord(RecordType.CANCEL_REQ, TxPayloads.CANCEL_LEN, System.currentTimeMillis());
+		TxPayloads.writeCancel(buf, tx.txId(), symbol, orderId, price);
+		appender.endRecord(false);
+	}
+
+	/** 改单请求（仅修改剩余数量） */
+	public void logAmend(TxContext tx, int symbol, long orderId, long newQty) throws IOException {
+		if (compact) {
+			ByteBuffer buf = beginCompact(RecordType.AMEND_TX, CompactCodec.AMEND_MAX);
+			codec.writeAmend(buf, symbol, orderId, newQty);
+			endCompact();
+			return;
+		}
+		ByteBuffer buf = appender.beginRecord(RecordType.AMEND_REQ, TxPayloads.AMEND_LEN, System.currentTimeMillis());
+		TxPayloads.writeAmend(buf, tx.txId(), symbol, orderId, newQty);
+		appender.endRecord(false);
+	}
+
+	private ByteBuffer beginCompact(byte type, int maxLen) throws IOException {
+		ByteBuffer buf = appender.beginVarRecord(type, maxLen, System.currentTimeMillis());
+		if (appender.segmentId() != codecSegment) {
+			// 新段（或重新打开）：各交易对首条记录写全量值，段可独立解码
+			codec.reset();
+			codecSegment = appender.segmentId();
+		}
+		return buf;
+	}
+
+	private void endCompact() throws IOException {
+		boolean ok = false;
+		try {
+			lastLsn = appender.endRecord(false);
+			ok = true;
+		} finally {
+			if (!ok) {
+				// 记录未写成而基准已前移，下一条起重新写全量值
+				codecSegment = -1;
+			}
+		}
+	}
+
+	/**
+	 * 提交事务：写一条 COMMIT；非组提交模式下立即 force 落盘。紧凑格式下请求记录即提交点，只做落盘
+	 *
+	 * @return COMMIT 记录（紧凑格式为请求记录）的 LSN，回放以此判定事务是否已被快照覆盖
+	 */
+	public long commitTx(TxContext tx) throws IOException {
+		if (compact) {
+			if (!groupCommit) {
+				appender.sync();
+			}
+			return lastLsn;
+		}
+		ByteBuffer buf = appender.beginRecord(RecordType.COMMIT_TX, TxPayloads.COMMIT_LEN, System.currentTimeMillis());
+		TxPayloads.writeTxId(buf, tx.txId());
+		return appender.endRecord(!groupCommit);
+	}
+
+	/**
+	 * 组提交落盘：一次 force 覆盖自上次落盘以来提交的全部事务
+	 *
+	 * @return 是否执行了 force
+	 */
+	public boolean sync() throws IOException {
+		return appender.sync();
 	}
 
-	/** 提交事务：写一条 COMMIT，force 落盘 */
-	public void commitTx(TxContext tx) throws IOException {
-		byte[] payload = TxPayloads.encodeCommit(tx.txId);
-		appender.append(RecordType.COMMIT_TX, payload, System.currentTimeMillis(), true);
+	public boolean isGroupCommit() {
+		return groupCommit;
 	}
 
 	@Override
@@ -33,11 +33,7 @@ public abstract class AbstractDisruptorProvider<T> {
 									waitStrategy());
 		disruptor.setDefaultExceptionHandler(exceptionHandler());
 
-		EventHandler<T>[] eh = eventHandlers();
-		if (eh == null || eh.length == 0) {
-			throw new IllegalStateException("eventHandlers required");
-		}
-		disruptor.handleEventsWith(eh);
+		handleEvents(disruptor);
 
 		disruptor.start();
 
@@ -82,16 +78,36 @@ public abstract class AbstractDisruptorProvider<T> {
 
 	protected abstract EventHandler<T>[] eventHandlers();
 
+	/**
+	 * 处理器拓扑，默认 {@link #eventHandlers()} 全部并行消费；子类可覆盖为多级依赖
+	 */
+	protected void handleEvents(Disruptor<T> disruptor) {
+		EventHandler<T>[] eh = eventHandlers();
+		if (eh == null || eh.length == 0) {
+			throw new IllegalStateException("eventHandlers required");
+		}
+		disruptor.handleEventsWith(eh);
+	}
+
 	@PreDestroy
 	protected void destroy() {
 		if (disruptor != null) {
 			try {
 				disruptor.shutdown(1, TimeUnit.SECONDS);
 			} catch (TimeoutException e) {
+				// 时限内积压未消费完：强制停止处理线程，先让阻塞在 onEvent 内的处理器返回
+				onHalt();
+				disruptor.halt();
 			}
 		}
 	}
 
+	/**
+	 * 强制停止前调用，子类在此唤醒在 onEvent 内等待的处理器
+	 */
+	protected void onHalt() {
+	}
+
 	// ---- 对外暴露访问器（用于@Bean方法返回）----
 	public RingBuffer<T> ringBuffer() {return ringBuffer;}
 
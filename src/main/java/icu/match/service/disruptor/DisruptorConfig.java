@@ -7,22 +7,16 @@ import org.springframework.context.annotation.Configuration;
 
 import icu.match.service.disruptor.match.MatchEvent;
 import icu.match.service.disruptor.match.MatchEventDisruptorProvider;
-import icu.match.service.disruptor.order.OrderEvent;
-import icu.match.service.disruptor.order.OrderEventDisruptorProvider;
 
 /**
+ * 订单队列按撮合分片创建，见 MatchShardRouter
+ *
  * @author 中本君
  * @date 2025/07/27 
  */
 @Configuration
 public class DisruptorConfig {
 
-	@Bean
-	public RingBuffer<OrderEvent> orderEventRingBuffer(OrderEventDisruptorProvider provider) {
-		return provider.ringBuffer();
-	}
-
-
 	@Bean
 	public RingBuffer<MatchEvent> matchEventRingBuffer(MatchEventDisruptorProvider provider) {
 		return provider.ringBuffer();
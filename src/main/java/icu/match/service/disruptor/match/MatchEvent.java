@@ -31,8 +31,14 @@ public class MatchEvent {
 
 	private MatchTrade matchTrade = new MatchTrade();
 
+	/**
+	 * 发布时刻（System.nanoTime），仅在 StageTracer 启用时写入，用于链路分段计时
+	 */
+	private long publishNanos;
+
 	public void reset() {
 		orderStatus = null;
+		publishNanos = 0L;
 	}
 
 }
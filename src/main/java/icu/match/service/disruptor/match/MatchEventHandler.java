@@ -2,15 +2,12 @@ package icu.match.service.disruptor.match;
 
 import com.lmax.disruptor.EventHandler;
 
-import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
-import org.springframework.data.relational.core.query.Criteria;
-import org.springframework.data.relational.core.query.Query;
-import org.springframework.data.relational.core.query.Update;
 import org.springframework.stereotype.Component;
 
 import icu.match.core.model.MatchTrade;
-import icu.match.web.model.OriginOrder;
-import icu.match.web.service.MatchTradeService;
+import icu.match.service.trace.StageTracer;
+import icu.match.service.trace.TraceStage;
+import icu.match.web.repo.OrderStore;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
@@ -25,10 +22,7 @@ import javax.annotation.Resource;
 public class MatchEventHandler implements EventHandler<MatchEvent> {
 
 	@Resource
-	private R2dbcEntityTemplate template;
-
-	@Resource
-	private MatchTradeService matchTradeService;
+	private OrderStore orderStore;
 
 
 	@Override
@@ -36,8 +30,10 @@ public class MatchEventHandler implements EventHandler<MatchEvent> {
 		if (matchEvent.getOrderStatus() == null) {
 			// 成交事件
 			MatchTrade matchTrade = matchEvent.getMatchTrade();
+			long takerOrderId = matchTrade.getTakerOrderId();
+			long dequeuedAt = StageTracer.mark(TraceStage.TRADE_QUEUE, takerOrderId, matchEvent.getPublishNanos());
 			log.info("received trade event :{}", matchTrade.getMatchSeq());
-			matchTradeService.saveTrade(matchTrade)
+			orderStore.saveTrade(matchTrade)
 							 .doOnSuccess(s -> {
 								 // 成功后发布 成交事件 到 MQ/Redis
 							 })
@@ -46,13 +42,15 @@ public class MatchEventHandler implements EventHandler<MatchEvent> {
 							 // 异步执行有脏读风险 可对数据进行克隆
 							 // .subscribe()
 							 .block();
+			StageTracer.mark(TraceStage.TRADE_PERSIST, takerOrderId, dequeuedAt);
 		} else {
 			int symbol = matchEvent.getSymbol();
 			long orderId = matchEvent.getOrderId();
 			int status = matchEvent.getOrderStatus().val;
+			long dequeuedAt = StageTracer.mark(TraceStage.TRADE_QUEUE, orderId, matchEvent.getPublishNanos());
 			matchEvent.reset();
 			log.info("received status update event orderId :{}", orderId);
-			this.deal(symbol, orderId, status)
+			orderStore.updateStatus(symbol, orderId, status)
 				.doOnSuccess(saved -> {
 					// 成功后发布 订单状态变更事件 到 MQ/Redis
 				})
@@ -61,16 +59,8 @@ public class MatchEventHandler implements EventHandler<MatchEvent> {
 				.then(Mono.defer(Mono::empty))
 				// .subscribe()
 				.block();
+			StageTracer.mark(TraceStage.TRADE_PERSIST, orderId, dequeuedAt);
 		}
 
 	}
-
-	private Mono<Integer> deal(int symbol, long orderId, int status) {
-		return template.update(OriginOrder.class)
-					   .matching(Query.query(Criteria.where("order_id")
-													 .is(orderId)
-													 .and("symbol")
-													 .is(symbol)))
-					   .apply(Update.update("status", status));
-	}
 }
@@ -0,0 +1,171 @@
+package icu.match.service.disruptor.order;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.LifecycleAware;
+import com.lmax.disruptor.Sequence;
+
+import icu.match.common.OrderEventType;
+import icu.match.core.model.OrderInfo;
+import icu.match.core.wal.TxContext;
+import icu.match.core.wal.WalWriter;
+import icu.match.service.match.MatchEngine;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+
+/**
+ * 流水线模式的日志处理器：与 {@link MatchingEventHandler} 并行消费同一个订单队列，独占本分片 WAL。
+ * <ul>
+ *   <li>每个事件写一个完整事务（请求 + 提交），批末一次 force；force 成功后推进 {@link #durable()}，
+ *   {@link ReleaseEventHandler} 只发布不超过该序号的撮合结果。</li>
+ *   <li>按序号记录每个事件的 LSN（快照事件不写记录，沿用上一个 LSN），撮合线程冻结快照时据此取得其已应用位置对应的 LSN。</li>
+ *   <li>写入或 force 失败后不再写任何记录、不再推进 durable：已落盘的 WAL 与已发布的结果保持一致，分片停止应答，需重启恢复。</li>
+ * </ul>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@Slf4j
+public class JournalEventHandler implements EventHandler<OrderEvent>, LifecycleAware {
+
+	private final WalWriter svc;
+
+	private final MatchEngine matchEngine;
+
+	/**
+	 * 序号 -> LSN，容量为队列的 2 倍：撮合线程处理序号 s 时，日志线程至多写到 s - 1 + 队列容量，不会覆盖 s - 1
+	 */
+	private final long[] lsns;
+
+	private final int mask;
+
+	/**
+	 * 已写入（未必落盘）的最大序号
+	 */
+	private final Sequence written = new Sequence();
+
+	/**
+	 * 已落盘的最大序号
+	 */
+	private final Sequence durable = new Sequence();
+
+	/**
+	 * 序号 -1 对应的位置：构造于恢复之后，取恢复得到的 LSN
+	 */
+	private final long baseLsn;
+
+	private long lastLsn;
+
+	private volatile boolean failed;
+
+	/**
+	 * @param matchEngine 本分片的撮合引擎，已完成恢复；落盘位置经其转给快照
+	 */
+	public JournalEventHandler(WalWriter svc, int bufferSize, MatchEngine matchEngine) {
+		if (Integer.bitCount(bufferSize) != 1) {
+			throw new IllegalArgumentException("bufferSize must be a power of 2");
+		}
+		this.svc = svc;
+		this.matchEngine = matchEngine;
+		this.baseLsn = matchEngine.recoveredLsn();
+		this.lastLsn = baseLsn;
+		this.lsns = new long[bufferSize << 1];
+		this.mask = lsns.length - 1;
+	}
+
+	@Override
+	public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+		if (failed) {
+			return;
+		}
+		try {
+			if (event.getEventTypeCode() != OrderEventType.SNAPSHOT.code) {
+				lastLsn = write(event);
+			}
+			lsns[(int) sequence & mask] = lastLsn;
+			written.set(sequence);
+			if (!svc.isGroupCommit()) {
+				// commitTx 已 force
+				released(sequence);
+			} else if (endOfBatch) {
+				svc.sync();
+				released(sequence);
+			}
+		} catch (IOException | RuntimeException e) {
+			failed = true;
+			log.error("wal journal failed at sequence {}, outputs after {} are held until restart", sequence,
+					  durable.get(), e);
+		}
+	}
+
+	private long write(OrderEvent event) throws IOException {
+		OrderInfo o = event.getOrderInfo();
+		TxContext tx = svc.beginTx();
+		switch (OrderEventType.get(event.getEventTypeCode())) {
+			case NEW_ORDER:
+				svc.logOrder(tx, o.getUserId(), o.getOrderId(), o.getSymbol(), o.getSide(), o.getType(), o.getTif(),
+							 o.getPrice(), o.getQty(), o.getTime());
+				break;
+			case CANCEL_ORDER:
+				svc.logCancel(tx, o.getSymbol(), o.getOrderId(), o.getPrice());
+				break;
+			case MODIFY_ORDER:
+				svc.logAmend(tx, o.getSymbol(), o.getOrderId(), o.getQty());
+				break;
+			default:
+				throw new IllegalArgumentException("Unsupported event type: " + event.getEventTypeCode());
+		}
+		return svc.commitTx(tx);
+	}
+
+	private void released(long sequence) {
+		durable.set(sequence);
+		matchEngine.walDurable(lastLsn);
+	}
+
+	/**
+	 * 写入或 force 已失败，此后 {@link #durable()} 不再推进
+	 */
+	public boolean failed() {
+		return failed;
+	}
+
+	/**
+	 * 已落盘的最大序号，发布线程读取
+	 */
+	public long durable() {
+		return durable.get();
+	}
+
+	/**
+	 * 序号 sequence 的事件写入后的 LSN（-1 为启动时的恢复位置）；尚未写入时自旋等待，等待时长至多为日志线程一次 force。
+	 * 调用方须保证 sequence 不早于撮合线程当前位置之前一个事件，否则槽位可能已被覆盖
+	 *
+	 * @return LSN；日志已失败时返回 -1，快照据此不带 LSN
+	 */
+	public long lsnAt(long sequence) {
+		if (sequence < 0) {
+			return baseLsn;
+		}
+		while (written.get() < sequence) {
+			if (failed) {
+				return -1L;
+			}
+			Thread.yield();
+		}
+		return lsns[(int) sequence & mask];
+	}
+
+	@Override
+	public void onStart() {
+	}
+
+	@Override
+	public void onShutdown() {
+		try {
+			svc.close();
+		} catch (IOException e) {
+			log.warn("close wal failed", e);
+		}
+	}
+}
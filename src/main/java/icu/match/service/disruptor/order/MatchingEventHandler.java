@@ -0,0 +1,82 @@
+package icu.match.service.disruptor.order;
+
+import com.lmax.disruptor.EventHandler;
+
+import icu.match.common.OrderEventType;
+import icu.match.core.SlotMatchEventProcessor;
+import icu.match.core.model.OrderInfo;
+import icu.match.service.match.MatchEngine;
+import icu.match.service.trace.StageTracer;
+import icu.match.service.trace.TraceStage;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 流水线模式的撮合处理器：与 {@link JournalEventHandler} 并行消费同一个订单队列，只做撮合，不做任何 I/O。
+ * <p>撮合事件按序号暂存到 {@link SlotMatchEventProcessor} 的槽位，由 {@link ReleaseEventHandler} 在该序号落盘后发布。
+ * 快照事件在此冻结/步进，冻结时向日志处理器取上一个事件的 LSN（至多等待其写入，不等 force）。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public class MatchingEventHandler implements EventHandler<OrderEvent> {
+
+	private final MatchEngine matchEngine;
+
+	private final SlotMatchEventProcessor outputs;
+
+	private final JournalEventHandler journal;
+
+	/**
+	 * 当前快照事件的序号，冻结时取其前一个事件的 LSN
+	 */
+	private long snapshotSequence;
+
+	private final LongSupplier frozenLsn;
+
+	/**
+	 * @param outputs 须与构造 matchEngine 时传入的事件出口为同一实例
+	 */
+	public MatchingEventHandler(MatchEngine matchEngine, SlotMatchEventProcessor outputs, JournalEventHandler journal) {
+		this.matchEngine = matchEngine;
+		this.outputs = outputs;
+		this.journal = journal;
+		this.frozenLsn = () -> journal.lsnAt(snapshotSequence - 1);
+	}
+
+	@Override
+	public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+		outputs.select(sequence);
+		OrderEventType type = OrderEventType.get(event.getEventTypeCode());
+		if (type == OrderEventType.SNAPSHOT) {
+			snapshotSequence = sequence;
+			matchEngine.snapshotStep(frozenLsn);
+		} else {
+			match(type, event);
+		}
+		if (endOfBatch) {
+			// 本批撮合结果已写入槽位，队列暂空时做热区再平衡
+			matchEngine.onIdle();
+		}
+	}
+
+	private void match(OrderEventType type, OrderEvent event) {
+		OrderInfo orderInfo = event.getOrderInfo();
+		long stageStart = StageTracer.mark(TraceStage.ORDER_QUEUE, orderInfo.getOrderId(), event.getPublishNanos());
+		switch (type) {
+			case NEW_ORDER:
+				matchEngine.submit(orderInfo);
+				// 发布线程从这里起计 WAL_COMMIT；日志线程不读该字段
+				event.setPublishNanos(StageTracer.mark(TraceStage.MATCH, orderInfo.getOrderId(), stageStart));
+				break;
+			case CANCEL_ORDER:
+				matchEngine.cancel(orderInfo.getSymbol(), orderInfo.getOrderId());
+				break;
+			case MODIFY_ORDER:
+				matchEngine.amend(orderInfo.getSymbol(), orderInfo.getOrderId(), orderInfo.getQty());
+				break;
+			default:
+				throw new IllegalArgumentException("Unsupported event type: " + event.getEventTypeCode());
+		}
+	}
+}
@@ -23,11 +23,17 @@ public class OrderEvent {
 
 	private OrderInfo orderInfo;
 
+	/**
+	 * 发布时刻（System.nanoTime），仅在 StageTracer 启用时写入，用于链路分段计时
+	 */
+	private long publishNanos;
+
 
 	public void reset() {
 		eventTypeCode = OrderEventType.NEW_ORDER.code;
 		orderInfo.setSymbol(0);
 		orderInfo.setOrderId(0);
+		publishNanos = 0L;
 	}
 
 }
@@ -6,37 +6,129 @@ package icu.match.service.disruptor.order;/**
 
 import com.lmax.disruptor.EventFactory;
 import com.lmax.disruptor.EventHandler;
-
-import org.springframework.stereotype.Component;
+import com.lmax.disruptor.dsl.Disruptor;
 
 import icu.match.common.OrderEventType;
 import icu.match.core.model.OrderInfo;
 import icu.match.service.disruptor.AbstractDisruptorProvider;
+import icu.match.util.ThreadAffinity;
 
-import javax.annotation.Resource;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * 单个撮合分片的订单队列，由 MatchShardRouter 按分片创建并管理生命周期。
+ * <ul>
+ *   <li>串行模式：一个 {@link OrderEventHandler} 依次写 WAL、撮合、落盘后发布。</li>
+ *   <li>流水线模式：{@link MatchingEventHandler} 与 {@link JournalEventHandler} 并行消费，
+ *   {@link ReleaseEventHandler} 排在两者之后发布；撮合线程独占绑核，另两条线程不绑。</li>
+ * </ul>
+ *
  * @author 中本君
- * @date 2025/9/10 
+ * @date 2025/9/10
  */
-@Component
 public class OrderEventDisruptorProvider extends AbstractDisruptorProvider<OrderEvent> {
 
-	@Resource
-	private OrderEventHandler orderEventHandler;
+	/**
+	 * 队列容量，流水线模式的按序号槽位与之等长
+	 */
+	public static final int BUFFER_SIZE = 1 << 10;
+
+	private final int shard;
+
+	private final OrderEventHandler orderEventHandler;
+
+	private final MatchingEventHandler matching;
+
+	private final JournalEventHandler journal;
+
+	private final ReleaseEventHandler release;
+
+	/**
+	 * 绑定的 CPU，-1 表示不绑定
+	 */
+	private final int cpu;
+
+	public OrderEventDisruptorProvider(int shard, OrderEventHandler orderEventHandler, int cpu) {
+		this.shard = shard;
+		this.orderEventHandler = orderEventHandler;
+		this.matching = null;
+		this.journal = null;
+		this.release = null;
+		this.cpu = cpu;
+	}
+
+	public OrderEventDisruptorProvider(int shard, MatchingEventHandler matching, JournalEventHandler journal,
+									   ReleaseEventHandler release, int cpu) {
+		this.shard = shard;
+		this.orderEventHandler = null;
+		this.matching = matching;
+		this.journal = journal;
+		this.release = release;
+		this.cpu = cpu;
+	}
+
+	public void start() {
+		init();
+	}
+
+	public void shutdown() {
+		destroy();
+	}
+
+	@Override
+	protected void onHalt() {
+		if (release != null) {
+			release.halt();
+		}
+	}
 
 	@Override
 	protected EventFactory<OrderEvent> eventFactory() {
-		return () -> new OrderEvent(OrderEventType.NEW_ORDER.code, new OrderInfo());
+		return () -> new OrderEvent(OrderEventType.NEW_ORDER.code, new OrderInfo(), 0L);
+	}
+
+	@Override
+	protected int bufferSize() {
+		return BUFFER_SIZE;
+	}
+
+	@Override
+	protected ThreadFactory namedThreadFactory(String name) {
+		// Disruptor 按处理器注册顺序创建线程：第一个为撮合线程，流水线模式下其后依次为日志、发布线程
+		String[] suffixes = {"", "-journal", "-release"};
+		AtomicInteger created = new AtomicInteger();
+		return r -> {
+			int i = created.getAndIncrement();
+			Runnable task = i > 0 || cpu < 0 ? r : () -> {
+				ThreadAffinity.pinCurrentThread(cpu);
+				r.run();
+			};
+			return super.namedThreadFactory(name + suffixes[Math.min(i, suffixes.length - 1)])
+						.newThread(task);
+		};
 	}
 
 	@Override
 	protected String threadName() {
-		return "disruptor-order-event-consumer";
+		return "disruptor-order-event-consumer-" + shard;
 	}
 
 	@Override
 	protected EventHandler<OrderEvent>[] eventHandlers() {
-		return new EventHandler[]{orderEventHandler};
+		return orderEventHandler != null
+			   ? new EventHandler[]{orderEventHandler}
+			   : new EventHandler[]{matching, journal, release};
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected void handleEvents(Disruptor<OrderEvent> disruptor) {
+		if (orderEventHandler != null) {
+			super.handleEvents(disruptor);
+			return;
+		}
+		disruptor.handleEventsWith(matching, journal)
+				 .then(release);
 	}
 }
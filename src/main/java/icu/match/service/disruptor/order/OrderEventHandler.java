@@ -1,76 +1,172 @@
 package icu.match.service.disruptor.order;
 
 import com.lmax.disruptor.EventHandler;
-
-import org.springframework.stereotype.Component;
+import com.lmax.disruptor.LifecycleAware;
 
 import icu.match.common.OrderEventType;
-import icu.match.core.SnapshotManage;
+import icu.match.core.BufferedMatchEventProcessor;
 import icu.match.core.model.OrderInfo;
 import icu.match.core.wal.TxContext;
-import icu.match.core.wal.WalAppender;
 import icu.match.core.wal.WalWriter;
 import icu.match.service.global.MonoSinkManage;
 import icu.match.service.match.MatchEngine;
+import icu.match.service.trace.StageTracer;
+import icu.match.service.trace.TraceStage;
 import icu.match.web.model.OrderResult;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.MonoSink;
 
-import javax.annotation.Resource;
-
 import java.io.IOException;
-import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
 
 /**
+ * 分片撮合线程的事件处理器，每个分片一个实例，独占本分片的 WAL 与撮合引擎。
+ * <p>组提交模式下，批内各事件只写 WAL 不 force；在 endOfBatch 时一次 force，随后才发布本批撮合事件、应答客户端，
+ * 持久性与逐条 force 相同，fsync 次数降为每批一次。</p>
+ * <p>WAL 写入或 force 失败后本分片不再处理任何事件：失败批次的撮合事件与应答永不释放，落盘位置不再推进，
+ * 已落盘的 WAL 与已发布的结果保持一致，需重启恢复（与 {@link JournalEventHandler} 相同）。</p>
+ *
  * @author 中本君
  * @date 2025/07/27 
  */
 @Slf4j
-@Component
-public class OrderEventHandler implements EventHandler<OrderEvent> {
+public class OrderEventHandler implements EventHandler<OrderEvent>, LifecycleAware {
+
+
+	private final WalWriter svc;
+
+	private final MatchEngine matchEngine;
 
+	/**
+	 * 组提交模式下 MatchEngine 的事件出口，落盘后统一转发；非组提交为 null
+	 */
+	private final BufferedMatchEventProcessor pendingEvents;
 
-	private final WalWriter svc = new WalWriter(new WalAppender(Paths.get("./data/wal"), 256L * 1024 * 1024));
+	/**
+	 * 组提交模式下待落盘后应答的订单号
+	 */
+	private long[] pendingAcks = new long[64];
 
-	@Resource
-	private MatchEngine matchEngine;
+	private int pendingAckSize;
 
-	public OrderEventHandler() throws IOException {}
+	/**
+	 * 最后写入 COMMIT 的事务 LSN，快照冻结点；构造于恢复之后，初值为恢复位置
+	 */
+	private long appliedLsn;
+
+	private final LongSupplier frozenLsn = () -> appliedLsn;
+
+	/**
+	 * WAL 写入或 force 失败，仅撮合线程读写
+	 */
+	private boolean failed;
+
+	public OrderEventHandler(MatchEngine matchEngine, WalWriter svc, BufferedMatchEventProcessor pendingEvents) {
+		if (svc.isGroupCommit() != (pendingEvents != null)) {
+			throw new IllegalArgumentException("group commit requires a buffered match event processor");
+		}
+		this.svc = svc;
+		this.matchEngine = matchEngine;
+		this.pendingEvents = pendingEvents;
+		this.appliedLsn = matchEngine.recoveredLsn();
+	}
 
 	@Override
-	@SneakyThrows
 	public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
-		SnapshotManage.writing = true;
+		if (failed) {
+			event.reset();
+			return;
+		}
 		try {
 			OrderEventType orderEventType = OrderEventType.get(event.getEventTypeCode());
+			if (orderEventType == OrderEventType.SNAPSHOT) {
+				// 两个事件之间，订单簿状态恰为 appliedLsn
+				matchEngine.snapshotStep(frozenLsn);
+				return;
+			}
 			OrderInfo orderInfo = event.getOrderInfo();
-
-			log.info("submit order :{}", orderInfo.getOrderId());
+			long dequeuedAt = StageTracer.mark(TraceStage.ORDER_QUEUE, orderInfo.getOrderId(),
+											   event.getPublishNanos());
 			if (orderEventType == OrderEventType.NEW_ORDER) {
-				dealOrderNew(orderInfo);
+				dealOrderNew(orderInfo, dequeuedAt);
 				return;
 			}
 			switch (orderEventType) {
 				case CANCEL_ORDER:
 					TxContext tx = svc.beginTx();
 					svc.logCancel(tx, orderInfo.getSymbol(), orderInfo.getOrderId(), orderInfo.getPrice());
-					matchEngine.cancel(orderInfo.getSymbol(), orderInfo.getPrice(), orderInfo.getOrderId());
-					svc.commitTx(tx);
+					matchEngine.cancel(orderInfo.getSymbol(), orderInfo.getOrderId());
+					committed(svc.commitTx(tx));
 					break;
 				case MODIFY_ORDER:
+					TxContext amendTx = svc.beginTx();
+					svc.logAmend(amendTx, orderInfo.getSymbol(), orderInfo.getOrderId(), orderInfo.getQty());
+					matchEngine.amend(orderInfo.getSymbol(), orderInfo.getOrderId(), orderInfo.getQty());
+					committed(svc.commitTx(amendTx));
 					break;
 				default:
 					throw new IllegalArgumentException("Unsupported event type: " + orderEventType);
 			}
+		} catch (IOException e) {
+			fail(sequence, e);
 		} finally {
 			event.reset();
-			SnapshotManage.writing = false;
+			if (endOfBatch && !failed) {
+				if (pendingEvents != null) {
+					releaseBatch(sequence);
+				}
+				// 本批已落盘并应答，队列暂空时做热区再平衡
+				if (!failed) {
+					matchEngine.onIdle();
+				}
+			}
 		}
 	}
 
-	@SneakyThrows
-	private void dealOrderNew(OrderInfo orderInfo) {
+	/**
+	 * 批末：一次 force 覆盖本批全部事务，成功后再发布撮合事件并应答；force 失败则分片失败，本批不发布、不应答
+	 */
+	private void releaseBatch(long sequence) {
+		try {
+			svc.sync();
+		} catch (IOException | RuntimeException e) {
+			fail(sequence, e);
+			return;
+		}
+		matchEngine.walDurable(appliedLsn);
+		pendingEvents.flush();
+		for (int i = 0; i < pendingAckSize; i++) {
+			ack(pendingAcks[i]);
+		}
+		pendingAckSize = 0;
+	}
+
+	/**
+	 * 事务 COMMIT 已写入：记下快照冻结点所需的 LSN；非组提交时 COMMIT 已随之 force
+	 */
+	private void committed(long commitLsn) {
+		appliedLsn = commitLsn;
+		if (pendingEvents == null) {
+			matchEngine.walDurable(commitLsn);
+		}
+	}
+
+	private void fail(long sequence, Exception e) {
+		failed = true;
+		log.error("wal failed at sequence {} (last applied lsn {}), shard stops matching, unreleased outputs are held "
+				  + "until restart", sequence, appliedLsn, e);
+	}
+
+	static void ack(long orderId) {
+		MonoSink<OrderResult> sink = MonoSinkManage.getSink(orderId);
+		if (sink != null) {
+			sink.success(new OrderResult());
+		}
+	}
+
+	private void dealOrderNew(OrderInfo orderInfo, long stageStart) throws IOException {
+		long orderId = orderInfo.getOrderId();
 		TxContext tx = null;
 		try {
 			// 阶段 1
@@ -78,17 +174,38 @@ public class OrderEventHandler implements EventHandler<OrderEvent> {
 			svc.logOrder(tx, orderInfo.getUserId(), orderInfo.getOrderId(), orderInfo.getSymbol(), orderInfo.getSide(),
 						 orderInfo.getType(), orderInfo.getTif(), orderInfo.getPrice(), orderInfo.getQty(),
 						 orderInfo.getTime());
+			stageStart = StageTracer.mark(TraceStage.WAL_LOG, orderId, stageStart);
 			matchEngine.submit(orderInfo);
+			stageStart = StageTracer.mark(TraceStage.MATCH, orderId, stageStart);
 		} finally {
 			if (tx != null) {
 				// 阶段 2
-				svc.commitTx(tx);
+				committed(svc.commitTx(tx));
+				StageTracer.mark(TraceStage.WAL_COMMIT, orderId, stageStart);
 				// 二阶段提交成功后 此阶段撮合数据将可发布
 			}
-			MonoSink<OrderResult> sink = MonoSinkManage.getSink(orderInfo.getOrderId());
-			if (sink != null) {
-				sink.success(new OrderResult());
+			if (pendingEvents == null) {
+				ack(orderId);
+			} else {
+				// 组提交：等批末 force 后应答
+				if (pendingAckSize == pendingAcks.length) {
+					pendingAcks = Arrays.copyOf(pendingAcks, pendingAckSize << 1);
+				}
+				pendingAcks[pendingAckSize++] = orderId;
 			}
 		}
 	}
+
+	@Override
+	public void onStart() {
+	}
+
+	@Override
+	public void onShutdown() {
+		try {
+			svc.close();
+		} catch (IOException e) {
+			log.warn("close wal failed", e);
+		}
+	}
 }
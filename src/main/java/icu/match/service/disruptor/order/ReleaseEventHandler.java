@@ -0,0 +1,90 @@
+package icu.match.service.disruptor.order;
+
+import com.lmax.disruptor.EventHandler;
+
+import icu.match.common.OrderEventType;
+import icu.match.core.SlotMatchEventProcessor;
+import icu.match.service.trace.StageTracer;
+import icu.match.service.trace.TraceStage;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 流水线模式的发布处理器：排在撮合与日志两个处理器之后，序号 s 的撮合结果与应答只在 s 已落盘后发出，
+ * 持久性保证与串行模式相同。
+ * <p>日志处理器失败后 {@link JournalEventHandler#durable()} 不再推进，本处理器丢弃此后的事件（暂存的撮合结果一并清空）、
+ * 不发布不应答，与串行模式 {@link OrderEventHandler} 的失败路径一致；线程不再忙等，分片可正常关闭。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public class ReleaseEventHandler implements EventHandler<OrderEvent> {
+
+	/**
+	 * 等待落盘时先自旋的次数，之后改为短暂 park
+	 */
+	private static final int SPIN_TRIES = 100;
+
+	private static final long PARK_NANOS = 1_000;
+
+	private final SlotMatchEventProcessor outputs;
+
+	private final JournalEventHandler journal;
+
+	/**
+	 * 强制停止：等待中的事件直接丢弃
+	 */
+	private volatile boolean halted;
+
+	public ReleaseEventHandler(SlotMatchEventProcessor outputs, JournalEventHandler journal) {
+		this.outputs = outputs;
+		this.journal = journal;
+	}
+
+	@Override
+	public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+		if (!awaitDurable(sequence)) {
+			outputs.slot(sequence)
+				   .clear();
+			event.reset();
+			return;
+		}
+		outputs.slot(sequence)
+			   .flush();
+		if (event.getEventTypeCode() == OrderEventType.NEW_ORDER.code) {
+			long orderId = event.getOrderInfo()
+								.getOrderId();
+			StageTracer.mark(TraceStage.WAL_COMMIT, orderId, event.getPublishNanos());
+			OrderEventHandler.ack(orderId);
+		}
+		event.reset();
+	}
+
+	/**
+	 * 屏障只保证日志处理器已处理过 s；durable 在其 force 成功后推进，通常已不小于 s，否则等待至多一次 force
+	 *
+	 * @return s 已落盘；日志已失败或处理器被强制停止时为 false
+	 */
+	private boolean awaitDurable(long sequence) {
+		int spins = 0;
+		while (journal.durable() < sequence) {
+			if (journal.failed() || halted) {
+				return false;
+			}
+			if (spins < SPIN_TRIES) {
+				spins++;
+				Thread.onSpinWait();
+			} else {
+				LockSupport.parkNanos(PARK_NANOS);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 强制停止分片时调用，使等待落盘的 onEvent 返回
+	 */
+	public void halt() {
+		halted = true;
+	}
+}
@@ -1,29 +1,50 @@
 package icu.match.service.match;
 
-import org.springframework.stereotype.Component;
-
 import icu.match.common.OrderSide;
 import icu.match.common.OrderStatus;
 import icu.match.common.OrderTif;
 import icu.match.common.OrderType;
+import icu.match.common.RecenterMode;
 import icu.match.common.SymbolConstant;
+import icu.match.config.MatchProperties;
+import icu.match.core.AdaptiveRecenterPolicy;
 import icu.match.core.ColdOrderBuffer;
+import icu.match.core.FixedRecenterPolicy;
+import icu.match.core.OrderNodePoolChunked;
 import icu.match.core.RingOrderBuffer;
 import icu.match.core.SimpleOrderBook;
 import icu.match.core.SnapshotManage;
 import icu.match.core.interfaces.BaseOrderBook;
 import icu.match.core.interfaces.MatchEventProcessor;
+import icu.match.core.interfaces.RecenterPolicy;
+import icu.match.core.interfaces.SnapshotBook;
+import icu.match.core.interfaces.TradeSink;
 import icu.match.core.model.BestLiqView;
 import icu.match.core.model.MatchTrade;
 import icu.match.core.model.OrderInfo;
+import icu.match.core.model.PoolStats;
+import icu.match.core.slab.DirectOrderSlab;
+import icu.match.core.slab.HeapOrderSlab;
+import icu.match.core.slab.SlabOrderBook;
+import icu.match.core.snapshot.SnapManifest;
+import icu.match.core.snapshot.SnapReader;
+import icu.match.core.snapshot.SnapshotLoader;
+import icu.match.core.wal.Lsn;
+import icu.match.core.wal.ParallelWalReplayer;
+import icu.match.core.wal.WalAppender;
+import icu.match.core.wal.WalReplayHandler;
+import icu.match.core.wal.WalReplayer;
 import lombok.extern.slf4j.Slf4j;
 
-import javax.annotation.PostConstruct;
-import javax.annotation.Resource;
-
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
 
 /**
  * 单线程撮合引擎（基于热区环形数组 + 冷区红黑树）。
@@ -35,76 +56,303 @@ import java.util.concurrent.CompletableFuture;
  *   <li>成交价使用对手方价位（被动方档位）。</li>
  *   <li>撮合过程中仅通过 PriceLevel.patchQty/remove/cancel 保持聚合统计正确。</li>
  *   <li>每次撮合后调用 recenter.checkAndRecenter()，不修改 lastIdx/lastPrice 的约束由 ring 内部保证。</li>
+ *   <li>每个撮合分片一个实例，仅由该分片的撮合线程调用；跨线程只读 poolStats/depth。</li>
  * </ul>
  * @author 中本君
  * @date 2025/8/16
  */
 @Slf4j
-@Component
 public final class MatchEngine {
 
-	private final Map<Integer, BaseOrderBook> orderBookMap;
+	/**
+	 * 回放期间使用：已提交事务的撮合结果在崩溃前已按原流程发布，恢复时不再重复发布
+	 */
+	private static final MatchEventProcessor SILENT = new MatchEventProcessor() {
+		@Override
+		public void onTraded(MatchTrade matchTrade) {
+		}
+
+		@Override
+		public void onFilled(int symbol, long orderId) {
+		}
+
+		@Override
+		public void onOrderCancelled(int symbol, long orderId, long qty) {
+		}
+
+		@Override
+		public void onOrderRejected(int symbol, long orderId) {
+		}
+	};
+
+	private final Map<Integer, SymbolBook> orderBookMap;
+
+	private final MatchEventProcessor liveProcess;
 
-	@Resource
 	private MatchEventProcessor matchEventProcess;
 
-	public MatchEngine() {
+	/**
+	 * 恢复得到的位置：快照 LSN 与回放到的最后 LSN 取大，撮合线程以此为起点发布已应用/已落盘位置
+	 */
+	private long recoveredLsn = -1L;
+
+	/**
+	 * 批间空闲回调的时间预算（纳秒），由各订单簿依次使用；0 表示不在空闲时整理
+	 */
+	private long idleBudgetNanos;
+
+	public MatchEngine(MatchEventProcessor matchEventProcess) {
+		this.liveProcess = matchEventProcess;
+		this.matchEventProcess = matchEventProcess;
 		orderBookMap = new HashMap<>();
 	}
 
-	@PostConstruct
-	private void init() {
-		SymbolConstant symbol = SymbolConstant.BTCUSDT;
-		RingOrderBuffer ring = new RingOrderBuffer(symbol.getSymbolId(), 1, 100, 110);
-		ColdOrderBuffer cold = new ColdOrderBuffer();
-		SimpleOrderBook orderBook = new SimpleOrderBook(ring, cold);
-		orderBookMap.put(symbol.getSymbolId(), orderBook);
-		init(symbol.getSymbolId(), orderBook);
+	/**
+	 * 按配置创建交易对订单簿，需在撮合线程启动前完成
+	 */
+	public void addBook(SymbolConstant symbol, MatchProperties.Book conf) {
+		if (orderBookMap.containsKey(symbol.getSymbolId())) {
+			throw new IllegalStateException("order book already exists: " + symbol);
+		}
+		SnapshotBook orderBook;
+		switch (conf.getStorage()) {
+			case HEAP:
+				orderBook = new SlabOrderBook(symbol.getSymbolId(), new HeapOrderSlab(conf.getInitialCapacity()));
+				break;
+			case DIRECT:
+				orderBook = new SlabOrderBook(symbol.getSymbolId(), new DirectOrderSlab(conf.getInitialCapacity()));
+				break;
+			default:
+				RingOrderBuffer ring = new RingOrderBuffer(symbol.getSymbolId(), conf.getStep(), conf.getLow(),
+														   conf.getHigh());
+				ColdOrderBuffer cold = new ColdOrderBuffer();
+				MatchProperties.Pool pool = conf.getPool();
+				RecenterPolicy policy = conf.getRecenter() == RecenterMode.ADAPTIVE
+										? new AdaptiveRecenterPolicy()
+										: new FixedRecenterPolicy();
+				SimpleOrderBook book = new SimpleOrderBook(ring, cold,
+														   new OrderNodePoolChunked(pool.getChunkSize(),
+																					pool.getMinChunks(),
+																					pool.getMaxChunks(),
+																					pool.getIdleMillis()), policy);
+				orderBook = book;
+		}
+		log.info("order book {} storage={}", symbol, conf.getStorage());
+		orderBookMap.put(symbol.getSymbolId(),
+						 new SymbolBook(orderBook, new SnapshotManage(orderBook, SnapshotManage.baseName(symbol.name()))));
+	}
+
+	/**
+	 * 崩溃恢复，需在撮合线程启动前调用：
+	 * <ol>
+	 *   <li>装载最新快照（如有且带 lastAppliedLsn），得到各交易对的回放起点；</li>
+	 *   <li>顺序回放 WAL 中此后已提交的事务（BEGIN 无 COMMIT 的跳过），经与在线相同的 submit/cancel/amend 路径重建订单簿。</li>
+	 * </ol>
+	 * 回放期间撮合事件不对外发布。replayThreads 大于 1 时用 {@link ParallelWalReplayer}：CRC 校验并行，
+	 * 各交易对在各自任务内按 LSN 顺序回放；不同交易对的任务同时运行，因此撮合用到的复用实例（成交回调、剩余挂单）
+	 * 都随订单簿按交易对持有，引擎上只剩回放期间不变的 SILENT 出口，各任务之间不共享可变状态。
+	 */
+	public void recover(Path walDir, int replayThreads) throws IOException {
+		int n = orderBookMap.size();
+		Replay[] replays = new Replay[n];
+		long minLsn = Long.MAX_VALUE;
+		long maxLsn = -1L;
+		int i = 0;
+		for (Map.Entry<Integer, SymbolBook> e : orderBookMap.entrySet()) {
+			long fromLsn = loadSnapshot(e.getKey(), e.getValue());
+			replays[i++] = new Replay(e.getKey(), fromLsn);
+			minLsn = Math.min(minLsn, fromLsn);
+			maxLsn = Math.max(maxLsn, fromLsn);
+		}
+		IntFunction<WalReplayHandler> handlers = symbol -> {
+			for (Replay replay : replays) {
+				if (replay.symbol == symbol) {
+					return replay;
+				}
+			}
+			// 不属于本分片
+			return null;
+		};
+		long from = n == 0 ? -1L : minLsn;
+		long start = System.nanoTime();
+		matchEventProcess = SILENT;
+		try {
+			long lastLsn;
+			String stats;
+			if (replayThreads > 1) {
+				ForkJoinPool pool = new ForkJoinPool(replayThreads);
+				try {
+					ParallelWalReplayer replayer = new ParallelWalReplayer(walDir, pool).replay(from, handlers);
+					lastLsn = replayer.getLastLsn();
+					stats = replayer.toString();
+				} finally {
+					pool.shutdown();
+				}
+			} else {
+				WalReplayer replayer = new WalReplayer(walDir).replay(from, handlers);
+				lastLsn = replayer.getLastLsn();
+				stats = replayer.toString();
+			}
+			long failed = 0;
+			for (Replay replay : replays) {
+				failed += replay.failed;
+			}
+			log.info("wal recovered dir={} {} failed={} cost={}ms", walDir, stats, failed,
+					 (System.nanoTime() - start) / 1_000_000);
+			// 回放到的状态已持久，作为下一次快照在无新事务时的冻结点
+			recoveredLsn = Math.max(maxLsn, lastLsn);
+			walDurable(recoveredLsn);
+		} finally {
+			matchEventProcess = liveProcess;
+		}
+	}
+
+	/**
+	 * 按快照清单由新到旧尝试，装载第一个校验通过且带 LSN 的快照；校验失败的快照不改动订单簿，退回更旧的一个
+	 *
+	 * @return 快照对应的 lastAppliedLsn，无可用快照为 -1
+	 */
+	private long loadSnapshot(int symbol, SymbolBook book) {
+		List<SnapManifest.Entry> candidates;
+		try {
+			candidates = SnapManifest.candidates(SnapshotManage.DIR, book.snapshot.baseName());
+			if (candidates.isEmpty() && symbol == SymbolConstant.BTCUSDT.getSymbolId()) {
+				// 按交易对命名之前只有 BTCUSDT 有快照，文件名不带交易对
+				candidates = SnapManifest.candidates(SnapshotManage.DIR, SnapshotManage.BASE_NAME);
+			}
+		} catch (IOException e) {
+			log.warn("snapshot dir unreadable, full wal replay: {}", e.toString());
+			return -1L;
+		}
+		for (SnapManifest.Entry entry : candidates) {
+			try {
+				SnapReader.SnapshotReadResult snap = SnapReader.readHeader(entry.path);
+				if (snap.lastAppliedLsn < 0) {
+					// 未记录 LSN 的快照无法确定回放起点
+					log.warn("snapshot {} has no lastAppliedLsn, skipped", entry.path);
+					continue;
+				}
+				// 装载前整文件校验，失败时订单簿未被改动
+				int orders = SnapshotLoader.restore(book.orderBook, symbol, entry, SnapReader.Mode.MMAP);
+				log.info("snapshot loaded {} orders={} lsn={}", entry.path, orders, Lsn.ofLong(snap.lastAppliedLsn));
+				return snap.lastAppliedLsn;
+			} catch (IOException e) {
+				log.warn("snapshot {} unreadable, trying older: {}", entry.path, e.toString());
+			}
+		}
+		if (!candidates.isEmpty()) {
+			log.warn("no usable snapshot among {}, full wal replay", candidates.size());
+		}
+		return -1L;
+	}
+
+	/**
+	 * 恢复得到的 LSN，无快照且 WAL 为空时为 -1；需在 {@link #recover} 之后读取
+	 */
+	public long recoveredLsn() {
+		return recoveredLsn;
+	}
+
+	/**
+	 * 撮合线程处理快照事件，交给各快照簿；未请求快照的簿只计数
+	 *
+	 * @param appliedLsn 冻结时读取：此前已应用事务的 LSN
+	 */
+	public void snapshotStep(LongSupplier appliedLsn) {
+		for (SymbolBook book : orderBookMap.values()) {
+			book.snapshot.step(appliedLsn);
+		}
+	}
+
+	/**
+	 * 设置批间空闲回调的时间预算，撮合线程启动前调用
+	 *
+	 * @param budgetNanos 每次空闲回调的纳秒数，0 表示关闭
+	 */
+	public void setIdleBudgetNanos(long budgetNanos) {
+		if (budgetNanos < 0) {
+			throw new IllegalArgumentException("budgetNanos must be >= 0");
+		}
+		this.idleBudgetNanos = budgetNanos;
+	}
+
+	/**
+	 * 撮合线程处理完一批事件、队列暂空时调用：各订单簿在剩余预算内做再平衡等整理，不占用撮合时间
+	 */
+	public void onIdle() {
+		if (idleBudgetNanos <= 0) {
+			return;
+		}
+		long deadline = System.nanoTime() + idleBudgetNanos;
+		for (SymbolBook book : orderBookMap.values()) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return;
+			}
+			book.orderBook.onIdle(remaining);
+		}
+	}
+
+	/**
+	 * lsn 及之前的事务已落盘，写 WAL 的线程在 force 成功后调用
+	 */
+	public void walDurable(long lsn) {
+		for (SymbolBook book : orderBookMap.values()) {
+			book.snapshot.durable(lsn);
+		}
+	}
 
-		// 快照线程
-		CompletableFuture.runAsync(() -> {
-			new SnapshotManage(ring, cold).start();
+	/**
+	 * 启动快照线程，恢复完成且订单队列启动后调用；每个快照簿一条线程，共用本分片订单队列投递快照事件。
+	 * <p>truncateWal 时，每当某个簿的快照落盘，以各簿保留中最旧快照 LSN 的最小值为界，删除 walDir 中整段早于它的段，
+	 * 任一簿退回其任一保留的快照都能续上回放；尚无带 LSN 快照的簿存在时不截断。</p>
+	 *
+	 * @param retain 保留的快照数
+	 * @param tick   向本分片订单队列投递一个快照事件
+	 */
+	public void startSnapshots(Path walDir, boolean truncateWal, int retain, Runnable tick) {
+		orderBookMap.forEach((symbol, book) -> {
+			SnapshotManage manage = book.snapshot;
+			Thread thread = new Thread(() -> manage.start(tick, retain, lsn -> {
+				if (truncateWal) {
+					retained(walDir, book, lsn);
+				}
+			}), "snapshot-" + SymbolConstant.get(symbol)
+										 .name());
+			thread.setDaemon(true);
+			thread.start();
 		});
+	}
 
+	/**
+	 * 快照线程回调：记下该簿保留中最旧快照的 LSN，各簿都有时按其最小值截断
+	 */
+	private synchronized void retained(Path walDir, SymbolBook book, long oldestLsn) {
+		book.retainedLsn = oldestLsn;
+		long minLsn = Long.MAX_VALUE;
+		for (SymbolBook b : orderBookMap.values()) {
+			if (b.retainedLsn < 0) {
+				return;
+			}
+			minLsn = Math.min(minLsn, b.retainedLsn);
+		}
+		truncateWal(walDir, minLsn);
 	}
 
-	private static void init(int symbol, SimpleOrderBook orderBook) {
-		OrderInfo.OrderInfoBuilder builder = OrderInfo.builder();
-		builder.symbol(symbol);
-		builder.userId(1000);
-		builder.qty(1);
-
-		builder.side(OrderSide.BID.code);
-		builder.price(100);
-		builder.orderId(1000);
-		orderBook.submit(builder.build());
-		builder.price(100);
-		builder.orderId(1001);
-		orderBook.submit(builder.build());
-		builder.price(101);
-		builder.orderId(1002);
-		orderBook.submit(builder.build());
-		builder.qty(2);
-		builder.price(102);
-		builder.orderId(1003);
-		orderBook.submit(builder.build());
-
-		builder.side(OrderSide.ASK.code);
-		builder.price(109);
-		builder.orderId(2000);
-		orderBook.submit(builder.build());
-		builder.price(108);
-		builder.orderId(2001);
-		orderBook.submit(builder.build());
-		builder.price(107);
-		builder.orderId(2002);
-		orderBook.submit(builder.build());
-		builder.qty(1);
-		builder.price(108);
-		builder.orderId(2003);
-		orderBook.submit(builder.build());
+	private static void truncateWal(Path walDir, long snapshotLsn) {
+		try {
+			int deleted = WalAppender.deleteSegmentsBefore(walDir, Lsn.ofLong(snapshotLsn).segmentId);
+			if (deleted > 0) {
+				log.info("wal truncated dir={} segments={} before lsn={}", walDir, deleted, Lsn.ofLong(snapshotLsn));
+			}
+		} catch (IOException e) {
+			log.warn("wal truncation failed dir={}", walDir, e);
+		}
 	}
 
+	public boolean hasBook(int symbol) {
+		return orderBookMap.containsKey(symbol);
+	}
 
 	public OrderStatus submit(OrderInfo order) {
 		byte orderType = order.getType();
@@ -117,42 +365,18 @@ public final class MatchEngine {
 	}
 
 	/**
-	 *  市价撮合流程
-	 *  1.获取待撮合数量remainingQty
-	 *  2.进入循环remainingQty > 0
-	 *  3.获取对手方最优流动性层
-	 *  4.不断对该层进行头节点撮合 直到完全撮合
+	 * 市价撮合：以不设限的价格扫单，对手盘吃空后剩余数量走 IOC 取消
 	 */
 	private OrderStatus dealMarketOrder(OrderInfo order) {
 		int symbol = order.getSymbol();
-		BaseOrderBook orderBook = orderBookMap.get(symbol);
-		long remainingQty = order.getQty();
+		SymbolBook book = orderBookMap.get(symbol);
+		BaseOrderBook orderBook = book.orderBook;
+		long takerQty = order.getQty();
 		byte side = order.getSide();
-		while (remainingQty > 0) {
-			BestLiqView bestLiqView = orderBook.bestLiq(side);
-			if (bestLiqView.getTotalQty() <= 0) {
-				// 整个对手订单簿为空 不可能事件呢
-				break;
-			}
-			long totalMatchedQty = 0;
-			while (totalMatchedQty < bestLiqView.getTotalQty()) {
-				MatchTrade matchTrade = orderBook.matchHead(order.getSide(), remainingQty);
-				long matchedQty = matchTrade.getQty();
-				remainingQty -= matchedQty;
-				totalMatchedQty += matchedQty;
-
-				// 成交事件
-				matchTrade.setTakerUserId(order.getUserId());
-				matchTrade.setTakerOrderId(order.getOrderId());
-				matchEventProcess.onTraded(matchTrade);
-				if (matchTrade.isMakerFilled()) {
-					matchEventProcess.onFilled(symbol, matchTrade.getMakerOrderId());
-				}
-				if (remainingQty == 0) {
-					break;
-				}
-			}
-		}
+		long limit = OrderSide.isAsk(side)
+					 ? Long.MIN_VALUE
+					 : Long.MAX_VALUE;
+		long remainingQty = takerQty - orderBook.sweep(side, limit, takerQty, book.takerTrades.of(order));
 		if (remainingQty > 0) {
 			// 流动性不足或市价保护等原因 未完全市价撮合  走IOC策略 自动取消
 			matchEventProcess.onOrderCancelled(symbol, order.getOrderId(), remainingQty);
@@ -163,7 +387,8 @@ public final class MatchEngine {
 
 	private OrderStatus dealLimitOrder(OrderInfo order) {
 		int symbol = order.getSymbol();
-		BaseOrderBook orderBook = orderBookMap.get(symbol);
+		SymbolBook book = orderBookMap.get(symbol);
+		BaseOrderBook orderBook = book.orderBook;
 
 		byte takerSide = order.getSide();
 		long takerPrice = order.getPrice();
@@ -199,26 +424,9 @@ public final class MatchEngine {
 			}
 		}
 		// 能完全成交的FOK订单和IOC、GTC订单 进入撮合
-		// 2.2 获取满足撮合条件的流动性视图
-		BestLiqView bestLiqView = orderBook.bestLiq(takerSide, takerPrice);
-		// 2.3 计算可撮合数量和剩余数量
-		long canMatchQty = Math.min(takerQty, bestLiqView.getTotalQty());
-		long remainingQty = takerQty - canMatchQty;
-		// 2.4 对可撮合数量部分进行撮合
-		while (canMatchQty > 0) {
-			// 2.4.1 不断进行头节点撮合 同时更新可撮合数量
-			MatchTrade matchTrade = orderBook.matchHead(order.getSide(), canMatchQty);
-			long matchedQty = matchTrade.getQty();
-			canMatchQty -= matchedQty;
-			// 成交事件
-			matchTrade.setTakerUserId(order.getUserId());
-			matchTrade.setTakerOrderId(order.getOrderId());
-			matchEventProcess.onTraded(matchTrade);
-			if (matchTrade.isMakerFilled()) {
-				matchEventProcess.onFilled(symbol, matchTrade.getMakerOrderId());
-			}
-		}
-		// 2.5 末尾处理
+		// 2.2 一次扫单吃掉限价以内的对手盘
+		long remainingQty = takerQty - orderBook.sweep(takerSide, takerPrice, takerQty, book.takerTrades.of(order));
+		// 2.3 末尾处理
 		if (remainingQty == 0) {
 			// 完全撮合 FOK策略订单肯定完全撮合
 			matchEventProcess.onFilled(symbol, order.getOrderId());
@@ -226,8 +434,18 @@ public final class MatchEngine {
 		}
 		// 未完全撮合
 		if (OrderTif.GTC == tif) {
-			order.setQty(remainingQty);
-			return orderBook.submit(order);
+			// 不改写入参：流水线模式下日志线程可能正在读取同一个订单
+			OrderInfo rest = book.rest;
+			rest.setUserId(order.getUserId());
+			rest.setOrderId(order.getOrderId());
+			rest.setSymbol(symbol);
+			rest.setSide(takerSide);
+			rest.setType(order.getType());
+			rest.setTif(order.getTif());
+			rest.setPrice(takerPrice);
+			rest.setQty(remainingQty);
+			rest.setTime(order.getTime());
+			return orderBook.submit(rest);
 		} else {
 			// IOC策略
 			matchEventProcess.onOrderCancelled(symbol, order.getOrderId(), remainingQty);
@@ -235,18 +453,156 @@ public final class MatchEngine {
 		}
 	}
 
-	public void cancel(int symbol, long price, long orderId) {
-		BaseOrderBook orderBook = orderBookMap.get(symbol);
-		boolean rlt = orderBook.cancel(price, orderId);
+	public void cancel(int symbol, long orderId) {
+		BaseOrderBook orderBook = orderBookMap.get(symbol).orderBook;
+		boolean rlt = orderBook.cancel(orderId);
 		if (rlt) {
 			matchEventProcess.onOrderCancelled(symbol, orderId, 0);
 		}
 	}
 
-	public String depth() {
-		return orderBookMap.get(SymbolConstant.BTCUSDT.getSymbolId())
-						   .depth();
+	public boolean amend(int symbol, long orderId, long newQty) {
+		BaseOrderBook orderBook = orderBookMap.get(symbol).orderBook;
+		return orderBook.amend(orderId, newQty);
+	}
+
+	/**
+	 * 各交易对挂单存储计数（跨线程读取，允许读到旧值）
+	 */
+	public Map<String, PoolStats> poolStats() {
+		Map<String, PoolStats> rlt = new LinkedHashMap<>();
+		orderBookMap.forEach((symbol, book) -> rlt.put(SymbolConstant.get(symbol)
+																	 .name(), book.orderBook.poolStats()));
+		return rlt;
+	}
+
+	/**
+	 * 单个交易对的已提交事务回放到订单簿；单笔失败（如重复订单号）与在线一致地忽略并计数
+	 */
+	private final class Replay implements WalReplayHandler {
+
+		private final int symbol;
+
+		/**
+		 * 快照已覆盖到的 LSN
+		 */
+		private final long fromLsn;
+
+		private final OrderInfo order = new OrderInfo();
+
+		private long failed;
+
+		private Replay(int symbol, long fromLsn) {
+			this.symbol = symbol;
+			this.fromLsn = fromLsn;
+		}
+
+		@Override
+		public void onOrder(long lsn, long userId, long orderId, int symbol, byte side, byte type, byte tif,
+							long price, long qty, long time) {
+			if (lsn <= fromLsn) {
+				return;
+			}
+			order.setUserId(userId);
+			order.setOrderId(orderId);
+			order.setSymbol(symbol);
+			order.setSide(side);
+			order.setType(type);
+			order.setTif(tif);
+			order.setPrice(price);
+			order.setQty(qty);
+			order.setTime(time);
+			try {
+				submit(order);
+			} catch (RuntimeException e) {
+				failed++;
+			}
+		}
+
+		@Override
+		public void onCancel(long lsn, int symbol, long orderId, long price) {
+			if (lsn > fromLsn) {
+				cancel(symbol, orderId);
+			}
+		}
+
+		@Override
+		public void onAmend(long lsn, int symbol, long orderId, long newQty) {
+			if (lsn <= fromLsn) {
+				return;
+			}
+			try {
+				amend(symbol, orderId, newQty);
+			} catch (RuntimeException e) {
+				failed++;
+			}
+		}
+	}
+
+	public String depth(int symbol) {
+		SymbolBook book = orderBookMap.get(symbol);
+		if (book == null) {
+			throw new IllegalArgumentException("unknown symbol: " + symbol);
+		}
+		return book.orderBook.depth();
 	}
 
+	/**
+	 * 交易对订单簿及其撮合用的复用实例；按交易对持有，并行回放时各交易对的任务互不共享可变状态
+	 */
+	private final class SymbolBook {
+
+		private final BaseOrderBook orderBook;
+
+		/**
+		 * 扫单成交回调的复用实例，扫单前写入 taker
+		 */
+		private final TakerTrades takerTrades = new TakerTrades();
 
+		/**
+		 * 部分成交后剩余挂单的复用实例
+		 */
+		private final OrderInfo rest = new OrderInfo();
+
+		private final SnapshotManage snapshot;
+
+		/**
+		 * 保留中最旧快照的 LSN，尚无带 LSN 的快照时为 -1；仅在 {@link #retained} 内读写
+		 */
+		private long retainedLsn = -1L;
+
+		private SymbolBook(BaseOrderBook orderBook, SnapshotManage snapshot) {
+			this.orderBook = orderBook;
+			this.snapshot = snapshot;
+		}
+	}
+
+	/**
+	 * 为扫单成交补上 taker 信息后发布，并发布 maker 完全成交
+	 */
+	private final class TakerTrades implements TradeSink {
+
+		private int symbol;
+
+		private long takerUserId;
+
+		private long takerOrderId;
+
+		TakerTrades of(OrderInfo taker) {
+			this.symbol = taker.getSymbol();
+			this.takerUserId = taker.getUserId();
+			this.takerOrderId = taker.getOrderId();
+			return this;
+		}
+
+		@Override
+		public void onTrade(MatchTrade trade) {
+			trade.setTakerUserId(takerUserId);
+			trade.setTakerOrderId(takerOrderId);
+			matchEventProcess.onTraded(trade);
+			if (trade.isMakerFilled()) {
+				matchEventProcess.onFilled(symbol, trade.getMakerOrderId());
+			}
+		}
+	}
 }
@@ -0,0 +1,215 @@
+package icu.match.service.match;
+
+import com.lmax.disruptor.RingBuffer;
+
+import org.springframework.stereotype.Component;
+
+import icu.match.common.OrderEventType;
+import icu.match.common.SymbolConstant;
+import icu.match.common.WalMode;
+import icu.match.config.MatchProperties;
+import icu.match.core.BufferedMatchEventProcessor;
+import icu.match.core.SlotMatchEventProcessor;
+import icu.match.core.interfaces.MatchEventProcessor;
+import icu.match.core.model.PoolStats;
+import icu.match.core.wal.MappedWalAppender;
+import icu.match.core.wal.RecordAppender;
+import icu.match.core.wal.WalAppender;
+import icu.match.core.wal.WalWriter;
+import icu.match.service.disruptor.order.OrderEvent;
+import icu.match.service.disruptor.order.OrderEventDisruptorProvider;
+import icu.match.service.disruptor.order.JournalEventHandler;
+import icu.match.service.disruptor.order.MatchingEventHandler;
+import icu.match.service.disruptor.order.OrderEventHandler;
+import icu.match.service.disruptor.order.ReleaseEventHandler;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 撮合分片路由。
+ * <p>交易对按 {@link MatchProperties#shardOf} 划分到 N 个分片，每个分片独占：一个订单 Disruptor、一条（可绑核的）撮合线程、
+ * 一个 OrderEventHandler、一份 WAL 目录与一组订单簿。发布方在入队时按 symbol 选择分片的 RingBuffer，
+ * 不同分片之间无共享可变状态，吞吐随核数扩展。</p>
+ * <p>交易对到分片的布局记录在 WAL 根目录（{@link ShardLayout}），与已记录的不一致时拒绝启动。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@Slf4j
+@Component
+public class MatchShardRouter {
+
+	private final List<Shard> shards = new ArrayList<>();
+
+	/**
+	 * symbolId -> 分片，启动后只读
+	 */
+	private final Map<Integer, Shard> bySymbol = new HashMap<>();
+
+	@Resource
+	private MatchEventProcessor matchEventProcess;
+
+	@Resource
+	private MatchProperties matchProperties;
+
+	@PostConstruct
+	private void init() throws IOException {
+		MatchProperties.Shard conf = matchProperties.getShard();
+		int count = conf.getCount();
+		if (count <= 0) {
+			throw new IllegalArgumentException("match.shard.count must be > 0");
+		}
+		// 各分片只回放自己的 WAL：交易对换分片会丢掉其历史，启动前拒绝
+		Map<String, Integer> layout = new TreeMap<>();
+		for (SymbolConstant symbol : SymbolConstant.values()) {
+			layout.put(symbol.name(), matchProperties.shardOf(symbol));
+		}
+		ShardLayout.verify(Paths.get(conf.getWalDir()), layout);
+		boolean groupCommit = conf.isGroupCommit();
+		boolean async = conf.isAsyncJournal();
+		List<MatchEngine> engines = new ArrayList<>(count);
+		List<BufferedMatchEventProcessor> buffers = new ArrayList<>(count);
+		List<SlotMatchEventProcessor> slots = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			if (async) {
+				// 流水线：撮合事件按队列序号暂存，由发布线程在该序号落盘后转发
+				SlotMatchEventProcessor slot = new SlotMatchEventProcessor(matchEventProcess,
+																		   OrderEventDisruptorProvider.BUFFER_SIZE, 8);
+				slots.add(slot);
+				buffers.add(null);
+				engines.add(new MatchEngine(slot));
+				continue;
+			}
+			// 组提交时撮合事件先暂存，批末落盘后再进入成交队列
+			BufferedMatchEventProcessor buffered = groupCommit
+												   ? new BufferedMatchEventProcessor(matchEventProcess, 1024)
+												   : null;
+			buffers.add(buffered);
+			slots.add(null);
+			engines.add(new MatchEngine(buffered != null ? buffered : matchEventProcess));
+		}
+		for (SymbolConstant symbol : SymbolConstant.values()) {
+			engines.get(matchProperties.shardOf(symbol))
+				   .addBook(symbol, matchProperties.book(symbol));
+		}
+		for (int i = 0; i < count; i++) {
+			MatchEngine engine = engines.get(i);
+			Path walDir = Paths.get(conf.getWalDir(), "shard-" + i);
+			// 先以只读方式恢复订单簿，再打开 WAL 追加
+			engine.recover(walDir, conf.getReplayThreads());
+			engine.setIdleBudgetNanos(conf.getIdleBudgetNanos());
+			RecordAppender appender = conf.getWalMode() == WalMode.MMAP
+									  ? new MappedWalAppender(walDir, conf.getWalSegmentBytes())
+									  : new WalAppender(walDir, conf.getWalSegmentBytes(),
+														groupCommit ? conf.getWalBatchBytes() : 0);
+			WalWriter wal = new WalWriter(appender, groupCommit, conf.getWalFormat());
+			int cpu = i < conf.getCpus()
+							  .size() ? conf.getCpus()
+											.get(i) : -1;
+			OrderEventDisruptorProvider provider;
+			if (async) {
+				SlotMatchEventProcessor slot = slots.get(i);
+				JournalEventHandler journal = new JournalEventHandler(wal, OrderEventDisruptorProvider.BUFFER_SIZE,
+																	  engine);
+				provider = new OrderEventDisruptorProvider(i, new MatchingEventHandler(engine, slot, journal),
+														   journal, new ReleaseEventHandler(slot, journal), cpu);
+			} else {
+				OrderEventHandler handler = new OrderEventHandler(engine, wal, buffers.get(i));
+				provider = new OrderEventDisruptorProvider(i, handler, cpu);
+			}
+			provider.start();
+			RingBuffer<OrderEvent> ringBuffer = provider.ringBuffer();
+			engine.startSnapshots(walDir, conf.isWalTruncate(), conf.getSnapshotRetain(),
+								  () -> publishSnapshot(ringBuffer));
+			Shard shard = new Shard(engine, provider);
+			shards.add(shard);
+			for (SymbolConstant symbol : SymbolConstant.values()) {
+				if (engine.hasBook(symbol.getSymbolId())) {
+					bySymbol.put(symbol.getSymbolId(), shard);
+				}
+			}
+		}
+		log.info("match shards={} groupCommit={} asyncJournal={} walMode={} walFormat={} routes={}", count,
+				 groupCommit, async, conf.getWalMode(), conf.getWalFormat(), bySymbol.keySet());
+	}
+
+	@PreDestroy
+	private void destroy() {
+		for (Shard shard : shards) {
+			shard.provider.shutdown();
+		}
+	}
+
+	/**
+	 * 快照线程向分片订单队列投递一个快照事件，撮合线程按队列顺序在两个订单事件之间处理
+	 */
+	private static void publishSnapshot(RingBuffer<OrderEvent> ringBuffer) {
+		long seq = ringBuffer.next();
+		ringBuffer.get(seq)
+				  .setEventTypeCode(OrderEventType.SNAPSHOT.code);
+		ringBuffer.publish(seq);
+	}
+
+	/**
+	 * 交易对所在分片的订单队列，发布线程调用
+	 */
+	public RingBuffer<OrderEvent> ringBuffer(int symbol) {
+		return shard(symbol).provider.ringBuffer();
+	}
+
+	public boolean supports(int symbol) {
+		return bySymbol.containsKey(symbol);
+	}
+
+	public int shardCount() {
+		return shards.size();
+	}
+
+	public String depth(int symbol) {
+		return shard(symbol).engine.depth(symbol);
+	}
+
+	/**
+	 * 各交易对挂单存储计数（跨线程读取，允许读到旧值）
+	 */
+	public Map<String, PoolStats> poolStats() {
+		Map<String, PoolStats> rlt = new LinkedHashMap<>();
+		for (Shard shard : shards) {
+			rlt.putAll(shard.engine.poolStats());
+		}
+		return rlt;
+	}
+
+	private Shard shard(int symbol) {
+		Shard shard = bySymbol.get(symbol);
+		if (shard == null) {
+			throw new IllegalArgumentException("unknown symbol: " + symbol);
+		}
+		return shard;
+	}
+
+	private static final class Shard {
+
+		private final MatchEngine engine;
+
+		private final OrderEventDisruptorProvider provider;
+
+		private Shard(MatchEngine engine, OrderEventDisruptorProvider provider) {
+			this.engine = engine;
+			this.provider = provider;
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package icu.match.service.match;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 交易对 → 分片布局，记录在 WAL 根目录下的 {@value #FILE}，每行 {@code SYMBOL=分片号}。
+ * <p>分片只回放自己 shard-i 目录下的 WAL，快照里的 LSN 也属于所在分片的 LSN 空间。交易对换了分片（改 match.shard.count
+ * 或 match.books.&lt;SYMBOL&gt;.shard）后，旧分片中的历史会被静默忽略，快照 LSN 还会与新分片的 WAL 混用。
+ * 启动时与已记录的布局比对：已记录的交易对分片变化即拒绝启动；新增交易对追加记录，分片数变化但无交易对迁移时照常启动。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@Slf4j
+final class ShardLayout {
+
+	static final String FILE = "shard.layout";
+
+	private static final String SHARD_DIR_PREFIX = "shard-";
+
+	private ShardLayout() {
+	}
+
+	/**
+	 * 校验当前布局与已记录的一致，并把新增交易对写回
+	 *
+	 * @param walRoot 各分片 WAL 目录的父目录
+	 * @param layout  交易对名称 -> 分片号
+	 * @throws IllegalStateException 已记录的交易对被划到了别的分片，或布局文件损坏
+	 */
+	static void verify(Path walRoot, Map<String, Integer> layout) throws IOException {
+		Path file = walRoot.resolve(FILE);
+		Map<String, Integer> recorded = read(file);
+		Map<String, Integer> merged = new TreeMap<>(layout);
+		if (recorded == null) {
+			if (hasShardDirs(walRoot)) {
+				// 早于布局文件的 WAL：无法校验，以当前配置为准记录下来
+				log.warn("no {} under {}, recording current layout {} without verification", FILE, walRoot,
+						 layout);
+			}
+		} else {
+			List<String> moved = new ArrayList<>();
+			for (Map.Entry<String, Integer> e : layout.entrySet()) {
+				Integer before = recorded.get(e.getKey());
+				if (before != null && !before.equals(e.getValue())) {
+					moved.add(e.getKey() + " shard-" + before + " -> shard-" + e.getValue());
+				}
+			}
+			if (!moved.isEmpty()) {
+				throw new IllegalStateException(
+						"symbol shard layout changed " + moved + ", their WAL history in the old shard would be " +
+						"ignored; restore match.shard.count / match.books.<SYMBOL>.shard or migrate " + walRoot);
+			}
+			if (recorded.entrySet()
+						.containsAll(layout.entrySet())) {
+				return;
+			}
+			// 已不在配置中的交易对保留原记录，重新加回时仍按原分片校验
+			recorded.forEach(merged::putIfAbsent);
+		}
+		write(file, merged);
+	}
+
+	/**
+	 * @return 文件不存在时为 null
+	 */
+	private static Map<String, Integer> read(Path file) throws IOException {
+		if (!Files.exists(file)) {
+			return null;
+		}
+		Map<String, Integer> layout = new TreeMap<>();
+		for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			int eq = line.indexOf('=');
+			try {
+				if (eq <= 0) {
+					throw new NumberFormatException(line);
+				}
+				layout.put(line.substring(0, eq)
+							   .trim(), Integer.parseInt(line.substring(eq + 1)
+															  .trim()));
+			} catch (NumberFormatException e) {
+				throw new IllegalStateException("corrupt shard layout " + file + ": " + line, e);
+			}
+		}
+		return layout;
+	}
+
+	/**
+	 * 经临时文件原子替换
+	 */
+	private static void write(Path file, Map<String, Integer> layout) throws IOException {
+		Files.createDirectories(file.getParent());
+		StringBuilder sb = new StringBuilder("# symbol=shard, checked on startup; do not edit\n");
+		layout.forEach((symbol, shard) -> sb.append(symbol)
+											.append('=')
+											.append(shard)
+											.append('\n'));
+		Path tmp = file.resolveSibling(FILE + ".tmp");
+		Files.write(tmp, sb.toString()
+						   .getBytes(StandardCharsets.UTF_8));
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static boolean hasShardDirs(Path walRoot) throws IOException {
+		if (!Files.isDirectory(walRoot)) {
+			return false;
+		}
+		try (DirectoryStream<Path> dirs = Files.newDirectoryStream(walRoot, SHARD_DIR_PREFIX + "*")) {
+			return dirs.iterator()
+					   .hasNext();
+		}
+	}
+}
@@ -13,6 +13,7 @@ import icu.match.common.OrderStatus;
 import icu.match.core.interfaces.MatchEventProcessor;
 import icu.match.core.model.MatchTrade;
 import icu.match.service.disruptor.match.MatchEvent;
+import icu.match.service.trace.StageTracer;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Resource;
@@ -38,6 +39,7 @@ public class SimpleMatchEventProcess implements MatchEventProcessor {
 		long next = ringBuffer.next();
 		MatchEvent matchEvent = ringBuffer.get(next);
 		BeanUtils.copyProperties(trade, matchEvent.getMatchTrade());
+		matchEvent.setPublishNanos(StageTracer.now());
 		ringBuffer.publish(next);
 	}
 
@@ -80,6 +82,7 @@ public class SimpleMatchEventProcess implements MatchEventProcessor {
 		matchEvent.setSymbol(symbol);
 		matchEvent.setOrderId(orderId);
 		matchEvent.setOrderStatus(status);
+		matchEvent.setPublishNanos(StageTracer.now());
 		ringBuffer.publish(next);
 	}
 
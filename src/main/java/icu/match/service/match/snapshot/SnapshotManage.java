@@ -6,7 +6,6 @@ package icu.match.service.match.snapshot;/**
 
 import org.springframework.stereotype.Component;
 
-import icu.match.core.snapshot.CowPool;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.PostConstruct;
@@ -17,7 +16,7 @@ import javax.annotation.PostConstruct;
  */
 @Slf4j
 @Component
-public class SnapshotManage extends CowPool {
+public class SnapshotManage {
 
 
 	@PostConstruct
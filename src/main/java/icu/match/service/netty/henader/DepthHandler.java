@@ -8,7 +8,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.socket.WebSocketHandler;
 import org.springframework.web.reactive.socket.WebSocketSession;
 
-import icu.match.service.match.MatchEngine;
+import icu.match.common.SymbolConstant;
+import icu.match.service.match.MatchShardRouter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
@@ -27,14 +28,14 @@ import java.time.Duration;
 public class DepthHandler implements WebSocketHandler {
 
 	@Resource
-	private MatchEngine matchEngine;
+	private MatchShardRouter shardRouter;
 
 	@Override
 	@NonNull
 	public Mono<Void> handle(WebSocketSession session) {
 		// 每秒推送一次当前时间
 		Flux<String> timeFlux = Flux.interval(Duration.ofSeconds(1))
-									.map(e -> matchEngine.depth());
+									.map(e -> shardRouter.depth(SymbolConstant.BTCUSDT.getSymbolId()));
 		return session.send(timeFlux.map(session::textMessage));
 	}
 }
@@ -0,0 +1,20 @@
+package icu.match.service.trace;
+
+/**
+ * 分段耗时采集点。实现方需自行保证线程安全：不同分段由 netty / 撮合 / 落库线程分别回调。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public interface StageProbe {
+
+	StageProbe NOOP = (stage, orderId, startNanos, endNanos) -> {};
+
+	/**
+	 * @param stage      分段
+	 * @param orderId    关联订单（成交事件为 taker 订单）
+	 * @param startNanos 分段起点 System.nanoTime
+	 * @param endNanos   分段终点 System.nanoTime
+	 */
+	void record(TraceStage stage, long orderId, long startNanos, long endNanos);
+}
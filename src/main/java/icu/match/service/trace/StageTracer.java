@@ -0,0 +1,50 @@
+package icu.match.service.trace;
+
+/**
+ * 全链路分段计时入口。
+ * <p>默认未安装采集点，{@link #enabled} 为 false，热路径上仅多一次 volatile 读，不调用 System.nanoTime。
+ * 压测工具通过 {@link #install(StageProbe)} 挂上采集点后开始记录。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public final class StageTracer {
+
+	private static volatile StageProbe probe = StageProbe.NOOP;
+
+	private static volatile boolean enabled = false;
+
+	private StageTracer() {}
+
+	public static void install(StageProbe p) {
+		probe = p == null
+				? StageProbe.NOOP
+				: p;
+		enabled = p != null;
+	}
+
+	public static boolean enabled() {
+		return enabled;
+	}
+
+	/**
+	 * 未启用时返回 0，调用方据此跳过 record
+	 */
+	public static long now() {
+		return enabled
+			   ? System.nanoTime()
+			   : 0L;
+	}
+
+	/**
+	 * 记录 [startNanos, now) 为一个分段，返回 now 作为下一段起点
+	 */
+	public static long mark(TraceStage stage, long orderId, long startNanos) {
+		if (!enabled || startNanos == 0L) {
+			return 0L;
+		}
+		long now = System.nanoTime();
+		probe.record(stage, orderId, startNanos, now);
+		return now;
+	}
+}
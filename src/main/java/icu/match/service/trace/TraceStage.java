@@ -0,0 +1,18 @@
+package icu.match.service.trace;
+
+/**
+ * 下单链路的分段。每段耗时 = 段终点时间戳 - 段起点时间戳（System.nanoTime）。
+ *
+ * <pre>
+ * 字节流解码 ─PERSIST→ origin_order 落库 ─ORDER_QUEUE→ 撮合线程取到事件
+ *   ─WAL_LOG→ BEGIN+ORDER 写入 ─MATCH→ MatchEngine.submit 返回 ─WAL_COMMIT→ COMMIT 落盘
+ * 撮合事件发布 ─TRADE_QUEUE→ MatchEventHandler 取到事件 ─TRADE_PERSIST→ 成交/状态落库
+ * </pre>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public enum TraceStage {
+
+	PERSIST, ORDER_QUEUE, WAL_LOG, MATCH, WAL_COMMIT, TRADE_QUEUE, TRADE_PERSIST
+}
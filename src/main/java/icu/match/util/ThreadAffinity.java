@@ -0,0 +1,53 @@
+package icu.match.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程绑核（尽力而为）。
+ * <p>JDK 无亲和性 API，这里不引入 JNI：在 Linux 上通过 /proc/thread-self 取得当前线程的内核 tid，
+ * 再调用 taskset 设置亲和性。非 Linux、无 taskset 或权限不足时仅打印告警，线程照常运行。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@Slf4j
+public final class ThreadAffinity {
+
+	private ThreadAffinity() {
+	}
+
+	/**
+	 * 将调用线程绑定到指定 CPU
+	 *
+	 * @return 是否绑定成功
+	 */
+	public static boolean pinCurrentThread(int cpu) {
+		if (cpu < 0) {
+			throw new IllegalArgumentException("cpu must be >= 0");
+		}
+		String name = Thread.currentThread()
+							.getName();
+		try {
+			// 形如 {pid}/task/{tid}
+			Path self = Files.readSymbolicLink(Paths.get("/proc/thread-self"));
+			String tid = self.getFileName()
+							 .toString();
+			Process p = new ProcessBuilder("taskset", "-p", "-c", String.valueOf(cpu), tid).redirectErrorStream(true)
+																						   .start();
+			if (p.waitFor(5, TimeUnit.SECONDS) && p.exitValue() == 0) {
+				log.info("thread {} (tid {}) pinned to cpu {}", name, tid, cpu);
+				return true;
+			}
+			p.destroy();
+			log.warn("pin thread {} to cpu {} failed: taskset exit", name, cpu);
+		} catch (Exception e) {
+			log.warn("pin thread {} to cpu {} unsupported: {}", name, cpu, e.toString());
+		}
+		return false;
+	}
+}
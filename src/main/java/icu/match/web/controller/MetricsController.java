@@ -0,0 +1,37 @@
+package icu.match.web.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import icu.match.common.CallResult;
+import icu.match.core.model.PoolStats;
+import icu.match.service.match.MatchShardRouter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Resource;
+
+import java.util.Map;
+
+/**
+ * 运行指标
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@RestController
+@RequestMapping("/api/metrics")
+@Tag(name = "运行指标", description = "撮合引擎内部计数")
+public class MetricsController {
+
+	@Resource
+	private MatchShardRouter shardRouter;
+
+	@GetMapping("/pool")
+	@Operation(summary = "挂单存储计数", description = "各交易对节点池/slab 的 inUse、peak、overflow、chunk 数")
+	public Mono<CallResult<Map<String, PoolStats>>> pool() {
+		return Mono.fromSupplier(() -> CallResult.suc(shardRouter.poolStats()));
+	}
+}
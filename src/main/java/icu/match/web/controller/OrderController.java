@@ -42,11 +42,17 @@ public class OrderController {
 	}
 
 	@PostMapping("/cancel")
-	@Operation(summary = "撤单", description = "撤单 基于symbol orderId price")
+	@Operation(summary = "撤单", description = "撤单 基于symbol orderId")
 	public Mono<Void> cancel(@RequestBody Mono<OriginOrder> orderMono) {
 		return orderMono.flatMap(order -> orderService.cancel(order));
 	}
 
+	@PostMapping("/amend")
+	@Operation(summary = "改单", description = "修改剩余数量 基于symbol orderId qty；减量保留优先级，增量排到队尾")
+	public Mono<Void> amend(@RequestBody Mono<OriginOrder> orderMono) {
+		return orderMono.flatMap(order -> orderService.amend(order));
+	}
+
 
 	@GetMapping("/trades")
 	@Operation(summary = "成交列表", description = "撮合成交列表")
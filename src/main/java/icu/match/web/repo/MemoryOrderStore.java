@@ -0,0 +1,49 @@
+package icu.match.web.repo;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import icu.match.core.model.MatchTrade;
+import lombok.Getter;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内存桩：不落库，仅计数。用于压测工具离线运行全链路，或在无 MySQL 环境下调试撮合。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@Component
+@ConditionalOnProperty(prefix = "match.store", name = "type", havingValue = "memory")
+public class MemoryOrderStore implements OrderStore {
+
+	@Getter
+	private final AtomicLong originCount = new AtomicLong();
+
+	@Getter
+	private final AtomicLong statusCount = new AtomicLong();
+
+	@Getter
+	private final AtomicLong tradeCount = new AtomicLong();
+
+	@Override
+	public Mono<Integer> insertOrigin(long orderId, long userId, int symbol, byte side, byte tif, byte type,
+									  long price, long qty) {
+		originCount.incrementAndGet();
+		return Mono.just(1);
+	}
+
+	@Override
+	public Mono<Integer> updateStatus(int symbol, long orderId, int status) {
+		statusCount.incrementAndGet();
+		return Mono.just(1);
+	}
+
+	@Override
+	public Mono<MatchTrade> saveTrade(MatchTrade trade) {
+		tradeCount.incrementAndGet();
+		return Mono.just(trade);
+	}
+}
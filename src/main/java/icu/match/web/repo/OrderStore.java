@@ -0,0 +1,30 @@
+package icu.match.web.repo;
+
+import icu.match.core.model.MatchTrade;
+import reactor.core.publisher.Mono;
+
+/**
+ * 下单链路上的持久化出口：原始订单入库、订单状态变更、成交入库。
+ * <p>默认实现基于 R2DBC（MySQL）；{@code match.store.type=memory} 时切换为内存桩，便于离线压测与调试。</p>
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+public interface OrderStore {
+
+	/**
+	 * 写入 origin_order（幂等：order_id PK）
+	 */
+	Mono<Integer> insertOrigin(long orderId, long userId, int symbol, byte side, byte tif, byte type, long price,
+							   long qty);
+
+	/**
+	 * 更新订单状态
+	 */
+	Mono<Integer> updateStatus(int symbol, long orderId, int status);
+
+	/**
+	 * 成交记录入库
+	 */
+	Mono<MatchTrade> saveTrade(MatchTrade trade);
+}
@@ -0,0 +1,68 @@
+package icu.match.web.repo;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import icu.match.core.model.MatchTrade;
+import icu.match.web.model.OriginOrder;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Resource;
+
+/**
+ * 基于 R2DBC 的持久化实现（默认）。
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+@Component
+@ConditionalOnProperty(prefix = "match.store", name = "type", havingValue = "r2dbc", matchIfMissing = true)
+public class R2dbcOrderStore implements OrderStore {
+
+	private static final String INSERT_ORIGIN_SQL =
+			"INSERT INTO origin_order (order_id,user_id,symbol,side,tif,type,price,orig_qty) " +
+			"VALUES (:orderId,:userId,:symbol,:side,:tif,:type,:price,:orig_qty)";
+
+	@Resource
+	private DatabaseClient db;
+
+	@Resource
+	private R2dbcEntityTemplate template;
+
+	@Override
+	public Mono<Integer> insertOrigin(long orderId, long userId, int symbol, byte side, byte tif, byte type,
+									  long price, long qty) {
+		return db.sql(INSERT_ORIGIN_SQL)
+				 .bind("orderId", orderId)
+				 .bind("userId", userId)
+				 .bind("symbol", symbol)
+				 .bind("side", side)
+				 .bind("tif", tif)
+				 .bind("type", type)
+				 .bind("price", price)
+				 .bind("orig_qty", qty)
+				 .fetch()
+				 .rowsUpdated();
+	}
+
+	@Override
+	public Mono<Integer> updateStatus(int symbol, long orderId, int status) {
+		return template.update(OriginOrder.class)
+					   .matching(Query.query(Criteria.where("order_id")
+													 .is(orderId)
+													 .and("symbol")
+													 .is(symbol)))
+					   .apply(Update.update("status", status));
+	}
+
+	@Override
+	public Mono<MatchTrade> saveTrade(MatchTrade trade) {
+		return template.insert(MatchTrade.class)
+					   .using(trade);
+	}
+}
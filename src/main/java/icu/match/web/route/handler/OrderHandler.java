@@ -10,7 +10,6 @@ import org.springframework.core.codec.DecodingException;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.NettyDataBufferFactory;
 import org.springframework.http.MediaType;
-import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.BodyExtractors;
 import org.springframework.web.reactive.function.server.ServerRequest;
@@ -19,6 +18,10 @@ import org.springframework.web.reactive.function.server.ServerResponse;
 import icu.match.common.OrderEventType;
 import icu.match.core.model.OrderInfo;
 import icu.match.service.disruptor.order.OrderEvent;
+import icu.match.service.match.MatchShardRouter;
+import icu.match.service.trace.StageTracer;
+import icu.match.service.trace.TraceStage;
+import icu.match.web.repo.OrderStore;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.util.ReferenceCountUtil;
@@ -41,10 +44,10 @@ public class OrderHandler {
 	private static final int DATA_LEN = 39;
 
 	@Resource
-	private DatabaseClient db;
+	private OrderStore orderStore;
 
 	@Resource
-	private RingBuffer<OrderEvent> ringBuffer;
+	private MatchShardRouter shardRouter;
 
 
 	public Mono<ServerResponse> placeOrder(ServerRequest req) {
@@ -93,28 +96,20 @@ public class OrderHandler {
 												 byte type = pooled.readByte();
 												 long price = pooled.readLongLE();
 												 long qty = pooled.readLongLE();
+												 if (!shardRouter.supports(symbol)) {
+													 return Mono.error(new DecodingException("bad_req"));
+												 }
 
 												 // 同步持久化：写入 origin order 表（幂等：order_id PK）
-												 String sql = String.format(
-														 "INSERT INTO origin_order  " + "(order_id,user_id,symbol," +
-														 "side,tif,type," + "price,orig_qty)%n" +
-														 "VALUES (:orderId,:userId,:symbol," + ":side," + ":tif," +
-														 ":type," +
-														 ":price," + ":orig_qty)");
-												 Mono<Integer> insert = db.sql(sql)
-																		  .bind("orderId", orderId)
-																		  .bind("userId", userId)
-																		  .bind("symbol", symbol)
-																		  .bind("side", side)
-																		  .bind("tif", tif)
-																		  .bind("type", type)
-																		  .bind("price", price)
-																		  .bind("orig_qty", qty)
-																		  .fetch()
-																		  .rowsUpdated();
+												 final long decodedAt = StageTracer.now();
+												 Mono<Integer> insert = orderStore.insertOrigin(orderId, userId,
+																								symbol, side, tif,
+																								type, price, qty);
 												 return insert.flatMap(n -> {
+													 long persistedAt = StageTracer.mark(TraceStage.PERSIST,
+																						 orderId, decodedAt);
 													 this.publish(symbol, userId, orderId, side, type, tif, price,
-																  qty);
+																  qty, persistedAt);
 													 // todo 如需同步返回 需注册钩子
 													 return ServerResponse.status(202)
 																		  .contentType(MediaType.APPLICATION_JSON)
@@ -129,13 +124,17 @@ public class OrderHandler {
 																										   "bad_req")));
 	}
 
-	private void publish(int symbol, long userId, long orderId, byte side, byte type, byte tif, long price, long qty) {
+	private void publish(int symbol, long userId, long orderId, byte side, byte type, byte tif, long price, long qty,
+						 long publishNanos) {
 		log.info("publish orderId :{}", orderId);
 
+		// 按 symbol 路由到所属撮合分片
+		RingBuffer<OrderEvent> ringBuffer = shardRouter.ringBuffer(symbol);
 		long seq = ringBuffer.next();
 		OrderEvent event = ringBuffer.get(seq);
 
 		event.setEventTypeCode(OrderEventType.NEW_ORDER.code);
+		event.setPublishNanos(publishNanos);
 
 		OrderInfo orderInfo = event.getOrderInfo();
 		orderInfo.setOrderId(orderId);
@@ -145,7 +144,7 @@ public class OrderHandler {
 		orderInfo.setTif(tif);
 		orderInfo.setPrice(price);
 		orderInfo.setQty(qty);
-		orderInfo.setSymbol(1001);
+		orderInfo.setSymbol(symbol);
 		ringBuffer.publish(seq);
 	}
 }
@@ -9,6 +9,8 @@ import icu.match.common.OrderEventType;
 import icu.match.core.model.OrderInfo;
 import icu.match.service.disruptor.order.OrderEvent;
 import icu.match.service.global.MonoSinkManage;
+import icu.match.service.match.MatchShardRouter;
+import icu.match.service.trace.StageTracer;
 import icu.match.web.model.OrderResult;
 import icu.match.web.model.OriginOrder;
 import icu.match.web.repo.OrderRepository;
@@ -30,10 +32,13 @@ public class OrderService {
 	private OrderRepository orderRepository;
 
 	@Resource
-	private RingBuffer<OrderEvent> ringBuffer;
+	private MatchShardRouter shardRouter;
 
 	public Mono<OrderResult> submit(OriginOrder originOrder) {
 		log.info("received orderId :{}", originOrder.getOrderId());
+		if (!shardRouter.supports(originOrder.getSymbol())) {
+			return Mono.error(new IllegalArgumentException("unknown symbol: " + originOrder.getSymbol()));
+		}
 
 		return orderRepository.save(originOrder)
 							  .flatMap(savedOrder -> Mono.<OrderResult>create(sink -> {
@@ -53,10 +58,13 @@ public class OrderService {
 	private void publish(byte eventTypeCode, OriginOrder originOrder) {
 		log.info("publish orderId :{}", originOrder.getOrderId());
 
+		// 按 symbol 路由到所属撮合分片
+		RingBuffer<OrderEvent> ringBuffer = shardRouter.ringBuffer(originOrder.getSymbol());
 		long seq = ringBuffer.next();
 		OrderEvent event = ringBuffer.get(seq);
 
 		event.setEventTypeCode(eventTypeCode);
+		event.setPublishNanos(StageTracer.now());
 		OrderInfo orderInfo = event.getOrderInfo();
 		BeanUtils.copyProperties(originOrder, orderInfo);
 		orderInfo.setSymbol(originOrder.getSymbol());
@@ -67,8 +75,22 @@ public class OrderService {
 	}
 
 	public Mono<Void> cancel(OriginOrder order) {
+		if (!shardRouter.supports(order.getSymbol())) {
+			return Mono.error(new IllegalArgumentException("unknown symbol: " + order.getSymbol()));
+		}
 		this.publish(OrderEventType.CANCEL_ORDER.code, order);
 		return Mono.empty();
 	}
 
+	public Mono<Void> amend(OriginOrder order) {
+		if (order.getQty() <= 0) {
+			return Mono.error(new IllegalArgumentException("qty must be greater than 0"));
+		}
+		if (!shardRouter.supports(order.getSymbol())) {
+			return Mono.error(new IllegalArgumentException("unknown symbol: " + order.getSymbol()));
+		}
+		this.publish(OrderEventType.MODIFY_ORDER.code, order);
+		return Mono.empty();
+	}
+
 }
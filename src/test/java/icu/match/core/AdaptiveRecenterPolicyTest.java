@@ -0,0 +1,47 @@
+package icu.match.core;
+
+import org.junit.jupiter.api.Test;
+
+import icu.match.core.model.RecenterSignals;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class AdaptiveRecenterPolicyTest {
+
+	private final AdaptiveRecenterPolicy policy = new AdaptiveRecenterPolicy(1, 32, 2.0, 8, 4);
+
+	@Test
+	void centeredQuietWindowStays() {
+		assertEquals(0, policy.plan(signals(50, 0, 0, 0), true));
+		assertEquals(0, policy.plan(signals(50, 0, 3, 3), true));
+	}
+
+	@Test
+	void velocityAndEdgePressureLeadTheTrend() {
+		// 上行：速度 3.6 → 提前 7 步，上沿 9 笔 → 再 2 步
+		assertEquals(9, policy.plan(signals(50, 3.6, 0, 9), true));
+		// 下行且窗口偏左：偏离 2 步，速度封顶 8 步，下沿压力 1 步
+		assertEquals(-11, policy.plan(signals(25, -10, 4, 0), true));
+	}
+
+	@Test
+	void matchPathIsCappedAndIdleTakesTheRest() {
+		RecenterSignals s = signals(0, -3.6, 8, 0);
+		assertEquals(-1, policy.plan(s, false));
+		assertEquals(-5 - 7 - 2, policy.plan(s, true));
+		assertEquals(-32, new AdaptiveRecenterPolicy(1, 32, 2.0, 64, 4).plan(signals(0, -50, 0, 0), true));
+	}
+
+	private static RecenterSignals signals(double slope, double velocity, int nearLow, int nearHigh) {
+		RecenterSignals s = new RecenterSignals();
+		s.setSlopeRate(slope);
+		s.setVelocity(velocity);
+		s.setColdNearLow(nearLow);
+		s.setColdNearHigh(nearHigh);
+		return s;
+	}
+}
@@ -0,0 +1,79 @@
+package icu.match.core;
+
+import org.junit.jupiter.api.Test;
+
+import icu.match.core.interfaces.MatchEventProcessor;
+import icu.match.core.model.MatchTrade;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class BufferedMatchEventProcessorTest {
+
+	@Test
+	void holdUntilFlushAndKeepOrder() {
+		Recorder rec = new Recorder();
+		BufferedMatchEventProcessor buf = new BufferedMatchEventProcessor(rec, 1);
+
+		MatchTrade trade = new MatchTrade();
+		trade.fill(1001, 1, 2, 10, 20, (byte) 0, 105, true, 3);
+		buf.onTraded(trade);
+		buf.onFilled(1001, 20);
+		// 撮合簿复用成交对象，暂存的必须是副本
+		trade.setQty(99);
+		buf.onOrderCancelled(1001, 11, 2);
+		buf.onOrderRejected(1002, 12);
+
+		assertTrue(rec.events.isEmpty());
+		assertEquals(4, buf.size());
+
+		assertEquals(4, buf.flush());
+		assertEquals(List.of("trade:10/20@105x3", "filled:1001/20", "cancelled:1001/11/2", "rejected:1002/12"),
+					 rec.events);
+		assertEquals(0, buf.size());
+
+		// 复用
+		buf.onFilled(1001, 30);
+		assertEquals(1, buf.flush());
+		assertEquals("filled:1001/30", rec.events.get(4));
+	}
+
+	@Test
+	void rejectBadArgs() {
+		assertThrows(IllegalArgumentException.class, () -> new BufferedMatchEventProcessor(null, 1));
+		assertThrows(IllegalArgumentException.class, () -> new BufferedMatchEventProcessor(new Recorder(), 0));
+	}
+
+	private static final class Recorder implements MatchEventProcessor {
+
+		private final List<String> events = new ArrayList<>();
+
+		@Override
+		public void onTraded(MatchTrade t) {
+			events.add("trade:" + t.getTakerOrderId() + "/" + t.getMakerOrderId() + "@" + t.getPrice() + "x" + t.getQty());
+		}
+
+		@Override
+		public void onFilled(int symbol, long orderId) {
+			events.add("filled:" + symbol + "/" + orderId);
+		}
+
+		@Override
+		public void onOrderCancelled(int symbol, long orderId, long qty) {
+			events.add("cancelled:" + symbol + "/" + orderId + "/" + qty);
+		}
+
+		@Override
+		public void onOrderRejected(int symbol, long orderId) {
+			events.add("rejected:" + symbol + "/" + orderId);
+		}
+	}
+}
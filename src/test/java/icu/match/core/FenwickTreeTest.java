@@ -0,0 +1,37 @@
+package icu.match.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class FenwickTreeTest {
+
+	@Test
+	void rangeSumsMatchPlainArray() {
+		int n = 64;
+		FenwickTree tree = new FenwickTree(n);
+		long[] plain = new long[n];
+		Random rnd = new Random(7);
+		for (int k = 0; k < 500; k++) {
+			int i = rnd.nextInt(n);
+			long delta = rnd.nextInt(100) - 40;
+			tree.add(i, delta);
+			plain[i] += delta;
+
+			int from = rnd.nextInt(n);
+			int to = from + rnd.nextInt(n - from);
+			long expected = 0;
+			for (int j = from; j <= to; j++) {
+				expected += plain[j];
+			}
+			assertEquals(expected, tree.range(from, to));
+		}
+		assertEquals(0, tree.prefix(-1));
+	}
+}
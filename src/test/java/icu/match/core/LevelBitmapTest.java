@@ -0,0 +1,64 @@
+package icu.match.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class LevelBitmapTest {
+
+	@Test
+	void nextAndPrevAcrossWordsAndSummary() {
+		LevelBitmap bits = new LevelBitmap(16384);
+		bits.set(3);
+		bits.set(64);
+		bits.set(5000);
+		bits.set(16383);
+
+		assertEquals(3, bits.next(0, 16383));
+		assertEquals(64, bits.next(4, 16383));
+		assertEquals(5000, bits.next(65, 16383));
+		assertEquals(16383, bits.next(5001, 16383));
+		assertEquals(-1, bits.next(65, 4999));
+
+		assertEquals(16383, bits.prev(16383, 0));
+		assertEquals(5000, bits.prev(16382, 0));
+		assertEquals(64, bits.prev(4999, 0));
+		assertEquals(3, bits.prev(63, 0));
+		assertEquals(-1, bits.prev(4999, 65));
+	}
+
+	@Test
+	void clearDropsEmptyWordFromSummary() {
+		LevelBitmap bits = new LevelBitmap(4096);
+		bits.set(100);
+		bits.set(101);
+		bits.set(4000);
+
+		bits.clear(100);
+		assertTrue(bits.get(101));
+		assertEquals(101, bits.next(0, 4095));
+
+		bits.clear(101);
+		assertFalse(bits.get(101));
+		assertEquals(4000, bits.next(0, 4095));
+		assertEquals(-1, bits.prev(3999, 0));
+
+		bits.clear(4000);
+		assertEquals(-1, bits.next(0, 4095));
+	}
+
+	@Test
+	void smallerThanOneWord() {
+		LevelBitmap bits = new LevelBitmap(8);
+		bits.set(7);
+		assertEquals(7, bits.next(0, 7));
+		assertEquals(7, bits.prev(7, 0));
+		assertEquals(-1, bits.prev(6, 0));
+	}
+}
@@ -0,0 +1,40 @@
+package icu.match.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class LongColumnTest {
+
+	@Test
+	void growsAndComparesAsList() {
+		LongColumn col = new LongColumn(1);
+		for (long v = 0; v < 100; v++) {
+			col.addLong(v * 3);
+		}
+		assertEquals(100, col.size());
+		assertEquals(297L, col.getLong(99));
+		assertEquals(List.of(0L, 3L), col.subList(0, 2));
+
+		col.clear();
+		assertTrue(col.isEmpty());
+		col.add(7L);
+		assertEquals(List.of(7L), col);
+	}
+
+	@Test
+	void readBeyondSizeFails() {
+		LongColumn col = new LongColumn();
+		col.addLong(1);
+		col.clear();
+		assertThrows(IndexOutOfBoundsException.class, () -> col.getLong(0));
+	}
+}
@@ -0,0 +1,58 @@
+package icu.match.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class LongIntMapTest {
+
+	@Test
+	void putGetRemove() {
+		LongIntMap m = new LongIntMap();
+		assertEquals(LongIntMap.MISSING, m.put(5L, 0));
+		assertEquals(0, m.put(5L, 7));
+		assertEquals(7, m.get(5L));
+		assertEquals(LongIntMap.MISSING, m.get(6L));
+		assertEquals(7, m.remove(5L));
+		assertEquals(LongIntMap.MISSING, m.remove(5L));
+		assertEquals(0, m.size());
+		assertThrows(IllegalArgumentException.class, () -> m.put(1L, -1));
+	}
+
+	/**
+	 * 与 HashMap 对拍随机操作序列
+	 */
+	@Test
+	void randomOpsMatchHashMap() {
+		Random rnd = new Random(11);
+		LongIntMap m = new LongIntMap();
+		Map<Long, Integer> ref = new HashMap<>();
+		for (int i = 0; i < 200_000; i++) {
+			long k = rnd.nextInt(4096) - 2048L;
+			int op = rnd.nextInt(3);
+			if (op == 0) {
+				Integer old = ref.put(k, i);
+				assertEquals(old == null
+							 ? LongIntMap.MISSING
+							 : old, m.put(k, i));
+			} else if (op == 1) {
+				Integer old = ref.remove(k);
+				assertEquals(old == null
+							 ? LongIntMap.MISSING
+							 : old, m.remove(k));
+			} else {
+				assertEquals((int) ref.getOrDefault(k, LongIntMap.MISSING), m.get(k));
+			}
+			assertEquals(ref.size(), m.size());
+		}
+	}
+}
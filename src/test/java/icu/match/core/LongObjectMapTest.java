@@ -0,0 +1,99 @@
+package icu.match.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class LongObjectMapTest {
+
+	@Test
+	void putGetRemove() {
+		LongObjectMap<String> m = new LongObjectMap<>();
+		assertTrue(m.isEmpty());
+		assertNull(m.put(1L, "a"));
+		assertNull(m.put(0L, "zero"));
+		assertNull(m.put(-7L, "neg"));
+		assertEquals("a", m.put(1L, "a2"));
+
+		assertEquals(3, m.size());
+		assertEquals("a2", m.get(1L));
+		assertEquals("zero", m.get(0L));
+		assertEquals("neg", m.get(-7L));
+		assertNull(m.get(2L));
+
+		assertEquals("zero", m.remove(0L));
+		assertNull(m.remove(0L));
+		assertFalse(m.containsKey(0L));
+		assertEquals(2, m.size());
+
+		m.clear();
+		assertTrue(m.isEmpty());
+		assertNull(m.get(1L));
+	}
+
+	@Test
+	void rejectNullValue() {
+		LongObjectMap<String> m = new LongObjectMap<>();
+		assertThrows(IllegalArgumentException.class, () -> m.put(1L, null));
+		assertThrows(IllegalArgumentException.class, () -> new LongObjectMap<String>(-1));
+	}
+
+	/**
+	 * 顺序 orderId + 删除回移：删除探测链中间元素后，链上后继仍可命中
+	 */
+	@Test
+	void removeKeepsProbeChain() {
+		LongObjectMap<Long> m = new LongObjectMap<>(4);
+		for (long k = 1; k <= 1000; k++) {
+			m.put(k, k);
+		}
+		for (long k = 1; k <= 1000; k += 2) {
+			assertEquals(k, m.remove(k));
+		}
+		assertEquals(500, m.size());
+		for (long k = 1; k <= 1000; k++) {
+			if ((k & 1) == 0) {
+				assertEquals(k, m.get(k));
+			} else {
+				assertNull(m.get(k));
+			}
+		}
+	}
+
+	/**
+	 * 与 HashMap 对拍随机操作序列
+	 */
+	@Test
+	void randomOpsMatchHashMap() {
+		Random rnd = new Random(7);
+		LongObjectMap<Long> m = new LongObjectMap<>();
+		Map<Long, Long> ref = new HashMap<>();
+		for (int i = 0; i < 200_000; i++) {
+			long k = rnd.nextInt(4096) - 2048L;
+			int op = rnd.nextInt(3);
+			if (op == 0) {
+				assertEquals(ref.put(k, (long) i), m.put(k, (long) i));
+			} else if (op == 1) {
+				assertEquals(ref.remove(k), m.remove(k));
+			} else {
+				assertEquals(ref.get(k), m.get(k));
+			}
+			assertEquals(ref.size(), m.size());
+		}
+		for (Map.Entry<Long, Long> e : ref.entrySet()) {
+			assertEquals(e.getValue(), m.get(e.getKey()));
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package icu.match.core;
+
+import org.junit.jupiter.api.Test;
+
+import icu.match.core.model.PoolStats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class OrderNodePoolChunkedTest {
+
+	@Test
+	void growByChunkWithoutOverflow() {
+		OrderNodePoolChunked pool = new OrderNodePoolChunked(4, 1, 0, 0);
+		assertEquals(1, pool.getChunks());
+		assertEquals(4, pool.getFreeCount());
+
+		List<OrderNode> nodes = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			nodes.add(pool.alloc(i, i, false, 1));
+		}
+		// 10 个节点需要 3 块，全部来自池
+		assertEquals(3, pool.getChunks());
+		assertEquals(10, pool.getInUsePooled());
+		assertEquals(0, pool.getOverflowAlloc());
+		assertTrue(nodes.get(9).pooled);
+
+		for (OrderNode n : nodes) {
+			pool.free(n);
+		}
+		assertEquals(0, pool.getInUsePooled());
+		assertEquals(12, pool.getFreeCount());
+		assertEquals(10, pool.getPeakInUse());
+
+		// 复用，不再扩容
+		pool.alloc(100, 1, true, 1);
+		assertEquals(3, pool.getChunks());
+	}
+
+	@Test
+	void overflowBeyondMaxChunks() {
+		OrderNodePoolChunked pool = new OrderNodePoolChunked(2, 1, 2, 0);
+		for (int i = 0; i < 4; i++) {
+			pool.alloc(i, i, false, 1);
+		}
+		OrderNode overflow = pool.alloc(5, 5, false, 1);
+		assertFalse(overflow.pooled);
+		assertEquals(2, pool.getChunks());
+		assertEquals(1, pool.getOverflowAlloc());
+
+		pool.free(overflow);
+		assertEquals(1, pool.getReleasedOverflowCount());
+		PoolStats stats = pool.stats();
+		assertEquals(4, stats.getInUse());
+		assertEquals(5, stats.getPeakInUse());
+		assertEquals(4, stats.getCapacity());
+	}
+
+	@Test
+	void trimKeepsOneSpareChunkAndMinChunks() {
+		OrderNodePoolChunked pool = new OrderNodePoolChunked(4, 2, 0, 0);
+		List<OrderNode> nodes = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			nodes.add(pool.alloc(i, i, false, 1));
+		}
+		assertEquals(5, pool.getChunks());
+		// 保留 3 个在用
+		for (int i = 3; i < 20; i++) {
+			pool.free(nodes.get(i));
+		}
+		assertEquals(17, pool.getFreeCount());
+		// 空闲 17 个 → 释放到空闲 < 2 块：17 -> 13 -> 9 -> 5
+		assertEquals(3, pool.trim());
+		assertEquals(2, pool.getChunks());
+		assertEquals(5, pool.getFreeCount());
+		assertEquals(0, pool.trim());
+		assertEquals(3, pool.getShrinkCount());
+	}
+
+	@Test
+	void rejectDoubleFreeAndBadArgs() {
+		OrderNodePoolChunked pool = new OrderNodePoolChunked(2, 1, 0, 0);
+		OrderNode n = pool.alloc(1, 1, false, 1);
+		pool.free(n);
+		assertThrows(IllegalStateException.class, () -> pool.free(n));
+		assertThrows(IllegalArgumentException.class, () -> new OrderNodePoolChunked(0, 1, 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> new OrderNodePoolChunked(4, 3, 2, 0));
+	}
+}
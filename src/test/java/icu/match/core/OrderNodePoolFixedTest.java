@@ -35,7 +35,7 @@ public class OrderNodePoolFixedTest {
 		assertThrows(IllegalStateException.class, () -> pool.free(n3));
 
 		// 正确摘链再 free
-		q.remove(n2.orderId);
+		q.remove(n2);
 		pool.free(n2);
 		pool.free(n1);
 		pool.free(n3); // 溢出对象，丢 GC
@@ -47,11 +47,11 @@ class OrderQueueTest {
 		assertEquals(a, q.peek());
 
 		// patch
-		assertTrue(q.patchQty(102, 25));
+		assertTrue(q.patchQty(b, 25));
 		assertEquals(65, q.getTotalQty());
 
 		// remove middle
-		OrderNode rb = q.remove(102);
+		OrderNode rb = q.remove(b);
 		assertNotNull(rb);
 		assertEquals(2, q.getSize());
 		assertEquals(40, q.getTotalQty());
@@ -77,16 +77,15 @@ class OrderQueueTest {
 	}
 
 	@Test
-	void duplicateOrderIdShouldFail() {
+	void pushSameNodeTwiceShouldFail() {
 		OrderQueue q = new OrderQueue();
 		OrderNode a = pool.alloc(1, 1, false, 10);
-		OrderNode b = pool.alloc(1, 2, false, 20); // 重复ID
 		q.push(a);
-		assertThrows(IllegalStateException.class, () -> q.push(b));
+		// 单节点队列：prev/next 均为空，仍应识别为已链接
+		assertThrows(IllegalStateException.class, () -> q.push(a));
 		// 回收
-		q.remove(1);
+		q.remove(a);
 		pool.free(a);
-		pool.free(b);
 	}
 
 
@@ -111,12 +110,12 @@ class OrderQueueTest {
 
 
 		// patch b: 20 -> 25
-		assertTrue(q.patchQty(102, 25));
+		assertTrue(q.patchQty(b, 25));
 		assertEquals(65, q.getTotalQty());
 		assertQueueIntegrity(q);
 
 		// 移除中间 b
-		OrderNode rb = q.remove(102);
+		OrderNode rb = q.remove(b);
 		assertNotNull(rb);
 		assertEquals(2, q.getSize());
 		assertEquals(40, q.getTotalQty());
@@ -127,7 +126,7 @@ class OrderQueueTest {
 		pool.free(rb);
 
 		// 移除头 a
-		OrderNode ra = q.remove(101);
+		OrderNode ra = q.remove(a);
 		assertNotNull(ra);
 		ra.prev = ra.next = null;
 		pool.free(ra);
@@ -136,7 +135,7 @@ class OrderQueueTest {
 		assertQueueIntegrity(q);
 
 		// 移除尾 c
-		OrderNode rc = q.remove(103);
+		OrderNode rc = q.remove(c);
 		assertNotNull(rc);
 		rc.prev = rc.next = null;
 		pool.free(rc);
@@ -206,21 +205,23 @@ class OrderQueueTest {
 	}
 
 	@Test
-	void duplicate_id_should_throw_and_dump_stable() {
+	void relinked_node_should_throw_and_dump_stable() {
 		OrderQueue q = new OrderQueue();
 		OrderNode a = pool.alloc(1, 10, false, 5);
-		OrderNode b = pool.alloc(1, 11, false, 7); // duplicate id
+		OrderNode b = pool.alloc(2, 11, false, 7);
 
 		q.push(a);
+		q.push(b);
 		IllegalStateException ex = assertThrows(IllegalStateException.class, () -> q.push(b));
 		assertTrue(ex.getMessage()
-					 .contains("duplicate"), ex.getMessage());
+					 .contains("already linked"), ex.getMessage());
+		assertQueueIntegrity(q);
 
 		// 清理
-		OrderNode r = q.remove(1);
+		OrderNode r = q.remove(a);
 		r.prev = r.next = null;
 		pool.free(r);
-		pool.free(b);
+		pool.free(q.remove(b));
 	}
 
 	@Test
@@ -267,12 +268,12 @@ class OrderQueueTest {
 		assertThrows(IllegalStateException.class, () -> q2.push(n1));
 
 		// 摘链后可复用
-		q1.remove(77);
+		q1.remove(n1);
 		n1.prev = n1.next = null;
 		q2.push(n1);
 
 		// 清理
-		OrderNode r = q2.remove(77);
+		OrderNode r = q2.remove(n1);
 		r.prev = r.next = null;
 		pool.free(r);
 	}
@@ -283,11 +284,11 @@ class OrderQueueTest {
 		OrderNode n = pool.alloc(99, 9, false, 9);
 		q.push(n);
 
-		assertThrows(IllegalArgumentException.class, () -> q.patchQty(99, 0));
-		assertThrows(IllegalArgumentException.class, () -> q.patchQty(99, -1));
+		assertThrows(IllegalArgumentException.class, () -> q.patchQty(n, 0));
+		assertThrows(IllegalArgumentException.class, () -> q.patchQty(n, -1));
 
 		// 清理
-		OrderNode r = q.remove(99);
+		OrderNode r = q.remove(n);
 		r.prev = r.next = null;
 		pool.free(r);
 	}
@@ -308,8 +309,8 @@ class OrderQueueTest {
 		a.prev = null;
 		b.next = null;
 
-		OrderNode rb = q.remove(202); // 此时 byId 仍管理正常
-		OrderNode ra = q.remove(201);
+		OrderNode rb = q.remove(b); // 环已解除，链表恢复正常
+		OrderNode ra = q.remove(a);
 		if (rb != null) {
 			rb.prev = rb.next = null;
 			pool.free(rb);
@@ -335,7 +336,7 @@ class OrderQueueTest {
 		assertInvariant(q, 3, 60, 1, 2, 3);
 
 		// remove 中间节点
-		OrderNode removedB = q.remove(2);
+		OrderNode removedB = q.remove(b);
 		assertSame(b, removedB);
 		// 被 unlink 后，prev/next 应已置空，可再次 push
 		assertNull(b.prev);
@@ -347,14 +348,14 @@ class OrderQueueTest {
 		assertInvariant(q, 3, 60, 1, 3, 2);
 
 		// 再次 remove 头、尾，检查边界
-		assertSame(a, q.remove(1));
+		assertSame(a, q.remove(a));
 		assertInvariant(q, 2, 50, 3, 2);
 
-		assertSame(b, q.remove(2));
+		assertSame(b, q.remove(b));
 		assertInvariant(q, 1, 30, 3);
 
-		// remove 不存在的 id
-		assertNull(q.remove(999));
+		// remove 未入队的节点
+		assertNull(q.remove(node(999, 1)));
 		assertInvariant(q, 1, 30, 3);
 	}
 
@@ -403,10 +404,6 @@ class OrderQueueTest {
 				assertSame(prev, cur.prev, "双向链接断裂：prev/next 不匹配");
 			}
 
-			// byId 映射一致性（存在于链表的一定能 get 到）
-			OrderNode mapped = q.get(cur.orderId);
-			assertSame(cur, mapped, "byId 与链表脱节：同 id 映射到不同实例或为 null");
-
 			seen.add(cur.orderId);
 			sumQty += cur.qty;
 
@@ -443,8 +440,8 @@ class OrderQueueTest {
 		q.push(y);
 		assertInvariant(q, 2, 11, 11, 12);
 
-		assertSame(x, q.remove(11));
-		assertNull(q.remove(11), "对同一 id 重复 remove 应返回 null，不改变状态");
+		assertSame(x, q.remove(x));
+		assertNull(q.remove(x), "对同一节点重复 remove 应返回 null，不改变状态");
 		assertInvariant(q, 1, 6, 12);
 	}
 
@@ -465,32 +462,32 @@ class OrderQueueTest {
 		assertInvariant(q, 4, 10, 1, 2, 3, 4);
 
 		// 删头
-		assertSame(a, q.remove(1));
+		assertSame(a, q.remove(a));
 		assertInvariant(q, 3, 9, 2, 3, 4);
 
 		// 删中
-		assertSame(c, q.remove(3));
+		assertSame(c, q.remove(c));
 		assertInvariant(q, 2, 6, 2, 4);
 
 		// 删尾
-		assertSame(d, q.remove(4));
+		assertSame(d, q.remove(d));
 		assertInvariant(q, 1, 2, 2);
 
 		// 只剩一个
-		assertSame(b, q.remove(2));
+		assertSame(b, q.remove(b));
 		assertInvariant(q, 0, 0);
 	}
 
-	// ---------- 用例 4：重复 push 同 id（应报错），push 已链接节点（应报错） ----------
+	// ---------- 用例 4：重复 push 同一节点（应报错），push 已链接节点（应报错） ----------
+	// orderId 唯一性由订单簿索引保证，见 SimpleOrderBookTest.duplicateOrderIdRejectedByBook
 	@Test
-	public void duplicate_id_or_linked_node_should_fail_fast() {
+	public void duplicate_push_or_linked_node_should_fail_fast() {
 		OrderQueue q = new OrderQueue();
 
 		OrderNode a = node(1, 10);
-		OrderNode b = node(1, 99); // 同 id
 
 		q.push(a);
-		assertThrows(IllegalStateException.class, () -> q.push(b), "重复 orderId 应拒绝");
+		assertThrows(IllegalStateException.class, () -> q.push(a), "重复入队应拒绝");
 
 		// 伪造“已链接节点”场景：手工设置 next 指针
 		OrderNode c = node(3, 30);
@@ -509,16 +506,16 @@ class OrderQueueTest {
 		q.push(b);
 		assertInvariant(q, 2, 30, 1, 2);
 
-		assertTrue(q.patchQty(1, 15)); // +5
+		assertTrue(q.patchQty(a, 15)); // +5
 		assertInvariant(q, 2, 35, 1, 2);
 
-		assertTrue(q.patchQty(2, 1)); // -19
+		assertTrue(q.patchQty(b, 1)); // -19
 		assertInvariant(q, 2, 16, 1, 2);
 
-		assertFalse(q.patchQty(999, 7)); // 不存在
+		assertFalse(q.patchQty(node(999, 3), 7)); // 未入队
 		assertInvariant(q, 2, 16, 1, 2);
 
-		assertThrows(IllegalArgumentException.class, () -> q.patchQty(1, 0), "newQty<=0 应拒绝");
+		assertThrows(IllegalArgumentException.class, () -> q.patchQty(a, 0), "newQty<=0 应拒绝");
 	}
 
 	// ---------- 用例 6：clear 之后复用节点 ----------
@@ -538,15 +535,15 @@ class OrderQueueTest {
 		q.push(b);                         // [a,b]
 		assertInvariant(q, 2, 11, 101, 102);
 
-		q.remove(101);                     // [b]
+		q.remove(a);                       // [b]
 		assertInvariant(q, 1, 6, 102);
 
 		q.push(c);                         // [b,c]
 		q.push(d);                         // [b,c,d]
 		assertInvariant(q, 3, 21, 102, 103, 104);
 
-		q.remove(104);                     // [b,c]
-		q.remove(102);                     // [c]
+		q.remove(d);                       // [b,c]
+		q.remove(b);                       // [c]
 		assertInvariant(q, 1, 7, 103);
 
 		// 复用 a，再 push 回来
@@ -562,9 +559,9 @@ class OrderQueueTest {
 		assertInvariant(q, 3, 18, 103, 101, 102);
 
 		// 全清
-		q.remove(103);
-		q.remove(101);
-		q.remove(102);
+		q.remove(c);
+		q.remove(a);
+		q.remove(b);
 		assertInvariant(q, 0, 0);
 	}
 
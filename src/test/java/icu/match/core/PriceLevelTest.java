@@ -3,6 +3,7 @@ package icu.match.core;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
@@ -35,15 +36,15 @@ class PriceLevelTest {
 		assertEquals(12, lvl.totalQty());
 		assertEquals(o1, lvl.getFirst());
 
-		assertTrue(lvl.patchQty(201, 3));
+		assertTrue(lvl.patchQty(o1, 3));
 		assertEquals(10, lvl.totalQty());
 
-		OrderNode removed = lvl.remove(201);
+		OrderNode removed = lvl.remove(o1);
 		assertEquals(1, lvl.size());
 		assertEquals(7, lvl.totalQty());
 		pool.free(removed);
 
-		OrderNode canceled = lvl.cancel(202);
+		OrderNode canceled = lvl.cancel(o2);
 		assertEquals(0, lvl.size());
 		assertEquals(0, lvl.totalQty());
 		pool.free(canceled);
@@ -74,12 +75,12 @@ class PriceLevelTest {
 		assertLevelIntegrity(lvl);
 
 		// patch 数量：b: 20 -> 25
-		assertTrue(lvl.patchQty(1002L, 25L));
+		assertTrue(lvl.patchQty(b, 25L));
 		assertEquals(65L, lvl.totalQty());
 		assertLevelIntegrity(lvl);
 
 		// remove 头部 a（完全成交）
-		OrderNode ra = lvl.remove(1001L);
+		OrderNode ra = lvl.remove(a);
 		assertNotNull(ra);
 		assertEquals(2, lvl.size());
 		assertEquals(55L, lvl.totalQty());
@@ -89,7 +90,7 @@ class PriceLevelTest {
 		assertLevelIntegrity(lvl);
 
 		// cancel 尾部 c（撤单）
-		OrderNode rc = lvl.cancel(1003L);
+		OrderNode rc = lvl.cancel(c);
 		assertNotNull(rc);
 		assertEquals(1, lvl.size());
 		assertEquals(25L, lvl.totalQty());
@@ -99,12 +100,12 @@ class PriceLevelTest {
 
 		// 仅剩 b
 		assertSame(b, lvl.getFirst());
-		assertTrue(lvl.patchQty(1002L, 1L));
+		assertTrue(lvl.patchQty(b, 1L));
 		assertEquals(1L, lvl.totalQty());
 		assertLevelIntegrity(lvl);
 
 		// 移除最后一个
-		OrderNode rb = lvl.remove(1002L);
+		OrderNode rb = lvl.remove(b);
 		assertNotNull(rb);
 		rb.prev = rb.next = null;
 		pool.free(rb);
@@ -161,17 +162,25 @@ class PriceLevelTest {
 	@Test
 	void nonExisting_cancel_remove_are_safe() {
 		PriceLevel lvl = new PriceLevel(777L);
-		assertNull(lvl.cancel(42L));
-		assertNull(lvl.remove(42L));
+		OrderNode stray = pool.alloc(42L, 1L, false, 5L);
+		assertNull(lvl.cancel(stray));
+		assertNull(lvl.remove(stray));
+		assertFalse(lvl.patchQty(stray, 1L));
 
-		// 放入一单后撤另一个 ID 仍然安全
+		// 放入一单后摘除未入本价位的节点仍然安全，也不影响已挂的节点
 		OrderNode n = pool.alloc(1L, 1L, false, 5L);
 		lvl.submit(n);
-		assertNull(lvl.cancel(2L));
-		assertNull(lvl.remove(3L));
+		assertNull(lvl.cancel(stray));
+		assertNull(lvl.remove(stray));
+		PriceLevel other = new PriceLevel(778L);
+		assertNull(other.cancel(n));
+		assertFalse(other.requeue(n, 9L));
+		assertEquals(1, lvl.size());
+		assertEquals(5L, lvl.totalQty());
+		pool.free(stray);
 
 		// 清理
-		OrderNode r = lvl.remove(1L);
+		OrderNode r = lvl.remove(n);
 		assertNotNull(r);
 		r.prev = r.next = null;
 		pool.free(r);
@@ -183,10 +192,10 @@ class PriceLevelTest {
 		OrderNode n = pool.alloc(9L, 9L, false, 9L);
 		lvl.submit(n);
 
-		assertThrows(IllegalArgumentException.class, () -> lvl.patchQty(9L, 0L));
-		assertThrows(IllegalArgumentException.class, () -> lvl.patchQty(9L, -1L));
+		assertThrows(IllegalArgumentException.class, () -> lvl.patchQty(n, 0L));
+		assertThrows(IllegalArgumentException.class, () -> lvl.patchQty(n, -1L));
 
-		OrderNode r = lvl.remove(9L);
+		OrderNode r = lvl.remove(n);
 		r.prev = r.next = null;
 		pool.free(r);
 	}
@@ -202,7 +211,7 @@ class PriceLevelTest {
 		assertTrue(lvl.isAsk(), "level direction should align to first submit");
 
 		// 清理
-		OrderNode r = lvl.remove(2001L);
+		OrderNode r = lvl.remove(firstAsk);
 		r.prev = r.next = null;
 		pool.free(r);
 		assertTrue(lvl.isEmpty());
@@ -37,4 +37,32 @@ class RecenterManagerTest {
 		assertEquals(lowBefore - step, ring.getLowPrice());
 		assertEquals(highBefore - step, ring.getHighPrice());
 	}
+
+	@Test
+	void adaptiveMovesOneStepOnMatchAndTheRestWhenIdle() {
+		RingOrderBuffer ring = new RingOrderBuffer(1001, 1, 100, 163); // len=64，边缘带宽 7
+		ColdOrderBuffer cold = new ColdOrderBuffer();
+		OrderNodePoolFixed pool = new OrderNodePoolFixed(16);
+		RecenterManager mgr = new RecenterManager(ring, cold, new AdaptiveRecenterPolicy());
+		// 最优买价居中，偏离度不触发迁移
+		ring.submit(131, pool.alloc(1, 1, false, 10));
+		// 上沿外 164..175 各一档冷区卖单，其中 164..170 位于边缘带内
+		for (int i = 0; i < 12; i++) {
+			cold.submit(164 + i, pool.alloc(10 + i, 1, true, 10));
+			mgr.onColdSubmit(164 + i);
+		}
+		// 成交价上行，速度约 3.6 step/笔
+		mgr.onTrade(131);
+		mgr.onTrade(141);
+		mgr.onTrade(151);
+
+		assertEquals(1, mgr.checkAndRecenter());
+		assertEquals(164, ring.getHighPrice());
+
+		// 空闲时按速度提前 7 步，边缘压力已在上一步清零
+		assertEquals(7, mgr.recenterIdle(1_000_000_000L));
+		assertEquals(171, ring.getHighPrice());
+		assertEquals(4, cold.sizeAsks());
+		assertEquals(0, mgr.recenterIdle(0));
+	}
 }
@@ -9,6 +9,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -35,7 +36,7 @@ class RingOrderBufferTest {
 		assertFalse(bestBid.isAsk());
 
 		// 撤单
-		OrderNode canceled = ring.cancel(bidPrice, 301);
+		OrderNode canceled = ring.cancel(bid);
 		assertNotNull(canceled);
 		pool.free(canceled);
 
@@ -50,7 +51,7 @@ class RingOrderBufferTest {
 		assertEquals(askPrice, bestAsk.getPrice());
 		assertTrue(bestAsk.isAsk());
 
-		OrderNode removed = ring.remove(askPrice, 302);
+		OrderNode removed = ring.remove(ask);
 		assertNotNull(removed);
 		pool.free(removed);
 	}
@@ -114,36 +115,119 @@ class RingOrderBufferTest {
 
 		// 在100 填充bid订单 109 填充ask订单
 		long bidPrice = 100;
-		OrderNode bid = pool.alloc(301, 1, false, 10);
-		ring.submit(bidPrice, bid);
+		OrderNode bid100 = pool.alloc(301, 1, false, 10);
+		ring.submit(bidPrice, bid100);
 		long askPrice = 109;
-		OrderNode ask = pool.alloc(302, 2, true, 5);
-		ring.submit(askPrice, ask);
+		OrderNode ask109 = pool.alloc(302, 2, true, 5);
+		ring.submit(askPrice, ask109);
 		// bestBidIdx 0 bestBidPrice 100
 		// bestAskIdx 9 bestAskPrice 109
 
 		// 在104 填充bid订单 105 填充ask订单 同时更新best索引
 		bidPrice = 104;
-		bid = pool.alloc(303, 3, false, 10);
+		OrderNode bid = pool.alloc(303, 3, false, 10);
 		ring.submit(bidPrice, bid);
 		// bestBidIdx 0 -> 4 bestBidPrice 100 -> 104
 		askPrice = 105;
-		ask = pool.alloc(304, 4, true, 5);
+		OrderNode ask = pool.alloc(304, 4, true, 5);
 		ring.submit(askPrice, ask);
 		// bestAskIdx 9 -> 5 bestBidPrice 109 -> 105
 
 		// 将105的ask订单删除 更新best索引
-		ring.cancel(askPrice, 304);
+		ring.cancel(ask);
 		// bestAskIdx 5 -> 9 bestBidPrice 105 -> 109
 		// 将104的bid订单删除 更新best索引
-		ring.cancel(bidPrice, 303);
+		ring.cancel(bid);
 		// bestBidIdx 4 -> 0 bestBidPrice 104 -> 100
 
 		// 将109的ask订单删除 更新best索引
-		ring.cancel(109, 302);
+		ring.cancel(ask109);
 		// bestAskIdx 9 -> highIdx bestBidPrice 109 -> highPrice
 		// 将100的bid订单删除 更新best索引
-		ring.cancel(100, 301);
+		ring.cancel(bid100);
 		// bestBidIdx 0 -> lowIdx bestBidPrice 100 -> lowPrice
 	}
+
+	@Test
+	void bestLevelsOnSparseWideWindow() {
+		RingOrderBuffer ring = new RingOrderBuffer(1001, 1, 0, 9999); // len=16384
+		OrderNodePoolFixed pool = new OrderNodePoolFixed(16);
+		OrderNode b10 = pool.alloc(1, 1, false, 10);
+		OrderNode b5000 = pool.alloc(2, 1, false, 10);
+		OrderNode a9000 = pool.alloc(3, 1, true, 10);
+		OrderNode a16000 = pool.alloc(4, 1, true, 10);
+		ring.submit(10, b10);
+		ring.submit(5000, b5000);
+		ring.submit(9000, a9000);
+		ring.submit(16000, a16000);
+
+		assertEquals(5000, ring.bestBidPrice());
+		assertEquals(9000, ring.bestAskPrice());
+
+		// 最优档吃空后跨越数千空档找到下一档
+		ring.remove(b5000);
+		ring.cancel(a9000);
+		assertEquals(10, ring.bestBidPrice());
+		assertEquals(16000, ring.bestAskPrice());
+
+		ring.cancel(b10);
+		ring.remove(a16000);
+		assertNull(ring.getBestLevel(OrderSide.ASK.code));
+		assertNull(ring.getBestLevel(OrderSide.BID.code));
+	}
+
+	@Test
+	void bestLevelsAfterMigrateWrapsRing() {
+		RingOrderBuffer ring = new RingOrderBuffer(1001, 1, 100, 115); // len=16
+		OrderNodePoolFixed pool = new OrderNodePoolFixed(16);
+		OrderNode b104 = pool.alloc(1, 1, false, 10);
+		OrderNode a110 = pool.alloc(2, 1, true, 10);
+		ring.submit(104, b104);
+		ring.submit(110, a110);
+
+		// 右移 3 步：100..102 被挤出，116..118 环绕到数组头部，118 带着冷区卖单进入热区
+		PriceLevel coldAsk = new PriceLevel(118);
+		coldAsk.submit(pool.alloc(3, 1, true, 10));
+		ring.migrate(coldAsk);
+		assertEquals(103, ring.getLowPrice());
+		assertEquals(118, ring.getHighPrice());
+
+		assertEquals(104, ring.bestBidPrice());
+		assertEquals(110, ring.bestAskPrice());
+		ring.cancel(a110);
+		assertEquals(118, ring.bestAskPrice());
+		ring.cancel(b104);
+		assertNull(ring.getBestLevel(OrderSide.ASK.code));
+	}
+
+	@Test
+	void totalQtyWithinLimitFollowsMigrate() {
+		RingOrderBuffer ring = new RingOrderBuffer(1001, 1, 100, 115); // len=16
+		OrderNodePoolFixed pool = new OrderNodePoolFixed(16);
+		OrderNode b104 = pool.alloc(1, 1, false, 10);
+		OrderNode a110 = pool.alloc(2, 1, true, 7);
+		ring.submit(104, b104);
+		ring.submit(110, a110);
+
+		// 右移 3 步后 116..118 环绕到数组头部，118 带 5 的卖单进入热区
+		PriceLevel coldAsk = new PriceLevel(118);
+		coldAsk.submit(pool.alloc(3, 1, true, 5));
+		ring.migrate(coldAsk);
+
+		assertEquals(12, ring.getTotalQty(OrderSide.BID.code, 118));
+		assertEquals(7, ring.getTotalQty(OrderSide.BID.code, 117));
+		assertEquals(0, ring.getTotalQty(OrderSide.BID.code, 109));
+		assertEquals(10, ring.getTotalQty(OrderSide.ASK.code, 103));
+		assertEquals(0, ring.getTotalQty(OrderSide.ASK.code, 105));
+
+		ring.patchQty(a110, 3);
+		assertEquals(8, ring.getTotalQty(OrderSide.BID.code, Long.MAX_VALUE));
+
+		// 左移 2 步挤出 118、117，118 的卖单离开热区
+		ring.migrate(new PriceLevel(101));
+		assertEquals(3, ring.getTotalQty(OrderSide.BID.code, Long.MAX_VALUE));
+
+		ring.cancel(b104);
+		assertEquals(0, ring.getTotalQty(OrderSide.ASK.code, 0));
+	}
 }
@@ -0,0 +1,274 @@
+package icu.match.core;
+
+import org.junit.jupiter.api.Test;
+
+import icu.match.common.OrderSide;
+import icu.match.common.OrderTif;
+import icu.match.common.OrderType;
+import icu.match.common.SymbolConstant;
+import icu.match.core.model.MatchTrade;
+import icu.match.core.model.OrderInfo;
+import icu.match.core.model.SnapshotView;
+import icu.match.core.snapshot.BookImage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class SimpleOrderBookTest {
+
+	private final RingOrderBuffer ring = new RingOrderBuffer(SymbolConstant.BTCUSDT.getSymbolId(), 1, 100, 115);
+
+	private final ColdOrderBuffer cold = new ColdOrderBuffer();
+
+	private final SimpleOrderBook book = new SimpleOrderBook(ring, cold);
+
+	private void submit(long orderId, byte side, long price, long qty) {
+		OrderInfo info = new OrderInfo();
+		info.setOrderId(orderId);
+		info.setUserId(orderId);
+		info.setSymbol(SymbolConstant.BTCUSDT.getSymbolId());
+		info.setSide(side);
+		info.setType(OrderType.LIMIT.code);
+		info.setTif(OrderTif.GTC.code);
+		info.setPrice(price);
+		info.setQty(qty);
+		info.setTime(orderId * 1000);
+		book.submit(info);
+	}
+
+	@Test
+	void cancelByOrderIdInRingAndCold() {
+		submit(1, OrderSide.BID.code, 105, 10);
+		submit(2, OrderSide.BID.code, 105, 20);
+		// 冷区
+		submit(3, OrderSide.BID.code, 90, 30);
+		submit(4, OrderSide.ASK.code, 130, 40);
+		assertEquals(4, book.orderCount());
+
+		assertTrue(book.cancel(1));
+		assertEquals(20, book.bestLiq(OrderSide.ASK.code)
+							 .getTotalQty());
+		assertTrue(book.cancel(3));
+		assertTrue(book.cancel(4));
+		assertEquals(0, cold.sizeBids());
+		assertEquals(0, cold.sizeAsks());
+
+		// 重复撤单 / 不存在
+		assertFalse(book.cancel(1));
+		assertFalse(book.cancel(99));
+		assertEquals(1, book.orderCount());
+	}
+
+	@Test
+	void duplicateOrderIdRejectedByBook() {
+		submit(1, OrderSide.BID.code, 105, 10);
+		submit(2, OrderSide.BID.code, 90, 10);
+		// 热区与冷区各自重复
+		assertThrows(IllegalStateException.class, () -> submit(1, OrderSide.BID.code, 105, 5));
+		assertThrows(IllegalStateException.class, () -> submit(2, OrderSide.ASK.code, 130, 5));
+		assertEquals(2, book.orderCount());
+		assertEquals(10, book.bestLiq(OrderSide.ASK.code)
+							 .getTotalQty());
+	}
+
+	@Test
+	void filledMakerLeavesIndex() {
+		submit(1, OrderSide.ASK.code, 106, 10);
+		MatchTrade trade = book.matchHead(OrderSide.BID.code, 10);
+		assertEquals(1, trade.getMakerOrderId());
+		assertEquals(0, book.orderCount());
+		assertFalse(book.cancel(1));
+	}
+
+	@Test
+	void sweepWalksLevelsInPriceTimeOrderUpToLimit() {
+		submit(1, OrderSide.ASK.code, 106, 10);
+		submit(2, OrderSide.ASK.code, 106, 20);
+		submit(3, OrderSide.ASK.code, 107, 30);
+		submit(4, OrderSide.ASK.code, 109, 40);
+
+		List<String> trades = new ArrayList<>();
+		long filled = book.sweep(OrderSide.BID.code, 107, 100, t -> trades.add(
+				t.getMakerOrderId() + "@" + t.getPrice() + "x" + t.getQty() + (t.isMakerFilled() ? "F" : "")));
+		assertEquals(60, filled);
+		assertEquals(List.of("1@106x10F", "2@106x20F", "3@107x30F"), trades);
+		assertEquals(1, book.orderCount());
+		assertEquals(109, book.bestLiq(OrderSide.BID.code)
+							  .getPrice());
+
+		// 部分成交保留在队首
+		trades.clear();
+		assertEquals(15, book.sweep(OrderSide.BID.code, Long.MAX_VALUE, 15, t -> trades.add(
+				t.getMakerOrderId() + "x" + t.getQty() + (t.isMakerFilled() ? "F" : ""))));
+		assertEquals(List.of("4x15"), trades);
+		assertEquals(25, book.bestLiq(OrderSide.BID.code)
+							 .getHeadQty());
+	}
+
+	@Test
+	void bestLiqWithinLimitCoversColdLevels() {
+		submit(1, OrderSide.ASK.code, 106, 10);
+		submit(2, OrderSide.ASK.code, 108, 20);
+		submit(3, OrderSide.BID.code, 104, 10);
+		// 冷区
+		submit(4, OrderSide.ASK.code, 130, 40);
+		submit(5, OrderSide.BID.code, 90, 30);
+
+		// 改量与部分成交同步到累计数量
+		assertTrue(book.amend(2, 25));
+		assertEquals(4, book.sweep(OrderSide.BID.code, 106, 4, t -> {
+		}));
+
+		assertEquals(0, book.bestLiq(OrderSide.BID.code, 105)
+							.getTotalQty());
+		assertEquals(6, book.bestLiq(OrderSide.BID.code, 107)
+							.getTotalQty());
+		assertEquals(31, book.bestLiq(OrderSide.BID.code, 115)
+							 .getTotalQty());
+		assertEquals(71, book.bestLiq(OrderSide.BID.code, 130)
+							 .getTotalQty());
+		assertEquals(106, book.bestLiq(OrderSide.BID.code, Long.MAX_VALUE)
+							  .getPrice());
+
+		assertEquals(0, book.bestLiq(OrderSide.ASK.code, 105)
+							.getTotalQty());
+		assertEquals(10, book.bestLiq(OrderSide.ASK.code, 104)
+							 .getTotalQty());
+		assertEquals(40, book.bestLiq(OrderSide.ASK.code, 90)
+							 .getTotalQty());
+	}
+
+	@Test
+	void sweepContinuesIntoColdLevelsWhenRingSideIsExhausted() {
+		submit(1, OrderSide.ASK.code, 106, 10);
+		// 冷区卖单
+		submit(2, OrderSide.ASK.code, 130, 40);
+		submit(3, OrderSide.ASK.code, 140, 20);
+
+		List<String> trades = new ArrayList<>();
+		long filled = book.sweep(OrderSide.BID.code, Long.MAX_VALUE, 60, t -> trades.add(
+				t.getMakerOrderId() + "@" + t.getPrice() + "x" + t.getQty() + (t.isMakerFilled() ? "F" : "")));
+		assertEquals(60, filled);
+		assertEquals(List.of("1@106x10F", "2@130x40F", "3@140x10"), trades);
+		assertEquals(1, book.orderCount());
+		assertEquals(10, book.bestLiq(OrderSide.BID.code, Long.MAX_VALUE)
+							 .getTotalQty());
+
+		// 热区已无卖单，限价越过冷区最优价仍可立即撮合
+		assertTrue(book.canMatchImmediately(OrderSide.BID.code, 140));
+		assertFalse(book.canMatchImmediately(OrderSide.BID.code, 139));
+		assertEquals(10, book.sweep(OrderSide.BID.code, 140, 15, t -> {
+		}));
+		assertEquals(0, cold.sizeAsks());
+		assertEquals(0, book.orderCount());
+	}
+
+	@Test
+	void coldLevelBetterThanRingBestMatchesFirst() {
+		submit(1, OrderSide.BID.code, 110, 10);
+		// 价格越出窗口上沿的买单落入冷区，却优于热区最优买价
+		submit(2, OrderSide.BID.code, 120, 5);
+		assertEquals(120, book.bestLiq(OrderSide.ASK.code)
+							  .getPrice());
+
+		MatchTrade trade = book.matchHead(OrderSide.ASK.code, 3);
+		assertEquals(2, trade.getMakerOrderId());
+		assertEquals(120, trade.getPrice());
+
+		List<Long> makers = new ArrayList<>();
+		assertEquals(12, book.sweep(OrderSide.ASK.code, 110, 20, t -> makers.add(t.getMakerOrderId())));
+		assertEquals(List.of(2L, 1L), makers);
+		assertEquals(0, book.orderCount());
+	}
+
+	@Test
+	void amendKeepsOrLosesPriority() {
+		submit(1, OrderSide.ASK.code, 106, 10);
+		submit(2, OrderSide.ASK.code, 106, 10);
+
+		// 减量：保留队首
+		assertTrue(book.amend(1, 5));
+		assertEquals(15, book.bestLiq(OrderSide.BID.code)
+							 .getTotalQty());
+		assertEquals(5, book.bestLiq(OrderSide.BID.code)
+							.getHeadQty());
+
+		// 增量：排到队尾，队首变为 2
+		assertTrue(book.amend(1, 30));
+		assertEquals(40, book.bestLiq(OrderSide.BID.code)
+							 .getTotalQty());
+		assertEquals(2, book.matchHead(OrderSide.BID.code, 1)
+							.getMakerOrderId());
+
+		assertFalse(book.amend(99, 1));
+		assertThrows(IllegalArgumentException.class, () -> book.amend(1, 0));
+	}
+
+	@Test
+	void rejectDuplicateOrderId() {
+		submit(1, OrderSide.BID.code, 105, 10);
+		assertThrows(IllegalStateException.class, () -> submit(1, OrderSide.BID.code, 104, 10));
+	}
+
+	@Test
+	void snapshotStepsArePointInTime() {
+		submit(1, OrderSide.BID.code, 105, 10);
+		submit(2, OrderSide.BID.code, 105, 20);
+		submit(3, OrderSide.BID.code, 104, 30);
+		// 冷区
+		submit(4, OrderSide.BID.code, 90, 40);
+		submit(5, OrderSide.ASK.code, 106, 50);
+		submit(6, OrderSide.ASK.code, 106, 60);
+		submit(7, OrderSide.ASK.code, 107, 70);
+		submit(8, OrderSide.ASK.code, 130, 80);
+
+		BookImage image = new BookImage(1);
+		book.beginSnapshot(image);
+		assertThrows(IllegalStateException.class, () -> book.beginSnapshot(new BookImage(1)));
+		assertFalse(book.snapshotStep(2));
+
+		// 冻结后的成交、撤单、改单、新单都不影响本轮快照
+		book.matchHead(OrderSide.BID.code, 3);
+		assertTrue(book.cancel(2));
+		assertTrue(book.amend(3, 35));
+		assertTrue(book.amend(1, 1));
+		submit(9, OrderSide.BID.code, 105, 90);
+		book.matchHead(OrderSide.BID.code, 47);
+		assertTrue(book.cancel(8));
+		assertTrue(book.amend(1, 100));
+
+		int steps = 1;
+		while (!book.snapshotStep(2)) {
+			steps++;
+		}
+		assertTrue(steps > 2);
+		assertThrows(IllegalStateException.class, () -> book.snapshotStep(2));
+
+		SnapshotView frozen = image.toView();
+		assertEquals(List.of(90L, 104L, 105L, 105L), frozen.bidPrices);
+		assertEquals(List.of(4L, 3L, 1L, 2L), frozen.bidOrderIds);
+		assertEquals(List.of(40L, 30L, 10L, 20L), frozen.bidQtyList);
+		assertEquals(List.of(4000L, 3000L, 1000L, 2000L), frozen.bidTimes);
+		assertEquals(List.of(106L, 106L, 107L, 130L), frozen.askPrices);
+		assertEquals(List.of(5L, 6L, 7L, 8L), frozen.askOrderIds);
+		assertEquals(List.of(50L, 60L, 70L, 80L), frozen.askQtyList);
+
+		// 下一轮反映当前状态，改大数量的订单排在同价位新单之后
+		book.beginSnapshot(image);
+		assertTrue(book.snapshotStep(100));
+		SnapshotView now = image.toView();
+		assertEquals(List.of(4L, 3L, 9L, 1L), now.bidOrderIds);
+		assertEquals(List.of(40L, 35L, 90L, 100L), now.bidQtyList);
+		assertEquals(List.of(6L, 7L), now.askOrderIds);
+		assertEquals(List.of(60L, 70L), now.askQtyList);
+	}
+}
@@ -0,0 +1,83 @@
+package icu.match.core;
+
+import org.junit.jupiter.api.Test;
+
+import icu.match.core.interfaces.MatchEventProcessor;
+import icu.match.core.model.MatchTrade;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class SlotMatchEventProcessorTest {
+
+	@Test
+	void eventsHeldPerSequenceAndReleasedInAnyBatchSize() {
+		Recorder rec = new Recorder();
+		SlotMatchEventProcessor slots = new SlotMatchEventProcessor(rec, 4, 1);
+
+		MatchTrade trade = new MatchTrade();
+		trade.fill(1001, 1, 2, 10, 20, (byte) 0, 105, true, 3);
+		slots.select(6);
+		slots.onTraded(trade);
+		slots.onFilled(1001, 20);
+		slots.select(7);
+		slots.onOrderCancelled(1001, 11, 2);
+		slots.select(8);
+		slots.onOrderRejected(1002, 12);
+		assertTrue(rec.events.isEmpty());
+
+		// 发布线程按序号逐个转发，只转发该序号的事件
+		assertEquals(2, slots.slot(6)
+							 .flush());
+		assertEquals(List.of("trade:10/20", "filled:20"), rec.events);
+		assertEquals(1, slots.slot(7)
+							 .flush());
+		assertEquals(1, slots.slot(8)
+							 .flush());
+		assertEquals(List.of("trade:10/20", "filled:20", "cancelled:11", "rejected:12"), rec.events);
+
+		// 序号按容量取模复用槽位
+		assertSame(slots.slot(0), slots.slot(8));
+		assertEquals(0, slots.slot(12)
+							 .flush());
+	}
+
+	@Test
+	void slotCountMustBePowerOfTwo() {
+		assertThrows(IllegalArgumentException.class, () -> new SlotMatchEventProcessor(new Recorder(), 6, 1));
+	}
+
+	private static final class Recorder implements MatchEventProcessor {
+
+		private final List<String> events = new ArrayList<>();
+
+		@Override
+		public void onTraded(MatchTrade t) {
+			events.add("trade:" + t.getTakerOrderId() + "/" + t.getMakerOrderId());
+		}
+
+		@Override
+		public void onFilled(int symbol, long orderId) {
+			events.add("filled:" + orderId);
+		}
+
+		@Override
+		public void onOrderCancelled(int symbol, long orderId, long qty) {
+			events.add("cancelled:" + orderId);
+		}
+
+		@Override
+		public void onOrderRejected(int symbol, long orderId) {
+			events.add("rejected:" + orderId);
+		}
+	}
+}
@@ -0,0 +1,270 @@
+package icu.match.core.slab;
+
+import org.junit.jupiter.api.Test;
+
+import icu.match.common.OrderSide;
+import icu.match.common.OrderTif;
+import icu.match.common.OrderType;
+import icu.match.common.SymbolConstant;
+import icu.match.core.model.MatchTrade;
+import icu.match.core.model.OrderInfo;
+import icu.match.core.model.SnapshotView;
+import icu.match.core.snapshot.BookImage;
+import icu.match.core.snapshot.SnapshotLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 堆内 / 堆外两种 slab 跑同一组用例
+ *
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class SlabOrderBookTest {
+
+	private static void submit(SlabOrderBook book, long orderId, byte side, long price, long qty) {
+		OrderInfo info = new OrderInfo();
+		info.setOrderId(orderId);
+		info.setUserId(orderId * 10);
+		info.setSymbol(SymbolConstant.BTCUSDT.getSymbolId());
+		info.setSide(side);
+		info.setType(OrderType.LIMIT.code);
+		info.setTif(OrderTif.GTC.code);
+		info.setPrice(price);
+		info.setQty(qty);
+		info.setTime(orderId * 1000);
+		book.submit(info);
+	}
+
+	private static void eachSlab(Consumer<SlabOrderBook> body) {
+		IntFunction<OrderSlab> heap = HeapOrderSlab::new;
+		IntFunction<OrderSlab> direct = DirectOrderSlab::new;
+		for (IntFunction<OrderSlab> f : List.of(heap, direct)) {
+			// 初始容量 2，覆盖扩容路径
+			body.accept(new SlabOrderBook(SymbolConstant.BTCUSDT.getSymbolId(), f.apply(2)));
+		}
+	}
+
+	@Test
+	void sweepAcrossLevelsStopsAtLimit() {
+		eachSlab(book -> {
+			submit(book, 1, OrderSide.BID.code, 105, 10);
+			submit(book, 2, OrderSide.BID.code, 104, 20);
+			submit(book, 3, OrderSide.BID.code, 104, 30);
+			submit(book, 4, OrderSide.BID.code, 102, 40);
+
+			List<String> trades = new ArrayList<>();
+			long filled = book.sweep(OrderSide.ASK.code, 104, 55, t -> trades.add(
+					t.getMakerOrderId() + "/" + t.getMakerUserId() + "x" + t.getQty() + (t.isMakerFilled() ? "F" : "")));
+			assertEquals(55, filled);
+			assertEquals(List.of("1/10x10F", "2/20x20F", "3/30x25"), trades);
+			assertEquals(2, book.orderCount());
+			assertEquals(5, book.bestLiq(OrderSide.ASK.code)
+								.getHeadQty());
+
+			// 限价以内已吃空
+			assertEquals(5, book.sweep(OrderSide.ASK.code, 103, 100, t -> {
+			}));
+			assertEquals(102, book.bestLiq(OrderSide.ASK.code)
+								  .getPrice());
+		});
+	}
+
+	@Test
+	void bestLiqAndMatchHeadFifo() {
+		eachSlab(book -> {
+			submit(book, 1, OrderSide.ASK.code, 105, 10);
+			submit(book, 2, OrderSide.ASK.code, 105, 20);
+			submit(book, 3, OrderSide.ASK.code, 107, 30);
+			submit(book, 4, OrderSide.BID.code, 101, 5);
+			submit(book, 5, OrderSide.BID.code, 103, 6);
+
+			assertEquals(105, book.bestLiq(OrderSide.BID.code)
+								  .getPrice());
+			assertEquals(30, book.bestLiq(OrderSide.BID.code)
+								 .getTotalQty());
+			assertEquals(10, book.bestLiq(OrderSide.BID.code)
+								 .getHeadQty());
+			assertEquals(60, book.bestLiq(OrderSide.BID.code, 107)
+								 .getTotalQty());
+			assertEquals(11, book.bestLiq(OrderSide.ASK.code, 101)
+								 .getTotalQty());
+			assertEquals(6, book.bestLiq(OrderSide.ASK.code, 102)
+								.getTotalQty());
+
+			assertTrue(book.canMatchImmediately(OrderSide.BID.code, 105));
+			assertFalse(book.canMatchImmediately(OrderSide.BID.code, 104));
+			assertTrue(book.canMatchImmediately(OrderSide.ASK.code, 103));
+
+			// 部分成交
+			MatchTrade t = book.matchHead(OrderSide.BID.code, 4);
+			assertEquals(1, t.getMakerOrderId());
+			assertEquals(4, t.getQty());
+			assertEquals(26, book.bestLiq(OrderSide.BID.code)
+								 .getTotalQty());
+			// 完全成交后队首为 2
+			t = book.matchHead(OrderSide.BID.code, 100);
+			assertEquals(1, t.getMakerOrderId());
+			assertEquals(6, t.getQty());
+			assertEquals(2, book.matchHead(OrderSide.BID.code, 20)
+								.getMakerOrderId());
+			// 105 档清空，最优变为 107
+			assertEquals(107, book.bestLiq(OrderSide.BID.code)
+								  .getPrice());
+			assertEquals(3, book.orderCount());
+		});
+	}
+
+	@Test
+	void cancelAndAmend() {
+		eachSlab(book -> {
+			submit(book, 1, OrderSide.BID.code, 100, 10);
+			submit(book, 2, OrderSide.BID.code, 100, 10);
+			submit(book, 3, OrderSide.BID.code, 99, 10);
+
+			assertTrue(book.cancel(3));
+			assertFalse(book.cancel(3));
+			assertEquals(100, book.bestLiq(OrderSide.ASK.code, 0)
+								  .getPrice());
+			assertEquals(20, book.bestLiq(OrderSide.ASK.code, 0)
+								 .getTotalQty());
+
+			// 减量保留优先级
+			assertTrue(book.amend(1, 4));
+			assertEquals(4, book.bestLiq(OrderSide.ASK.code)
+								.getHeadQty());
+			// 增量排到队尾
+			assertTrue(book.amend(1, 40));
+			assertEquals(10, book.bestLiq(OrderSide.ASK.code)
+								 .getHeadQty());
+			assertEquals(50, book.bestLiq(OrderSide.ASK.code)
+								 .getTotalQty());
+			assertEquals(2, book.matchHead(OrderSide.ASK.code, 10)
+								.getMakerOrderId());
+			assertEquals(1, book.matchHead(OrderSide.ASK.code, 40)
+								.getMakerOrderId());
+
+			assertEquals(0, book.orderCount());
+			assertEquals(0, book.getSlab()
+								.getInUse());
+			assertFalse(book.amend(1, 1));
+			assertThrows(IllegalStateException.class, () -> {
+				submit(book, 7, OrderSide.BID.code, 100, 1);
+				submit(book, 7, OrderSide.BID.code, 100, 1);
+			});
+		});
+	}
+
+	@Test
+	void slabReusesFreedSlots() {
+		eachSlab(book -> {
+			for (int round = 0; round < 3; round++) {
+				for (long id = 1; id <= 100; id++) {
+					submit(book, id, OrderSide.BID.code, 100 - id % 7, id);
+				}
+				for (long id = 1; id <= 100; id++) {
+					assertTrue(book.cancel(id));
+				}
+			}
+			OrderSlab slab = book.getSlab();
+			assertEquals(0, slab.getInUse());
+			assertEquals(100, slab.getPeakInUse());
+			assertEquals(128, slab.getCapacity());
+		});
+	}
+
+	@Test
+	void growthStopsAtMaxCapacity() {
+		IntFunction<OrderSlab> heap = c -> new HeapOrderSlab(c, 5);
+		IntFunction<OrderSlab> direct = c -> new DirectOrderSlab(c, 5);
+		for (IntFunction<OrderSlab> f : List.of(heap, direct)) {
+			SlabOrderBook book = new SlabOrderBook(SymbolConstant.BTCUSDT.getSymbolId(), f.apply(2));
+			for (long id = 1; id <= 5; id++) {
+				submit(book, id, OrderSide.BID.code, 100, 1);
+			}
+			// 2 -> 4 -> 5，达到上限后拒绝且簿不变
+			assertEquals(5, book.getSlab()
+								.getCapacity());
+			String depth = book.depth();
+			assertThrows(IllegalStateException.class, () -> submit(book, 6, OrderSide.BID.code, 100, 1));
+			assertEquals(depth, book.depth());
+			assertEquals(5, book.getSlab()
+								.getInUse());
+			// 释放后可复用
+			assertTrue(book.cancel(1));
+			submit(book, 6, OrderSide.BID.code, 100, 1);
+		}
+		assertThrows(IllegalArgumentException.class, () -> new HeapOrderSlab(6, 5));
+		assertEquals(Integer.MAX_VALUE / 56, new DirectOrderSlab(1, Integer.MAX_VALUE).getMaxCapacity());
+	}
+
+	@Test
+	void snapshotStepsArePointInTime() {
+		eachSlab(book -> {
+			submit(book, 1, OrderSide.BID.code, 105, 10);
+			submit(book, 2, OrderSide.BID.code, 105, 20);
+			submit(book, 3, OrderSide.BID.code, 104, 30);
+			submit(book, 4, OrderSide.BID.code, 90, 40);
+			submit(book, 5, OrderSide.ASK.code, 106, 50);
+			submit(book, 6, OrderSide.ASK.code, 106, 60);
+			submit(book, 7, OrderSide.ASK.code, 107, 70);
+			submit(book, 8, OrderSide.ASK.code, 130, 80);
+
+			BookImage image = new BookImage(1);
+			book.beginSnapshot(image);
+			assertThrows(IllegalStateException.class, () -> book.beginSnapshot(new BookImage(1)));
+			assertFalse(book.snapshotStep(2));
+
+			// 冻结后的成交、撤单、改单、新单（复用已释放槽位）都不影响本轮快照
+			book.matchHead(OrderSide.BID.code, 3);
+			assertTrue(book.cancel(2));
+			assertTrue(book.amend(3, 35));
+			assertTrue(book.amend(1, 1));
+			submit(book, 9, OrderSide.BID.code, 105, 90);
+			book.matchHead(OrderSide.BID.code, 47);
+			assertTrue(book.cancel(8));
+			assertTrue(book.amend(1, 100));
+
+			int steps = 1;
+			while (!book.snapshotStep(2)) {
+				steps++;
+			}
+			assertTrue(steps > 2);
+			assertThrows(IllegalStateException.class, () -> book.snapshotStep(2));
+
+			SnapshotView frozen = image.toView();
+			assertEquals(List.of(90L, 104L, 105L, 105L), frozen.bidPrices);
+			assertEquals(List.of(4L, 3L, 1L, 2L), frozen.bidOrderIds);
+			assertEquals(List.of(40L, 30L, 10L, 20L), frozen.bidQtyList);
+			assertEquals(List.of(4000L, 3000L, 1000L, 2000L), frozen.bidTimes);
+			assertEquals(List.of(106L, 106L, 107L, 130L), frozen.askPrices);
+			assertEquals(List.of(5L, 6L, 7L, 8L), frozen.askOrderIds);
+			assertEquals(List.of(50L, 60L, 70L, 80L), frozen.askQtyList);
+
+			// 下一轮反映当前状态，改大数量的订单排在同价位新单之后
+			book.beginSnapshot(image);
+			assertTrue(book.snapshotStep(100));
+			SnapshotView now = image.toView();
+			assertEquals(List.of(4L, 3L, 9L, 1L), now.bidOrderIds);
+			assertEquals(List.of(40L, 35L, 90L, 100L), now.bidQtyList);
+			assertEquals(List.of(6L, 7L), now.askOrderIds);
+			assertEquals(List.of(60L, 70L), now.askQtyList);
+
+			// 装回新簿得到相同深度与队列顺序
+			SlabOrderBook restored = new SlabOrderBook(book.getSymbol(), new HeapOrderSlab(2));
+			assertEquals(6, SnapshotLoader.restore(restored, book.getSymbol(), now));
+			assertEquals(book.depth(), restored.depth());
+			restored.beginSnapshot(image);
+			assertTrue(restored.snapshotStep(100));
+			assertEquals(now.bidOrderIds, image.toView().bidOrderIds);
+		});
+	}
+}
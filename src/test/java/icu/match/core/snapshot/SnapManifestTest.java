@@ -0,0 +1,120 @@
+package icu.match.core.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import icu.match.core.wal.Lsn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class SnapManifestTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void keepsNewestRetainedSnapshots() throws Exception {
+		for (int i = 1; i <= 4; i++) {
+			write(i, 2);
+		}
+		List<SnapManifest.Entry> entries = SnapManifest.candidates(dir, "orderbook");
+		assertEquals(2, entries.size());
+		assertEquals(Lsn.pack(0, 4), entries.get(0).lastAppliedLsn);
+		assertEquals(Lsn.pack(0, 3), entries.get(1).lastAppliedLsn);
+		assertEquals(Files.size(entries.get(0).path), entries.get(0).size);
+		assertEquals(entries.get(0).path, SnapReader.findLatest(dir, "orderbook"));
+		assertEquals(2, snapFiles().size());
+	}
+
+	@Test
+	void corruptLatestFallsBackToOlder() throws Exception {
+		write(1, 3);
+		write(2, 3);
+		SnapManifest.Entry latest = SnapManifest.candidates(dir, "orderbook")
+												.get(0);
+		flipByte(latest.path, SnapWriter.HEADER_BYTES + 8);
+
+		assertThrows(IOException.class, () -> SnapReader.read(latest, SnapReader.Mode.MMAP, noop()));
+		SnapReader.SnapshotReadResult r = SnapReader.readLatest(dir, "orderbook");
+		assertEquals(Lsn.pack(0, 1), r.lastAppliedLsn);
+		assertEquals(List.of(1L), r.view.bidOrderIds);
+	}
+
+	@Test
+	void truncatedLatestRejectedBySize() throws Exception {
+		write(1, 3);
+		SnapManifest.Entry latest = SnapManifest.candidates(dir, "orderbook")
+												.get(0);
+		try (FileChannel ch = FileChannel.open(latest.path, StandardOpenOption.WRITE)) {
+			ch.truncate(latest.size - 1);
+		}
+		IOException e = assertThrows(IOException.class,
+									 () -> SnapReader.read(latest, SnapReader.Mode.STREAM, noop()));
+		assertTrue(e.getMessage()
+					.startsWith("Snapshot size mismatch"), e.getMessage());
+	}
+
+	@Test
+	void missingManifestScansDirectoryAndIsRebuilt() throws Exception {
+		write(1, 3);
+		write(2, 3);
+		Files.delete(dir.resolve("orderbook.manifest"));
+
+		List<SnapManifest.Entry> scanned = SnapManifest.candidates(dir, "orderbook");
+		assertEquals(2, scanned.size());
+		assertEquals(Lsn.pack(0, 2), scanned.get(0).lastAppliedLsn);
+		assertEquals(-1L, scanned.get(0).size);
+
+		// 下一次写入按目录补全清单，已有快照不被删除
+		write(3, 3);
+		List<SnapManifest.Entry> entries = SnapManifest.candidates(dir, "orderbook");
+		assertEquals(3, entries.size());
+		assertEquals(Lsn.pack(0, 3), entries.get(0).lastAppliedLsn);
+		assertEquals(Lsn.pack(0, 1), entries.get(2).lastAppliedLsn);
+	}
+
+	private void write(int n, int retain) throws IOException {
+		BookImage image = new BookImage(1);
+		image.append(false, 100, n, n, 1, 10, 0);
+		SnapWriter.writeSnapshotAtomic(image, dir, "orderbook", Lsn.pack(0, n), retain);
+	}
+
+	private List<Path> snapFiles() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.filter(p -> p.toString()
+									  .endsWith(".snap"))
+						.collect(Collectors.toList());
+		}
+	}
+
+	private static void flipByte(Path file, long pos) throws IOException {
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer b = ByteBuffer.allocate(1);
+			ch.read(b, pos);
+			b.put(0, (byte) ~b.get(0));
+			b.rewind();
+			ch.write(b, pos);
+		}
+	}
+
+	private static SnapReader.OrderSink noop() {
+		return (ask, price, orderId, userId, qty, time) -> {
+		};
+	}
+}
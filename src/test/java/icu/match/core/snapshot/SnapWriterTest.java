@@ -0,0 +1,166 @@
+package icu.match.core.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import icu.match.core.model.SnapshotView;
+import icu.match.core.wal.Lsn;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class SnapWriterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void lastAppliedLsnRoundTrip() throws Exception {
+		SnapshotView view = new SnapshotView();
+		view.appendBid(105, 11, 1, 10);
+		view.appendAsk(107, 21, 2, 20);
+		long lsn = Lsn.pack(3, 42);
+		SnapWriter.writeSnapshotAtomic(view, dir, "orderbook", lsn);
+
+		SnapReader.SnapshotReadResult r = SnapReader.readLatest(dir, "orderbook");
+		assertEquals(lsn, r.lastAppliedLsn);
+		assertEquals(List.of(1L), r.view.bidOrderIds);
+		assertEquals(List.of(20L), r.view.askQtyList);
+	}
+
+	@Test
+	void legacyWriteHasNoLsn() throws Exception {
+		SnapWriter.writeSnapshotAtomic(new SnapshotView(), dir, "orderbook");
+		assertEquals(-1L, SnapReader.readLatest(dir, "orderbook").lastAppliedLsn);
+	}
+
+	@Test
+	void imageWrittenByLevelInQueueOrder() throws Exception {
+		BookImage image = new BookImage(1);
+		// 追加顺序与队列顺序无关：按（方向、价格、入队序号）写出
+		image.append(false, 105, 3, 30, 13, 300, 3000);
+		image.append(true, 107, 2, 20, 12, 200, 2000);
+		image.append(false, 105, 1, 10, 11, 100, 1000);
+		// 冷区价位
+		image.append(false, 90, 5, 50, 15, 500, 5000);
+		image.append(true, 130, 4, 40, 14, 400, 4000);
+		SnapWriter.writeSnapshotAtomic(image, dir, "orderbook", Lsn.pack(1, 7));
+
+		SnapReader.SnapshotReadResult r = SnapReader.readLatest(dir, "orderbook");
+		assertEquals(3, r.version);
+		assertEquals(Lsn.pack(1, 7), r.lastAppliedLsn);
+		assertEquals(List.of(90L, 105L, 105L), r.view.bidPrices);
+		assertEquals(List.of(50L, 10L, 30L), r.view.bidOrderIds);
+		assertEquals(List.of(15L, 11L, 13L), r.view.bidUserIds);
+		assertEquals(List.of(500L, 100L, 300L), r.view.bidQtyList);
+		assertEquals(List.of(5000L, 1000L, 3000L), r.view.bidTimes);
+		assertEquals(List.of(107L, 130L), r.view.askPrices);
+		assertEquals(List.of(20L, 40L), r.view.askOrderIds);
+		assertEquals(List.of(2000L, 4000L), r.view.askTimes);
+	}
+
+	@Test
+	void readsLegacyV1() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.write(new byte[]{'O', 'B', 'S', 'N', 'A', 'P'});
+		out.writeInt(1);
+		out.writeLong(System.currentTimeMillis());
+		out.writeLong(Lsn.pack(0, 9));
+		// bidPrices, bidUserIds, bidOrderIds, bidQtyList, askPrices, askOrderIds, askUserIds, askQtyList
+		long[][] lists = {{105}, {11}, {1}, {10}, {}, {}, {}, {}};
+		for (long[] list : lists) {
+			writeList(out, list);
+		}
+		CRC32C crc = new CRC32C();
+		crc.update(bytes.toByteArray());
+		out.writeInt((int) crc.getValue());
+		Files.write(dir.resolve("orderbook-1.snap"), bytes.toByteArray());
+
+		SnapReader.SnapshotReadResult r = SnapReader.readLatest(dir, "orderbook");
+		assertEquals(1, r.version);
+		assertEquals(Lsn.pack(0, 9), r.lastAppliedLsn);
+		assertEquals(List.of(1L), r.view.bidOrderIds);
+		assertEquals(List.of(), r.view.bidTimes);
+	}
+
+	@Test
+	void mmapAndStreamDeliverSameOrdersAcrossBlocks() throws Exception {
+		BookImage image = new BookImage(1);
+		for (int i = 0; i < 10; i++) {
+			image.append(i % 2 == 1, 100 + i % 3, i, i + 1, 10 + i, 100 + i, 1000 + i);
+		}
+		Path file = SnapWriter.writeSnapshotAtomic(image, dir, "orderbook", Lsn.pack(2, 5), 1, 4);
+		// 头 + 4/4/2 三块
+		assertEquals(SnapWriter.HEADER_BYTES + 2 * SnapWriter.blockBytes(4) + SnapWriter.blockBytes(2),
+					 Files.size(file));
+
+		List<String> mapped = new ArrayList<>();
+		SnapReader.SnapshotReadResult r = SnapReader.read(file, SnapReader.Mode.MMAP, collect(mapped));
+		List<String> streamed = new ArrayList<>();
+		SnapReader.read(file, SnapReader.Mode.STREAM, collect(streamed));
+
+		assertEquals(10, r.orders);
+		assertEquals(Lsn.pack(2, 5), r.lastAppliedLsn);
+		assertEquals(mapped, streamed);
+		// 先买后卖、价格升序、价位内按入队序号
+		assertEquals("B100:1/100/1000", mapped.get(0));
+		assertEquals("A100:4/103/1003", mapped.get(5));
+		assertEquals("A102:6/105/1005", mapped.get(9));
+	}
+
+	@Test
+	void corruptBlockRejectedBeforeAnyDelivery() throws Exception {
+		BookImage image = new BookImage(1);
+		for (int i = 0; i < 8; i++) {
+			image.append(false, 100 + i, i, i + 1, 1, 10, 0);
+		}
+		Path file = SnapWriter.writeSnapshotAtomic(image, dir, "orderbook", Lsn.pack(1, 1), 1, 4);
+		// 翻转第二块中的一个字节
+		long pos = SnapWriter.HEADER_BYTES + SnapWriter.blockBytes(4) + 10;
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer b = ByteBuffer.allocate(1);
+			ch.read(b, pos);
+			b.put(0, (byte) ~b.get(0));
+			b.rewind();
+			ch.write(b, pos);
+		}
+
+		for (SnapReader.Mode mode : SnapReader.Mode.values()) {
+			List<String> got = new ArrayList<>();
+			IOException e = assertThrows(IOException.class, () -> SnapReader.read(file, mode, collect(got)));
+			assertTrue(e.getMessage()
+						.contains("Block CRC mismatch"), e.getMessage());
+			assertTrue(got.isEmpty());
+		}
+	}
+
+	private static SnapReader.OrderSink collect(List<String> out) {
+		return (ask, price, orderId, userId, qty, time) -> out.add(
+				(ask ? "A" : "B") + price + ":" + orderId + "/" + qty + "/" + time);
+	}
+
+	private static void writeList(DataOutputStream out, long[] list) throws IOException {
+		out.writeInt(list.length);
+		for (long v : list) {
+			out.writeLong(v);
+		}
+	}
+}
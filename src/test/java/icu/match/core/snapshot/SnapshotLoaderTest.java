@@ -0,0 +1,61 @@
+package icu.match.core.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import icu.match.common.SymbolConstant;
+import icu.match.core.ColdOrderBuffer;
+import icu.match.core.RingOrderBuffer;
+import icu.match.core.SimpleOrderBook;
+import icu.match.core.model.SnapshotView;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class SnapshotLoaderTest {
+
+	private final int symbol = SymbolConstant.BTCUSDT.getSymbolId();
+
+	private final RingOrderBuffer ring = new RingOrderBuffer(symbol, 1, 100, 115);
+
+	private final ColdOrderBuffer cold = new ColdOrderBuffer();
+
+	private final SimpleOrderBook book = new SimpleOrderBook(ring, cold);
+
+	@Test
+	void restoreKeepsFifoAndZones() {
+		SnapshotView view = new SnapshotView();
+		view.appendBid(105, 11, 1, 10);
+		view.appendBid(105, 12, 2, 20);
+		view.appendBid(104, 13, 3, 30);
+		// 窗口外，进冷区
+		view.appendBid(90, 14, 4, 40);
+		view.appendAsk(107, 21, 5, 50);
+		view.appendAsk(107, 22, 6, 60);
+
+		assertEquals(6, SnapshotLoader.restore(book, symbol, view));
+		assertEquals(6, book.orderCount());
+		assertEquals(1, cold.sizeBids());
+
+		// 环形快照买侧按价格升序输出，同价位保持 FIFO
+		SnapshotView back = ring.snapshot();
+		assertEquals(List.of(3L, 1L, 2L), back.bidOrderIds);
+		assertEquals(List.of(13L, 11L, 12L), back.bidUserIds);
+		assertEquals(List.of(30L, 10L, 20L), back.bidQtyList);
+		assertEquals(List.of(5L, 6L), back.askOrderIds);
+		assertEquals(List.of(50L, 60L), back.askQtyList);
+	}
+
+	@Test
+	void rejectColumnMismatch() {
+		SnapshotView view = new SnapshotView();
+		view.appendBid(105, 11, 1, 10);
+		view.bidQtyList.clear();
+		assertThrows(IllegalArgumentException.class, () -> SnapshotLoader.restore(book, symbol, view));
+	}
+}
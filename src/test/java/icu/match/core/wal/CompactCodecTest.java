@@ -0,0 +1,192 @@
+package icu.match.core.wal;
+
+import icu.match.common.WalFormat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class CompactCodecTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void roundTripWithNegativeDeltasAndExtremes() {
+		ByteBuffer buf = ByteBuffer.allocate(1024)
+								   .order(ByteOrder.LITTLE_ENDIAN);
+		CompactCodec enc = new CompactCodec();
+		int[] starts = new int[5];
+		starts[0] = buf.position();
+		enc.writeOrder(buf, 42, 1_000_000, 1001, (byte) 1, (byte) 0, (byte) 2, 65_000_00, 5, 1_700_000_000_000L);
+		starts[1] = buf.position();
+		enc.writeOrder(buf, Long.MAX_VALUE, 999_990, 1001, (byte) 0, (byte) 1, (byte) 1, 64_999_99, -1,
+					   1_699_999_999_000L);
+		starts[2] = buf.position();
+		enc.writeCancel(buf, 1002, Long.MIN_VALUE, Long.MAX_VALUE);
+		starts[3] = buf.position();
+		enc.writeAmend(buf, 1001, 1_000_000, 3);
+		starts[4] = buf.position();
+		enc.writeCancel(buf, 1002, 7, -5);
+
+		CompactCodec dec = new CompactCodec();
+		dec.read(buf, starts[0], RecordType.ORDER_TX);
+		assertEquals(List.of(1001L, 42L, 1_000_000L, 1L, 0L, 2L, 65_000_00L, 5L, 1_700_000_000_000L), order(dec));
+		dec.read(buf, starts[1], RecordType.ORDER_TX);
+		assertEquals(List.of(1001L, Long.MAX_VALUE, 999_990L, 0L, 1L, 1L, 64_999_99L, -1L, 1_699_999_999_000L),
+					 order(dec));
+		dec.read(buf, starts[2], RecordType.CANCEL_TX);
+		assertEquals(1002, CompactCodec.symbolAt(buf, starts[2]));
+		assertEquals(Long.MIN_VALUE, dec.orderId);
+		assertEquals(Long.MAX_VALUE, dec.price);
+		dec.read(buf, starts[3], RecordType.AMEND_TX);
+		assertEquals(1_000_000L, dec.orderId);
+		assertEquals(3L, dec.qty);
+		dec.read(buf, starts[4], RecordType.CANCEL_TX);
+		assertEquals(7L, dec.orderId);
+		assertEquals(-5L, dec.price);
+
+		// 第二条 1001 记录是差分，缺少基准无法解码
+		assertThrows(IllegalStateException.class, () -> new CompactCodec().read(buf, starts[1], RecordType.ORDER_TX));
+		assertThrows(IllegalArgumentException.class, () -> CompactCodec.checkFlags((byte) 4, (byte) 0, (byte) 0));
+	}
+
+	@Test
+	void mixedFormatsAcrossSegmentsAndRestart() throws Exception {
+		List<String> expected = new ArrayList<>();
+		// 旧格式事务
+		WalWriter tx = new WalWriter(new WalAppender(dir, 512), false);
+		write(tx, 1, 4, expected);
+		tx.close();
+		// 切到紧凑格式：小段迫使多次换段
+		WalWriter compact = new WalWriter(new WalAppender(dir, 512, 4096), true, WalFormat.COMPACT);
+		write(compact, 5, 60, expected);
+		compact.sync();
+		compact.close();
+		// 重启后追加到同一段：首条记录须为全量值
+		compact = new WalWriter(new WalAppender(dir, 512, 4096), true, WalFormat.COMPACT);
+		write(compact, 61, 70, expected);
+		compact.sync();
+		compact.close();
+
+		Recorder rec = new Recorder();
+		WalReplayer replayer = new WalReplayer(dir).replay(-1L, rec);
+		assertEquals(expected, rec.events);
+		assertEquals(expected.size(), replayer.getCommitted());
+		assertEquals(0, replayer.getUncommitted());
+		assertTrue(replayer.getSegments() > 3);
+
+		// 从中途 LSN 起回放：被跳过的紧凑记录仍推进差分基准
+		long from = rec.lsns.get(40);
+		Recorder tail = new Recorder();
+		new WalReplayer(dir).replay(from, tail);
+		assertEquals(expected.subList(41, expected.size()), tail.events);
+	}
+
+	@Test
+	void mappedAppenderVarRecords() throws Exception {
+		List<String> expected = new ArrayList<>();
+		WalWriter writer = new WalWriter(new MappedWalAppender(dir, 400), false, WalFormat.COMPACT);
+		write(writer, 1, 30, expected);
+		writer.close();
+		// 重新打开：扫描按回填后的实际长度定位尾部
+		writer = new WalWriter(new MappedWalAppender(dir, 400), false, WalFormat.COMPACT);
+		write(writer, 31, 40, expected);
+		writer.close();
+
+		Recorder rec = new Recorder();
+		new WalReplayer(dir).replay(-1L, rec);
+		assertEquals(expected, rec.events);
+	}
+
+	@Test
+	void compactIsAtLeastThreeTimesSmaller() throws Exception {
+		long txBytes = sizeOf(dir.resolve("tx"), WalFormat.TX);
+		long compactBytes = sizeOf(dir.resolve("compact"), WalFormat.COMPACT);
+		assertTrue(txBytes >= compactBytes * 3, txBytes + " vs " + compactBytes);
+	}
+
+	private static long sizeOf(Path d, WalFormat format) throws Exception {
+		WalWriter writer = new WalWriter(new WalAppender(d, 64L << 20, 1 << 16), true, format);
+		long price = 65_000_00;
+		for (int i = 1; i <= 10_000; i++) {
+			price += (i * 7919 % 11) - 5;
+			TxContext tx = writer.beginTx();
+			writer.logOrder(tx, 10_000 + i % 500, 5_000_000 + i, 1001, (byte) (i & 1), (byte) 0, (byte) 0, price,
+							i % 20 + 1, 1_700_000_000_000L + i * 3L);
+			writer.commitTx(tx);
+		}
+		writer.close();
+		return Files.size(WalAppender.segPath(d, 0));
+	}
+
+	/**
+	 * 写入订单号 [from, to]：交替两个交易对，每 5 笔一次撤单、每 7 笔一次改单
+	 */
+	private static void write(WalWriter writer, int from, int to, List<String> expected) throws Exception {
+		for (int i = from; i <= to; i++) {
+			int symbol = 1001 + (i & 1);
+			long price = 100 + (i * 37 % 13) - 6;
+			TxContext tx = writer.beginTx();
+			if (i % 5 == 0) {
+				writer.logCancel(tx, symbol, i - 2, price);
+				expected.add(symbol + ":cancel:" + (i - 2) + "@" + price);
+			} else if (i % 7 == 0) {
+				writer.logAmend(tx, symbol, i - 4, i % 3 + 1);
+				expected.add(symbol + ":amend:" + (i - 4) + "x" + (i % 3 + 1));
+			} else {
+				writer.logOrder(tx, 10 + i % 4, i, symbol, (byte) (i & 1), (byte) 0, (byte) (i % 3), price, i,
+								1000L + i);
+				expected.add(symbol + ":order:" + i + ":" + (i & 1) + "/" + (i % 3) + "@" + price + "x" + i + "/" +
+							 (10 + i % 4) + "/" + (1000L + i));
+			}
+			writer.commitTx(tx);
+		}
+	}
+
+	private static List<Long> order(CompactCodec c) {
+		return List.of((long) c.symbol, c.userId, c.orderId, (long) c.side, (long) c.type, (long) c.tif, c.price, c.qty,
+					   c.time);
+	}
+
+	private static final class Recorder implements WalReplayHandler {
+
+		private final List<String> events = new ArrayList<>();
+
+		private final List<Long> lsns = new ArrayList<>();
+
+		@Override
+		public void onOrder(long lsn, long userId, long orderId, int symbol, byte side, byte type, byte tif,
+							long price, long qty, long time) {
+			events.add(symbol + ":order:" + orderId + ":" + side + "/" + tif + "@" + price + "x" + qty + "/" + userId +
+					   "/" + time);
+			lsns.add(lsn);
+		}
+
+		@Override
+		public void onCancel(long lsn, int symbol, long orderId, long price) {
+			events.add(symbol + ":cancel:" + orderId + "@" + price);
+			lsns.add(lsn);
+		}
+
+		@Override
+		public void onAmend(long lsn, int symbol, long orderId, long newQty) {
+			events.add(symbol + ":amend:" + orderId + "x" + newQty);
+			lsns.add(lsn);
+		}
+	}
+}
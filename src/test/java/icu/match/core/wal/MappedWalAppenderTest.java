@@ -0,0 +1,73 @@
+package icu.match.core.wal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class MappedWalAppenderTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void reopenContinuesAfterLastValidRecord() throws Exception {
+		MappedWalAppender appender = new MappedWalAppender(dir, 1 << 16);
+		WalWriter writer = new WalWriter(appender, true);
+		for (int i = 0; i < 5; i++) {
+			TxContext tx = writer.beginTx();
+			writer.logCancel(tx, 1001, i, 100);
+			writer.commitTx(tx);
+		}
+		assertTrue(writer.sync());
+		assertFalse(writer.sync());
+		writer.close();
+		// 整段预分配
+		assertEquals(1 << 16, Files.size(dir.resolve("wal-000000.bin")));
+
+		// 映射实现与通道实现格式一致：通道实现扫描到 15 条有效记录
+		WalAppender channel = new WalAppender(dir.resolve("copy"), 1 << 16);
+		channel.close();
+		Files.copy(dir.resolve("wal-000000.bin"), dir.resolve("copy")
+													  .resolve("wal-000000.bin"),
+				   StandardCopyOption.REPLACE_EXISTING);
+		WalAppender scanned = new WalAppender(dir.resolve("copy"), 1 << 16);
+		assertEquals(15, scanned.append(RecordType.BEGIN_TX, new byte[8], 0, false).index);
+		scanned.close();
+
+		// 删除预创建的下一段后重开，从第 16 条继续
+		Files.deleteIfExists(dir.resolve("wal-000001.bin"));
+		MappedWalAppender reopened = new MappedWalAppender(dir, 1 << 16);
+		reopened.beginRecord(RecordType.BEGIN_TX, 8, 0)
+				.putLong(99);
+		assertEquals(15, Lsn.ofLong(reopened.endRecord(true)).index);
+		reopened.close();
+	}
+
+	@Test
+	void rotateIntoPreallocatedSegment() throws Exception {
+		// 每段只够 2 条 BEGIN（40 字节）
+		MappedWalAppender appender = new MappedWalAppender(dir, 100);
+		long last = 0;
+		for (int i = 0; i < 5; i++) {
+			appender.beginRecord(RecordType.BEGIN_TX, 8, 0)
+					.putLong(i);
+			last = appender.endRecord(false);
+		}
+		Lsn lsn = Lsn.ofLong(last);
+		assertEquals(2, lsn.segmentId);
+		assertEquals(0, lsn.index);
+		assertEquals(2, appender.segmentId());
+		appender.close();
+	}
+}
@@ -0,0 +1,213 @@
+package icu.match.core.wal;
+
+import icu.match.common.WalFormat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class ParallelWalReplayerTest {
+
+	@TempDir
+	Path dir;
+
+	private void writeMixed(int txs) throws Exception {
+		writeMixed(txs, WalFormat.TX);
+	}
+
+	private void writeMixed(int txs, WalFormat format) throws Exception {
+		WalWriter writer = new WalWriter(new WalAppender(dir, 256 * 1024, 64 * 1024), true, format);
+		for (int i = 1; i <= txs; i++) {
+			int symbol = 1001 + i % 3;
+			TxContext tx = writer.beginTx();
+			switch (i % 5) {
+				case 3:
+					writer.logCancel(tx, symbol, i - 3, 100 + i % 7);
+					break;
+				case 4:
+					writer.logAmend(tx, symbol, i - 1, i % 11 + 1);
+					break;
+				default:
+					writer.logOrder(tx, i, i, symbol, (byte) (i & 1), (byte) 0, (byte) 0, 100 + i % 7, i % 9 + 1, i);
+			}
+			writer.commitTx(tx);
+		}
+		// 崩溃前未提交
+		TxContext torn = writer.beginTx();
+		writer.logOrder(torn, 1, txs + 1, 1001, (byte) 0, (byte) 0, (byte) 0, 100, 1, 0);
+		writer.sync();
+		writer.close();
+	}
+
+	@Test
+	void sameResultAsSequentialPerSymbol() throws Exception {
+		writeMixed(20_000);
+		Map<Integer, Recorder> seq = new HashMap<>();
+		WalReplayer sequential = new WalReplayer(dir).replay(-1L, s -> seq.computeIfAbsent(s, Recorder::new));
+
+		Map<Integer, Recorder> par = new HashMap<>();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ParallelWalReplayer parallel = new ParallelWalReplayer(dir, pool).replay(-1L,
+																				   s -> par.computeIfAbsent(s,
+																											Recorder::new));
+			assertTrue(parallel.getSegments() > 4);
+			assertEquals(sequential.getSegments(), parallel.getSegments());
+			assertEquals(sequential.getRecords(), parallel.getRecords());
+			assertEquals(sequential.getCommitted(), parallel.getCommitted());
+			assertEquals(20_000, parallel.getCommitted());
+			assertEquals(1, parallel.getUncommitted());
+			assertEquals(sequential.getLastLsn(), parallel.getLastLsn());
+
+			// 从中间 LSN 起回放
+			long from = seq.get(1002).lsns.get(1000);
+			Map<Integer, Recorder> tail = new HashMap<>();
+			ParallelWalReplayer partial = new ParallelWalReplayer(dir, pool).replay(from,
+																				  s -> tail.computeIfAbsent(s,
+																										   Recorder::new));
+			Recorder r = tail.get(1002);
+			assertEquals(seq.get(1002).events.subList(1001, seq.get(1002).events.size()), r.events);
+			// 早于起点所在段的段不读取，只统计起点之后的事务
+			long after = 0;
+			for (Recorder rec : seq.values()) {
+				after += rec.lsns.stream()
+								 .filter(lsn -> lsn > from)
+								 .count();
+			}
+			assertEquals(after, partial.getCommitted());
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(seq.keySet(), par.keySet());
+		for (Map.Entry<Integer, Recorder> e : seq.entrySet()) {
+			assertEquals(e.getValue().events, par.get(e.getKey()).events);
+			assertEquals(e.getValue().lsns, par.get(e.getKey()).lsns);
+		}
+	}
+
+	@Test
+	void compactRecordsSameResultAsSequential() throws Exception {
+		// 紧凑格式约 20 字节一条，需更多事务才能跨多个段
+		writeMixed(60_000, WalFormat.COMPACT);
+		Map<Integer, Recorder> seq = new HashMap<>();
+		WalReplayer sequential = new WalReplayer(dir).replay(-1L, s -> seq.computeIfAbsent(s, Recorder::new));
+		long from = seq.get(1003).lsns.get(5_000);
+		Map<Integer, Recorder> seqTail = new HashMap<>();
+		new WalReplayer(dir).replay(from, s -> seqTail.computeIfAbsent(s, Recorder::new));
+
+		Map<Integer, Recorder> par = new HashMap<>();
+		Map<Integer, Recorder> parTail = new HashMap<>();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ParallelWalReplayer parallel = new ParallelWalReplayer(dir, pool).replay(-1L,
+																				   s -> par.computeIfAbsent(s,
+																											Recorder::new));
+			assertTrue(parallel.getSegments() > 4);
+			assertEquals(sequential.getRecords(), parallel.getRecords());
+			assertEquals(sequential.getCommitted(), parallel.getCommitted());
+			// 紧凑记录自身即提交点：末尾“未提交”的请求也已提交，不存在半个事务
+			assertEquals(60_001, parallel.getCommitted());
+			assertEquals(0, parallel.getUncommitted());
+			assertEquals(sequential.getLastLsn(), parallel.getLastLsn());
+			// 起点前被跳过的紧凑记录仍需解码以推进差分基准
+			ParallelWalReplayer partial = new ParallelWalReplayer(dir, pool).replay(from,
+																				  s -> parTail.computeIfAbsent(s,
+																											  Recorder::new));
+			assertEquals(sequential.getLastLsn(), partial.getLastLsn());
+		} finally {
+			pool.shutdown();
+		}
+		for (Map.Entry<Integer, Recorder> e : seq.entrySet()) {
+			assertEquals(e.getValue().events, par.get(e.getKey()).events);
+			assertEquals(e.getValue().lsns, par.get(e.getKey()).lsns);
+		}
+		for (Map.Entry<Integer, Recorder> e : seqTail.entrySet()) {
+			assertEquals(e.getValue().events, parTail.get(e.getKey()).events);
+		}
+		assertEquals(seq.get(1003).events.subList(5_001, seq.get(1003).events.size()), seqTail.get(1003).events);
+	}
+
+	@Test
+	void corruptRecordEndsSegmentLikeSequential() throws Exception {
+		writeMixed(5_000);
+		// 篡改第 2 段中部一条记录的负载
+		try (FileChannel ch = FileChannel.open(WalAppender.segPath(dir, 1), StandardOpenOption.WRITE,
+											   StandardOpenOption.READ)) {
+			ch.write(ByteBuffer.wrap(new byte[]{0x5A}), ch.size() / 2);
+		}
+		List<String> seq = new ArrayList<>();
+		WalReplayer sequential = new WalReplayer(dir).replay(-1L, s -> new Recorder(s, seq));
+		List<String> par = new ArrayList<>();
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			// 单交易对处理器内顺序一致；这里只用一个共享列表且只回放 1001，保证比较确定
+			new ParallelWalReplayer(dir, pool).replay(-1L, s -> s == 1001 ? new Recorder(s, par) : null);
+		} finally {
+			pool.shutdown();
+		}
+		List<String> seq1001 = new ArrayList<>();
+		for (String ev : seq) {
+			if (ev.startsWith("1001:")) {
+				seq1001.add(ev);
+			}
+		}
+		assertTrue(sequential.getRecords() < 5_000 * 3);
+		assertEquals(seq1001, par);
+	}
+
+	private static final class Recorder implements WalReplayHandler {
+
+		private final int symbol;
+
+		private final List<String> events;
+
+		private final List<Long> lsns = new ArrayList<>();
+
+		private Recorder(int symbol) {
+			this(symbol, new ArrayList<>());
+		}
+
+		private Recorder(int symbol, List<String> events) {
+			this.symbol = symbol;
+			this.events = events;
+		}
+
+		@Override
+		public void onOrder(long lsn, long userId, long orderId, int symbol, byte side, byte type, byte tif,
+							long price, long qty, long time) {
+			assertEquals(this.symbol, symbol);
+			events.add(symbol + ":order:" + orderId + ":" + side + "@" + price + "x" + qty + "/" + userId + "/" + time);
+			lsns.add(lsn);
+		}
+
+		@Override
+		public void onCancel(long lsn, int symbol, long orderId, long price) {
+			assertEquals(this.symbol, symbol);
+			events.add(symbol + ":cancel:" + orderId + "@" + price);
+			lsns.add(lsn);
+		}
+
+		@Override
+		public void onAmend(long lsn, int symbol, long orderId, long newQty) {
+			assertEquals(this.symbol, symbol);
+			events.add(symbol + ":amend:" + orderId + "x" + newQty);
+			lsns.add(lsn);
+		}
+	}
+}
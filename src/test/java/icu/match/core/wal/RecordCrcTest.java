@@ -0,0 +1,135 @@
+package icu.match.core.wal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class RecordCrcTest {
+
+	@TempDir
+	Path dir;
+
+	/**
+	 * 按 v1 格式（CRC32）写一条记录，模拟升级前的旧段
+	 */
+	private static void putV1(ByteBuffer seg, byte type, long index, ByteBuffer payload) {
+		int start = seg.position();
+		seg.putShort(WalAppender.MAGIC)
+		   .put(WalAppender.VER_CRC32)
+		   .put(type)
+		   .putInt(payload.remaining())
+		   .putInt(0)
+		   .putLong(index)
+		   .putLong(0L);
+		CRC32 crc = new CRC32();
+		ByteBuffer head = seg.duplicate();
+		head.position(start)
+			.limit(start + WalAppender.HEADER_NO_CRC);
+		crc.update(head);
+		crc.update(payload.duplicate());
+		seg.putInt((int) crc.getValue())
+		   .put(payload);
+	}
+
+	private static ByteBuffer payload(int len) {
+		return ByteBuffer.allocate(len)
+						 .order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private void writeV1Segment() throws Exception {
+		ByteBuffer seg = payload(1024);
+		ByteBuffer p = payload(TxPayloads.BEGIN_LEN);
+		TxPayloads.writeTxId(p, 1);
+		putV1(seg, RecordType.BEGIN_TX, 0, p.flip());
+		p = payload(TxPayloads.CANCEL_LEN);
+		TxPayloads.writeCancel(p, 1, 1001, 7, 105);
+		putV1(seg, RecordType.CANCEL_REQ, 1, p.flip());
+		p = payload(TxPayloads.COMMIT_LEN);
+		TxPayloads.writeTxId(p, 1);
+		putV1(seg, RecordType.COMMIT_TX, 2, p.flip());
+		seg.flip();
+		Files.write(WalAppender.segPath(dir, 0), Arrays.copyOf(seg.array(), seg.limit()));
+	}
+
+	@Test
+	void appendV2AfterV1AndReplayBoth() throws Exception {
+		writeV1Segment();
+		try (WalWriter writer = new WalWriter(new WalAppender(dir, 1 << 20))) {
+			TxContext tx = writer.beginTx();
+			writer.logCancel(tx, 1001, 8, 106);
+			writer.commitTx(tx);
+		}
+
+		ByteBuffer seg = ByteBuffer.wrap(Files.readAllBytes(WalAppender.segPath(dir, 0)))
+								   .order(ByteOrder.LITTLE_ENDIAN);
+		int v2Start = 3 * WalAppender.HEADER_FIXED + TxPayloads.BEGIN_LEN + TxPayloads.CANCEL_LEN +
+					  TxPayloads.COMMIT_LEN;
+		assertEquals(WalAppender.VER_CRC32, seg.get(2));
+		assertEquals(WalAppender.VER, seg.get(v2Start + 2));
+		assertEquals(3L, seg.getLong(v2Start + 12));
+		// v2 记录校验值即 CRC32C（头部不含 CRC 字段 + 负载）
+		CRC32C c = new CRC32C();
+		c.update(seg.array(), v2Start, WalAppender.HEADER_NO_CRC);
+		c.update(seg.array(), v2Start + WalAppender.HEADER_FIXED, TxPayloads.BEGIN_LEN);
+		assertEquals((int) c.getValue(), seg.getInt(v2Start + WalAppender.HEADER_NO_CRC));
+
+		List<String> events = new ArrayList<>();
+		WalReplayHandler h = new WalReplayHandler() {
+			@Override
+			public void onOrder(long lsn, long userId, long orderId, int symbol, byte side, byte type, byte tif,
+								long price, long qty, long time) {
+				events.add("order:" + orderId);
+			}
+
+			@Override
+			public void onCancel(long lsn, int symbol, long orderId, long price) {
+				events.add("cancel:" + orderId + "@" + price);
+			}
+
+			@Override
+			public void onAmend(long lsn, int symbol, long orderId, long newQty) {
+				events.add("amend:" + orderId);
+			}
+		};
+		new WalReplayer(dir).replay(-1L, h);
+		assertEquals(List.of("cancel:7@105", "cancel:8@106"), events);
+
+		events.clear();
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			new ParallelWalReplayer(dir, pool).replay(-1L, s -> h);
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(List.of("cancel:7@105", "cancel:8@106"), events);
+	}
+
+	@Test
+	void corruptV1RecordIsTruncatedOnOpen() throws Exception {
+		writeV1Segment();
+		// 篡改第二条记录（CANCEL）的负载
+		try (FileChannel ch = FileChannel.open(WalAppender.segPath(dir, 0), StandardOpenOption.WRITE)) {
+			ch.write(ByteBuffer.wrap(new byte[]{0x5A}), 2L * WalAppender.HEADER_FIXED + TxPayloads.BEGIN_LEN + 10);
+		}
+		new WalAppender(dir, 1 << 20).close();
+		assertEquals(WalAppender.HEADER_FIXED + TxPayloads.BEGIN_LEN, Files.size(WalAppender.segPath(dir, 0)));
+	}
+}
@@ -0,0 +1,136 @@
+package icu.match.core.wal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class WalReplayerTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void replayCommittedInOrderAndSkipTornTx() throws Exception {
+		// 小段：迫使跨多个段
+		WalWriter writer = new WalWriter(new WalAppender(dir, 512, 4096), true);
+		for (int i = 1; i <= 6; i++) {
+			TxContext tx = writer.beginTx();
+			writer.logOrder(tx, 7, i, 1001, (byte) 0, (byte) 0, (byte) 0, 100 + i, i, 1000L + i);
+			writer.commitTx(tx);
+		}
+		TxContext cancel = writer.beginTx();
+		writer.logCancel(cancel, 1001, 2, 102);
+		writer.commitTx(cancel);
+		TxContext amend = writer.beginTx();
+		writer.logAmend(amend, 1001, 3, 9);
+		writer.commitTx(amend);
+		// 崩溃前未提交
+		TxContext torn = writer.beginTx();
+		writer.logOrder(torn, 7, 99, 1001, (byte) 1, (byte) 0, (byte) 0, 200, 1, 0);
+		writer.sync();
+		writer.close();
+
+		Recorder rec = new Recorder();
+		WalReplayer replayer = new WalReplayer(dir).replay(-1L, rec);
+		assertEquals(List.of("order:1@101x1", "order:2@102x2", "order:3@103x3", "order:4@104x4", "order:5@105x5",
+							 "order:6@106x6", "cancel:2@102", "amend:3x9"), rec.events);
+		assertEquals(8, replayer.getCommitted());
+		assertEquals(1, replayer.getUncommitted());
+		assertEquals(26, replayer.getRecords());
+		assertEquals(true, replayer.getSegments() > 1);
+
+		// 从第 6 个事务的 COMMIT LSN 之后回放
+		long sixth = rec.lsns.get(5);
+		Recorder tail = new Recorder();
+		WalReplayer partial = new WalReplayer(dir).replay(sixth, tail);
+		assertEquals(List.of("cancel:2@102", "amend:3x9"), tail.events);
+		assertEquals(rec.lsns.get(7), partial.getLastLsn());
+	}
+
+	@Test
+	void truncateBeforeSnapshotLsnKeepsTail() throws Exception {
+		WalWriter writer = new WalWriter(new WalAppender(dir, 256), false);
+		List<Long> commits = new ArrayList<>();
+		for (int i = 1; i <= 10; i++) {
+			TxContext tx = writer.beginTx();
+			writer.logCancel(tx, 1001, i, 0);
+			commits.add(writer.commitTx(tx));
+		}
+		writer.close();
+
+		// 假定快照冻结在第 7 个事务
+		long snapLsn = commits.get(6);
+		int snapSeg = Lsn.ofLong(snapLsn).segmentId;
+		int before = WalReplayer.segmentIds(dir).length;
+		assertEquals(snapSeg, WalAppender.deleteSegmentsBefore(dir, snapSeg));
+		assertEquals(before - snapSeg, WalReplayer.segmentIds(dir).length);
+
+		Recorder rec = new Recorder();
+		WalReplayer replayer = new WalReplayer(dir).replay(snapLsn, rec);
+		assertEquals(List.of("cancel:8@0", "cancel:9@0", "cancel:10@0"), rec.events);
+		assertEquals(commits.get(9), replayer.getLastLsn());
+		assertEquals(0, WalAppender.deleteSegmentsBefore(dir, snapSeg));
+	}
+
+	@Test
+	void replayMappedSegmentsWithZeroTail() throws Exception {
+		WalWriter writer = new WalWriter(new MappedWalAppender(dir, 300), true);
+		for (int i = 1; i <= 4; i++) {
+			TxContext tx = writer.beginTx();
+			writer.logCancel(tx, 1002, i, 0);
+			writer.commitTx(tx);
+		}
+		writer.sync();
+		writer.close();
+
+		Recorder rec = new Recorder();
+		WalReplayer replayer = new WalReplayer(dir).replay(-1L, rec);
+		assertEquals(List.of("cancel:1@0", "cancel:2@0", "cancel:3@0", "cancel:4@0"), rec.events);
+		assertEquals(0, replayer.getUncommitted());
+	}
+
+	@Test
+	void emptyOrMissingDir() throws Exception {
+		Recorder rec = new Recorder();
+		assertEquals(0, new WalReplayer(dir.resolve("none")).replay(-1L, rec)
+															.getRecords());
+		assertEquals(-1L, new WalReplayer(dir).replay(-1L, rec)
+											  .getLastLsn());
+	}
+
+	private static final class Recorder implements WalReplayHandler {
+
+		private final List<String> events = new ArrayList<>();
+
+		private final List<Long> lsns = new ArrayList<>();
+
+		@Override
+		public void onOrder(long lsn, long userId, long orderId, int symbol, byte side, byte type, byte tif,
+							long price, long qty, long time) {
+			assertEquals(1000L + orderId, time);
+			events.add("order:" + orderId + "@" + price + "x" + qty);
+			lsns.add(lsn);
+		}
+
+		@Override
+		public void onCancel(long lsn, int symbol, long orderId, long price) {
+			events.add("cancel:" + orderId + "@" + price);
+			lsns.add(lsn);
+		}
+
+		@Override
+		public void onAmend(long lsn, int symbol, long orderId, long newQty) {
+			events.add("amend:" + orderId + "x" + newQty);
+			lsns.add(lsn);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package icu.match.core.wal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class WalWriterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void groupCommitBuffersUntilSync() throws Exception {
+		Path seg = dir.resolve("wal-000000.bin");
+		WalWriter writer = new WalWriter(new WalAppender(dir, 1 << 20, 4096), true);
+		for (int i = 0; i < 3; i++) {
+			TxContext tx = writer.beginTx();
+			writer.logCancel(tx, 1001, i, 100);
+			writer.commitTx(tx);
+		}
+		// 提交记录仍在批缓冲中
+		assertEquals(0, Files.size(seg));
+
+		assertTrue(writer.sync());
+		long synced = Files.size(seg);
+		assertTrue(synced > 0);
+		// 无新写入不再 force
+		assertFalse(writer.sync());
+		writer.close();
+
+		// 重开扫描：3 个事务 * 3 条记录
+		WalAppender reopened = new WalAppender(dir, 1 << 20);
+		assertEquals(9, reopened.append(RecordType.BEGIN_TX, new byte[8], 0, true).index);
+		reopened.close();
+	}
+
+	@Test
+	void directModeForcesOnCommit() throws Exception {
+		WalWriter writer = new WalWriter(new WalAppender(dir, 1 << 20));
+		TxContext tx = writer.beginTx();
+		writer.logAmend(tx, 1001, 1, 2);
+		writer.commitTx(tx);
+		assertTrue(Files.size(dir.resolve("wal-000000.bin")) > 0);
+		// commitTx 已 force
+		assertFalse(writer.sync());
+		writer.close();
+	}
+
+	@Test
+	void rotateFlushesBufferedRecords() throws Exception {
+		// 段上限很小，每个事务都会触发滚段
+		WalWriter writer = new WalWriter(new WalAppender(dir, 160, 4096), true);
+		for (int i = 0; i < 4; i++) {
+			TxContext tx = writer.beginTx();
+			writer.logCancel(tx, 1001, i, 100);
+			writer.commitTx(tx);
+		}
+		assertTrue(Files.size(dir.resolve("wal-000000.bin")) > 0);
+		writer.sync();
+		writer.close();
+	}
+
+	@Test
+	void orderPathAllocatesNothing() throws Exception {
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		// 批缓冲足够大，测量窗口内不触发写出
+		WalWriter writer = new WalWriter(new WalAppender(dir, 64L << 20, 8 << 20), true);
+		for (int i = 0; i < 20_000; i++) {
+			orderTx(writer, i);
+		}
+		writer.sync();
+		long tid = Thread.currentThread()
+						 .getId();
+		long before = mx.getThreadAllocatedBytes(tid);
+		for (int i = 0; i < 10_000; i++) {
+			orderTx(writer, i);
+		}
+		long allocated = mx.getThreadAllocatedBytes(tid) - before;
+		writer.close();
+		assertTrue(allocated < 1024, "allocated " + allocated + " bytes");
+	}
+
+	private static void orderTx(WalWriter writer, long orderId) throws Exception {
+		TxContext tx = writer.beginTx();
+		writer.logOrder(tx, 1, orderId, 1001, (byte) 0, (byte) 0, (byte) 0, 100, 1, 0);
+		writer.commitTx(tx);
+	}
+
+	@Test
+	void flyweightRejectsLengthMismatch() throws Exception {
+		WalAppender appender = new WalAppender(dir, 1 << 20);
+		ByteBuffer buf = appender.beginRecord(RecordType.COMMIT_TX, 8, 0);
+		assertThrows(IllegalStateException.class, () -> appender.beginRecord(RecordType.COMMIT_TX, 8, 0));
+		buf.putInt(1);
+		assertThrows(IllegalStateException.class, () -> appender.endRecord(false));
+		// 失败的记录被丢弃，下一条从原位置开始
+		appender.beginRecord(RecordType.COMMIT_TX, 8, 0)
+				.putLong(1);
+		assertEquals(0, Lsn.ofLong(appender.endRecord(true)).index);
+		appender.close();
+	}
+}
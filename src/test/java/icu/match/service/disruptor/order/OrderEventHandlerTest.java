@@ -0,0 +1,161 @@
+package icu.match.service.disruptor.order;
+
+import icu.match.common.OrderEventType;
+import icu.match.common.OrderSide;
+import icu.match.common.OrderTif;
+import icu.match.common.OrderType;
+import icu.match.common.SymbolConstant;
+import icu.match.config.MatchProperties;
+import icu.match.core.BufferedMatchEventProcessor;
+import icu.match.core.interfaces.MatchEventProcessor;
+import icu.match.core.model.MatchTrade;
+import icu.match.core.model.OrderInfo;
+import icu.match.core.wal.WalAppender;
+import icu.match.core.wal.WalWriter;
+import icu.match.service.match.MatchEngine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class OrderEventHandlerTest {
+
+	private static final int SYMBOL = SymbolConstant.ETHUSDT.getSymbolId();
+
+	@TempDir
+	Path dir;
+
+	private final List<String> published = new ArrayList<>();
+
+	private final MatchEventProcessor recorder = new MatchEventProcessor() {
+		@Override
+		public void onTraded(MatchTrade matchTrade) {
+			published.add("trade:" + matchTrade.getMakerOrderId() + "/" + matchTrade.getTakerOrderId());
+		}
+
+		@Override
+		public void onFilled(int symbol, long orderId) {
+			published.add("filled:" + orderId);
+		}
+
+		@Override
+		public void onOrderCancelled(int symbol, long orderId, long qty) {
+			published.add("cancelled:" + orderId);
+		}
+
+		@Override
+		public void onOrderRejected(int symbol, long orderId) {
+			published.add("rejected:" + orderId);
+		}
+	};
+
+	private static OrderEvent order(long orderId, OrderSide side, long price, long qty) {
+		OrderInfo o = new OrderInfo();
+		o.setUserId(1);
+		o.setOrderId(orderId);
+		o.setSymbol(SYMBOL);
+		o.setSide(side.code);
+		o.setType(OrderType.LIMIT.code);
+		o.setTif(OrderTif.GTC.code);
+		o.setPrice(price);
+		o.setQty(qty);
+		return new OrderEvent(OrderEventType.NEW_ORDER.code, o, 0L);
+	}
+
+	@Test
+	void failedGroupForceNeverReleasesAndStopsShard() throws Exception {
+		FailingAppender appender = new FailingAppender(dir);
+		BufferedMatchEventProcessor pending = new BufferedMatchEventProcessor(recorder, 16);
+		MatchEngine engine = new MatchEngine(pending);
+		engine.addBook(SymbolConstant.ETHUSDT, new MatchProperties.Book());
+		OrderEventHandler handler = new OrderEventHandler(engine, new WalWriter(appender, true), pending);
+
+		// 正常批次：落盘后发布
+		handler.onEvent(order(1, OrderSide.ASK, 105, 5), 0, false);
+		handler.onEvent(order(2, OrderSide.BID, 105, 2), 1, true);
+		assertEquals(2, published.size());
+		published.clear();
+
+		// force 失败的批次：成交已撮合但不发布
+		appender.failSync = true;
+		handler.onEvent(order(3, OrderSide.BID, 105, 2), 2, true);
+		assertTrue(published.isEmpty());
+		assertEquals(2, pending.size());
+
+		// 存储恢复后分片仍停止：不写 WAL、不撮合，失败批次也不随下一批释放
+		appender.failSync = false;
+		int records = appender.records;
+		handler.onEvent(order(4, OrderSide.BID, 105, 1), 3, true);
+		assertTrue(published.isEmpty());
+		assertEquals(2, pending.size());
+		assertEquals(records, appender.records);
+		String depth = engine.depth(SYMBOL);
+		handler.onEvent(order(5, OrderSide.ASK, 104, 1), 4, true);
+		assertEquals(depth, engine.depth(SYMBOL));
+	}
+
+	@Test
+	void failedPerEventForceStopsShard() throws Exception {
+		FailingAppender appender = new FailingAppender(dir);
+		MatchEngine engine = new MatchEngine(recorder);
+		engine.addBook(SymbolConstant.ETHUSDT, new MatchProperties.Book());
+		OrderEventHandler handler = new OrderEventHandler(engine, new WalWriter(appender), null);
+
+		handler.onEvent(order(1, OrderSide.ASK, 105, 5), 0, true);
+		appender.failSync = true;
+		handler.onEvent(order(2, OrderSide.ASK, 106, 5), 1, true);
+		appender.failSync = false;
+		int records = appender.records;
+		handler.onEvent(order(3, OrderSide.BID, 105, 5), 2, true);
+		assertEquals(records, appender.records);
+		assertTrue(published.isEmpty());
+	}
+
+	/**
+	 * force 可按需失败，并统计写入的记录数
+	 */
+	private static final class FailingAppender extends WalAppender {
+
+		private boolean failSync;
+
+		private int records;
+
+		private FailingAppender(Path dir) throws IOException {
+			super(dir, 1 << 20, 64 * 1024);
+		}
+
+		@Override
+		public ByteBuffer beginRecord(byte type, int payloadLen, long wallClockMillis) throws IOException {
+			records++;
+			return super.beginRecord(type, payloadLen, wallClockMillis);
+		}
+
+		@Override
+		public long endRecord(boolean force) throws IOException {
+			if (force && failSync) {
+				throw new IOException("injected force failure");
+			}
+			return super.endRecord(force);
+		}
+
+		@Override
+		public boolean sync() throws IOException {
+			if (failSync) {
+				throw new IOException("injected force failure");
+			}
+			return super.sync();
+		}
+	}
+}
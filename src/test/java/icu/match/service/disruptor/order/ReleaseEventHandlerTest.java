@@ -0,0 +1,105 @@
+package icu.match.service.disruptor.order;
+
+import icu.match.common.OrderEventType;
+import icu.match.core.SlotMatchEventProcessor;
+import icu.match.core.interfaces.MatchEventProcessor;
+import icu.match.core.model.MatchTrade;
+import icu.match.core.model.OrderInfo;
+import icu.match.core.wal.WalAppender;
+import icu.match.core.wal.WalWriter;
+import icu.match.service.match.MatchEngine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class ReleaseEventHandlerTest {
+
+	@TempDir
+	Path dir;
+
+	private final List<Long> published = new ArrayList<>();
+
+	private final MatchEventProcessor recorder = new MatchEventProcessor() {
+		@Override
+		public void onTraded(MatchTrade matchTrade) {
+		}
+
+		@Override
+		public void onFilled(int symbol, long orderId) {
+			published.add(orderId);
+		}
+
+		@Override
+		public void onOrderCancelled(int symbol, long orderId, long qty) {
+		}
+
+		@Override
+		public void onOrderRejected(int symbol, long orderId) {
+		}
+	};
+
+	private static OrderEvent cancel(long orderId) {
+		OrderInfo o = new OrderInfo();
+		o.setSymbol(1001);
+		o.setOrderId(orderId);
+		return new OrderEvent(OrderEventType.CANCEL_ORDER.code, o, 0L);
+	}
+
+	@Test
+	void dropsEventsOnceJournalFailed() throws Exception {
+		WalAppender broken = new WalAppender(dir, 1 << 20, 64 * 1024) {
+			@Override
+			public ByteBuffer beginRecord(byte type, int payloadLen, long wallClockMillis) throws IOException {
+				throw new IOException("injected write failure");
+			}
+		};
+		JournalEventHandler journal = new JournalEventHandler(new WalWriter(broken, true), 16,
+															  new MatchEngine(recorder));
+		SlotMatchEventProcessor outputs = new SlotMatchEventProcessor(recorder, 32, 4);
+		ReleaseEventHandler release = new ReleaseEventHandler(outputs, journal);
+
+		outputs.select(0);
+		outputs.onFilled(1001, 7);
+		journal.onEvent(cancel(7), 0, true);
+		assertTrue(journal.failed());
+		// 不再等待 durable：直接返回，暂存结果丢弃不发布
+		release.onEvent(cancel(7), 0, true);
+		assertTrue(published.isEmpty());
+		assertEquals(0, outputs.slot(0)
+							   .size());
+	}
+
+	@Test
+	void haltReleasesWaitingEvent() throws Exception {
+		JournalEventHandler journal = new JournalEventHandler(
+				new WalWriter(new WalAppender(dir, 1 << 20, 64 * 1024), true), 16, new MatchEngine(recorder));
+		SlotMatchEventProcessor outputs = new SlotMatchEventProcessor(recorder, 32, 4);
+		ReleaseEventHandler release = new ReleaseEventHandler(outputs, journal);
+		outputs.select(3);
+		outputs.onFilled(1001, 9);
+
+		// 日志尚未处理序号 3：发布线程等待，强制停止后返回
+		Thread releaser = new Thread(() -> release.onEvent(cancel(9), 3, true));
+		releaser.start();
+		releaser.join(50);
+		assertTrue(releaser.isAlive());
+		release.halt();
+		releaser.join(5_000);
+		assertFalse(releaser.isAlive());
+		assertTrue(published.isEmpty());
+	}
+}
@@ -0,0 +1,116 @@
+package icu.match.service.match;
+
+import icu.match.common.OrderSide;
+import icu.match.common.OrderTif;
+import icu.match.common.OrderType;
+import icu.match.common.SymbolConstant;
+import icu.match.common.WalFormat;
+import icu.match.config.MatchProperties;
+import icu.match.core.interfaces.MatchEventProcessor;
+import icu.match.core.model.MatchTrade;
+import icu.match.core.wal.TxContext;
+import icu.match.core.wal.WalAppender;
+import icu.match.core.wal.WalWriter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class MatchEngineRecoverTest {
+
+	private static final MatchEventProcessor NOOP = new MatchEventProcessor() {
+		@Override
+		public void onTraded(MatchTrade matchTrade) {
+		}
+
+		@Override
+		public void onFilled(int symbol, long orderId) {
+		}
+
+		@Override
+		public void onOrderCancelled(int symbol, long orderId, long qty) {
+		}
+
+		@Override
+		public void onOrderRejected(int symbol, long orderId) {
+		}
+	};
+
+	@TempDir
+	Path dir;
+
+	/**
+	 * 两个交易对交替写入会互相穿价的订单，回放时每笔都经过扫单与剩余挂单路径
+	 */
+	private void writeCrossing(int txs) throws Exception {
+		Random random = new Random(7);
+		WalWriter writer = new WalWriter(new WalAppender(dir, 256 * 1024, 64 * 1024), true, WalFormat.TX);
+		for (int i = 1; i <= txs; i++) {
+			int symbol = (i & 1) == 0
+						 ? SymbolConstant.BTCUSDT.getSymbolId()
+						 : SymbolConstant.ETHUSDT.getSymbolId();
+			TxContext tx = writer.beginTx();
+			int op = random.nextInt(10);
+			if (op == 0 && i > 20) {
+				writer.logCancel(tx, symbol, i - 2 * (1 + random.nextInt(10)), 0);
+			} else if (op == 1 && i > 20) {
+				writer.logAmend(tx, symbol, i - 2 * (1 + random.nextInt(10)), 1 + random.nextInt(5));
+			} else {
+				byte side = random.nextBoolean()
+							? OrderSide.BID.code
+							: OrderSide.ASK.code;
+				byte type = op == 2
+							? OrderType.MARKET.code
+							: OrderType.LIMIT.code;
+				byte tif = op == 3
+						   ? OrderTif.IOC.code
+						   : OrderTif.GTC.code;
+				// 窗口 100~110，两侧各有少量落冷区的价位
+				long price = 97 + random.nextInt(17);
+				writer.logOrder(tx, i % 50, i, symbol, side, type, tif, price, 1 + random.nextInt(20), i);
+			}
+			writer.commitTx(tx);
+		}
+		writer.sync();
+		writer.close();
+	}
+
+	private MatchEngine recover(int replayThreads) throws Exception {
+		MatchEngine engine = new MatchEngine(NOOP);
+		engine.addBook(SymbolConstant.BTCUSDT, new MatchProperties.Book());
+		engine.addBook(SymbolConstant.ETHUSDT, new MatchProperties.Book());
+		engine.recover(dir, replayThreads);
+		return engine;
+	}
+
+	@Test
+	void parallelReplaySameBooksAsSerial() throws Exception {
+		writeCrossing(40_000);
+		MatchEngine serial = recover(1);
+		for (int round = 0; round < 3; round++) {
+			MatchEngine parallel = recover(4);
+			assertEquals(serial.recoveredLsn(), parallel.recoveredLsn());
+			for (SymbolConstant symbol : SymbolConstant.values()) {
+				int id = symbol.getSymbolId();
+				assertEquals(serial.depth(id), parallel.depth(id), symbol.name());
+				assertEquals(serial.poolStats()
+								   .get(symbol.name())
+								   .getInUse(), parallel.poolStats()
+														.get(symbol.name())
+														.getInUse(), symbol.name());
+			}
+		}
+		assertTrue(serial.poolStats()
+						 .get(SymbolConstant.BTCUSDT.name())
+						 .getInUse() > 0);
+	}
+}
@@ -0,0 +1,66 @@
+package icu.match.service.match;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author 中本君
+ * @date 2026/10/18
+ */
+class ShardLayoutTest {
+
+	@TempDir
+	Path dir;
+
+	private List<String> recorded() throws Exception {
+		return Files.readAllLines(dir.resolve(ShardLayout.FILE));
+	}
+
+	@Test
+	void firstStartRecordsLayout() throws Exception {
+		ShardLayout.verify(dir, Map.of("BTCUSDT", 1, "ETHUSDT", 0));
+		assertEquals(List.of("BTCUSDT=1", "ETHUSDT=0"), recorded().subList(1, 3));
+		// 相同布局再次启动
+		ShardLayout.verify(dir, Map.of("BTCUSDT", 1, "ETHUSDT", 0));
+		assertEquals(3, recorded().size());
+	}
+
+	@Test
+	void movedSymbolRefusesToStart() throws Exception {
+		ShardLayout.verify(dir, Map.of("BTCUSDT", 1, "ETHUSDT", 0));
+		List<String> before = recorded();
+		// count 2 -> 1：BTCUSDT 由 shard-1 挪到 shard-0
+		IllegalStateException ex = assertThrows(IllegalStateException.class,
+												() -> ShardLayout.verify(dir, Map.of("BTCUSDT", 0, "ETHUSDT", 0)));
+		assertTrue(ex.getMessage()
+					 .contains("BTCUSDT shard-1 -> shard-0"), ex.getMessage());
+		assertEquals(before, recorded());
+	}
+
+	@Test
+	void newSymbolAppendedAndRemovedKept() throws Exception {
+		ShardLayout.verify(dir, Map.of("BTCUSDT", 0));
+		// 分片数变化但 BTCUSDT 仍在 shard-0，新增交易对追加
+		ShardLayout.verify(dir, Map.of("BTCUSDT", 0, "ETHUSDT", 2));
+		assertEquals(List.of("BTCUSDT=0", "ETHUSDT=2"), recorded().subList(1, 3));
+		// 交易对暂时下线后仍保留记录，重新上线到别的分片时拒绝
+		ShardLayout.verify(dir, Map.of("BTCUSDT", 0));
+		assertEquals(List.of("BTCUSDT=0", "ETHUSDT=2"), recorded().subList(1, 3));
+		assertThrows(IllegalStateException.class, () -> ShardLayout.verify(dir, Map.of("ETHUSDT", 1)));
+	}
+
+	@Test
+	void corruptLayoutRefusesToStart() throws Exception {
+		Files.writeString(dir.resolve(ShardLayout.FILE), "BTCUSDT=x\n");
+		assertThrows(IllegalStateException.class, () -> ShardLayout.verify(dir, Map.of("BTCUSDT", 0)));
+	}
+}